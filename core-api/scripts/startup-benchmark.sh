@@ -0,0 +1,57 @@
+#!/usr/bin/env bash
+# Mide el tiempo de arranque (hasta que /actuator/health responde UP) y la
+# latencia de la primera petición de negocio para cada modo de ejecución.
+# Requiere la base de datos levantada (just infra) y los artefactos compilados:
+#   jar        ./mvnw package
+#   fast-start ./mvnw -Pfast-start package
+#   native     ./mvnw -Pnative native:compile
+#
+# Uso: scripts/startup-benchmark.sh [jar|fast-start|native ...] (por defecto, todos)
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT=${BENCH_PORT:-18080}
+RUNS=${BENCH_RUNS:-5}
+JAR=target/expiry-tracker-core-0.0.1-SNAPSHOT.jar
+FAST_START_DIR=target/fast-start
+
+command_for() {
+	case "$1" in
+		jar) echo "java -jar $JAR" ;;
+		fast-start) echo "java -XX:SharedArchiveFile=$FAST_START_DIR/application.jsa -Dspring.aot.enabled=true -jar $FAST_START_DIR/$(basename "$JAR")" ;;
+		native) echo "target/expiry-tracker-core" ;;
+		*) echo "Modo desconocido: $1" >&2; exit 1 ;;
+	esac
+}
+
+now_ms() { date +%s%3N; }
+
+measure() {
+	local mode=$1 cmd start ready first pid
+	cmd=$(command_for "$mode")
+	start=$(now_ms)
+	SERVER_PORT=$PORT $cmd >/dev/null 2>&1 &
+	pid=$!
+	until curl -fs "http://localhost:$PORT/actuator/health" >/dev/null 2>&1; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "El proceso ($mode) terminó antes de estar listo" >&2
+			return 1
+		fi
+		sleep 0.05
+	done
+	ready=$(($(now_ms) - start))
+	first=$(curl -fs -o /dev/null -w '%{time_total}' "http://localhost:$PORT/api/v1/products?page=0&size=10")
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+	printf '%-11s %8d ms %10.0f ms\n' "$mode" "$ready" "$(echo "$first * 1000" | bc)"
+}
+
+printf '%-11s %11s %13s\n' "modo" "arranque" "1ª petición"
+for mode in "${@:-jar fast-start native}"; do
+	for mode_item in $mode; do
+		for _ in $(seq "$RUNS"); do
+			measure "$mode_item"
+		done
+	done
+done
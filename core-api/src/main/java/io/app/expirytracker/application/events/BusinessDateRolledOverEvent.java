@@ -0,0 +1,19 @@
+package io.app.expirytracker.application.events;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Aviso de que cambió la fecha de negocio en una zona horaria. Lo publica
+ * {@code BusinessDateService} la primera vez que observa el nuevo día (una
+ * lectura o su comprobación periódica); los oyentes que agrupan datos por
+ * fecha de vencimiento los reordenan en ese momento.
+ * * Afecta a las tiendas cuya zona es {@code zone}
+ * ({@code BusinessDateService#zoneOf}).
+ *
+ * @param zone         Zona horaria que cambió de día.
+ * @param previousDate Fecha de negocio anterior.
+ * @param currentDate  Fecha de negocio vigente.
+ */
+public record BusinessDateRolledOverEvent(ZoneId zone, LocalDate previousDate, LocalDate currentDate) {
+}
@@ -0,0 +1,33 @@
+package io.app.expirytracker.application.events;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Aviso de que uno o más lotes de una tienda cambiaron (alta, edición, stock
+ * o baja). Se publica dentro de la transacción de escritura; los oyentes que
+ * mantienen copias en memoria lo consumen tras el commit.
+ * * Cuando el escritor conoce el EAN lo informa; si solo conoce el ID (ajustes
+ * diferidos, bajas) el oyente resuelve el EAN por su cuenta.
+ *
+ * @param storeId    Tienda de los lotes afectados.
+ * @param ean13s     Códigos de barras afectados.
+ * @param productIds IDs de lotes afectados.
+ */
+public record ProductsChangedEvent(String storeId, Set<String> ean13s, Set<UUID> productIds) {
+
+	public ProductsChangedEvent {
+		Objects.requireNonNull(storeId, "storeId");
+		ean13s = Set.copyOf(ean13s);
+		productIds = Set.copyOf(productIds);
+	}
+
+	public static ProductsChangedEvent ofEans(String storeId, Set<String> ean13s) {
+		return new ProductsChangedEvent(storeId, ean13s, Set.of());
+	}
+
+	public static ProductsChangedEvent ofIds(String storeId, Set<UUID> productIds) {
+		return new ProductsChangedEvent(storeId, Set.of(), productIds);
+	}
+}
@@ -0,0 +1,49 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.Product;
+
+/**
+ * Caso de Uso para ajustes de stock por diferencia (ventas y reposiciones).
+ * A diferencia de {@link UpdateProductUseCase}, no reescribe el producto
+ * completo: aplica el incremento o decremento de forma atómica en la base de
+ * datos, por lo que los escáneres concurrentes no se pisan entre sí.
+ */
+public interface AdjustStockUseCase {
+
+	/**
+	 * Repone stock de un lote ACTIVO.
+	 *
+	 * @param quantity Unidades a sumar (mayor que cero).
+	 * @return El producto con el stock resultante.
+	 */
+	Product increase(UUID id, int quantity);
+
+	/**
+	 * Descuenta stock de un lote ACTIVO (venta).
+	 *
+	 * @param quantity Unidades a restar (mayor que cero).
+	 * @return El producto con el stock resultante.
+	 * @throws IllegalArgumentException si el stock resultante fuera negativo.
+	 */
+	Product decrease(UUID id, int quantity);
+
+	/**
+	 * Encola ajustes para aplicarlos de forma diferida. Los ajustes de un mismo
+	 * lote se acumulan en memoria y se escriben como un único delta neto en el
+	 * siguiente micro-lote, lo que absorbe las ráfagas sobre lotes muy activos.
+	 *
+	 * @throws java.util.concurrent.RejectedExecutionException si la cola está
+	 *                                                         llena; no se
+	 *                                                         encola ninguno.
+	 */
+	void enqueue(List<StockAdjustmentCommand> adjustments);
+
+	/**
+	 * @param delta Positivo para reposición, negativo para venta.
+	 */
+	record StockAdjustmentCommand(UUID productId, int delta) {
+	}
+}
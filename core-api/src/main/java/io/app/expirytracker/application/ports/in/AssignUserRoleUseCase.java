@@ -0,0 +1,16 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.UUID;
+
+import io.app.expirytracker.application.ports.in.CreateUserUseCase.CreateUserCommand;
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.domain.model.User;
+
+public interface AssignUserRoleUseCase {
+
+  // El rol viaja en el token: el usuario lo obtiene en su próximo login
+  User assignRole(UUID userId, Role role);
+
+  // Primer encargado: asegura que el usuario exista (lo crea si falta) y sea MANAGER
+  User ensureManager(CreateUserCommand command);
+}
@@ -0,0 +1,12 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.Set;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.User;
+
+public interface AssignUserStoresUseCase {
+
+  // Reemplaza las tiendas; como el rol, viajan en el token y se aplican en el próximo login
+  User assignStores(UUID userId, Set<String> stores);
+}
@@ -0,0 +1,27 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.time.Instant;
+
+public interface AuthenticateUserUseCase {
+
+  // Credenciales enviadas en el login
+  record LoginCommand(
+      String username,
+      String password) {
+  }
+
+  // Token de acceso (JWT) y su vencimiento
+  record AuthToken(
+      String accessToken,
+      String tokenType,
+      Instant expiresAt) {
+  }
+
+  /**
+   * Valida las credenciales y emite un token de acceso.
+   *
+   * @throws SecurityException si el usuario no existe o la contraseña no
+   *                           coincide (sin distinguir cuál de los dos).
+   */
+  AuthToken login(LoginCommand command);
+}
@@ -1,5 +1,6 @@
 package io.app.expirytracker.application.ports.in;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,6 +22,23 @@ public interface FindProductUseCase {
 	 */
 	Optional<Product> findById(UUID id);
 
+	/**
+	 * Busca varios productos ACTIVOS por su ID en una sola consulta.
+	 *
+	 * @param ids Identificadores solicitados (los repetidos se ignoran).
+	 * @return Los productos encontrados en el orden de la petición; los IDs que
+	 *         no existen o no están ACTIVOS se omiten.
+	 */
+	List<Product> findAllById(List<UUID> ids);
+
+	/**
+	 * Busca los lotes ACTIVOS de un código de barras (lectura de escáner).
+	 *
+	 * @param ean13 Código de barras EAN-13.
+	 * @return Los lotes en orden FEFO: el primero es el que debe salir antes.
+	 */
+	List<Product> findByEan13(String ean13);
+
 	/**
 	 * Recupera todos los productos del inventario de forma paginada.
 	 *
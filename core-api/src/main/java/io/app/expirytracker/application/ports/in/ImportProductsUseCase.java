@@ -0,0 +1,26 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.List;
+
+import io.app.expirytracker.application.ports.in.CreateProductUseCase.CreateProductCommand;
+
+/**
+ * Caso de Uso para la carga masiva de lotes (cargas iniciales y migraciones).
+ * Los registros que ya existen (mismo EAN-13 y lote) se omiten, por lo que la
+ * importación puede reintentarse sin generar duplicados.
+ */
+public interface ImportProductsUseCase {
+
+	/**
+	 * Valida e importa un conjunto de productos en una única operación.
+	 *
+	 * @param commands Datos de los lotes a importar.
+	 * @return Resumen con los registros recibidos, insertados y omitidos.
+	 * @throws IllegalArgumentException si algún registro no supera las
+	 *                                  validaciones del dominio.
+	 */
+	ImportResult importAll(List<CreateProductCommand> commands);
+
+	record ImportResult(int received, int imported, int skipped) {
+	}
+}
@@ -0,0 +1,31 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caso de Uso de recomendación de picking FEFO (First-Expired-First-Out):
+ * responde en el mostrador "de qué lotes de este EAN saco las unidades".
+ * Solo recomienda; el descuento de stock sigue siendo {@link AdjustStockUseCase}.
+ */
+public interface PickStockUseCase {
+
+	/**
+	 * Reparte la cantidad pedida entre los lotes ACTIVOS, vigentes y con stock
+	 * del EAN, empezando por el que vence antes.
+	 *
+	 * @param ean13    Código de barras del producto.
+	 * @param quantity Unidades a retirar (mayor que cero).
+	 * @return El plan de picking; si el stock no alcanza, {@code shortfall}
+	 *         indica las unidades que faltan.
+	 * @throws IllegalArgumentException si la cantidad no es positiva.
+	 */
+	PickPlan plan(String ean13, int quantity);
+
+	record PickLine(UUID productId, String batchNumber, LocalDate expiryDate, int quantity) {
+	}
+
+	record PickPlan(String ean13, int requested, int allocated, int shortfall, List<PickLine> lines) {
+	}
+}
@@ -0,0 +1,35 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+
+/**
+ * Caso de Uso de consulta del historial de cambios de lotes.
+ */
+public interface ProductHistoryUseCase {
+
+	/**
+	 * @return Los estados anteriores del lote, del más reciente al más antiguo.
+	 */
+	List<ProductHistoryEntry> lotHistory(UUID productId);
+
+	/**
+	 * Cambios de todos los lotes en una ventana de tiempo, paginados por cursor
+	 * en orden {@code (changedAt, id)}.
+	 *
+	 * @param from           Inicio de la ventana (incluido).
+	 * @param to             Fin de la ventana (excluido).
+	 * @param afterChangedAt {@code changedAt} de la última entrada recibida
+	 *                       (null para empezar).
+	 * @param afterId        ID de la última entrada recibida (null para
+	 *                       empezar).
+	 * @param limit          Máximo de entradas a devolver.
+	 * @throws IllegalArgumentException si la ventana, el cursor o el límite no
+	 *                                  son válidos.
+	 */
+	List<ProductHistoryEntry> changes(LocalDateTime from, LocalDateTime to, LocalDateTime afterChangedAt,
+			Long afterId, int limit);
+}
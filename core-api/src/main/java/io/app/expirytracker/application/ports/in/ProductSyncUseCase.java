@@ -0,0 +1,33 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.List;
+
+import io.app.expirytracker.domain.model.ProductChange;
+
+/**
+ * Caso de Uso de sincronización incremental de clientes sin conexión (PWA):
+ * el cliente guarda el token de la última página y pide solo lo cambiado
+ * desde entonces.
+ */
+public interface ProductSyncUseCase {
+
+	/**
+	 * Cambios de lotes de la tienda posteriores al token, del más antiguo al más
+	 * reciente.
+	 *
+	 * @param syncToken Token devuelto por la página anterior (null o vacío para
+	 *                  empezar desde el principio).
+	 * @param limit     Máximo de cambios a devolver.
+	 * @throws IllegalArgumentException si el token o el límite no son válidos.
+	 */
+	ChangeFeedPage changesSince(String syncToken, int limit);
+
+	/**
+	 * @param nextToken Token para la siguiente petición; si no hubo cambios es el
+	 *                  mismo que se recibió.
+	 * @param hasMore   Si quedan cambios: el cliente debe pedir de nuevo antes de
+	 *                  dar la sincronización por terminada.
+	 */
+	record ChangeFeedPage(List<ProductChange> changes, String nextToken, boolean hasMore) {
+	}
+}
@@ -0,0 +1,35 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.util.List;
+import java.util.Set;
+
+import io.app.expirytracker.domain.model.Product;
+
+/**
+ * Caso de Uso de consulta entre tiendas: "¿dónde más está este lote?".
+ * Es la única lectura que cruza tiendas; el resto de casos de uso actúa sobre
+ * la tienda de la petición.
+ */
+public interface StoreAvailabilityUseCase {
+
+	/**
+	 * Consulta en paralelo cada tienda conocida a la que tiene acceso quien
+	 * pregunta y reúne sus lotes ACTIVOS del EAN (y del lote, si se indica).
+	 *
+	 * @param ean13         Código de barras del producto.
+	 * @param batchNumber   Lote concreto, o null para todos los del EAN.
+	 * @param allowedStores Tiendas que puede consultar quien pregunta; las demás
+	 *                      no se consultan ni aparecen en el resultado.
+	 * @return Las tiendas con stock y las que no respondieron a tiempo; un
+	 *         resultado parcial es preferible a que una tienda lenta retrase
+	 *         la respuesta.
+	 */
+	StoreAvailability whereStocked(String ean13, String batchNumber, Set<String> allowedStores);
+
+	record StoreLots(String storeId, int quantity, List<Product> lots) {
+	}
+
+	record StoreAvailability(String ean13, String batchNumber, List<StoreLots> stores,
+			List<String> unavailableStores) {
+	}
+}
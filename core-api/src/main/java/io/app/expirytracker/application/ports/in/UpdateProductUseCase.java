@@ -10,6 +10,10 @@ public interface UpdateProductUseCase {
 	/**
 	 * Actualiza los datos descriptivos de un producto existente.
 	 * No permite cambiar el ID ni el Estado.
+	 *
+	 * @throws java.util.ConcurrentModificationException si la versión esperada
+	 *                                                   no coincide o los
+	 *                                                   reintentos se agotan.
 	 */
 	Product update(UUID id, UpdateProductCommand command);
 
@@ -19,6 +23,9 @@ public interface UpdateProductUseCase {
 			String batchNumber,
 			LocalDate expiryDate,
 			Integer quantity,
-			String category) {
+			String category,
+			// Versión que el cliente leyó (If-Match). Si es null, se aplica sobre la
+			// versión vigente reintentando ante escrituras concurrentes.
+			Long expectedVersion) {
 	}
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package io.app.expirytracker.application.ports.in;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import io.app.expirytracker.domain.model.Product;
+
+/**
+ * Caso de Uso de alta o actualización idempotente por clave de negocio
+ * (EAN-13 + Lote).
+ * Permite a los sistemas externos (POS, sincronizaciones) enviar el estado de
+ * un lote sin consultar antes si existe: la operación es atómica en la base de
+ * datos y no hay ventana de carrera entre réplicas.
+ */
+public interface UpsertProductUseCase {
+
+	/**
+	 * Crea el lote si no existe o actualiza sus datos descriptivos si existe.
+	 *
+	 * @throws IllegalArgumentException si el lote existe pero no está ACTIVO.
+	 */
+	Product upsert(UpsertProductCommand command);
+
+	/**
+	 * Aplica un conjunto de altas/actualizaciones en un único lote JDBC.
+	 * Los lotes existentes que no están ACTIVOS se ignoran (no se reactivan).
+	 *
+	 * @return Resumen con los registros recibidos, aplicados e ignorados.
+	 */
+	UpsertResult upsertAll(List<UpsertProductCommand> commands);
+
+	record UpsertProductCommand(
+			String ean13,
+			String name,
+			String batchNumber,
+			LocalDate expiryDate,
+			Integer quantity,
+			String category) {
+	}
+
+	record UpsertResult(int received, int applied, int ignored) {
+	}
+}
@@ -0,0 +1,18 @@
+package io.app.expirytracker.application.ports.out;
+
+/**
+ * Puerto de salida para el hash de contraseñas.
+ * El dominio solo almacena el hash; el algoritmo y su coste son un detalle de
+ * infraestructura.
+ */
+public interface PasswordHasherPort {
+
+  // "Necesito el hash de esta contraseña para guardarlo"
+  String hash(String rawPassword);
+
+  // "Necesito saber si la contraseña corresponde al hash guardado (login)"
+  boolean matches(String rawPassword, String hashedPassword);
+
+  // "Necesito saber si el hash se generó con un coste menor al actual (rehash)"
+  boolean needsRehash(String hashedPassword);
+}
@@ -0,0 +1,21 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.util.List;
+
+import io.app.expirytracker.domain.model.Product;
+
+/**
+ * Puerto de Salida para cargas masivas de productos.
+ * Cada adaptador decide la técnica de escritura (JPA por lotes, COPY de
+ * PostgreSQL, etc.), pero todos deben respetar la unicidad EAN-13 + Lote.
+ */
+public interface ProductBulkImportPort {
+
+  /**
+   * Inserta los productos recibidos omitiendo los que ya existen.
+   *
+   * @param products Productos ya validados por el dominio.
+   * @return El número de productos efectivamente insertados.
+   */
+  int importAll(List<Product> products);
+}
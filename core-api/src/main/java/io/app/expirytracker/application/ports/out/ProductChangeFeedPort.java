@@ -0,0 +1,29 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.ProductChange;
+
+/**
+ * Puerto de Salida del feed de cambios de lotes, leído por orden de
+ * confirmación en la base de datos.
+ */
+public interface ProductChangeFeedPort {
+
+  /**
+   * Lotes (también los archivados) cambiados después de la posición
+   * {@code (afterSequence, afterId)}, en orden {@code (sequence, productId)}.
+   * Solo devuelve posiciones que ya no pueden recibir filas nuevas por
+   * delante: ninguna transacción en curso confirmará después una posición
+   * menor.
+   */
+  List<PositionedChange> findChangesAfter(long afterSequence, UUID afterId, int limit);
+
+  /**
+   * @param sequence Posición de confirmación del cambio; varios lotes escritos
+   *                 en la misma transacción la comparten.
+   */
+  record PositionedChange(ProductChange change, long sequence) {
+  }
+}
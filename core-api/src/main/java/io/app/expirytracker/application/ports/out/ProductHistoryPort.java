@@ -0,0 +1,51 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductChangeType;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+
+/**
+ * Puerto de Salida del historial de cambios de lotes (solo inserción).
+ * Las escrituras deben ejecutarse en la transacción de la modificación que
+ * registran: si esta se revierte, la entrada también.
+ */
+public interface ProductHistoryPort {
+
+  /**
+   * Registra estados ya leídos por el llamador, en un único lote.
+   */
+  void record(List<Product> previousStates, ProductChangeType changeType);
+
+  /**
+   * Copia el estado actual de los lotes indicados antes de modificarlos, sin
+   * traerlos a la aplicación.
+   */
+  void recordCurrentState(Collection<UUID> productIds, ProductChangeType changeType);
+
+  /**
+   * Como {@link #recordCurrentState}, localizando los lotes ACTIVOS por su
+   * clave de negocio (EAN-13 + Lote). Los pares inexistentes se ignoran.
+   */
+  void recordCurrentStateByKeys(Collection<Product> products, ProductChangeType changeType);
+
+  /**
+   * @return Las entradas del lote, de la más reciente a la más antigua.
+   */
+  List<ProductHistoryEntry> findByProductId(UUID productId, int limit);
+
+  /**
+   * Cambios de todos los lotes en {@code [from, to)}, en orden
+   * {@code (changedAt, id)}.
+   *
+   * @param afterChangedAt Cursor: solo entradas posteriores a
+   *                       {@code (afterChangedAt, afterId)} ({@code from} y 0
+   *                       para empezar).
+   */
+  List<ProductHistoryEntry> findChanges(LocalDateTime from, LocalDateTime to, LocalDateTime afterChangedAt,
+      long afterId, int limit);
+}
@@ -1,6 +1,10 @@
 package io.app.expirytracker.application.ports.out;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import io.app.expirytracker.domain.model.PaginatedResult;
@@ -18,15 +22,69 @@ public interface ProductRepositoryPort {
   // Guardar (Crear o Actualizar)
   Product save(Product product);
 
+  /**
+   * Actualiza un producto ACTIVO solo si su versión en la base de datos
+   * coincide con {@code product.version()} (concurrencia optimista).
+   *
+   * @return El producto actualizado con su nueva versión, o vacío si otro
+   *         proceso lo modificó antes o ya no está ACTIVO.
+   */
+  Optional<Product> update(Product product);
+
   // Buscar por ID (Técnico)
   Optional<Product> findById(UUID id);
 
-  // Buscar por Código de Barras
-  Optional<Product> findByEan13(String ean13);
+  /**
+   * Recupera en una sola consulta los productos ACTIVOS cuyos IDs se indican.
+   * Los IDs inexistentes o no ACTIVOS se omiten.
+   *
+   * @return Los productos encontrados, sin orden garantizado.
+   */
+  List<Product> findAllById(Collection<UUID> ids);
+
+  /**
+   * Recupera los lotes ACTIVOS de un código de barras en orden FEFO (primero
+   * el que vence antes; a igual fecha, por número de lote).
+   */
+  List<Product> findByEan13(String ean13);
 
   // Sirve para validar duplicidad de productos
   boolean existsByEan13AndBatchNumber(String ean13, String batchNumber);
 
+  /**
+   * Inserta el producto o, si ya existe su par EAN-13 + Lote, actualiza sus
+   * datos descriptivos en una única sentencia atómica. Un lote existente que no
+   * está ACTIVO no se modifica.
+   *
+   * @return El producto resultante, o vacío si el lote existente no está
+   *         ACTIVO.
+   */
+  Optional<Product> upsert(Product product);
+
+  /**
+   * Versión por lotes de {@link #upsert(Product)}.
+   *
+   * @return El número de productos insertados o actualizados.
+   */
+  int upsertAll(List<Product> products);
+
+  /**
+   * Suma un delta al stock de un producto ACTIVO en una única sentencia,
+   * solo si el resultado no es negativo.
+   *
+   * @return El producto con el stock resultante, o vacío si no existe, no está
+   *         ACTIVO o el stock quedaría negativo.
+   */
+  Optional<Product> adjustQuantity(UUID id, int delta);
+
+  /**
+   * Versión por lotes de {@link #adjustQuantity(UUID, int)}.
+   *
+   * @param deltas Delta neto por ID de producto.
+   * @return Los IDs cuyo ajuste no se aplicó.
+   */
+  Set<UUID> adjustQuantities(Map<UUID, Integer> deltas);
+
   /**
    * Verifica si un producto existe en el sistema por su identificador único.
    * Fundamental para validaciones previas a la eliminación o actualización.
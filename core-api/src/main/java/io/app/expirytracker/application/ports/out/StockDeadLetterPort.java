@@ -0,0 +1,15 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.util.List;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+
+/**
+ * Puerto de Salida de los ajustes de stock diferidos que se apartan tras
+ * agotar los reintentos. Debe ejecutarse en la transacción que marca sus
+ * secuencias como aplicadas.
+ */
+public interface StockDeadLetterPort {
+
+  void save(String storeId, List<StockAdjustmentCommand> adjustments, String reason);
+}
@@ -0,0 +1,51 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+
+/**
+ * Puerto de Salida del registro local de ajustes de stock diferidos.
+ * Cada ajuste aceptado se registra con su secuencia antes de confirmarse al
+ * cliente; tras una caída, los posteriores a la marca de su tienda se vuelven
+ * a encolar. Cada tienda tiene su propia marca porque se aplica en su propia
+ * transacción: el fallo de una no retiene lo ya aplicado de las demás.
+ */
+public interface StockJournalPort {
+
+  /**
+   * Registra ajustes de una tienda con secuencias consecutivas desde
+   * {@code firstSequence}.
+   */
+  void append(long firstSequence, String storeId, List<StockAdjustmentCommand> adjustments);
+
+  /**
+   * Se llama una vez, al arrancar y antes del primer {@link #append}.
+   */
+  Recovery recover();
+
+  /**
+   * Marca como aplicadas las secuencias de la tienda hasta {@code sequence}.
+   * Debe ejecutarse en la transacción que las aplica.
+   */
+  void markApplied(String storeId, long sequence);
+
+  /**
+   * Libera el espacio de los ajustes hasta {@code sequence}, ya aplicados en
+   * todas las tiendas, tras el commit.
+   */
+  void discardThrough(long sequence);
+
+  /**
+   * @param lastSequence Última secuencia usada, registrada o marcada (0 si
+   *                     ninguna): las nuevas deben seguirla.
+   * @param pending      Ajustes registrados y no aplicados en su tienda, por
+   *                     secuencia.
+   */
+  record Recovery(long lastSequence, List<JournaledAdjustment> pending) {
+  }
+
+  record JournaledAdjustment(long sequence, String storeId, UUID productId, int delta) {
+  }
+}
@@ -0,0 +1,17 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.util.List;
+
+/**
+ * Puerto de Salida con las tiendas (tenants) conocidas, para las consultas
+ * que recorren todas y para reconocer un identificador recibido del cliente.
+ */
+public interface StoreDirectoryPort {
+
+  List<String> findStoreIds();
+
+  boolean exists(String storeId);
+
+  // Descarta lo recordado: la próxima consulta relee las tiendas (p. ej. tras asignar una)
+  void invalidate();
+}
@@ -0,0 +1,19 @@
+package io.app.expirytracker.application.ports.out;
+
+import java.time.Instant;
+
+import io.app.expirytracker.domain.model.User;
+
+/**
+ * Puerto de salida para emitir tokens de acceso.
+ * La validación en cada petición la hace la infraestructura web, sin pasar
+ * por la aplicación ni por la base de datos.
+ */
+public interface TokenIssuerPort {
+
+  record IssuedToken(String value, Instant expiresAt) {
+  }
+
+  // "Necesito un token firmado que identifique a este usuario"
+  IssuedToken issue(User user);
+}
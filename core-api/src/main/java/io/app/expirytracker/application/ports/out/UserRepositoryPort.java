@@ -1,8 +1,10 @@
 package io.app.expirytracker.application.ports.out;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
+import io.app.expirytracker.domain.model.Role;
 import io.app.expirytracker.domain.model.User;
 
 /**
@@ -23,4 +25,10 @@ public interface UserRepositoryPort {
 
   // "Necesito saber si un email ya está registrado"
   boolean existsByEmail(String email);
+
+  // "Necesito cambiar el rol de un usuario existente (vacío si no existe)"
+  Optional<User> updateRole(UUID id, Role role);
+
+  // "Necesito reemplazar las tiendas de un usuario existente (vacío si no existe)"
+  Optional<User> updateStores(UUID id, Set<String> stores);
 }
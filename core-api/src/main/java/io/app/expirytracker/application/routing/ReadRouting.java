@@ -0,0 +1,53 @@
+package io.app.expirytracker.application.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca las lecturas del hilo actual que deben ir al primario aunque corran
+ * en una transacción de solo lectura.
+ * * Con réplicas activas, {@code ReplicaRoutingDataSource} la consulta al
+ * obtener la conexión física, que es en la primera sentencia de la
+ * transacción: debe fijarse antes de ella. Sin réplicas no tiene efecto.
+ * * Es una decisión del hilo que pide la lectura: quien resuelve lecturas de
+ * otros hilos (el agrupador de búsquedas por ID) debe capturarla por petición
+ * y reaplicarla con {@link #callOnPrimary}.
+ */
+public final class ReadRouting {
+
+	private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+	private ReadRouting() {
+	}
+
+	public static boolean primaryRequired() {
+		return PRIMARY.get() != null;
+	}
+
+	/**
+	 * Fija la marca hasta {@link #clear()} (p. ej. durante una petición). Para
+	 * ámbitos acotados usar {@link #callOnPrimary}.
+	 */
+	public static void requirePrimary() {
+		PRIMARY.set(Boolean.TRUE);
+	}
+
+	public static void clear() {
+		PRIMARY.remove();
+	}
+
+	/**
+	 * Ejecuta la tarea leyendo del primario y restaura la marca anterior al
+	 * terminar.
+	 */
+	public static <T> T callOnPrimary(Supplier<T> task) {
+		if (primaryRequired()) {
+			return task.get();
+		}
+		PRIMARY.set(Boolean.TRUE);
+		try {
+			return task.get();
+		} finally {
+			PRIMARY.remove();
+		}
+	}
+}
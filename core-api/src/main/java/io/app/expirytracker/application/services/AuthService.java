@@ -0,0 +1,50 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.AuthenticateUserUseCase;
+import io.app.expirytracker.application.ports.out.PasswordHasherPort;
+import io.app.expirytracker.application.ports.out.TokenIssuerPort;
+import io.app.expirytracker.application.ports.out.TokenIssuerPort.IssuedToken;
+import io.app.expirytracker.application.ports.out.UserRepositoryPort;
+import io.app.expirytracker.domain.model.User;
+
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+/**
+ * Login: la única operación que consulta la base de datos y verifica la
+ * contraseña. Las peticiones posteriores se autentican solo con el token.
+ */
+@Service
+public class AuthService implements AuthenticateUserUseCase {
+
+	private static final String INVALID_CREDENTIALS = "Usuario o contraseña incorrectos";
+
+	private final UserRepositoryPort userRepository;
+	private final PasswordHasherPort passwordHasher;
+	private final TokenIssuerPort tokenIssuer;
+	// Hash de referencia para que un usuario inexistente cueste lo mismo que una
+	// contraseña incorrecta (evita enumerar usuarios por tiempo de respuesta).
+	private final String dummyHash;
+
+	public AuthService(UserRepositoryPort userRepository, PasswordHasherPort passwordHasher,
+			TokenIssuerPort tokenIssuer) {
+		this.userRepository = userRepository;
+		this.passwordHasher = passwordHasher;
+		this.tokenIssuer = tokenIssuer;
+		this.dummyHash = passwordHasher.hash(UUID.randomUUID().toString());
+	}
+
+	@Override
+	public AuthToken login(LoginCommand command) {
+		Optional<User> user = userRepository.findByUsername(command.username());
+		String hash = user.map(User::password).orElse(dummyHash);
+
+		if (!passwordHasher.matches(command.password(), hash) || user.isEmpty()) {
+			throw new SecurityException(INVALID_CREDENTIALS);
+		}
+
+		IssuedToken token = tokenIssuer.issue(user.get());
+		return new AuthToken(token.value(), "Bearer", token.expiresAt());
+	}
+}
@@ -0,0 +1,141 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.events.BusinessDateRolledOverEvent;
+import io.app.expirytracker.application.tenancy.StoreContext;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fecha de negocio ("hoy") de cada tienda, según su zona horaria.
+ * * Toda la lógica de vencimiento toma la fecha de aquí en lugar de llamar a
+ * {@code LocalDate.now()}, una vez por operación: todas las comparaciones de
+ * una petición usan el mismo día aunque cruce la medianoche, y el día de una
+ * tienda no depende de la zona del servidor.
+ * * El día vigente de cada zona se guarda junto con el instante de la próxima
+ * medianoche; mientras no se alcance, leerlo es una consulta al mapa y una
+ * comparación con el reloj. Al alcanzarla se recalcula una sola vez y se
+ * publica {@link BusinessDateRolledOverEvent}. La comprobación periódica
+ * adelanta ese aviso para que no espere a la primera petición del día.
+ */
+@Component
+public class BusinessDateService {
+
+	private record Day(long epochDay, long nextRolloverMillis) {
+	}
+
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+	private final ZoneId defaultZone;
+	private final Map<String, ZoneId> storeZones;
+	private final Map<ZoneId, Day> days = new ConcurrentHashMap<>();
+
+	/**
+	 * @param clock       Reloj de la aplicación ({@code ClockConfig}).
+	 * @param defaultZone Zona de las tiendas sin zona propia; vacía = la del
+	 *                    sistema.
+	 * @param storeZones  Pares {@code tienda=Zona/Id}.
+	 * @throws IllegalArgumentException si una zona o un par no es válido.
+	 */
+	public BusinessDateService(
+			ApplicationEventPublisher eventPublisher,
+			Clock clock,
+			@Value("${expiry-tracker.business-date.zone:}") String defaultZone,
+			@Value("${expiry-tracker.business-date.store-zones:}") List<String> storeZones) {
+		this.eventPublisher = eventPublisher;
+		this.clock = clock;
+		this.defaultZone = defaultZone == null || defaultZone.isBlank() ? ZoneId.systemDefault()
+				: parseZone(defaultZone.trim());
+		Map<String, ZoneId> zones = new HashMap<>();
+		for (String entry : storeZones) {
+			if (entry.isBlank()) {
+				continue;
+			}
+			int separator = entry.indexOf('=');
+			if (separator < 0) {
+				throw new IllegalArgumentException(
+						"Cada zona de tienda debe tener la forma tienda=Zona/Id: '" + entry.trim() + "'");
+			}
+			zones.put(StoreContext.requireValid(entry.substring(0, separator).trim()),
+					parseZone(entry.substring(separator + 1).trim()));
+		}
+		this.storeZones = Map.copyOf(zones);
+	}
+
+	/**
+	 * @return La fecha de negocio de la tienda de {@link StoreContext}.
+	 */
+	public LocalDate today() {
+		return today(StoreContext.current());
+	}
+
+	public LocalDate today(String storeId) {
+		return LocalDate.ofEpochDay(day(zoneOf(storeId)).epochDay());
+	}
+
+	/**
+	 * Reloj en la zona de la tienda, para quien necesita instantes además de la
+	 * fecha (p. ej. {@code ExpiryClassifier}).
+	 */
+	public Clock clock(String storeId) {
+		return clock.withZone(zoneOf(storeId));
+	}
+
+	public ZoneId zoneOf(String storeId) {
+		return storeZones.getOrDefault(storeId, defaultZone);
+	}
+
+	@Scheduled(fixedDelayString = "${expiry-tracker.business-date.rollover-check-interval:PT30S}")
+	public void checkRollover() {
+		day(defaultZone);
+		storeZones.values().stream().distinct().forEach(this::day);
+	}
+
+	private Day day(ZoneId zone) {
+		Day current = days.get(zone);
+		if (current != null && clock.millis() < current.nextRolloverMillis()) {
+			return current;
+		}
+		return rollOver(zone);
+	}
+
+	// Una vez por zona y día: se serializa para que el aviso salga una sola vez
+	private synchronized Day rollOver(ZoneId zone) {
+		long now = clock.millis();
+		Day current = days.get(zone);
+		if (current != null && now < current.nextRolloverMillis()) {
+			return current;
+		}
+		LocalDate today = LocalDate.ofInstant(Instant.ofEpochMilli(now), zone);
+		Day fresh = new Day(today.toEpochDay(), today.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+		if (current != null && fresh.epochDay() < current.epochDay()) {
+			// Un reloj que retrocede no deshace el día ya anunciado a los oyentes
+			return current;
+		}
+		days.put(zone, fresh);
+		if (current != null && fresh.epochDay() > current.epochDay()) {
+			eventPublisher.publishEvent(new BusinessDateRolledOverEvent(zone,
+					LocalDate.ofEpochDay(current.epochDay()), today));
+		}
+		return fresh;
+	}
+
+	private static ZoneId parseZone(String zone) {
+		try {
+			return ZoneId.of(zone);
+		} catch (DateTimeException e) {
+			throw new IllegalArgumentException("Zona horaria no válida: '" + zone + "'", e);
+		}
+	}
+}
@@ -0,0 +1,180 @@
+package io.app.expirytracker.application.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import io.app.expirytracker.application.events.BusinessDateRolledOverEvent;
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Índice en memoria de los lotes ACTIVOS y no vencidos de cada EAN y tienda,
+ * en orden FEFO.
+ * * Cada entrada es una lista inmutable ya ordenada por la consulta
+ * {@link ProductRepositoryPort#findByEan13}: las lecturas la recorren sin
+ * bloqueo ni copia, y una escritura la sustituye entera. Los lotes vencidos
+ * a la fecha de negocio de la tienda ({@link BusinessDateService}) se omiten
+ * al cargar y, al cambiar el día ({@link BusinessDateRolledOverEvent}), se
+ * quitan de las entradas de las tiendas de esa zona sin releerlas. Se carga bajo demanda
+ * y se invalida tras el commit de cualquier escritura que afecte al EAN
+ * ({@link ProductsChangedEvent}).
+ * * La lectura de la base de datos ocurre fuera de la caché, sin retener el
+ * bloqueo de la clave: solo la publicación del resultado se serializa con las
+ * invalidaciones. Cada invalidación avanza la generación de la franja de la
+ * clave y la carga publica solo si no cambió mientras leía; si cambió, devuelve
+ * lo leído a quien la pidió pero no lo guarda, así que nunca queda en la caché
+ * una copia anterior a un commit.
+ * * Los eventos solo llegan a la instancia que hizo la escritura: el resto sirve
+ * su copia hasta que vence ({@code expire-after-write}, por defecto 5 s), que es
+ * el retraso máximo entre instancias y la red de seguridad para cambios hechos
+ * fuera de la aplicación.
+ * * Las cargas leen del primario (transacción de lectura-escritura): una
+ * réplica retrasada podría devolver el estado anterior al commit que acaba de
+ * invalidar la entrada, y la copia viviría hasta la siguiente escritura.
+ */
+@Component
+public class FefoLotIndex {
+
+	private record StoreEan(String storeId, String ean13) {
+	}
+
+	private final ProductRepositoryPort productRepository;
+	private final TransactionOperations primaryReads;
+	private final BusinessDateService businessDate;
+	private static final int GENERATION_STRIPES = 1024;
+
+	private final Cache<StoreEan, List<Product>> lotsByEan;
+	// Resuelve el EAN de los eventos que solo traen IDs (ajustes diferidos, bajas)
+	private final Map<UUID, StoreEan> eanById = new ConcurrentHashMap<>();
+	// Generación por franja de claves: la avanza cada invalidación por EAN
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+	// Cuenta los eventos por ID; una carga que se solapa con uno no se publica
+	private final AtomicLong idEvents = new AtomicLong();
+
+	public FefoLotIndex(
+			ProductRepositoryPort productRepository,
+			TransactionOperations primaryReads,
+			BusinessDateService businessDate,
+			@Value("${expiry-tracker.products.picking.max-eans:50000}") long maxEans,
+			@Value("${expiry-tracker.products.picking.expire-after-write:PT5S}") Duration expireAfterWrite) {
+		this.productRepository = productRepository;
+		this.primaryReads = primaryReads;
+		this.businessDate = businessDate;
+		this.lotsByEan = Caffeine.newBuilder()
+				.maximumSize(maxEans)
+				.expireAfterWrite(expireAfterWrite)
+				.executor(Runnable::run)
+				.<StoreEan, List<Product>>removalListener((key, lots, cause) -> forget(key, lots, cause))
+				.build();
+	}
+
+	/**
+	 * @return Los lotes ACTIVOS y no vencidos del EAN en la tienda, en orden
+	 *         FEFO (lista inmutable).
+	 */
+	public List<Product> lots(String storeId, String ean13) {
+		var key = new StoreEan(storeId, ean13);
+		List<Product> cached = lotsByEan.getIfPresent(key);
+		return cached != null ? cached : load(key);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductsChanged(ProductsChangedEvent event) {
+		event.ean13s().forEach(ean13 -> {
+			var key = new StoreEan(event.storeId(), ean13);
+			generations.incrementAndGet(stripe(key));
+			lotsByEan.invalidate(key);
+		});
+		if (event.productIds().isEmpty()) {
+			return;
+		}
+		idEvents.incrementAndGet();
+		event.productIds().stream()
+				.map(eanById::get)
+				.filter(Objects::nonNull)
+				.distinct()
+				.forEach(lotsByEan::invalidate);
+	}
+
+	/**
+	 * Los lotes vencidos encabezan cada lista (orden FEFO): se recorta ese
+	 * prefijo en las entradas de la zona. La sustitución es atómica respecto de
+	 * cargas e invalidaciones de la misma clave.
+	 */
+	@EventListener
+	public void onBusinessDateRolledOver(BusinessDateRolledOverEvent event) {
+		lotsByEan.asMap().keySet().stream()
+				.filter(key -> businessDate.zoneOf(key.storeId()).equals(event.zone()))
+				.toList()
+				.forEach(key -> lotsByEan.asMap().computeIfPresent(key,
+						(k, lots) -> withoutExpired(k, lots, event.currentDate())));
+	}
+
+	/**
+	 * Lee fuera de la caché y publica bajo el bloqueo de la clave solo si nadie
+	 * la invalidó mientras tanto.
+	 * * Un evento por ID solo invalida los EANs que ya conoce, y los IDs de esta
+	 * carga se registran al publicar: un evento que llegó durante la lectura no
+	 * la habría encontrado. Por eso el contador de eventos por ID se compara
+	 * también al publicar y, si cambió, la carga no se guarda (sin reintentar:
+	 * la siguiente lectura volverá a cargar).
+	 */
+	private List<Product> load(StoreEan key) {
+		long generation = generations.get(stripe(key));
+		long seen = idEvents.get();
+		List<Product> lots = withoutExpired(key,
+				StoreContext.callAs(key.storeId(), () -> primaryReads.execute(
+						status -> List.copyOf(productRepository.findByEan13(key.ean13())))),
+				businessDate.today(key.storeId()));
+
+		List<Product> published = lotsByEan.asMap().compute(key, (k, current) -> {
+			if (current != null) {
+				return current;
+			}
+			if (generations.get(stripe(k)) != generation || idEvents.get() != seen) {
+				return null;
+			}
+			lots.forEach(lot -> eanById.put(lot.id(), k));
+			return lots;
+		});
+		return published != null ? published : lots;
+	}
+
+	private static int stripe(StoreEan key) {
+		return key.hashCode() & (GENERATION_STRIPES - 1);
+	}
+
+	private List<Product> withoutExpired(StoreEan key, List<Product> lots, LocalDate today) {
+		int firstValid = 0;
+		while (firstValid < lots.size() && lots.get(firstValid).isExpired(today)) {
+			eanById.remove(lots.get(firstValid).id(), key);
+			firstValid++;
+		}
+		return firstValid == 0 ? lots : List.copyOf(lots.subList(firstValid, lots.size()));
+	}
+
+	private void forget(StoreEan key, List<Product> lots, RemovalCause cause) {
+		// Al sustituir una entrada los IDs siguen vigentes; se conservan
+		if (lots != null && cause != RemovalCause.REPLACED) {
+			lots.forEach(lot -> eanById.remove(lot.id(), key));
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.PickStockUseCase;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Recomendación de picking FEFO servida desde {@link FefoLotIndex}: en el
+ * caso habitual no toca la base de datos, solo recorre la lista ordenada de
+ * lotes del EAN en la tienda de la petición hasta cubrir la cantidad.
+ */
+@Service
+@RequiredArgsConstructor
+public class FefoPickingService implements PickStockUseCase {
+
+	private final FefoLotIndex lotIndex;
+	private final BusinessDateService businessDate;
+
+	@Override
+	public PickPlan plan(String ean13, int quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("La cantidad a retirar debe ser mayor que cero");
+		}
+
+		// Los lotes vencidos no se venden aunque sigan ACTIVOS hasta su descarte.
+		// El índice ya los omite; el filtro cubre una carga que coincidió con el
+		// cambio de día.
+		LocalDate today = businessDate.today();
+		List<PickLine> lines = new ArrayList<>();
+		int remaining = quantity;
+		for (Product lot : lotIndex.lots(StoreContext.current(), ean13)) {
+			if (remaining == 0) {
+				break;
+			}
+			if (lot.isExpired(today) || lot.quantity() == 0) {
+				continue;
+			}
+			int taken = Math.min(remaining, lot.quantity());
+			lines.add(new PickLine(lot.id(), lot.batchNumber(), lot.expiryDate(), taken));
+			remaining -= taken;
+		}
+		return new PickPlan(ean13, quantity, quantity - remaining, remaining, List.copyOf(lines));
+	}
+}
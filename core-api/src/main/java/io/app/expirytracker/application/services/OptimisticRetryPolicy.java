@@ -0,0 +1,75 @@
+package io.app.expirytracker.application.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ConcurrentModificationException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Política de reintentos acotados para escrituras con concurrencia optimista.
+ * * Cada intento devuelve {@link Optional#empty()} si perdió la carrera (la
+ * versión cambió entre la lectura y el UPDATE condicional). Se reintenta con
+ * backoff exponencial con jitter completo para que los escritores en conflicto
+ * no vuelvan a chocar en el mismo instante; al agotar los intentos se lanza
+ * {@link ConcurrentModificationException}.
+ * * Métricas (etiqueta {@code operation}): {@code expiry.optimistic.attempts},
+ * {@code expiry.optimistic.conflicts} y {@code expiry.optimistic.exhausted}.
+ * La tasa de conflictos es conflicts / attempts.
+ */
+@Component
+public class OptimisticRetryPolicy {
+
+	private final MeterRegistry meterRegistry;
+	private final int maxAttempts;
+	private final long initialBackoffMs;
+	private final long maxBackoffMs;
+
+	public OptimisticRetryPolicy(
+			MeterRegistry meterRegistry,
+			@Value("${expiry-tracker.concurrency.retry.max-attempts:3}") int maxAttempts,
+			@Value("${expiry-tracker.concurrency.retry.initial-backoff-ms:10}") long initialBackoffMs,
+			@Value("${expiry-tracker.concurrency.retry.max-backoff-ms:100}") long maxBackoffMs) {
+		this.meterRegistry = meterRegistry;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMs = initialBackoffMs;
+		this.maxBackoffMs = maxBackoffMs;
+	}
+
+	public <T> T execute(String operation, Supplier<Optional<T>> attempt) {
+		Counter attempts = meterRegistry.counter("expiry.optimistic.attempts", "operation", operation);
+		Counter conflicts = meterRegistry.counter("expiry.optimistic.conflicts", "operation", operation);
+
+		for (int i = 1; i <= maxAttempts; i++) {
+			attempts.increment();
+			Optional<T> result = attempt.get();
+			if (result.isPresent()) {
+				return result.get();
+			}
+
+			conflicts.increment();
+			if (i < maxAttempts) {
+				backoff(i);
+			}
+		}
+
+		meterRegistry.counter("expiry.optimistic.exhausted", "operation", operation).increment();
+		throw new ConcurrentModificationException(String.format(
+				"El recurso fue modificado por otro proceso y no se pudo aplicar el cambio tras %d intentos. Reintente la operación.",
+				maxAttempts));
+	}
+
+	private void backoff(int attempt) {
+		long ceiling = Math.min(maxBackoffMs, initialBackoffMs << (attempt - 1));
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ConcurrentModificationException("Reintento interrumpido tras un conflicto de concurrencia");
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.ProductHistoryUseCase;
+import io.app.expirytracker.application.ports.out.ProductHistoryPort;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Consultas sobre el historial de lotes. Ninguna toca la tabla
+ * {@code products}: el historial guarda la fila completa en cada entrada.
+ * * Los cambios se recorren en orden {@code (changedAt, id)}. Una entrada se
+ * sella antes del commit de su transacción, así que una página que llega
+ * hasta "ahora" podría saltarse la de una transacción aún abierta con una
+ * hora anterior. Por eso la ventana se recorta a {@code ahora - settle-window}:
+ * lo que queda dentro ya está confirmado y el cursor no puede adelantarlo. La
+ * ventana debe cubrir la transacción de escritura más larga y el desfase de
+ * reloj entre instancias.
+ */
+@Service
+public class ProductHistoryService implements ProductHistoryUseCase {
+
+	// Tope por respuesta; las ventanas más grandes se recorren con el cursor
+	static final int MAX_LIMIT = 1000;
+
+	private final ProductHistoryPort historyPort;
+	private final Clock clock;
+	private final Duration settleWindow;
+
+	public ProductHistoryService(
+			ProductHistoryPort historyPort,
+			Clock clock,
+			@Value("${expiry-tracker.history.settle-window:PT30S}") Duration settleWindow) {
+		this.historyPort = historyPort;
+		this.clock = clock;
+		this.settleWindow = settleWindow;
+	}
+
+	@Override
+	public List<ProductHistoryEntry> lotHistory(UUID productId) {
+		return historyPort.findByProductId(productId, MAX_LIMIT);
+	}
+
+	@Override
+	public List<ProductHistoryEntry> changes(LocalDateTime from, LocalDateTime to, LocalDateTime afterChangedAt,
+			Long afterId, int limit) {
+		if (from == null || to == null || !from.isBefore(to)) {
+			throw new IllegalArgumentException("La ventana de tiempo no es válida: 'from' debe ser anterior a 'to'");
+		}
+		if ((afterChangedAt == null) != (afterId == null)) {
+			throw new IllegalArgumentException("El cursor requiere 'afterChangedAt' y 'afterId' juntos");
+		}
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+		}
+		LocalDateTime settled = LocalDateTime.now(clock).minus(settleWindow);
+		LocalDateTime until = to.isBefore(settled) ? to : settled;
+		if (!from.isBefore(until)) {
+			return List.of();
+		}
+		return afterId != null
+				? historyPort.findChanges(from, until, afterChangedAt, afterId, limit)
+				: historyPort.findChanges(from, until, from, 0L, limit);
+	}
+}
@@ -0,0 +1,69 @@
+package io.app.expirytracker.application.services;
+
+import com.fasterxml.uuid.Generators;
+
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.ports.in.ImportProductsUseCase;
+import io.app.expirytracker.application.ports.in.CreateProductUseCase.CreateProductCommand;
+import io.app.expirytracker.application.ports.out.ProductBulkImportPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio de importación masiva de productos.
+ * * Valida todos los registros contra las reglas del dominio antes de tocar la
+ * base de datos (Fail First) y delega la escritura al adaptador configurado.
+ * Los lotes se importan en la tienda de la petición.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductImportService implements ImportProductsUseCase {
+
+	private final ProductBulkImportPort bulkImportPort;
+	private final ApplicationEventPublisher eventPublisher;
+
+	@Override
+	@Transactional
+	public ImportResult importAll(List<CreateProductCommand> commands) {
+		String storeId = StoreContext.current();
+		List<Product> products = new ArrayList<>(commands.size());
+		for (int i = 0; i < commands.size(); i++) {
+			products.add(mapToProduct(i, storeId, commands.get(i)));
+		}
+
+		int imported = bulkImportPort.importAll(products);
+		eventPublisher.publishEvent(ProductsChangedEvent.ofEans(storeId,
+				products.stream().map(Product::ean13).collect(Collectors.toSet())));
+		return new ImportResult(commands.size(), imported, commands.size() - imported);
+	}
+
+	/**
+	 * Construye el producto de dominio indicando la fila en caso de error, para
+	 * que el cliente pueda corregir el archivo de origen.
+	 */
+	private Product mapToProduct(int row, String storeId, CreateProductCommand cmd) {
+		try {
+			return new Product(
+					Generators.timeBasedEpochGenerator().generate(),
+					storeId,
+					cmd.ean13(),
+					cmd.name(),
+					cmd.batchNumber(),
+					cmd.expiryDate(),
+					cmd.quantity(),
+					cmd.category(),
+					ProductStatus.ACTIVE);
+		} catch (IllegalArgumentException ex) {
+			throw new IllegalArgumentException("Registro [" + row + "] inválido: " + ex.getMessage(), ex);
+		}
+	}
+}
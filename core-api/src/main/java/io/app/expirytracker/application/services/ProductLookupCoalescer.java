@@ -0,0 +1,159 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Agrupa las búsquedas concurrentes de un producto por ID en una sola consulta
+ * {@link ProductRepositoryPort#findAllById}.
+ * * No hay temporizador ni ventana de espera: el primer hilo que encuentra la
+ * cola libre actúa de líder y resuelve todo lo pendiente; las peticiones que
+ * llegan mientras su consulta está en curso esperan y viajan juntas en la
+ * siguiente. Sin concurrencia, cada búsqueda es una consulta inmediata de un
+ * solo ID; bajo carga, un dashboard que pide N lotes en paralelo ocupa una
+ * conexión en lugar de N.
+ * * Cada búsqueda recuerda la tienda de quien la pidió y el líder resuelve el
+ * lote agrupado por tienda, con la tienda de cada grupo: un hilo nunca recibe
+ * un lote de otra tienda aunque viaje en la consulta de otro. Igual con el
+ * destino de la lectura ({@link ReadRouting}): las búsquedas de quien debe
+ * leer del primario (p. ej. porque acaba de escribir) se resuelven aparte y en
+ * el primario, aunque el líder pudiera leer de una réplica.
+ * * Ningún hilo queda atado sin límite al trabajo de los demás: el líder
+ * resuelve como mucho {@code max-drain-rounds} lotes por turno, y quien espera
+ * el resultado lo hace hasta {@code max-wait}; si se agota, saca su búsqueda
+ * de la cola (o la abandona si ya viaja en otra consulta) y consulta su ID
+ * directamente.
+ */
+@Component
+public class ProductLookupCoalescer {
+
+	private record PendingLookup(String storeId, boolean primaryRequired, UUID id,
+			CompletableFuture<Optional<Product>> result) {
+	}
+
+	private final ProductRepositoryPort productRepository;
+	private final int maxBatchSize;
+	private final int maxDrainRounds;
+	private final Duration maxWait;
+	private final Queue<PendingLookup> pending = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean draining = new AtomicBoolean();
+
+	public ProductLookupCoalescer(
+			ProductRepositoryPort productRepository,
+			@Value("${expiry-tracker.products.lookup.max-batch-size:500}") int maxBatchSize,
+			@Value("${expiry-tracker.products.lookup.max-drain-rounds:4}") int maxDrainRounds,
+			@Value("${expiry-tracker.products.lookup.max-wait:PT0.5S}") Duration maxWait) {
+		this.productRepository = productRepository;
+		this.maxBatchSize = maxBatchSize;
+		this.maxDrainRounds = maxDrainRounds;
+		this.maxWait = maxWait;
+	}
+
+	public Optional<Product> find(UUID id) {
+		var lookup = new PendingLookup(StoreContext.current(), ReadRouting.primaryRequired(), id,
+				new CompletableFuture<>());
+		pending.add(lookup);
+
+		// Encolar antes de competir por el turno garantiza que ninguna petición
+		// quede huérfana: o la ve el líder actual al revisar la cola tras soltar
+		// el turno, o este hilo consigue el turno y la resuelve. Si el líder agota
+		// sus rondas, lo que quede lo recoge el siguiente que llegue o, como
+		// tarde, cada hilo al vencer su espera.
+		int rounds = 0;
+		do {
+			if (!draining.compareAndSet(false, true)) {
+				break;
+			}
+			try {
+				drainOnce();
+			} finally {
+				draining.set(false);
+			}
+		} while (++rounds < maxDrainRounds && !pending.isEmpty());
+		return await(lookup);
+	}
+
+	private void drainOnce() {
+		List<PendingLookup> batch = new ArrayList<>();
+		PendingLookup next;
+		while (batch.size() < maxBatchSize && (next = pending.poll()) != null) {
+			batch.add(next);
+		}
+		if (!batch.isEmpty()) {
+			resolve(batch);
+		}
+	}
+
+	private void resolve(List<PendingLookup> batch) {
+		Map<Boolean, Map<String, List<PendingLookup>>> byRouting = batch.stream()
+				.collect(Collectors.partitioningBy(PendingLookup::primaryRequired,
+						Collectors.groupingBy(PendingLookup::storeId)));
+		byRouting.get(false).forEach(this::resolveInStore);
+		ReadRouting.callOnPrimary(() -> {
+			byRouting.get(true).forEach(this::resolveInStore);
+			return null;
+		});
+	}
+
+	private void resolveInStore(String storeId, List<PendingLookup> lookups) {
+		StoreContext.callAs(storeId, () -> {
+			resolveInStore(lookups);
+			return null;
+		});
+	}
+
+	private void resolveInStore(List<PendingLookup> batch) {
+		try {
+			Map<UUID, Product> found = batch.size() == 1
+					? productRepository.findById(batch.get(0).id())
+							.map(product -> Map.of(product.id(), product))
+							.orElseGet(Map::of)
+					: productRepository.findAllById(batch.stream().map(PendingLookup::id).distinct().toList())
+							.stream()
+							.collect(Collectors.toMap(Product::id, Function.identity(), (a, b) -> a, HashMap::new));
+			batch.forEach(lookup -> lookup.result().complete(Optional.ofNullable(found.get(lookup.id()))));
+		} catch (RuntimeException ex) {
+			batch.forEach(lookup -> lookup.result().completeExceptionally(ex));
+		}
+	}
+
+	private Optional<Product> await(PendingLookup lookup) {
+		try {
+			return lookup.result().get(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException ex) {
+			// Si sigue en la cola ya no la recogerá nadie; si no, su resultado llegará
+			// tarde y se descarta. En ambos casos, consulta directa en su tienda.
+			pending.remove(lookup);
+			return productRepository.findById(lookup.id());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Búsqueda de producto interrumpida", ex);
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(ex.getCause());
+		}
+	}
+}
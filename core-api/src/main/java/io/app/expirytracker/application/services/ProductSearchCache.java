@@ -0,0 +1,160 @@
+package io.app.expirytracker.application.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.app.expirytracker.application.events.BusinessDateRolledOverEvent;
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.app.expirytracker.domain.model.PaginatedResult;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductSearchCriteria;
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Caché de corta duración para los resultados de la búsqueda de productos.
+ * * La clave es el criterio canónico: textos recortados (vacío = sin filtro),
+ * nombre en minúsculas, estado ACTIVE por defecto, paginación con sus valores
+ * por defecto y, si hay filtros relativos a hoy ({@code isExpired},
+ * {@code daysThreshold}), la fecha de negocio de la tienda
+ * ({@link BusinessDateService}). Así, dos peticiones que producen la misma
+ * consulta comparten entrada, y al cambiar el día las relativas dejan de
+ * coincidir; el aviso del cambio ({@link BusinessDateRolledOverEvent}) las
+ * retira en ese momento en lugar de esperar al TTL.
+ * * La clave incluye además la generación de escritura de la tienda, que se
+ * incrementa tras el commit de cualquier modificación de sus productos
+ * ({@link ProductsChangedEvent}); las escrituras de una tienda no vacían la
+ * caché de las demás:
+ * las entradas anteriores dejan de ser alcanzables en ese instante y
+ * desaparecen por tamaño o TTL. Una consulta en curso durante el commit guarda
+ * su resultado con la generación vieja, que ya nadie pide.
+ * * Los fallos concurrentes de la misma clave ejecutan una única consulta; el
+ * resto espera su resultado. La consulta corre en el hilo que falló primero,
+ * fuera de la caché: la caché solo guarda el resultado pendiente, sin retener
+ * el bloqueo de la clave mientras se lee la base de datos.
+ * * Con la caché activa, las consultas leen del primario
+ * ({@link ReadRouting}), aunque la transacción de quien busca sea de solo
+ * lectura: una réplica retrasada guardaría bajo la generación nueva un
+ * resultado anterior al commit que la creó. Sin caché, cada búsqueda es una
+ * lectura más y puede ir a réplica.
+ */
+@Component
+public class ProductSearchCache {
+
+	private record SearchKey(long generation, ProductSearchCriteria criteria, LocalDate referenceDate) {
+	}
+
+	private final BusinessDateService businessDate;
+	private final boolean enabled;
+	private final AsyncCache<SearchKey, PaginatedResult<Product>> results;
+	private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+	public ProductSearchCache(
+			MeterRegistry meterRegistry,
+			BusinessDateService businessDate,
+			@Value("${expiry-tracker.products.search-cache.enabled:true}") boolean enabled,
+			@Value("${expiry-tracker.products.search-cache.ttl:PT5S}") Duration ttl,
+			@Value("${expiry-tracker.products.search-cache.max-entries:1000}") long maxEntries) {
+		this.businessDate = businessDate;
+		this.enabled = enabled;
+		this.results = Caffeine.newBuilder()
+				.maximumSize(maxEntries)
+				.expireAfterWrite(ttl)
+				.recordStats()
+				.buildAsync();
+		CaffeineCacheMetrics.monitor(meterRegistry, results, "product-search");
+	}
+
+	/**
+	 * @param query Consulta a ejecutar si no hay resultado en caché; recibe el
+	 *              criterio canónico, para que lo guardado corresponda
+	 *              exactamente a la clave.
+	 */
+	public PaginatedResult<Product> get(ProductSearchCriteria criteria,
+			Function<ProductSearchCriteria, PaginatedResult<Product>> query) {
+		ProductSearchCriteria canonical = canonicalize(criteria);
+		if (!enabled) {
+			return query.apply(canonical);
+		}
+		boolean relative = canonical.isExpired() != null || canonical.daysThreshold() != null;
+		var key = new SearchKey(generation(canonical.storeId()).get(), canonical,
+				relative ? businessDate.today(canonical.storeId()) : null);
+		var loading = new CompletableFuture<PaginatedResult<Product>>();
+		CompletableFuture<PaginatedResult<Product>> entry = results.get(key, (k, executor) -> loading);
+		if (entry != loading) {
+			return await(entry);
+		}
+		// Una consulta fallida se quita sola de la caché al completarse con error
+		try {
+			PaginatedResult<Product> result = ReadRouting.callOnPrimary(() -> query.apply(canonical));
+			loading.complete(result);
+			return result;
+		} catch (RuntimeException ex) {
+			loading.completeExceptionally(ex);
+			throw ex;
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductsChanged(ProductsChangedEvent event) {
+		generation(event.storeId()).incrementAndGet();
+	}
+
+	@EventListener
+	public void onBusinessDateRolledOver(BusinessDateRolledOverEvent event) {
+		results.asMap().keySet().removeIf(key -> key.referenceDate() != null
+				&& key.referenceDate().isBefore(event.currentDate())
+				&& businessDate.zoneOf(key.criteria().storeId()).equals(event.zone()));
+	}
+
+	private static PaginatedResult<Product> await(CompletableFuture<PaginatedResult<Product>> entry) {
+		try {
+			return entry.join();
+		} catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw ex;
+		}
+	}
+
+	private AtomicLong generation(String storeId) {
+		return generations.computeIfAbsent(storeId, store -> new AtomicLong());
+	}
+
+	private static ProductSearchCriteria canonicalize(ProductSearchCriteria criteria) {
+		String name = blankToNull(criteria.name());
+		return new ProductSearchCriteria(
+				criteria.storeId(),
+				name != null ? name.toLowerCase(Locale.ROOT) : null,
+				blankToNull(criteria.ean()),
+				blankToNull(criteria.batch()),
+				criteria.expiredBefore(),
+				criteria.isExpired(),
+				criteria.daysThreshold() != null && criteria.daysThreshold() >= 0 ? criteria.daysThreshold() : null,
+				criteria.status() != null ? criteria.status() : ProductStatus.ACTIVE,
+				criteria.page() != null && criteria.page() >= 0 ? criteria.page() : 0,
+				criteria.size() != null && criteria.size() > 0 ? criteria.size() : 10,
+				criteria.sort());
+	}
+
+	private static String blankToNull(String value) {
+		return value == null || value.isBlank() ? null : value.trim();
+	}
+}
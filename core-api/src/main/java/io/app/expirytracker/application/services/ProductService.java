@@ -2,35 +2,62 @@ package io.app.expirytracker.application.services;
 
 import com.fasterxml.uuid.Generators;
 
+import io.app.expirytracker.application.events.ProductsChangedEvent;
 import io.app.expirytracker.application.ports.in.CreateProductUseCase;
 import io.app.expirytracker.application.ports.in.DeleteProductUseCase;
 import io.app.expirytracker.application.ports.in.FindProductUseCase;
 import io.app.expirytracker.application.ports.in.UpdateProductUseCase;
+import io.app.expirytracker.application.ports.in.UpsertProductUseCase;
+import io.app.expirytracker.application.ports.out.ProductHistoryPort;
 import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
 import io.app.expirytracker.domain.model.PaginatedResult;
 import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductChangeType;
 import io.app.expirytracker.domain.model.ProductSearchCriteria;
 import io.app.expirytracker.domain.model.ProductStatus;
 
+import java.time.LocalDate;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
 /**
  * Servicio que implementa la lógica de negocio para la gestión de productos.
  * * Se utiliza el patrón de diseño "Command" para la creación, asegurando que
  * la capa de aplicación no dependa de las entidades de persistencia ni
  * exponga directamente el modelo de dominio en la entrada.
+ * * Todas las operaciones actúan sobre la tienda de la petición
+ * ({@link StoreContext}): las altas se asignan a ella y las consultas y
+ * modificaciones no ven lotes de otras tiendas.
  */
 @Service
 @RequiredArgsConstructor
 public class ProductService
-		implements CreateProductUseCase, FindProductUseCase, UpdateProductUseCase, DeleteProductUseCase {
+		implements CreateProductUseCase, FindProductUseCase, UpdateProductUseCase, DeleteProductUseCase,
+		UpsertProductUseCase {
 
 	private final ProductRepositoryPort productRepository;
+	private final OptimisticRetryPolicy retryPolicy;
+	private final ProductLookupCoalescer lookupCoalescer;
+	private final ProductSearchCache searchCache;
+	private final ProductHistoryPort historyPort;
+	private final ApplicationEventPublisher eventPublisher;
+	private final TransactionOperations transactionOperations;
 
 	/**
 	 * Registra un nuevo producto en el sistema.
@@ -53,7 +80,9 @@ public class ProductService
 		Product product = mapToProduct(command);
 
 		// Persistir
-		return productRepository.save(product);
+		Product saved = productRepository.save(product);
+		eventPublisher.publishEvent(ProductsChangedEvent.ofEans(saved.storeId(), Set.of(saved.ean13())));
+		return saved;
 	}
 
 	private void checkDuplicity(String ean, String batch) {
@@ -76,6 +105,7 @@ public class ProductService
 	private Product mapToProduct(CreateProductCommand cmd) {
 		return new Product(
 				Generators.timeBasedEpochGenerator().generate(),
+				StoreContext.current(),
 				cmd.ean13(),
 				cmd.name(),
 				cmd.batchNumber(),
@@ -85,10 +115,31 @@ public class ProductService
 				ProductStatus.ACTIVE);
 	}
 
+	/**
+	 * Sin transacción propia: las búsquedas concurrentes se agrupan en una
+	 * consulta (ver {@link ProductLookupCoalescer}) y los hilos que esperan su
+	 * resultado no deben retener una conexión.
+	 */
 	@Override
-	@Transactional(readOnly = true)
 	public Optional<Product> findById(UUID id) {
-		return productRepository.findById(id);
+		return lookupCoalescer.find(id);
+	}
+
+	@Override
+	public List<Product> findAllById(List<UUID> ids) {
+		Set<UUID> uniqueIds = new LinkedHashSet<>(ids);
+		Map<UUID, Product> found = productRepository.findAllById(uniqueIds).stream()
+				.collect(Collectors.toMap(Product::id, Function.identity()));
+		return uniqueIds.stream()
+				.map(found::get)
+				.filter(Objects::nonNull)
+				.toList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Product> findByEan13(String ean13) {
+		return productRepository.findByEan13(ean13);
 	}
 
 	@Override
@@ -106,6 +157,9 @@ public class ProductService
 	 * </p>
 	 * * @param criteria Criterios de filtrado (nombre, ean, status, etc.).
 	 * * @return Lista de productos que coinciden con los filtros.
+	 * * Los resultados se sirven desde {@link ProductSearchCache}. Con réplicas,
+	 * la transacción no toma conexión hasta la primera sentencia: un acierto de
+	 * caché, o quien espera la consulta de otra petición idéntica, no la usa.
 	 */
 	@Override
 	@Transactional(readOnly = true)
@@ -115,11 +169,14 @@ public class ProductService
 		// y devolvemos los resultados.
 
 		ProductSearchCriteria finalCriteria = (criteria == null || criteria.isInvalid())
-				? new ProductSearchCriteria(null, null, null, null, null, null, ProductStatus.ACTIVE,
-						criteria != null ? criteria.page() : null, criteria != null ? criteria.size() : null)
+				? new ProductSearchCriteria(null, null, null, null, null, null, null, ProductStatus.ACTIVE,
+						criteria != null ? criteria.page() : null, criteria != null ? criteria.size() : null,
+						criteria != null ? criteria.sort() : null)
 				: criteria;
+		// La tienda no la elige el cliente: siempre la de la petición
+		finalCriteria = finalCriteria.withStoreId(StoreContext.current());
 
-		return productRepository.findByCriteria(finalCriteria);
+		return searchCache.get(finalCriteria, productRepository::findByCriteria);
 	}
 
 	/**
@@ -139,16 +196,37 @@ public class ProductService
 		}
 
 		// El Adapter se encargará de que sea Soft Delete.
+		historyPort.recordCurrentState(Set.of(id), ProductChangeType.DISCARD);
 		productRepository.deleteById(id);
+		eventPublisher.publishEvent(ProductsChangedEvent.ofIds(StoreContext.current(), Set.of(id)));
 	}
 
 	/**
 	 * Actualiza un producto existente.
 	 * Valida reglas de negocio para asegurar la consistencia del inventario.
+	 * * La escritura es un UPDATE condicional por versión: si otro proceso
+	 * modificó el producto entre la lectura y la escritura, se vuelve a leer y a
+	 * validar según la {@link OptimisticRetryPolicy}. Si el cliente indicó la
+	 * versión que leyó, una discrepancia se informa sin reintentar.
+	 * * Cada intento es una transacción propia, fuera de la cual transcurre la
+	 * espera del reintento: un intento nuevo lee de la base de datos, no de un
+	 * contexto de persistencia con la copia anterior, y la espera no retiene
+	 * una conexión.
+	 * * Sin versión del cliente, un reintento no reescribe el estado completo
+	 * (eso haría ganar al último en escribir): solo aplica los campos que el
+	 * comando cambia respecto de la primera lectura y conserva los que cambió
+	 * el otro proceso. Si ambos cambiaron el mismo campo con valores distintos,
+	 * se informa el conflicto.
 	 */
 	@Override
-	@Transactional
 	public Product update(UUID id, UpdateProductCommand command) {
+		AtomicReference<Product> firstRead = new AtomicReference<>();
+		return retryPolicy.execute("product.update",
+				() -> transactionOperations.execute(status -> attemptUpdate(id, command, firstRead)));
+	}
+
+	private Optional<Product> attemptUpdate(UUID id, UpdateProductCommand command,
+			AtomicReference<Product> firstRead) {
 		// Recupera el producto actual (Fail Fast si no existe)
 		Product currentProduct = productRepository.findById(id)
 				.orElseThrow(
@@ -160,29 +238,128 @@ public class ProductService
 					"No se puede editar un producto que no está ACTIVO (Estado actual: " + currentProduct.status() + ")");
 		}
 
+		// El cliente editó una versión que ya no es la vigente
+		if (command.expectedVersion() != null && !command.expectedVersion().equals(currentProduct.version())) {
+			throw new ConcurrentModificationException(String.format(
+					"El producto con ID [%s] fue modificado por otro proceso (versión esperada %d, actual %d).",
+					id, command.expectedVersion(), currentProduct.version()));
+		}
+		firstRead.compareAndSet(null, currentProduct);
+		Product base = firstRead.get();
+		String ean13 = merge(id, "ean13", base.ean13(), currentProduct.ean13(), command.ean13());
+		String name = merge(id, "name", base.name(), currentProduct.name(), command.name());
+		String batchNumber = merge(id, "batchNumber", base.batchNumber(), currentProduct.batchNumber(),
+				command.batchNumber());
+		LocalDate expiryDate = merge(id, "expiryDate", base.expiryDate(), currentProduct.expiryDate(),
+				command.expiryDate());
+		Integer quantity = merge(id, "quantity", base.quantity(), currentProduct.quantity(), command.quantity());
+		String category = merge(id, "category", base.category(), currentProduct.category(), command.category());
+
 		// Valida Duplicidad (Solo si cambió EAN o Lote)
 		// Si el EAN o el Lote son distintos a los que ya tenía, verificamos que la
 		// nueva combinación no exista en otro lado.
-		boolean eanChanged = !currentProduct.ean13().equals(command.ean13());
-		boolean batchChanged = !currentProduct.batchNumber().equals(command.batchNumber());
+		boolean eanChanged = !currentProduct.ean13().equals(ean13);
+		boolean batchChanged = !currentProduct.batchNumber().equals(batchNumber);
 
 		if (eanChanged || batchChanged) {
-			checkDuplicity(command.ean13(), command.batchNumber());
+			checkDuplicity(ean13, batchNumber);
 		}
 
 		// Construye la nueva versión del producto (Record inmutable)
-		// Mantenemos el ID original y el Estado original.
+		// Mantenemos el ID, el Estado y la versión leída (condición del UPDATE).
 		Product updatedProduct = new Product(
 				currentProduct.id(),
-				command.ean13(),
-				command.name(),
-				command.batchNumber(),
-				command.expiryDate(),
-				command.quantity(),
-				command.category(),
-				currentProduct.status());
-
-		// Persistimos
-		return productRepository.save(updatedProduct);
+				currentProduct.storeId(),
+				ean13,
+				name,
+				batchNumber,
+				expiryDate,
+				quantity,
+				category,
+				currentProduct.status(),
+				currentProduct.version());
+
+		// Persistimos (vacío si perdimos la carrera contra otra escritura).
+		// El ID cubre el EAN anterior si la edición lo cambió.
+		return productRepository.update(updatedProduct)
+				.map(product -> {
+					historyPort.record(List.of(currentProduct), ProductChangeType.UPDATE);
+					eventPublisher.publishEvent(
+							new ProductsChangedEvent(product.storeId(), Set.of(product.ean13()), Set.of(id)));
+					return product;
+				});
+	}
+
+	/**
+	 * Fusión a tres bandas de un campo: {@code base} es la primera lectura,
+	 * {@code current} la vigente y {@code requested} lo que pide el comando. En
+	 * el primer intento base y vigente coinciden y gana el comando.
+	 *
+	 * @throws ConcurrentModificationException si el comando y otro proceso
+	 *                                         cambiaron el campo a valores
+	 *                                         distintos.
+	 */
+	private static <T> T merge(UUID id, String field, T base, T current, T requested) {
+		if (Objects.equals(requested, base)) {
+			return current;
+		}
+		if (Objects.equals(current, base) || Objects.equals(current, requested)) {
+			return requested;
+		}
+		throw new ConcurrentModificationException(String.format(
+				"El campo '%s' del producto con ID [%s] fue modificado por otro proceso. Vuelva a leerlo y reintente.",
+				field, id));
+	}
+
+	/**
+	 * Alta o actualización idempotente por EAN-13 + Lote.
+	 * * A diferencia de create/update, no consulta previamente la existencia: el
+	 * adaptador resuelve el conflicto de forma atómica en la base de datos.
+	 * Mantiene la regla de negocio de update: un lote no ACTIVO no se edita.
+	 */
+	@Override
+	@Transactional
+	public Product upsert(UpsertProductCommand command) {
+		Product product = mapToProduct(command);
+
+		// Si el lote no está ACTIVO la transacción se revierte con la entrada
+		historyPort.recordCurrentStateByKeys(List.of(product), ProductChangeType.UPSERT);
+		return productRepository.upsert(product)
+				.map(upserted -> {
+					eventPublisher.publishEvent(ProductsChangedEvent.ofEans(upserted.storeId(), Set.of(upserted.ean13())));
+					return upserted;
+				})
+				.orElseThrow(() -> new IllegalArgumentException(String.format(
+						"No se puede editar el producto [%s] con el lote [%s] porque no está ACTIVO.",
+						command.ean13(), command.batchNumber())));
+	}
+
+	@Override
+	@Transactional
+	public UpsertResult upsertAll(List<UpsertProductCommand> commands) {
+		List<Product> products = commands.stream().map(this::mapToProduct).toList();
+
+		historyPort.recordCurrentStateByKeys(products, ProductChangeType.UPSERT);
+		int applied = productRepository.upsertAll(products);
+		eventPublisher.publishEvent(ProductsChangedEvent.ofEans(StoreContext.current(),
+				products.stream().map(Product::ean13).collect(Collectors.toSet())));
+		return new UpsertResult(commands.size(), applied, commands.size() - applied);
+	}
+
+	/**
+	 * El ID generado solo se usa si el lote no existía; en caso de conflicto la
+	 * fila conserva su identidad original.
+	 */
+	private Product mapToProduct(UpsertProductCommand cmd) {
+		return new Product(
+				Generators.timeBasedEpochGenerator().generate(),
+				StoreContext.current(),
+				cmd.ean13(),
+				cmd.name(),
+				cmd.batchNumber(),
+				cmd.expiryDate(),
+				cmd.quantity(),
+				cmd.category(),
+				ProductStatus.ACTIVE);
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.ProductSyncUseCase;
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort;
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort.PositionedChange;
+import io.app.expirytracker.domain.model.ProductChange;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+/**
+ * Feed de cambios para la sincronización incremental de la PWA.
+ * * El token es opaco para el cliente: codifica la posición
+ * {@code (secuencia, id)} del último cambio entregado, y cada página
+ * continúa justo detrás (paginación por cursor sobre un índice, sin OFFSET).
+ * Altas, modificaciones y cambios de estado mueven el lote a una posición
+ * nueva, así que todos aparecen; un descarte llega como lápida.
+ * * La secuencia la asigna la base de datos en orden de confirmación (ver
+ * {@link ProductChangeFeedPort}), no el reloj de la instancia que escribe: ni
+ * una transacción lenta ni un desfase de relojes entre instancias pueden dejar
+ * un cambio por detrás de un token ya entregado.
+ * * Los tokens emitidos cuando el cursor era {@code (updated_at, id)} se
+ * aceptan y reinician la sincronización desde el principio.
+ */
+@Service
+public class ProductSyncService implements ProductSyncUseCase {
+
+	private record Position(long sequence, UUID productId) {
+	}
+
+	// Tope por respuesta; el resto se recorre con el token
+	static final int MAX_LIMIT = 1000;
+
+	private static final Position ORIGIN = new Position(Long.MIN_VALUE, new UUID(0, 0));
+	private static final char SEPARATOR = '|';
+
+	private final ProductChangeFeedPort changeFeedPort;
+
+	public ProductSyncService(ProductChangeFeedPort changeFeedPort) {
+		this.changeFeedPort = changeFeedPort;
+	}
+
+	@Override
+	public ChangeFeedPage changesSince(String syncToken, int limit) {
+		if (limit < 1 || limit > MAX_LIMIT) {
+			throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAX_LIMIT);
+		}
+		Position after = syncToken == null || syncToken.isBlank() ? ORIGIN : decode(syncToken);
+
+		// Una fila de más indica si queda otra página
+		List<PositionedChange> changes = changeFeedPort.findChangesAfter(after.sequence(), after.productId(),
+				limit + 1);
+		boolean hasMore = changes.size() > limit;
+		if (hasMore) {
+			changes = changes.subList(0, limit);
+		}
+		if (changes.isEmpty()) {
+			return new ChangeFeedPage(List.of(), encode(after), false);
+		}
+		PositionedChange last = changes.getLast();
+		return new ChangeFeedPage(changes.stream().map(PositionedChange::change).toList(),
+				encode(new Position(last.sequence(), last.change().productId())), hasMore);
+	}
+
+	private static String encode(Position position) {
+		String text = Long.toString(position.sequence()) + SEPARATOR + position.productId();
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.US_ASCII));
+	}
+
+	// Un token manipulado es un error del cliente (400), no del servidor
+	private static Position decode(String syncToken) {
+		try {
+			String text = new String(Base64.getUrlDecoder().decode(syncToken.trim()), StandardCharsets.US_ASCII);
+			int separator = text.indexOf(SEPARATOR);
+			String sequence = text.substring(0, separator);
+			UUID productId = UUID.fromString(text.substring(separator + 1));
+			if (sequence.indexOf('T') > 0) {
+				LocalDateTime.parse(sequence);
+				return ORIGIN;
+			}
+			return new Position(Long.parseLong(sequence), productId);
+		} catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+			throw new IllegalArgumentException("El token de sincronización no es válido", e);
+		}
+	}
+}
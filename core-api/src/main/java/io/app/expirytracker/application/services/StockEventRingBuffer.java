@@ -0,0 +1,109 @@
+package io.app.expirytracker.application.services;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cola acotada y sin bloqueos de ajustes de stock: varios productores, un
+ * consumidor.
+ * * Cada ajuste ocupa la ranura de su secuencia ({@code secuencia & máscara}).
+ * Un productor reserva de una vez el tramo de secuencias de todo su lote con
+ * un CAS sobre la cola: si no cabe, la reserva falla sin dejar nada a medias.
+ * Luego escribe cada ranura y la publica con una escritura volátil de su
+ * secuencia. El consumidor avanza mientras la siguiente ranura esté publicada
+ * y solo después mueve la cabeza, que es lo que libera el espacio; una
+ * reserva aún sin publicar detiene el vaciado en ese punto hasta el siguiente.
+ * * Las ranuras son arrays paralelos de primitivos: encolar no crea objetos.
+ */
+final class StockEventRingBuffer {
+
+	interface Sink {
+
+		void accept(long sequence, String storeId, UUID productId, int delta);
+	}
+
+	private final int capacity;
+	private final int mask;
+	private final String[] storeIds;
+	private final long[] mostSignificantBits;
+	private final long[] leastSignificantBits;
+	private final int[] deltas;
+	// secuencia + 1 de la ranura publicada; 0 = nunca escrita
+	private final AtomicLongArray published;
+	private final AtomicLong tail;
+	private volatile long head;
+
+	/**
+	 * @param capacity      Potencia de 2.
+	 * @param firstSequence Secuencia del primer ajuste (mayor que cero).
+	 */
+	StockEventRingBuffer(int capacity, long firstSequence) {
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+			throw new IllegalArgumentException("La capacidad de la cola de ajustes debe ser una potencia de 2");
+		}
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+		this.storeIds = new String[capacity];
+		this.mostSignificantBits = new long[capacity];
+		this.leastSignificantBits = new long[capacity];
+		this.deltas = new int[capacity];
+		this.published = new AtomicLongArray(capacity);
+		this.tail = new AtomicLong(firstSequence);
+		this.head = firstSequence;
+	}
+
+	int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Reserva {@code count} secuencias consecutivas. Cada una debe publicarse
+	 * después con {@link #publish}.
+	 *
+	 * @return La primera secuencia reservada, o {@code -1} si no hay sitio.
+	 */
+	long claim(int count) {
+		while (true) {
+			long current = tail.get();
+			if (current + count - head > capacity) {
+				return -1;
+			}
+			if (tail.compareAndSet(current, current + count)) {
+				return current;
+			}
+		}
+	}
+
+	void publish(long sequence, String storeId, UUID productId, int delta) {
+		int slot = (int) (sequence & mask);
+		storeIds[slot] = storeId;
+		mostSignificantBits[slot] = productId.getMostSignificantBits();
+		leastSignificantBits[slot] = productId.getLeastSignificantBits();
+		deltas[slot] = delta;
+		published.set(slot, sequence + 1);
+	}
+
+	/**
+	 * Entrega al consumidor los ajustes publicados en orden de secuencia. Solo
+	 * puede llamarlo un hilo a la vez.
+	 *
+	 * @return La última secuencia entregada (o la anterior a la cabeza, si no
+	 *         había ninguna).
+	 */
+	long drain(Sink sink) {
+		long next = head;
+		while (true) {
+			int slot = (int) (next & mask);
+			if (published.get(slot) != next + 1) {
+				break;
+			}
+			sink.accept(next, storeIds[slot], new UUID(mostSignificantBits[slot], leastSignificantBits[slot]),
+					deltas[slot]);
+			storeIds[slot] = null;
+			next++;
+		}
+		head = next;
+		return next - 1;
+	}
+}
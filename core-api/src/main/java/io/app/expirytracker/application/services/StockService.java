@@ -0,0 +1,540 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.ports.out.StockDeadLetterPort;
+import io.app.expirytracker.application.ports.out.StockJournalPort;
+import io.app.expirytracker.application.ports.out.StockJournalPort.JournaledAdjustment;
+import io.app.expirytracker.application.ports.out.StockJournalPort.Recovery;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Servicio de ajustes de stock por diferencia.
+ * * Camino síncrono: un único UPDATE condicional
+ * ({@code quantity = quantity + delta} con guarda de no negatividad), sin
+ * lectura previa ni reescritura del producto completo.
+ * * Camino diferido (write-behind): los ajustes entran en una cola acotada sin
+ * bloqueos ({@link StockEventRingBuffer}) y un único consumidor periódico los
+ * suma por tienda y lote y los aplica como deltas netos, cada tienda en su
+ * propia transacción y acotada a sí misma (un ID de otra tienda se descarta
+ * como si no existiera): el fallo de una tienda no retiene a las demás. La guarda de la base de datos sigue
+ * garantizando el invariante {@code quantity >= 0} del dominio. Si el delta
+ * neto de un lote lo violaría, sus ajustes se aplican uno a uno en orden de
+ * llegada: solo se descartan (y se registran) los que dejarían el stock en
+ * negativo, no todo el neto. Un lote inexistente o inactivo rechaza todos.
+ * * Con la cola llena se rechaza el lote entero
+ * ({@link RejectedExecutionException}, 503) en lugar de crecer sin límite.
+ * * Durabilidad: cada lote se registra en {@link StockJournalPort} antes de
+ * aceptarse, y cada tienda marca la última secuencia vaciada como aplicada en
+ * la misma transacción que escribe sus deltas. Al arrancar se reencola lo
+ * registrado después de la marca de su tienda, así que un ajuste aceptado se aplica una
+ * sola vez aunque el proceso caiga. La recuperación se hace al arrancar el
+ * contexto ({@link SmartLifecycle}, antes que el servidor web y las tareas
+ * programadas), no al construir el bean: lee la base de datos y el registro.
+ * * Si la transacción de una tienda falla, sus deltas se conservan en memoria
+ * y se reintentan con espera exponencial ({@code initial-backoff-ms} doblando
+ * hasta {@code max-backoff-ms}), hasta {@code max-attempts} veces. Después, en
+ * lugar de bloquear la tienda para siempre con un ajuste que nunca se
+ * aplicará, se prueba cada lote en una transacción que se deshace: solo los
+ * que fallan se apartan a {@link StockDeadLetterPort}, en la transacción que
+ * aplica el resto y marca las secuencias (métrica
+ * {@code expiry.stock.write-behind.dead-lettered}). Un error de conexión o
+ * transitorio no señala a ningún lote: se conservan todos y se sigue
+ * reintentando.
+ */
+@Slf4j
+@Service
+public class StockService implements AdjustStockUseCase, SmartLifecycle {
+
+	private final ProductRepositoryPort productRepository;
+	private final TransactionOperations transactionOperations;
+	private final ApplicationEventPublisher eventPublisher;
+	private final StockJournalPort journal;
+	private final StockDeadLetterPort deadLetters;
+	private final Counter deadLettered;
+	private final int capacity;
+	private final int maxAttempts;
+	private final long initialBackoffMillis;
+	private final long maxBackoffMillis;
+	// Se crea al recuperar el registro: su primera secuencia sigue a la última registrada
+	private volatile StockEventRingBuffer queue;
+
+	// Estado del consumidor, protegido por drainLock
+	private final ReentrantLock drainLock = new ReentrantLock();
+	private final Map<String, PendingStore> pendingByStore = new HashMap<>();
+	private long pendingThrough;
+	// Hasta aquí está aplicado en todas las tiendas y liberado del registro
+	private long appliedThrough;
+	private volatile boolean running;
+
+	public StockService(
+			ProductRepositoryPort productRepository,
+			TransactionOperations transactionOperations,
+			ApplicationEventPublisher eventPublisher,
+			StockJournalPort journal,
+			StockDeadLetterPort deadLetters,
+			MeterRegistry meterRegistry,
+			@Value("${expiry-tracker.stock.write-behind.capacity:65536}") int capacity,
+			@Value("${expiry-tracker.stock.write-behind.max-attempts:5}") int maxAttempts,
+			@Value("${expiry-tracker.stock.write-behind.initial-backoff-ms:200}") long initialBackoffMillis,
+			@Value("${expiry-tracker.stock.write-behind.max-backoff-ms:10000}") long maxBackoffMillis) {
+		if (maxAttempts < 1) {
+			throw new IllegalArgumentException("max-attempts debe ser al menos 1");
+		}
+		if (initialBackoffMillis < 0 || maxBackoffMillis < initialBackoffMillis) {
+			throw new IllegalArgumentException("Se requiere 0 <= initial-backoff-ms <= max-backoff-ms");
+		}
+		this.productRepository = productRepository;
+		this.transactionOperations = transactionOperations;
+		this.eventPublisher = eventPublisher;
+		this.journal = journal;
+		this.deadLetters = deadLetters;
+		this.deadLettered = meterRegistry.counter("expiry.stock.write-behind.dead-lettered");
+		this.capacity = capacity;
+		this.maxAttempts = maxAttempts;
+		this.initialBackoffMillis = initialBackoffMillis;
+		this.maxBackoffMillis = maxBackoffMillis;
+	}
+
+	/**
+	 * Reencola lo registrado y no aplicado antes de la caída.
+	 */
+	@Override
+	public void start() {
+		drainLock.lock();
+		try {
+			// Transacción de lectura-escritura: la marca se lee del primario, nunca de
+			// una réplica que aún no tenga el último micro-lote
+			Recovery recovery = transactionOperations.execute(status -> journal.recover());
+			pendingThrough = recovery.lastSequence();
+			for (JournaledAdjustment adjustment : recovery.pending()) {
+				accumulate(adjustment.sequence(), adjustment.storeId(), adjustment.productId(), adjustment.delta());
+				pendingThrough = Math.max(pendingThrough, adjustment.sequence());
+			}
+			appliedThrough = appliedFloor();
+			if (!recovery.pending().isEmpty()) {
+				log.info("Se reencolaron {} ajustes de stock diferidos pendientes del registro local",
+						recovery.pending().size());
+			}
+			queue = new StockEventRingBuffer(capacity, pendingThrough + 1);
+			running = true;
+		} finally {
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * El vaciado final lo hace {@link #flushOnShutdown()}, con la base de datos
+	 * aún disponible.
+	 */
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Antes que el servidor web ({@code DEFAULT_PHASE - 1024}): ninguna petición
+	 * encola antes de recuperar el registro.
+	 */
+	@Override
+	public int getPhase() {
+		return DEFAULT_PHASE - 2048;
+	}
+
+	@Override
+	@Transactional
+	public Product increase(UUID id, int quantity) {
+		requirePositive(quantity);
+		return apply(id, quantity);
+	}
+
+	@Override
+	@Transactional
+	public Product decrease(UUID id, int quantity) {
+		requirePositive(quantity);
+		return apply(id, -quantity);
+	}
+
+	private Product apply(UUID id, int delta) {
+		Product adjusted = productRepository.adjustQuantity(id, delta)
+				.orElseThrow(() -> rejection(id, delta));
+		eventPublisher.publishEvent(ProductsChangedEvent.ofEans(adjusted.storeId(), Set.of(adjusted.ean13())));
+		return adjusted;
+	}
+
+	/**
+	 * Distingue (solo en el camino de error) entre un lote inexistente o inactivo
+	 * y un stock insuficiente.
+	 */
+	private RuntimeException rejection(UUID id, int delta) {
+		return productRepository.findById(id)
+				.<RuntimeException>map(product -> new IllegalArgumentException(String.format(
+						"Stock insuficiente: el lote [%s] tiene %d unidades y se intentó descontar %d.",
+						product.batchNumber(), product.quantity(), -delta)))
+				.orElseGet(() -> new NoSuchElementException(
+						"No se puede ajustar el stock: El producto con ID [" + id + "] no existe o no está ACTIVO."));
+	}
+
+	@Override
+	public void enqueue(List<StockAdjustmentCommand> adjustments) {
+		// Validamos todo antes de encolar para no aceptar lotes parciales
+		adjustments.forEach(adjustment -> {
+			if (adjustment.productId() == null) {
+				throw new IllegalArgumentException("El ID del producto es obligatorio en cada ajuste");
+			}
+			if (adjustment.delta() == 0) {
+				throw new IllegalArgumentException("El ajuste de stock no puede ser cero");
+			}
+		});
+		if (adjustments.size() > capacity) {
+			throw new IllegalArgumentException(
+					"Un lote no puede superar los " + capacity + " ajustes de stock");
+		}
+		if (adjustments.isEmpty()) {
+			return;
+		}
+
+		StockEventRingBuffer queue = this.queue;
+		if (queue == null) {
+			throw new RejectedExecutionException(
+					"La cola de ajustes de stock diferidos aún se está recuperando; reintente en unos instantes");
+		}
+		long first = queue.claim(adjustments.size());
+		if (first < 0) {
+			throw new RejectedExecutionException(
+					"La cola de ajustes de stock diferidos está llena; reintente en unos instantes");
+		}
+		String storeId = StoreContext.current();
+		boolean journaled = false;
+		try {
+			journal.append(first, storeId, adjustments);
+			journaled = true;
+		} finally {
+			// Las secuencias reservadas se publican siempre: una ranura sin publicar
+			// detendría el vaciado. Si el registro falló, se publican vacías.
+			for (int i = 0; i < adjustments.size(); i++) {
+				StockAdjustmentCommand adjustment = adjustments.get(i);
+				queue.publish(first + i, storeId, adjustment.productId(), journaled ? adjustment.delta() : 0);
+			}
+		}
+	}
+
+	/**
+	 * Vacía la cola y aplica los deltas netos de cada tienda en un único lote
+	 * JDBC, cada tienda en su transacción; las que esperan tras un fallo se
+	 * saltan hasta que vence su espera.
+	 * * Las transacciones se abren solo si hay ajustes: con
+	 * {@code @Transactional} cada ejecución vacía (cada 100 ms) tomaría una
+	 * conexión del pool.
+	 */
+	@Scheduled(fixedDelayString = "${expiry-tracker.stock.coalescing.flush-interval-ms:100}")
+	public void flush() {
+		flush(false);
+	}
+
+	private void flush(boolean ignoreBackoff) {
+		drainLock.lock();
+		try {
+			StockEventRingBuffer queue = this.queue;
+			if (queue == null) {
+				return;
+			}
+			pendingThrough = Math.max(pendingThrough, queue.drain(this::accumulate));
+			if (pendingThrough == appliedThrough) {
+				return;
+			}
+
+			long through = pendingThrough;
+			long now = System.nanoTime();
+			Iterator<Map.Entry<String, PendingStore>> stores = pendingByStore.entrySet().iterator();
+			while (stores.hasNext()) {
+				Map.Entry<String, PendingStore> entry = stores.next();
+				PendingStore store = entry.getValue();
+				boolean due = ignoreBackoff || store.failedAttempts == 0 || now - store.retryAt >= 0;
+				if (due && applyStore(entry.getKey(), store, through)) {
+					stores.remove();
+				}
+			}
+
+			long floor = appliedFloor();
+			if (floor > appliedThrough) {
+				appliedThrough = floor;
+				journal.discardThrough(floor);
+			}
+		} finally {
+			drainLock.unlock();
+		}
+	}
+
+	/**
+	 * Aplica los ajustes de una tienda y marca sus secuencias hasta
+	 * {@code through}, en una transacción.
+	 *
+	 * @return Si la tienda quedó aplicada (o apartada) y puede olvidarse.
+	 */
+	private boolean applyStore(String storeId, PendingStore store, long through) {
+		List<StockAdjustmentCommand> rejected;
+		try {
+			rejected = transactionOperations.execute(status -> StoreContext.callAs(storeId, () -> {
+				List<StockAdjustmentCommand> storeRejected = applyChanged(storeId, store.changedLots());
+				journal.markApplied(storeId, through);
+				return storeRejected;
+			}));
+		} catch (RuntimeException ex) {
+			store.failedAttempts++;
+			if (store.failedAttempts < maxAttempts) {
+				long delay = backOff(store);
+				log.warn("Falló el micro-lote de ajustes de stock diferidos de la tienda {} (intento {} de {}); "
+						+ "se reintenta en {} ms", storeId, store.failedAttempts, maxAttempts, delay, ex);
+				return false;
+			}
+			return isolate(storeId, store, through);
+		}
+		logRejected(storeId, rejected);
+		return true;
+	}
+
+	/**
+	 * Tras agotar los intentos, prueba cada lote de la tienda en una transacción
+	 * que se deshace y aparta solo los que fallan, en la transacción que aplica
+	 * el resto y marca las secuencias. Un error transitorio o de conexión no
+	 * culpa al lote: se conserva todo y se espera al siguiente intento.
+	 */
+	private boolean isolate(String storeId, PendingStore store, long through) {
+		Map<UUID, PendingLot> lots = store.changedLots();
+		Map<UUID, String> failures = new HashMap<>();
+		List<StockAdjustmentCommand> rejected;
+		try {
+			lots.forEach((id, lot) -> {
+				try {
+					transactionOperations.executeWithoutResult(status -> {
+						status.setRollbackOnly();
+						StoreContext.callAs(storeId, () -> applyNet(Map.of(id, lot)));
+					});
+				} catch (RuntimeException ex) {
+					if (isTransient(ex)) {
+						throw ex;
+					}
+					failures.put(id, String.valueOf(ex));
+				}
+			});
+			Map<UUID, PendingLot> applicable = new HashMap<>(lots);
+			applicable.keySet().removeAll(failures.keySet());
+			rejected = transactionOperations.execute(status -> {
+				failures.forEach((id, reason) -> deadLetters.save(storeId, lots.get(id).commands(id), reason));
+				return StoreContext.callAs(storeId, () -> {
+					List<StockAdjustmentCommand> storeRejected = applyChanged(storeId, applicable);
+					journal.markApplied(storeId, through);
+					return storeRejected;
+				});
+			});
+		} catch (RuntimeException ex) {
+			store.failedAttempts++;
+			long delay = backOff(store);
+			log.error("No se pudieron aislar los ajustes de stock diferidos fallidos de la tienda {} tras {} "
+					+ "intentos; se reintenta en {} ms", storeId, store.failedAttempts, delay, ex);
+			return false;
+		}
+		if (!failures.isEmpty()) {
+			List<StockAdjustmentCommand> poisoned = new ArrayList<>();
+			failures.keySet().forEach(id -> poisoned.addAll(lots.get(id).commands(id)));
+			deadLettered.increment(poisoned.size());
+			log.error("Se apartaron {} ajustes de stock diferidos de la tienda {} tras {} intentos fallidos: {} ({})",
+					poisoned.size(), storeId, store.failedAttempts, poisoned, failures);
+		}
+		logRejected(storeId, rejected);
+		return true;
+	}
+
+	/**
+	 * Errores que no dependen del lote: conexión perdida, bloqueos, tiempo de
+	 * espera o la transacción que no se pudo abrir.
+	 */
+	private static boolean isTransient(RuntimeException ex) {
+		return ex instanceof TransientDataAccessException || ex instanceof RecoverableDataAccessException
+				|| ex instanceof DataAccessResourceFailureException || ex instanceof TransactionException;
+	}
+
+	/**
+	 * Programa el siguiente intento de la tienda con espera exponencial.
+	 *
+	 * @return La espera en milisegundos.
+	 */
+	private long backOff(PendingStore store) {
+		long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(store.failedAttempts - 1, 30));
+		store.retryAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+		return delay;
+	}
+
+	/**
+	 * Última secuencia aplicada en todas las tiendas: la anterior a la primera
+	 * pendiente de alguna, o la última vaciada si no queda ninguna.
+	 */
+	private long appliedFloor() {
+		return pendingByStore.values().stream()
+				.mapToLong(store -> store.firstSequence - 1)
+				.min()
+				.orElse(pendingThrough);
+	}
+
+	private List<StockAdjustmentCommand> applyChanged(String storeId, Map<UUID, PendingLot> lots) {
+		if (lots.isEmpty()) {
+			return List.of();
+		}
+		eventPublisher.publishEvent(ProductsChangedEvent.ofIds(storeId, lots.keySet()));
+		return applyNet(lots);
+	}
+
+	private static void logRejected(String storeId, List<StockAdjustmentCommand> rejected) {
+		if (!rejected.isEmpty()) {
+			log.warn("Se descartaron {} ajustes de stock diferidos de la tienda {} "
+					+ "(lote inactivo, de otra tienda o stock insuficiente): {}", rejected.size(), storeId, rejected);
+		}
+	}
+
+	/**
+	 * Aplica el delta neto de cada lote; los lotes cuyo neto rechaza la guarda,
+	 * o no cabe en un {@code int}, se reintentan ajuste a ajuste, en rondas: la
+	 * ronda {@code i} aplica en un lote JDBC el ajuste {@code i} de cada uno de
+	 * esos lotes.
+	 *
+	 * @return Los ajustes rechazados.
+	 */
+	private List<StockAdjustmentCommand> applyNet(Map<UUID, PendingLot> lots) {
+		Map<UUID, Integer> nets = new HashMap<>();
+		Set<UUID> retried = new HashSet<>();
+		lots.forEach((id, lot) -> {
+			if (lot.net == (int) lot.net) {
+				nets.put(id, (int) lot.net);
+			} else {
+				retried.add(id);
+			}
+		});
+		if (!nets.isEmpty()) {
+			retried.addAll(productRepository.adjustQuantities(nets));
+		}
+
+		List<StockAdjustmentCommand> rejected = new ArrayList<>();
+		int rounds = retried.stream().mapToInt(id -> lots.get(id).deltas.size()).max().orElse(0);
+		for (int round = 0; round < rounds; round++) {
+			Map<UUID, Integer> deltas = new HashMap<>();
+			for (UUID id : retried) {
+				List<Integer> lotDeltas = lots.get(id).deltas;
+				if (round < lotDeltas.size()) {
+					deltas.put(id, lotDeltas.get(round));
+				}
+			}
+			productRepository.adjustQuantities(deltas)
+					.forEach(id -> rejected.add(new StockAdjustmentCommand(id, deltas.get(id))));
+		}
+		return rejected;
+	}
+
+	private void accumulate(long sequence, String storeId, UUID productId, int delta) {
+		if (delta != 0) {
+			pendingByStore.computeIfAbsent(storeId, store -> new PendingStore(sequence))
+					.lots.computeIfAbsent(productId, id -> new PendingLot())
+					.add(delta);
+		}
+	}
+
+	/**
+	 * Ajustes pendientes de una tienda, desde su primera secuencia sin aplicar, y
+	 * sus intentos fallidos.
+	 */
+	private static final class PendingStore {
+
+		private final long firstSequence;
+		private final Map<UUID, PendingLot> lots = new HashMap<>();
+		private int failedAttempts;
+		// System.nanoTime() a partir del cual se reintenta
+		private long retryAt;
+
+		private PendingStore(long firstSequence) {
+			this.firstSequence = firstSequence;
+		}
+
+		/**
+		 * Los lotes cuyos ajustes no se anulan entre sí.
+		 */
+		private Map<UUID, PendingLot> changedLots() {
+			Map<UUID, PendingLot> changed = new HashMap<>();
+			lots.forEach((id, lot) -> {
+				if (lot.net != 0) {
+					changed.put(id, lot);
+				}
+			});
+			return changed;
+		}
+	}
+
+	/**
+	 * Ajustes pendientes de un lote: su suma y cada uno en orden de llegada, por
+	 * si el neto se rechaza. La suma es {@code long}: miles de ajustes de
+	 * {@code int} pueden desbordar un {@code int}.
+	 */
+	private static final class PendingLot {
+
+		private long net;
+		private final List<Integer> deltas = new ArrayList<>();
+
+		private void add(int delta) {
+			net += delta;
+			deltas.add(delta);
+		}
+
+		private List<StockAdjustmentCommand> commands(UUID id) {
+			return deltas.stream().map(delta -> new StockAdjustmentCommand(id, delta)).toList();
+		}
+	}
+
+	/**
+	 * Evita perder los ajustes pendientes en un apagado ordenado, sin esperar a
+	 * las tiendas que estaban esperando para reintentar.
+	 */
+	@PreDestroy
+	void flushOnShutdown() {
+		flush(true);
+	}
+
+	private static void requirePositive(int quantity) {
+		if (quantity <= 0) {
+			throw new IllegalArgumentException("La cantidad a ajustar debe ser mayor que cero");
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.StoreAvailabilityUseCase;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reparto de una consulta entre tiendas: cada tienda se consulta en su propio
+ * hilo virtual, con su tienda fijada en {@link StoreContext}, de modo que cada
+ * consulta es la misma lectura acotada (y resuelta por el índice que encabeza
+ * {@code store_id}) que haría una petición de esa tienda. Solo se recorren
+ * las tiendas a las que tiene acceso quien pregunta.
+ * * Las consultas en vuelo de todos los repartos comparten un cupo de
+ * {@code max-parallelism} permisos: un reparto sobre muchas tiendas no puede
+ * ocupar el pool de conexiones entero. Todo el reparto tiene un plazo; las
+ * tiendas que no responden a tiempo (o fallan) se informan como no
+ * disponibles y su consulta se cancela.
+ */
+@Slf4j
+@Service
+public class StoreAvailabilityService implements StoreAvailabilityUseCase {
+
+	private final ProductRepositoryPort productRepository;
+	private final StoreDirectoryPort storeDirectory;
+	private final Semaphore permits;
+	private final Duration timeout;
+
+	public StoreAvailabilityService(
+			ProductRepositoryPort productRepository,
+			StoreDirectoryPort storeDirectory,
+			@Value("${expiry-tracker.tenancy.fan-out.max-parallelism:4}") int maxParallelism,
+			@Value("${expiry-tracker.tenancy.fan-out.timeout:PT2S}") Duration timeout) {
+		this.productRepository = productRepository;
+		this.storeDirectory = storeDirectory;
+		this.permits = new Semaphore(maxParallelism);
+		this.timeout = timeout;
+	}
+
+	@Override
+	public StoreAvailability whereStocked(String ean13, String batchNumber, Set<String> allowedStores) {
+		if (ean13 == null || !ean13.matches("\\d{13}")) {
+			throw new IllegalArgumentException("El EAN-13 debe tener exactamente 13 dígitos numéricos");
+		}
+		String batch = batchNumber == null || batchNumber.isBlank() ? null : batchNumber.trim();
+		long deadline = System.nanoTime() + timeout.toNanos();
+
+		Map<String, Future<Optional<List<Product>>>> pending = new LinkedHashMap<>();
+		ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+		try {
+			for (String storeId : storeDirectory.findStoreIds()) {
+				if (!allowedStores.contains(storeId)) {
+					continue;
+				}
+				pending.put(storeId, executor.submit(() -> lotsIn(storeId, ean13, batch, deadline)));
+			}
+
+			List<StoreLots> stores = new ArrayList<>();
+			List<String> unavailable = new ArrayList<>();
+			for (var entry : pending.entrySet()) {
+				Optional<List<Product>> lots = await(entry.getKey(), entry.getValue(), deadline);
+				if (lots.isEmpty()) {
+					unavailable.add(entry.getKey());
+				} else if (!lots.get().isEmpty()) {
+					int quantity = lots.get().stream().mapToInt(Product::quantity).sum();
+					stores.add(new StoreLots(entry.getKey(), quantity, lots.get()));
+				}
+			}
+			return new StoreAvailability(ean13, batch, List.copyOf(stores), List.copyOf(unavailable));
+		} finally {
+			// Sin esperar: las consultas que siguen en curso ya se cancelaron
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return Vacío si no se obtuvo un permiso antes del plazo.
+	 */
+	private Optional<List<Product>> lotsIn(String storeId, String ean13, String batch, long deadline)
+			throws InterruptedException {
+		if (!permits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+			return Optional.empty();
+		}
+		try {
+			List<Product> lots = StoreContext.callAs(storeId, () -> productRepository.findByEan13(ean13));
+			return Optional.of(batch == null ? lots
+					: lots.stream().filter(lot -> lot.batchNumber().equals(batch)).toList());
+		} finally {
+			permits.release();
+		}
+	}
+
+	private static Optional<List<Product>> await(String storeId, Future<Optional<List<Product>>> future,
+			long deadline) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException ex) {
+			future.cancel(true);
+			log.warn("La tienda {} no respondió a tiempo en la consulta entre tiendas", storeId);
+		} catch (ExecutionException ex) {
+			log.warn("Falló la consulta de la tienda {} en la consulta entre tiendas", storeId, ex.getCause());
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			future.cancel(true);
+		}
+		return Optional.empty();
+	}
+}
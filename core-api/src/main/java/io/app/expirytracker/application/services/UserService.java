@@ -2,25 +2,42 @@ package io.app.expirytracker.application.services;
 
 import com.fasterxml.uuid.Generators;
 
+import io.app.expirytracker.application.ports.in.AssignUserRoleUseCase;
+import io.app.expirytracker.application.ports.in.AssignUserStoresUseCase;
 import io.app.expirytracker.application.ports.in.CreateUserUseCase;
+import io.app.expirytracker.application.ports.out.PasswordHasherPort;
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
 import io.app.expirytracker.application.ports.out.UserRepositoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Role;
 import io.app.expirytracker.domain.model.User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements CreateUserUseCase {
+public class UserService implements CreateUserUseCase, AssignUserRoleUseCase, AssignUserStoresUseCase {
 
 	private final UserRepositoryPort userRepository;
+	private final PasswordHasherPort passwordHasher;
+	private final StoreDirectoryPort storeDirectory;
 
+	/**
+	 * Registra un usuario guardando solo el hash de su contraseña.
+	 * * Sin {@code @Transactional} a propósito: el hash tarda decenas de
+	 * milisegundos y, dentro de una transacción, retendría una conexión del pool
+	 * todo ese tiempo. La consulta y el guardado son transaccionales por sí
+	 * mismos, y la restricción única del email cubre las altas simultáneas.
+	 */
 	@Override
-	@Transactional
 	public User create(CreateUserCommand command) {
-		// Validaciones de negocio (Unicidad)
+		// Validaciones de negocio (Unicidad) antes del hash, que es lo costoso
 		if (userRepository.existsByEmail(command.email())) {
 			throw new IllegalArgumentException("El email ya está registrado");
 		}
@@ -33,10 +50,71 @@ public class UserService implements CreateUserUseCase {
 				userId,
 				command.username(),
 				command.email(),
-				command.password() // Nota: Aquí agregaremos encriptación
-		);
+				passwordHasher.hash(command.password()),
+				// El registro es público: nunca concede más que el rol mínimo en la
+				// tienda por defecto; el acceso a otras tiendas se asigna aparte
+				Role.STAFF,
+				Set.of(StoreContext.DEFAULT_STORE));
 
 		// Persistencia
 		return userRepository.save(user);
 	}
+
+	/**
+	 * Único modo de conceder (o retirar) el rol de encargado: el registro
+	 * público siempre crea STAFF. El primer encargado lo crea
+	 * {@code ManagerBootstrap} desde la configuración.
+	 */
+	@Override
+	public User assignRole(UUID userId, Role role) {
+		if (role == null) {
+			throw new IllegalArgumentException("El rol es obligatorio");
+		}
+		return userRepository.updateRole(userId, role)
+				.orElseThrow(() -> new NoSuchElementException("No se encontró el usuario con ID: " + userId));
+	}
+
+	/**
+	 * Idempotente: varias instancias pueden ejecutarlo a la vez al arrancar. Si
+	 * otra crea el usuario entre la consulta y el alta, el alta falla por la
+	 * restricción única y se continúa con el usuario ya guardado.
+	 */
+	@Override
+	public User ensureManager(CreateUserCommand command) {
+		Optional<User> existing = userRepository.findByUsername(command.username());
+		User user;
+		if (existing.isPresent()) {
+			user = existing.get();
+		} else {
+			if (command.password() == null || command.password().length() < 8) {
+				throw new IllegalArgumentException("El encargado inicial [" + command.username()
+						+ "] no existe y su contraseña debe tener al menos 8 caracteres");
+			}
+			try {
+				user = create(command);
+			} catch (RuntimeException ex) {
+				user = userRepository.findByUsername(command.username()).orElseThrow(() -> ex);
+			}
+		}
+		return user.role() == Role.MANAGER ? user : assignRole(user.id(), Role.MANAGER);
+	}
+
+	/**
+	 * Único modo de dar acceso a otras tiendas: el registro solo concede la
+	 * tienda por defecto. Una tienda nueva existe en cuanto se asigna (ver
+	 * {@link StoreDirectoryPort}); no hace falta darla de alta aparte.
+	 */
+	@Override
+	public User assignStores(UUID userId, Set<String> stores) {
+		if (stores == null || stores.isEmpty()) {
+			throw new IllegalArgumentException("El usuario debe tener al menos una tienda");
+		}
+		Set<String> validated = stores.stream()
+				.map(StoreContext::requireValid)
+				.collect(Collectors.toUnmodifiableSet());
+		User user = userRepository.updateStores(userId, validated)
+				.orElseThrow(() -> new NoSuchElementException("No se encontró el usuario con ID: " + userId));
+		storeDirectory.invalidate();
+		return user;
+	}
 }
\ No newline at end of file
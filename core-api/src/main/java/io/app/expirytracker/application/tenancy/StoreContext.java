@@ -0,0 +1,71 @@
+package io.app.expirytracker.application.tenancy;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Tienda (tenant) sobre la que opera el hilo actual.
+ * * La fija por petición {@code StoreContextInterceptor} a partir de la
+ * cabecera {@code X-Store-Id}; las tareas que trabajan para otra tienda (el
+ * reparto entre tiendas, la carga de un índice) la fijan con
+ * {@link #callAs}. Sin tienda fijada se usa {@link #DEFAULT_STORE}: es la de
+ * los datos anteriores a la multi-tienda y la de un despliegue de una sola
+ * tienda.
+ */
+public final class StoreContext {
+
+	public static final String DEFAULT_STORE = "default";
+
+	private static final Pattern STORE_ID = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+	private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+	private StoreContext() {
+	}
+
+	public static String current() {
+		String storeId = CURRENT.get();
+		return storeId != null ? storeId : DEFAULT_STORE;
+	}
+
+	/**
+	 * Fija la tienda hasta {@link #clear()}. Para ámbitos acotados usar
+	 * {@link #callAs}.
+	 *
+	 * @throws IllegalArgumentException si el identificador no es válido.
+	 */
+	public static void set(String storeId) {
+		CURRENT.set(requireValid(storeId));
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Ejecuta la tarea con la tienda indicada y restaura la anterior al terminar.
+	 */
+	public static <T> T callAs(String storeId, Supplier<T> task) {
+		String previous = CURRENT.get();
+		CURRENT.set(requireValid(storeId));
+		try {
+			return task.get();
+		} finally {
+			if (previous != null) {
+				CURRENT.set(previous);
+			} else {
+				CURRENT.remove();
+			}
+		}
+	}
+
+	/**
+	 * @throws IllegalArgumentException si el identificador no es válido.
+	 */
+	public static String requireValid(String storeId) {
+		if (storeId == null || !STORE_ID.matcher(storeId).matches()) {
+			throw new IllegalArgumentException(
+					"El identificador de tienda debe tener de 1 a 32 letras, dígitos, '-' o '_'");
+		}
+		return storeId;
+	}
+}
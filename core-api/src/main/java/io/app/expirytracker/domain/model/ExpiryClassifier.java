@@ -0,0 +1,119 @@
+package io.app.expirytracker.domain.model;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluación en bloque de {@link Product#isExpired(LocalDate)} y
+ * {@link Product#isAboutToExpire(int, LocalDate)} para listas grandes
+ * (informes, analítica).
+ * * La fecha de referencia se obtiene una vez, las fechas de vencimiento se convierten a
+ * días desde la época en un {@code int[]} y la clasificación es una
+ * comparación de enteros por elemento sobre arrays primitivos, repartida entre
+ * los hilos del fork-join común cuando la lista es grande.
+ * * El reloj se inyecta (el de la tienda lo da
+ * {@code BusinessDateService#clock}) para que el resultado sea determinista en
+ * pruebas y reproducible en informes con fecha de corte.
+ */
+public final class ExpiryClassifier {
+
+	public static final byte VALID = 0;
+	public static final byte ABOUT_TO_EXPIRE = 1;
+	public static final byte EXPIRED = 2;
+
+	// Por debajo, repartir el trabajo cuesta más que hacerlo en un hilo
+	private static final int PARALLEL_THRESHOLD = 8_192;
+
+	private final Clock clock;
+
+	public ExpiryClassifier(Clock clock) {
+		this.clock = clock;
+	}
+
+	/**
+	 * Clasifica con la fecha actual del reloj, leída una sola vez.
+	 */
+	public Classification classify(List<Product> products, int daysThreshold) {
+		return classify(products, daysThreshold, LocalDate.now(clock));
+	}
+
+	/**
+	 * Equivale a evaluar {@code isExpired(today)} e
+	 * {@code isAboutToExpire(daysThreshold, today)} en cada producto.
+	 */
+	public static Classification classify(List<Product> products, int daysThreshold, LocalDate today) {
+		Product[] source = products.toArray(Product[]::new);
+		int[] expiryEpochDays = new int[source.length];
+		boolean[] active = new boolean[source.length];
+		range(source.length).forEach(i -> {
+			expiryEpochDays[i] = (int) source[i].expiryDate().toEpochDay();
+			active[i] = source[i].status() == ProductStatus.ACTIVE;
+		});
+		return classify(expiryEpochDays, active, daysThreshold, today);
+	}
+
+	/**
+	 * Variante sobre columnas ya extraídas, para quien clasifica los mismos
+	 * productos con varias fechas o umbrales.
+	 *
+	 * @param expiryEpochDays Vencimiento de cada producto en
+	 *                        {@link LocalDate#toEpochDay()}.
+	 * @param active          Si cada producto está ACTIVE.
+	 */
+	public static Classification classify(int[] expiryEpochDays, boolean[] active, int daysThreshold,
+			LocalDate today) {
+		if (expiryEpochDays.length != active.length) {
+			throw new IllegalArgumentException("Las columnas de vencimiento y estado deben tener el mismo tamaño");
+		}
+		long todayDay = today.toEpochDay();
+		// Vence antes del aviso: expiry < today + umbral (umbral negativo = nunca)
+		long warningDay = todayDay + daysThreshold;
+		byte[] states = new byte[expiryEpochDays.length];
+		range(states.length).forEach(i -> {
+			int expiry = expiryEpochDays[i];
+			states[i] = expiry < todayDay ? EXPIRED
+					: active[i] && expiry < warningDay ? ABOUT_TO_EXPIRE
+					: VALID;
+		});
+
+		int expired = 0;
+		int aboutToExpire = 0;
+		for (byte state : states) {
+			if (state == EXPIRED) {
+				expired++;
+			} else if (state == ABOUT_TO_EXPIRE) {
+				aboutToExpire++;
+			}
+		}
+		return new Classification(today, daysThreshold, states, expired, aboutToExpire);
+	}
+
+	private static IntStream range(int size) {
+		IntStream range = IntStream.range(0, size);
+		return size >= PARALLEL_THRESHOLD ? range.parallel() : range;
+	}
+
+	/**
+	 * Resultado de una clasificación, en el mismo orden que la entrada.
+	 *
+	 * @param states Estado de cada producto: {@link #VALID},
+	 *               {@link #ABOUT_TO_EXPIRE} o {@link #EXPIRED}.
+	 */
+	public record Classification(LocalDate referenceDate, int daysThreshold, byte[] states, int expiredCount,
+			int aboutToExpireCount) {
+
+		public int size() {
+			return states.length;
+		}
+
+		public boolean isExpired(int index) {
+			return states[index] == EXPIRED;
+		}
+
+		public boolean isAboutToExpire(int index) {
+			return states[index] == ABOUT_TO_EXPIRE;
+		}
+	}
+}
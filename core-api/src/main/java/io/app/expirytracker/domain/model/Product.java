@@ -11,14 +11,26 @@ public record Product(
     // Base de Datos lo asigne.
     UUID id,
 
+    String storeId, // Tienda (tenant) a la que pertenece el lote
     String ean13, // Código de barras universal (ej: 780...)
     String name,
     String batchNumber, // Lote para trazabilidad
     LocalDate expiryDate,
     Integer quantity, // Stock disponible
     String category, // Categoría (Salsas, Pastas, Mascotas, Congelados, etc.)
-    ProductStatus status // Estado de trazabilidad
-) {
+    ProductStatus status, // Estado de trazabilidad
+
+    // Versión para concurrencia optimista. Es null mientras el producto no se
+    // ha persistido; cada modificación en la base de datos la incrementa.
+    Long version) {
+
+  /**
+   * Crea un producto aún no persistido (sin versión).
+   */
+  public Product(UUID id, String storeId, String ean13, String name, String batchNumber, LocalDate expiryDate,
+      Integer quantity, String category, ProductStatus status) {
+    this(id, storeId, ean13, name, batchNumber, expiryDate, quantity, category, status, null);
+  }
 
   // Constructor Compacto
   public Product {
@@ -33,6 +45,10 @@ public record Product(
       throw new IllegalArgumentException("El estado del producto es obligatorio");
 
     // Validaciones de Texto
+    if (storeId == null || !storeId.matches("[A-Za-z0-9_-]{1,32}")) {
+      throw new IllegalArgumentException(
+          "La tienda del producto debe tener de 1 a 32 letras, dígitos, '-' o '_'");
+    }
     if (name == null || name.isBlank()) {
       throw new IllegalArgumentException("El nombre del producto no puede estar vacío");
     }
@@ -54,20 +70,26 @@ public record Product(
 
   // --- LÓGICA DE DOMINIO ---
 
-  public boolean isExpired() {
-    return LocalDate.now().isAfter(this.expiryDate);
+  /**
+   * El dominio no consulta el reloj: la fecha la aporta quien llama (la fecha
+   * de negocio de la tienda, {@code BusinessDateService}).
+   *
+   * @param today Fecha de referencia; para evaluar muchos productos con la
+   *              misma fecha, ver {@link ExpiryClassifier}.
+   */
+  public boolean isExpired(LocalDate today) {
+    return today.isAfter(this.expiryDate);
   }
 
   /**
    * Solo nos interesa alertar si el producto
    * está ACTIVE. Si ya fue SOLD o DISCARDED, la alerta no tiene sentido.
    */
-  public boolean isAboutToExpire(int daysThreshold) {
+  public boolean isAboutToExpire(int daysThreshold, LocalDate today) {
     if (this.status != ProductStatus.ACTIVE) {
       return false;
     }
-    LocalDate today = LocalDate.now();
     LocalDate warningDate = today.plusDays(daysThreshold);
-    return !isExpired() && this.expiryDate.isBefore(warningDate);
+    return !isExpired(today) && this.expiryDate.isBefore(warningDate);
   }
 }
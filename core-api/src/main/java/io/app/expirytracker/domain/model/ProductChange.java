@@ -0,0 +1,29 @@
+package io.app.expirytracker.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cambio de un lote en el feed de sincronización: su estado actual o, si fue
+ * descartado, una lápida con solo el ID.
+ *
+ * @param deleted   Lápida: el cliente debe borrar el lote de su copia local.
+ * @param product   Estado actual del lote; null en las lápidas.
+ * @param changedAt Última modificación del lote ({@code updated_at}).
+ */
+public record ProductChange(
+    UUID productId,
+    boolean deleted,
+    Product product,
+    LocalDateTime changedAt) {
+
+  /**
+   * Un lote DISCARDED se publica como lápida; cualquier otro estado (también
+   * SOLD), como el lote completo.
+   */
+  public static ProductChange of(Product product, LocalDateTime changedAt) {
+    return product.status() == ProductStatus.DISCARDED
+        ? new ProductChange(product.id(), true, null, changedAt)
+        : new ProductChange(product.id(), false, product, changedAt);
+  }
+}
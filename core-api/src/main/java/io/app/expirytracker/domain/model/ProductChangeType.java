@@ -0,0 +1,15 @@
+package io.app.expirytracker.domain.model;
+
+/**
+ * Tipo de modificación que originó una entrada del historial de un lote.
+ */
+public enum ProductChangeType {
+	/** Edición de los datos del lote. */
+	UPDATE,
+
+	/** Sobrescritura por clave de negocio (EAN-13 + Lote). */
+	UPSERT,
+
+	/** Baja lógica (el lote pasa a DISCARDED). */
+	DISCARD
+}
@@ -0,0 +1,31 @@
+package io.app.expirytracker.domain.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Estado de un lote inmediatamente antes de una modificación. Junto con el
+ * estado actual permite reconstruir cada versión (investigación de retiros).
+ *
+ * @param id         Identificador creciente de la entrada.
+ * @param changeType Modificación que reemplazó este estado.
+ * @param changedAt  Momento de la modificación.
+ * @param changedBy  Usuario que la realizó.
+ */
+public record ProductHistoryEntry(
+    long id,
+    UUID productId,
+    String storeId,
+    String ean13,
+    String name,
+    String batchNumber,
+    LocalDate expiryDate,
+    Integer quantity,
+    String category,
+    ProductStatus status,
+    Long version,
+    ProductChangeType changeType,
+    LocalDateTime changedAt,
+    String changedBy) {
+}
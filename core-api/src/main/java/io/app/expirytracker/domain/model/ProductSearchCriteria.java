@@ -5,8 +5,11 @@ import java.time.LocalDate;
 /**
  * Criterios de búsqueda para productos.
  * Encapsula la lógica de validación de los filtros en el dominio.
+ * * {@code storeId} acota la búsqueda a una tienda; no es un filtro del
+ * cliente, lo fija el servicio con la tienda de la petición.
  */
 public record ProductSearchCriteria(
+		String storeId,
 		String name,
 		String ean,
 		String batch,
@@ -15,14 +18,28 @@ public record ProductSearchCriteria(
 		Integer daysThreshold,
 		ProductStatus status,
 		Integer page,
-		Integer size) {
+		Integer size,
+		ProductSort sort) {
+
+	public ProductSearchCriteria {
+		if (sort == null)
+			sort = ProductSort.DEFAULT;
+	}
 
 	/**
 	 * Crea una instancia con todos los filtros en null.
 	 * Útil para búsquedas globales donde se aplicarán los filtros por defecto.
 	 */
 	public static ProductSearchCriteria empty() {
-		return new ProductSearchCriteria(null, null, null, null, null, null, null, null, null);
+		return new ProductSearchCriteria(null, null, null, null, null, null, null, null, null, null, null);
+	}
+
+	/**
+	 * @return Una copia del criterio acotada a la tienda indicada.
+	 */
+	public ProductSearchCriteria withStoreId(String storeId) {
+		return new ProductSearchCriteria(storeId, name, ean, batch, expiredBefore, isExpired, daysThreshold, status,
+				page, size, sort);
 	}
 
 	/**
@@ -0,0 +1,72 @@
+package io.app.expirytracker.domain.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Orden de una búsqueda de productos. Solo se admiten los campos de
+ * {@link Field}: cada uno tiene un índice que entrega las filas ya ordenadas,
+ * de modo que paginar no obliga a ordenar la tabla completa.
+ *
+ * @param field      Campo de ordenación.
+ * @param descending true para orden descendente.
+ */
+public record ProductSort(Field field, boolean descending) {
+
+	/** Orden por defecto: FEFO, primero lo que vence antes. */
+	public static final ProductSort DEFAULT = new ProductSort(Field.EXPIRY_DATE, false);
+
+	public enum Field {
+		EXPIRY_DATE("expiryDate"),
+		NAME("name"),
+		QUANTITY("quantity"),
+		CREATED_AT("createdAt");
+
+		private final String property;
+
+		Field(String property) {
+			this.property = property;
+		}
+
+		/** Nombre del campo en la API (ej. {@code expiryDate}). */
+		public String property() {
+			return property;
+		}
+	}
+
+	public ProductSort {
+		if (field == null)
+			throw new IllegalArgumentException("El campo de ordenación es obligatorio");
+	}
+
+	/**
+	 * Interpreta el formato de la API {@code campo[,asc|desc]}.
+	 *
+	 * @param value Valor recibido; null o vacío equivale a {@link #DEFAULT}.
+	 * @throws IllegalArgumentException si el campo no está permitido o la
+	 *                                  dirección no es asc/desc.
+	 */
+	public static ProductSort parse(String value) {
+		if (value == null || value.isBlank()) {
+			return DEFAULT;
+		}
+		String[] parts = value.split(",", -1);
+		String property = parts[0].trim();
+		Field field = Arrays.stream(Field.values())
+				.filter(candidate -> candidate.property.equals(property))
+				.findFirst()
+				.orElseThrow(() -> new IllegalArgumentException(String.format(
+						"No se puede ordenar por [%s]. Campos permitidos: %s", property,
+						Arrays.stream(Field.values()).map(Field::property).collect(Collectors.joining(", ")))));
+
+		if (parts.length == 1) {
+			return new ProductSort(field, false);
+		}
+		String direction = parts[1].trim().toLowerCase(Locale.ROOT);
+		if (parts.length > 2 || !(direction.equals("asc") || direction.equals("desc"))) {
+			throw new IllegalArgumentException("La dirección de ordenación debe ser 'asc' o 'desc'");
+		}
+		return new ProductSort(field, direction.equals("desc"));
+	}
+}
@@ -0,0 +1,13 @@
+package io.app.expirytracker.domain.model;
+
+/**
+ * Rol del usuario (RBAC). Viaja en el JWT y se traduce a la autoridad
+ * {@code ROLE_<nombre>}.
+ */
+public enum Role {
+	/** Personal de tienda: consulta productos y registra altas, cambios y stock. */
+	STAFF,
+
+	/** Encargado: además importa catálogos, da de baja y reemplaza por clave. */
+	MANAGER
+}
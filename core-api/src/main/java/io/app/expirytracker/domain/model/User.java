@@ -1,8 +1,12 @@
 package io.app.expirytracker.domain.model;
 
+import java.util.Set;
 import java.util.UUID;
 
-public record User(UUID id, String username, String email, String password) {
+/**
+ * @param stores Tiendas (tenants) en las que el usuario puede operar.
+ */
+public record User(UUID id, String username, String email, String password, Role role, Set<String> stores) {
   public User {
     // Validaciones de Existencia (Fail-fast)
     if (id == null)
@@ -22,5 +26,22 @@ public record User(UUID id, String username, String email, String password) {
     if (password == null || password.isBlank()) {
       throw new IllegalArgumentException("La contraseña no puede estar vacía");
     }
+
+    if (role == null) {
+      throw new IllegalArgumentException("El rol es obligatorio");
+    }
+
+    if (stores == null || stores.isEmpty()) {
+      throw new IllegalArgumentException("El usuario debe tener al menos una tienda");
+    }
+    stores = Set.copyOf(stores);
+  }
+
+  /**
+   * Usuario con el rol de menor privilegio ({@link Role#STAFF}) en la tienda
+   * por defecto (la de un despliegue de una sola tienda).
+   */
+  public User(UUID id, String username, String email, String password) {
+    this(id, username, email, password, Role.STAFF, Set.of("default"));
   }
 }
@@ -0,0 +1,32 @@
+package io.app.expirytracker.infrastructure.adapters.in.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.app.expirytracker.application.ports.in.AuthenticateUserUseCase;
+import io.app.expirytracker.application.ports.in.AuthenticateUserUseCase.AuthToken;
+import io.app.expirytracker.application.ports.in.AuthenticateUserUseCase.LoginCommand;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.LoginRequest;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+public class AuthController {
+
+	private final AuthenticateUserUseCase authenticateUserUseCase;
+
+	/**
+	 * Intercambia usuario y contraseña por un JWT. El resto de endpoints lo
+	 * reciben en {@code Authorization: Bearer <token>}.
+	 */
+	@PostMapping("/login")
+	public ResponseEntity<AuthToken> login(@Valid @RequestBody LoginRequest request) {
+		var command = new LoginCommand(request.username(), request.password());
+		return ResponseEntity.ok(authenticateUserUseCase.login(command));
+	}
+}
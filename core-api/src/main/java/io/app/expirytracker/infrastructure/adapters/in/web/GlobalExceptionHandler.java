@@ -1,5 +1,8 @@
 package io.app.expirytracker.infrastructure.adapters.in.web;
 
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,11 +11,14 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.time.LocalDateTime;
+import java.util.ConcurrentModificationException;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -74,6 +80,74 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(body, HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Captura los conflictos de concurrencia optimista: la versión enviada en
+	 * If-Match ya no es la vigente o los reintentos se agotaron. También el alta
+	 * concurrente de un mismo EAN-13 + Lote, que la base de datos rechaza por
+	 * clave única.
+	 * Se responde 409 (Conflict) para que el cliente relea y reintente.
+	 */
+	@ExceptionHandler({ ConcurrentModificationException.class, OptimisticLockingFailureException.class,
+			DuplicateKeyException.class })
+	public ResponseEntity<Object> handleConflict(RuntimeException ex) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.CONFLICT.value());
+		body.put("error", "Conflicto de Concurrencia");
+		body.put("message", ex instanceof ConcurrentModificationException
+				? ex.getMessage()
+				: "El recurso fue modificado por otro proceso. Vuelva a consultarlo y reintente.");
+
+		return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+	}
+
+	/**
+	 * Captura las credenciales inválidas del login. El mensaje no distingue
+	 * entre usuario inexistente y contraseña incorrecta.
+	 */
+	@ExceptionHandler(SecurityException.class)
+	public ResponseEntity<Object> handleInvalidCredentials(SecurityException ex) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.UNAUTHORIZED.value());
+		body.put("error", "No Autorizado");
+		body.put("message", ex.getMessage());
+
+		return new ResponseEntity<>(body, HttpStatus.UNAUTHORIZED);
+	}
+
+	/**
+	 * Captura el acceso a una tienda que no figura en el token del usuario.
+	 */
+	@ExceptionHandler(AccessDeniedException.class)
+	public ResponseEntity<Object> handleAccessDenied(AccessDeniedException ex) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.FORBIDDEN.value());
+		body.put("error", "Acceso Denegado");
+		body.put("message", ex.getMessage());
+
+		return new ResponseEntity<>(body, HttpStatus.FORBIDDEN);
+	}
+
+	/**
+	 * Captura el rechazo de trabajo por saturación (p. ej. la cola de hash de
+	 * contraseñas llena). Se responde 503 con Retry-After para que el cliente
+	 * reintente más tarde en lugar de esperar indefinidamente.
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	public ResponseEntity<Object> handleRejectedExecution(RejectedExecutionException ex) {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", HttpStatus.SERVICE_UNAVAILABLE.value());
+		body.put("error", "Servicio Saturado");
+		body.put("message", ex.getMessage());
+
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(body);
+	}
+
 	/**
 	 * Captura los errores de validación de los DTOs (@Valid).
 	 * Traduce las anotaciones de Jakarta (comodines) a una respuesta 400.
@@ -2,25 +2,47 @@ package io.app.expirytracker.infrastructure.adapters.in.web;
 
 import jakarta.validation.Valid;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase;
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
 import io.app.expirytracker.application.ports.in.CreateProductUseCase;
 import io.app.expirytracker.application.ports.in.DeleteProductUseCase;
 import io.app.expirytracker.application.ports.in.FindProductUseCase;
+import io.app.expirytracker.application.ports.in.ImportProductsUseCase;
+import io.app.expirytracker.application.ports.in.ImportProductsUseCase.ImportResult;
+import io.app.expirytracker.application.ports.in.PickStockUseCase;
+import io.app.expirytracker.application.ports.in.PickStockUseCase.PickPlan;
+import io.app.expirytracker.application.ports.in.StoreAvailabilityUseCase;
+import io.app.expirytracker.application.ports.in.StoreAvailabilityUseCase.StoreAvailability;
 import io.app.expirytracker.application.ports.in.UpdateProductUseCase;
+import io.app.expirytracker.application.ports.in.UpsertProductUseCase;
+import io.app.expirytracker.application.ports.in.UpsertProductUseCase.UpsertProductCommand;
+import io.app.expirytracker.application.ports.in.UpsertProductUseCase.UpsertResult;
 import io.app.expirytracker.application.ports.in.CreateProductUseCase.CreateProductCommand;
 import io.app.expirytracker.application.ports.in.UpdateProductUseCase.UpdateProductCommand;
 import io.app.expirytracker.domain.model.PaginatedResult;
 import io.app.expirytracker.domain.model.Product;
 import io.app.expirytracker.domain.model.ProductSearchCriteria;
+import io.app.expirytracker.domain.model.ProductSort;
 import io.app.expirytracker.domain.model.ProductStatus;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.ProductImportRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.ProductLookupRequest;
 import io.app.expirytracker.infrastructure.adapters.in.web.dtos.ProductRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.ProductUpsertBatchRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.ProductUpsertRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.StockAdjustmentBatchRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.StockAdjustmentRequest;
+import io.app.expirytracker.infrastructure.tenancy.StoreAccess;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -31,6 +53,11 @@ public class ProductController {
 	private final FindProductUseCase findProductUseCase;
 	private final UpdateProductUseCase updateProductUseCase;
 	private final DeleteProductUseCase deleteProductUseCase;
+	private final ImportProductsUseCase importProductsUseCase;
+	private final UpsertProductUseCase upsertProductUseCase;
+	private final AdjustStockUseCase adjustStockUseCase;
+	private final PickStockUseCase pickStockUseCase;
+	private final StoreAvailabilityUseCase storeAvailabilityUseCase;
 
 	@PostMapping
 	public ResponseEntity<Product> createProduct(@Valid @RequestBody ProductRequest request) {
@@ -46,6 +73,27 @@ public class ProductController {
 		return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
 	}
 
+	/**
+	 * Importación masiva de lotes (cargas iniciales y migraciones).
+	 * Los pares EAN-13 + Lote que ya existen se omiten y se informan en el
+	 * resumen, por lo que la misma carga puede reenviarse sin duplicar datos.
+	 */
+	@PostMapping("/import")
+	public ResponseEntity<ImportResult> importProducts(@Valid @RequestBody ProductImportRequest request) {
+		List<CreateProductCommand> commands = request.products().stream()
+				.map(item -> new CreateProductCommand(
+						item.ean13(),
+						item.name(),
+						item.batchNumber(),
+						item.expiryDate(),
+						item.quantity(),
+						item.category()))
+				.toList();
+
+		ImportResult result = importProductsUseCase.importAll(commands);
+		return new ResponseEntity<>(result, HttpStatus.CREATED);
+	}
+
 	/**
 	 * Obtiene todos los productos del inventario de forma paginada.
 	 * No aplica ningún filtro por defecto.
@@ -66,10 +114,53 @@ public class ProductController {
 	@GetMapping("/{id}")
 	public ResponseEntity<Product> getById(@PathVariable UUID id) {
 		return findProductUseCase.findById(id)
-				.map(ResponseEntity::ok)
+				.map(product -> ResponseEntity.ok().eTag(eTag(product)).body(product))
 				.orElseThrow(() -> new NoSuchElementException("No se encontró el producto con ID: " + id));
 	}
 
+	/**
+	 * Lotes ACTIVOS de un código de barras en orden FEFO (lectura de escáner).
+	 * Devuelve una lista vacía si el EAN no tiene lotes activos.
+	 */
+	@GetMapping("/by-ean/{ean}")
+	public ResponseEntity<List<Product>> getByEan(@PathVariable String ean) {
+		return ResponseEntity.ok(findProductUseCase.findByEan13(ean));
+	}
+
+	/**
+	 * Recomendación de picking FEFO: qué lotes del EAN retirar y cuántas
+	 * unidades de cada uno para cubrir la cantidad pedida.
+	 * Ejemplo: {@code /by-ean/7791234000017/picking?quantity=12}
+	 */
+	@GetMapping("/by-ean/{ean}/picking")
+	public ResponseEntity<PickPlan> pickingPlan(@PathVariable String ean, @RequestParam int quantity) {
+		return ResponseEntity.ok(pickStockUseCase.plan(ean, quantity));
+	}
+
+	/**
+	 * Tiendas que tienen lotes ACTIVOS del EAN (y del lote, si se indica), con
+	 * sus cantidades. Es la única consulta que no se limita a la tienda de
+	 * {@code X-Store-Id}, pero sí a las tiendas del token del usuario; las que
+	 * no responden a tiempo se listan en {@code unavailableStores}.
+	 * Ejemplo: {@code /by-ean/7791234000017/stores?batch=L-2024-01}
+	 */
+	@GetMapping("/by-ean/{ean}/stores")
+	public ResponseEntity<StoreAvailability> storeAvailability(@PathVariable String ean,
+			@RequestParam(required = false) String batch, Authentication authentication) {
+		return ResponseEntity.ok(
+				storeAvailabilityUseCase.whereStocked(ean, batch, StoreAccess.allowedStores(authentication)));
+	}
+
+	/**
+	 * Recupera varios lotes por ID en una sola consulta, en el orden pedido.
+	 * Los IDs que no existen o no están ACTIVOS se omiten de la respuesta.
+	 * Se usa POST porque miles de UUIDs no caben en una URL.
+	 */
+	@PostMapping("/lookup")
+	public ResponseEntity<List<Product>> lookup(@Valid @RequestBody ProductLookupRequest request) {
+		return ResponseEntity.ok(findProductUseCase.findAllById(request.ids()));
+	}
+
 	/**
 	 * Realiza una búsqueda avanzada y paginada de productos aplicando múltiples
 	 * filtros opcionales.
@@ -78,6 +169,7 @@ public class ProductController {
 	 * Ejemplos:
 	 * {@code /search?name=fideo&page=0&size=20}
 	 * {@code /search?status=DISCARDED}
+	 * {@code /search?daysThreshold=7&sort=quantity,desc}
 	 *
 	 * @param page          Número de la página a obtener (base 0).
 	 * @param size          Tamaño de la página.
@@ -88,6 +180,8 @@ public class ProductController {
 	 * @param isExpired     Filtro para obtener vencidos o vigentes.
 	 * @param daysThreshold Umbral de días para búsqueda por proximidad a vencer.
 	 * @param status        Filtro por estado del producto.
+	 * @param sort          Orden {@code campo[,asc|desc]}: expiryDate (por
+	 *                      defecto), name, quantity o createdAt.
 	 * @return Una {@link ResponseEntity} que contiene el resultado paginado.
 	 */
 	@GetMapping("/search")
@@ -100,10 +194,11 @@ public class ProductController {
 			@RequestParam(required = false) Integer daysThreshold,
 			@RequestParam(required = false) ProductStatus status,
 			@RequestParam(defaultValue = "0") Integer page,
-			@RequestParam(defaultValue = "10") Integer size) {
+			@RequestParam(defaultValue = "10") Integer size,
+			@RequestParam(required = false) String sort) {
 
-		var criteria = new ProductSearchCriteria(name, ean, batch, expiredBefore, isExpired, daysThreshold, status, page,
-				size);
+		var criteria = new ProductSearchCriteria(null, name, ean, batch, expiredBefore, isExpired, daysThreshold, status, page,
+				size, ProductSort.parse(sort));
 
 		PaginatedResult<Product> results = findProductUseCase.execute(criteria);
 		return ResponseEntity.ok(results);
@@ -124,10 +219,13 @@ public class ProductController {
 	 * Actualiza un producto existente por su ID.
 	 * Es idempotente: si envías los mismos datos varias veces, el resultado es el
 	 * mismo.
+	 * * Con la cabecera {@code If-Match} (ETag obtenido en el GET) la edición solo
+	 * se aplica si nadie modificó el producto desde entonces; si no, 409.
 	 */
 	@PutMapping("/{id}")
 	public ResponseEntity<Product> updateProduct(
 			@PathVariable UUID id,
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
 			@Valid @RequestBody ProductRequest request) {
 
 		var command = new UpdateProductCommand(
@@ -136,9 +234,106 @@ public class ProductController {
 				request.batchNumber(),
 				request.expiryDate(),
 				request.quantity(),
-				request.category());
+				request.category(),
+				parseVersion(ifMatch));
 
 		Product updatedProduct = updateProductUseCase.update(id, command);
-		return ResponseEntity.ok(updatedProduct);
+		return ResponseEntity.ok().eTag(eTag(updatedProduct)).body(updatedProduct);
+	}
+
+	private static String eTag(Product product) {
+		return "\"" + product.version() + "\"";
+	}
+
+	private static Long parseVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.isBlank()) {
+			return null;
+		}
+		String value = ifMatch.trim();
+		if (value.startsWith("W/")) {
+			value = value.substring(2);
+		}
+		try {
+			return Long.valueOf(value.replace("\"", ""));
+		} catch (NumberFormatException ex) {
+			throw new IllegalArgumentException("La cabecera If-Match debe contener el ETag devuelto por el producto.");
+		}
+	}
+
+	/**
+	 * Crea o actualiza un lote identificado por su clave de negocio.
+	 * Es idempotente y no requiere conocer el UUID: evita el ciclo
+	 * "crear → fallar por duplicado → buscar ID → actualizar".
+	 */
+	@PutMapping("/by-key/{ean}/{batch}")
+	public ResponseEntity<Product> upsertByKey(
+			@PathVariable String ean,
+			@PathVariable String batch,
+			@Valid @RequestBody ProductUpsertRequest request) {
+
+		var command = new UpsertProductCommand(
+				ean,
+				request.name(),
+				batch,
+				request.expiryDate(),
+				request.quantity(),
+				request.category());
+
+		return ResponseEntity.ok(upsertProductUseCase.upsert(command));
+	}
+
+	/**
+	 * Upsert por lotes para sincronizaciones de alta frecuencia (deltas de POS).
+	 * Los lotes no ACTIVOS se ignoran y se informan en el resumen.
+	 */
+	@PutMapping("/by-key")
+	public ResponseEntity<UpsertResult> upsertBatch(@Valid @RequestBody ProductUpsertBatchRequest request) {
+		List<UpsertProductCommand> commands = request.products().stream()
+				.map(item -> new UpsertProductCommand(
+						item.ean13(),
+						item.name(),
+						item.batchNumber(),
+						item.expiryDate(),
+						item.quantity(),
+						item.category()))
+				.toList();
+
+		return ResponseEntity.ok(upsertProductUseCase.upsertAll(commands));
+	}
+
+	/**
+	 * Descuenta unidades de un lote (venta). Atómico frente a otros escáneres
+	 * que vendan el mismo lote; responde 400 si no hay stock suficiente.
+	 */
+	@PostMapping("/{id}/stock/decrement")
+	public ResponseEntity<Product> decrementStock(
+			@PathVariable UUID id,
+			@Valid @RequestBody StockAdjustmentRequest request) {
+		return ResponseEntity.ok(adjustStockUseCase.decrease(id, request.quantity()));
+	}
+
+	/**
+	 * Repone unidades de un lote.
+	 */
+	@PostMapping("/{id}/stock/increment")
+	public ResponseEntity<Product> incrementStock(
+			@PathVariable UUID id,
+			@Valid @RequestBody StockAdjustmentRequest request) {
+		return ResponseEntity.ok(adjustStockUseCase.increase(id, request.quantity()));
+	}
+
+	/**
+	 * Recibe ajustes de stock diferidos. Se acumulan por lote y se aplican en el
+	 * siguiente micro-lote, por eso se responde 202 (Accepted). Con la cola
+	 * llena se responde 503 y el cliente reintenta el lote completo.
+	 */
+	@PostMapping("/stock/adjustments")
+	public ResponseEntity<Void> enqueueStockAdjustments(@Valid @RequestBody StockAdjustmentBatchRequest request) {
+		List<StockAdjustmentCommand> commands = request.adjustments().stream()
+				.map(item -> new StockAdjustmentCommand(item.productId(), item.delta()))
+				.toList();
+
+		adjustStockUseCase.enqueue(commands);
+		return ResponseEntity.accepted().build();
 	}
-}
\ No newline at end of file
+}
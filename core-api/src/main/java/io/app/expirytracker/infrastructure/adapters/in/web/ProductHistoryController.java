@@ -0,0 +1,48 @@
+package io.app.expirytracker.infrastructure.adapters.in.web;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.app.expirytracker.application.ports.in.ProductHistoryUseCase;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+public class ProductHistoryController {
+
+	private final ProductHistoryUseCase productHistoryUseCase;
+
+	/**
+	 * Estados anteriores de un lote, del más reciente al más antiguo.
+	 */
+	@GetMapping("/{id}/history")
+	public ResponseEntity<List<ProductHistoryEntry>> lotHistory(@PathVariable UUID id) {
+		return ResponseEntity.ok(productHistoryUseCase.lotHistory(id));
+	}
+
+	/**
+	 * Cambios de todos los lotes en {@code [from, to)}, hasta unos segundos antes
+	 * de ahora (solo entradas ya confirmadas). Para continuar, se repite la
+	 * consulta con {@code afterChangedAt} y {@code afterId} de la última entrada
+	 * recibida.
+	 */
+	@GetMapping("/history")
+	public ResponseEntity<List<ProductHistoryEntry>> changes(
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+			@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+			@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterChangedAt,
+			@RequestParam(required = false) Long afterId,
+			@RequestParam(defaultValue = "100") int limit) {
+		return ResponseEntity.ok(productHistoryUseCase.changes(from, to, afterChangedAt, afterId, limit));
+	}
+}
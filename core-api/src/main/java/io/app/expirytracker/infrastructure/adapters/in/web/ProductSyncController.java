@@ -0,0 +1,31 @@
+package io.app.expirytracker.infrastructure.adapters.in.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.app.expirytracker.application.ports.in.ProductSyncUseCase;
+import io.app.expirytracker.application.ports.in.ProductSyncUseCase.ChangeFeedPage;
+
+@RestController
+@RequestMapping("/api/v1/products")
+@RequiredArgsConstructor
+public class ProductSyncController {
+
+	private final ProductSyncUseCase productSyncUseCase;
+
+	/**
+	 * Cambios de lotes desde el último token recibido (sin token, desde el
+	 * principio). El cliente repite la petición con {@code nextToken} mientras
+	 * {@code hasMore} sea true y lo guarda para la próxima sincronización.
+	 */
+	@GetMapping("/changes")
+	public ResponseEntity<ChangeFeedPage> changes(
+			@RequestParam(required = false) String since,
+			@RequestParam(defaultValue = "500") int limit) {
+		return ResponseEntity.ok(productSyncUseCase.changesSince(since, limit));
+	}
+}
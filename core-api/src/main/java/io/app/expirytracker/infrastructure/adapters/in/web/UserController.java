@@ -3,23 +3,33 @@ package io.app.expirytracker.infrastructure.adapters.in.web;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import io.app.expirytracker.application.ports.in.AssignUserRoleUseCase;
+import io.app.expirytracker.application.ports.in.AssignUserStoresUseCase;
 import io.app.expirytracker.application.ports.in.CreateUserUseCase;
 import io.app.expirytracker.application.ports.in.CreateUserUseCase.CreateUserCommand;
 import io.app.expirytracker.domain.model.User;
 import io.app.expirytracker.infrastructure.adapters.in.web.dtos.UserRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.UserRoleRequest;
+import io.app.expirytracker.infrastructure.adapters.in.web.dtos.UserStoresRequest;
 import jakarta.validation.Valid;
 
+import java.util.UUID;
+
 @RestController
 @RequestMapping("/api/v1/users")
 @RequiredArgsConstructor
 public class UserController {
 
 	private final CreateUserUseCase createUserUseCase;
+	private final AssignUserRoleUseCase assignUserRoleUseCase;
+	private final AssignUserStoresUseCase assignUserStoresUseCase;
 
 	@PostMapping
 	public ResponseEntity<User> createUser(@Valid @RequestBody UserRequest request) {
@@ -32,4 +42,24 @@ public class UserController {
 		User createdUser = createUserUseCase.create(command);
 		return new ResponseEntity<>(createdUser, HttpStatus.CREATED);
 	}
+
+	/**
+	 * Cambia el rol de un usuario. Solo para encargados (ver SecurityConfig); el
+	 * nuevo rol se aplica cuando el usuario vuelve a iniciar sesión, porque el
+	 * token vigente conserva el anterior hasta que vence.
+	 */
+	@PutMapping("/{id}/role")
+	public ResponseEntity<User> assignRole(@PathVariable UUID id, @Valid @RequestBody UserRoleRequest request) {
+		return ResponseEntity.ok(assignUserRoleUseCase.assignRole(id, request.role()));
+	}
+
+	/**
+	 * Reemplaza las tiendas en las que opera un usuario (cabecera
+	 * {@code X-Store-Id}). Solo para encargados; como el rol, se aplica en el
+	 * próximo login del usuario.
+	 */
+	@PutMapping("/{id}/stores")
+	public ResponseEntity<User> assignStores(@PathVariable UUID id, @Valid @RequestBody UserStoresRequest request) {
+		return ResponseEntity.ok(assignUserStoresUseCase.assignStores(id, request.stores()));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO para el inicio de sesión.
+ */
+public record LoginRequest(
+		@NotBlank(message = "El nombre de usuario es obligatorio") String username,
+
+		@NotBlank(message = "La contraseña es obligatoria") String password) {
+}
@@ -0,0 +1,29 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.time.LocalDate;
+import java.util.List;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para la importación masiva de lotes.
+ * A diferencia de {@link ProductRequest}, admite fechas de vencimiento pasadas
+ * porque las migraciones incluyen lotes históricos.
+ */
+public record ProductImportRequest(
+		@NotEmpty(message = "La importación debe contener al menos un producto") @Size(max = 50000, message = "La importación admite como máximo 50000 productos por solicitud") List<@Valid Item> products) {
+
+	public record Item(
+			@NotBlank(message = "El código EAN-13 es obligatorio") @Pattern(regexp = "\\d{13}", message = "El EAN-13 debe tener exactamente 13 dígitos") String ean13,
+
+			@NotBlank(message = "El nombre del producto es obligatorio") String name,
+
+			@NotBlank(message = "El número de lote es obligatorio") String batchNumber,
+
+			@NotNull(message = "La fecha de vencimiento es obligatoria") LocalDate expiryDate,
+
+			@NotNull(message = "La cantidad es obligatoria") @Min(value = 0, message = "El stock no puede ser negativo") Integer quantity,
+
+			@NotBlank(message = "La categoría es obligatoria") String category) {
+	}
+}
@@ -0,0 +1,12 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.util.List;
+import java.util.UUID;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para la búsqueda de varios lotes por ID (listas de alertas, historial).
+ */
+public record ProductLookupRequest(
+		@NotEmpty(message = "La búsqueda debe incluir al menos un ID") @Size(max = 5000, message = "La búsqueda admite como máximo 5000 IDs") List<@NotNull UUID> ids) {
+}
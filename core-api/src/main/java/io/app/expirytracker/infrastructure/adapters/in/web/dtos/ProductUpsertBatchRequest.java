@@ -0,0 +1,12 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.util.List;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para el upsert por lotes (sincronizaciones desde sistemas POS).
+ */
+public record ProductUpsertBatchRequest(
+		@NotEmpty(message = "El lote de sincronización debe contener al menos un producto") @Size(max = 5000, message = "El lote de sincronización admite como máximo 5000 productos") List<@Valid ProductRequest> products) {
+}
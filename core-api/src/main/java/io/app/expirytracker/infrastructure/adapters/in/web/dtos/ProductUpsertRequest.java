@@ -0,0 +1,17 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.time.LocalDate;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para el upsert de un lote identificado por EAN-13 + Lote en la URL.
+ */
+public record ProductUpsertRequest(
+		@NotBlank(message = "El nombre del producto es obligatorio") String name,
+
+		@NotNull(message = "La fecha de vencimiento es obligatoria") @FutureOrPresent(message = "La fecha de vencimiento no puede ser una fecha pasada") LocalDate expiryDate,
+
+		@NotNull(message = "La cantidad es obligatoria") @Min(value = 0, message = "El stock no puede ser negativo") Integer quantity,
+
+		@NotBlank(message = "La categoría es obligatoria") String category) {
+}
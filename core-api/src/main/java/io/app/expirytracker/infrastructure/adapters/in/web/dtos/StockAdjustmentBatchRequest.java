@@ -0,0 +1,22 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.util.List;
+import java.util.UUID;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para el envío de ajustes de stock diferidos (ráfagas de escáneres).
+ */
+public record StockAdjustmentBatchRequest(
+		@NotEmpty(message = "Debe enviar al menos un ajuste") @Size(max = 10000, message = "Se admiten como máximo 10000 ajustes por solicitud") List<@Valid Item> adjustments) {
+
+	/**
+	 * @param delta Positivo para reposición, negativo para venta.
+	 */
+	public record Item(
+			@NotNull(message = "El ID del producto es obligatorio") UUID productId,
+
+			@NotNull(message = "El ajuste es obligatorio") Integer delta) {
+	}
+}
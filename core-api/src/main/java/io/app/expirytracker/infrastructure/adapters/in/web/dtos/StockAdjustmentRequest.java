@@ -0,0 +1,10 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para una venta o reposición de unidades sobre un lote.
+ */
+public record StockAdjustmentRequest(
+		@NotNull(message = "La cantidad es obligatoria") @Positive(message = "La cantidad a ajustar debe ser mayor que cero") Integer quantity) {
+}
@@ -0,0 +1,11 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import io.app.expirytracker.domain.model.Role;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO para cambiar el rol de un usuario (solo encargados).
+ */
+public record UserRoleRequest(
+		@NotNull(message = "El rol es obligatorio") Role role) {
+}
@@ -0,0 +1,11 @@
+package io.app.expirytracker.infrastructure.adapters.in.web.dtos;
+
+import java.util.Set;
+import jakarta.validation.constraints.*;
+
+/**
+ * DTO para reemplazar las tiendas de un usuario (solo encargados).
+ */
+public record UserStoresRequest(
+		@NotEmpty(message = "El usuario debe tener al menos una tienda") @Size(max = 100, message = "Un usuario admite como máximo 100 tiendas") Set<@NotBlank(message = "El identificador de tienda es obligatorio") String> stores) {
+}
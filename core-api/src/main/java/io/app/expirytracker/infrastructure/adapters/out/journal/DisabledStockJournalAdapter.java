@@ -0,0 +1,35 @@
+package io.app.expirytracker.infrastructure.adapters.out.journal;
+
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.application.ports.out.StockJournalPort;
+
+/**
+ * Sin registro local: los ajustes diferidos solo viven en memoria y un
+ * apagado ordenado los aplica, pero una caída del proceso pierde los del
+ * último intervalo de vaciado.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry-tracker.stock.write-behind.journal.enabled", havingValue = "false", matchIfMissing = true)
+public class DisabledStockJournalAdapter implements StockJournalPort {
+
+	@Override
+	public void append(long firstSequence, String storeId, List<StockAdjustmentCommand> adjustments) {
+	}
+
+	@Override
+	public Recovery recover() {
+		return new Recovery(0, List.of());
+	}
+
+	@Override
+	public void markApplied(String storeId, long sequence) {
+	}
+
+	@Override
+	public void discardThrough(long sequence) {
+	}
+}
@@ -0,0 +1,188 @@
+package io.app.expirytracker.infrastructure.adapters.out.journal;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.application.ports.out.StockJournalPort;
+import io.app.expirytracker.infrastructure.adapters.out.journal.MappedJournal.Entry;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalCheckpointEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalStoreCheckpointEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaStockJournalCheckpointRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaStockJournalStoreCheckpointRepository;
+
+/**
+ * Registro local de ajustes de stock diferidos sobre {@link MappedJournal}.
+ * * Cada lote aceptado es una entrada ({@code [primera secuencia][tienda]
+ * [n][lote, delta]...}) con la última secuencia del lote: una caída a mitad de
+ * la escritura invalida el lote entero por CRC, nunca solo una parte.
+ * * Sin {@code fsync} cada lote queda en la caché de páginas del sistema al
+ * volver, lo que sobrevive a la caída del proceso; con {@code fsync} la
+ * petición espera además al disco, compartiendo el fsync con las que anexaron
+ * a la vez (confirmación en grupo), y sobrevive también a la caída del equipo.
+ * * La marca de lo aplicado vive en la base de datos, una por tienda
+ * ({@code stock_journal_store_checkpoints}) en la transacción que aplica esa
+ * tienda; la de {@code stock_journal_checkpoints} queda como suelo común de
+ * las versiones con una sola marca. Los segmentos aplicados en todas las
+ * tiendas se liberan después del commit.
+ * * El {@code id} del registro es obligatorio y debe ser único y estable por
+ * directorio: dos instancias con el mismo id se pisarían la marca, y un id
+ * nuevo sobre un directorio existente reaplicaría desde cero lo ya aplicado.
+ * Sin id no arranca, y el primer arranque lo deja escrito en el directorio
+ * ({@value #ID_FILE}) para rechazar después cualquier otro.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry-tracker.stock.write-behind.journal.enabled", havingValue = "true")
+public class FileStockJournalAdapter implements StockJournalPort {
+
+	// lote (2 long) + delta
+	private static final int ADJUSTMENT_BYTES = Long.BYTES * 2 + Integer.BYTES;
+	static final String ID_FILE = "journal.id";
+	// journal_id en stock_journal_checkpoints
+	private static final int MAX_ID_LENGTH = 64;
+
+	private final JpaStockJournalCheckpointRepository checkpoints;
+	private final JpaStockJournalStoreCheckpointRepository storeCheckpoints;
+	private final String journalId;
+	private final MappedJournal journal;
+	private List<JournaledAdjustment> recovered;
+
+	public FileStockJournalAdapter(
+			JpaStockJournalCheckpointRepository checkpoints,
+			JpaStockJournalStoreCheckpointRepository storeCheckpoints,
+			@Value("${expiry-tracker.stock.write-behind.journal.directory:./data/stock-journal}") Path directory,
+			@Value("${expiry-tracker.stock.write-behind.journal.id:}") String journalId,
+			@Value("${expiry-tracker.stock.write-behind.journal.fsync:false}") boolean fsync,
+			@Value("${expiry-tracker.stock.write-behind.journal.segment-size:8MB}") DataSize segmentSize) {
+		if (!StringUtils.hasText(journalId) || journalId.length() > MAX_ID_LENGTH) {
+			throw new IllegalStateException("El registro de stock necesita expiry-tracker.stock.write-behind.journal.id "
+					+ "(STOCK_JOURNAL_ID): un identificador único y estable de esta instancia, de hasta "
+					+ MAX_ID_LENGTH + " caracteres");
+		}
+		this.checkpoints = checkpoints;
+		this.storeCheckpoints = storeCheckpoints;
+		this.journalId = journalId;
+		try {
+			claimDirectory(directory, journalId);
+			this.journal = new MappedJournal(directory, "stock-", Math.toIntExact(segmentSize.toBytes()), fsync);
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo abrir el registro de stock en " + directory, e);
+		}
+		this.recovered = new ArrayList<>();
+		journal.recovered().forEach(entry -> recovered.addAll(decode(entry)));
+	}
+
+	/**
+	 * Asocia el directorio al id la primera vez y rechaza abrirlo con otro.
+	 */
+	private static void claimDirectory(Path directory, String journalId) throws IOException {
+		Files.createDirectories(directory);
+		Path idFile = directory.resolve(ID_FILE);
+		if (Files.notExists(idFile)) {
+			Files.writeString(idFile, journalId, StandardCharsets.UTF_8);
+			return;
+		}
+		String owner = Files.readString(idFile, StandardCharsets.UTF_8).strip();
+		if (!owner.equals(journalId)) {
+			throw new IllegalStateException("El registro de stock en " + directory + " pertenece al id [" + owner
+					+ "] y se configuró [" + journalId + "]: cada directorio debe abrirse siempre con el mismo id");
+		}
+	}
+
+	@Override
+	public void append(long firstSequence, String storeId, List<StockAdjustmentCommand> adjustments) {
+		byte[] store = storeId.getBytes(StandardCharsets.US_ASCII);
+		ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + Byte.BYTES + store.length + Integer.BYTES
+				+ ADJUSTMENT_BYTES * adjustments.size());
+		payload.putLong(firstSequence).put((byte) store.length).put(store).putInt(adjustments.size());
+		for (StockAdjustmentCommand adjustment : adjustments) {
+			payload.putLong(adjustment.productId().getMostSignificantBits())
+					.putLong(adjustment.productId().getLeastSignificantBits())
+					.putInt(adjustment.delta());
+		}
+		try {
+			journal.append(new Entry(firstSequence + adjustments.size() - 1, payload.array()));
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo registrar el ajuste de stock", e);
+		}
+	}
+
+	@Override
+	public synchronized Recovery recover() {
+		long floor = checkpoints.findById(journalId)
+				.map(StockJournalCheckpointEntity::getAppliedSequence)
+				.orElse(0L);
+		Map<String, Long> appliedByStore = storeCheckpoints.findByIdJournalId(journalId).stream()
+				.collect(Collectors.toMap(checkpoint -> checkpoint.getId().storeId(),
+						StockJournalStoreCheckpointEntity::getAppliedSequence));
+		List<JournaledAdjustment> pending = recovered.stream()
+				.filter(adjustment -> adjustment.sequence() > Math.max(floor,
+						appliedByStore.getOrDefault(adjustment.storeId(), 0L)))
+				.sorted(Comparator.comparingLong(JournaledAdjustment::sequence))
+				.toList();
+		// Las secuencias nuevas siguen a todas las usadas: una repetida quedaría por
+		// debajo de la marca de alguna tienda y no se recuperaría
+		long last = recovered.stream().mapToLong(JournaledAdjustment::sequence).max().orElse(0L);
+		for (long applied : appliedByStore.values()) {
+			last = Math.max(last, applied);
+		}
+		recovered = List.of();
+		return new Recovery(Math.max(floor, last), pending);
+	}
+
+	@Override
+	public void markApplied(String storeId, long sequence) {
+		// Se actualiza la fila cargada: la auditoría solo trata como nueva la que
+		// aún no existe
+		var key = new StockJournalStoreCheckpointEntity.Key(journalId, storeId);
+		StockJournalStoreCheckpointEntity checkpoint = storeCheckpoints.findById(key)
+				.orElseGet(() -> new StockJournalStoreCheckpointEntity(key, sequence));
+		checkpoint.setAppliedSequence(sequence);
+		storeCheckpoints.save(checkpoint);
+	}
+
+	@Override
+	public void discardThrough(long sequence) {
+		try {
+			journal.discardThrough(sequence);
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo liberar el registro de stock hasta " + sequence, e);
+		}
+	}
+
+	@PreDestroy
+	void close() {
+		journal.close();
+	}
+
+	private static List<JournaledAdjustment> decode(Entry entry) {
+		ByteBuffer payload = ByteBuffer.wrap(entry.payload());
+		long firstSequence = payload.getLong();
+		byte[] store = new byte[payload.get()];
+		payload.get(store);
+		String storeId = new String(store, StandardCharsets.US_ASCII);
+		int count = payload.getInt();
+		List<JournaledAdjustment> adjustments = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			adjustments.add(new JournaledAdjustment(firstSequence + i, storeId,
+					new UUID(payload.getLong(), payload.getLong()), payload.getInt()));
+		}
+		return adjustments;
+	}
+}
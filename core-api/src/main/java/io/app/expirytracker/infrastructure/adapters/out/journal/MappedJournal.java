@@ -0,0 +1,269 @@
+package io.app.expirytracker.infrastructure.adapters.out.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registro de solo anexado en segmentos de tamaño fijo proyectados en memoria
+ * (mmap).
+ * * Cada entrada es {@code [longitud][secuencia][contenido][CRC32C]}, con el
+ * CRC sobre secuencia y contenido. Tras la última entrada de un segmento
+ * queda una longitud 0; la lectura se detiene ahí o en la primera entrada
+ * incompleta o con CRC distinto, que es lo que una caída dejó a medias.
+ * * Confirmación en grupo: anexar copia la entrada al segmento bajo un cerrojo
+ * breve y después espera a que un fsync cubra su posición. Un solo hilo fuerza
+ * a la vez el tramo pendiente, y los que esperaban detrás y ya quedan
+ * cubiertos vuelven sin otro fsync: un fsync por grupo, no por entrada. Sin
+ * fsync, al volver la entrada está en la caché de páginas (sobrevive a la
+ * caída del proceso, no a la del equipo).
+ * * Compactación: un segmento cerrado se borra cuando su secuencia máxima ya
+ * está aplicada; si lo está también el activo, vuelve a escribirse desde el
+ * principio. Lo que quede detrás de la nueva escritura es anterior a lo
+ * aplicado y quien lee lo filtra por secuencia.
+ */
+@Slf4j
+final class MappedJournal implements Closeable {
+
+	record Entry(long sequence, byte[] payload) {
+	}
+
+	private record SealedSegment(Path path, long maxSequence) {
+	}
+
+	private static final class Segment {
+
+		private final Path path;
+		private final MappedByteBuffer buffer;
+		private int position;
+		private int forcedPosition;
+		// Cambia al reescribir desde el principio; invalida un fsync en curso
+		private int generation;
+		private long maxSequence;
+
+		private Segment(Path path, MappedByteBuffer buffer) {
+			this.path = path;
+			this.buffer = buffer;
+		}
+	}
+
+	private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES;
+	private static final int TRAILER_BYTES = Integer.BYTES;
+
+	private final Path directory;
+	private final String prefix;
+	private final int segmentBytes;
+	private final boolean fsync;
+	private final Object writeLock = new Object();
+	private final Object commitLock = new Object();
+
+	private final List<SealedSegment> sealed = new ArrayList<>();
+	private final List<Entry> recovered = new ArrayList<>();
+	private long nextSegmentIndex;
+	private Segment active;
+	// Bytes anexados desde la apertura y cuántos de ellos ya están en disco
+	private long appended;
+	private volatile long durable;
+
+	/**
+	 * Abre el registro: lee los segmentos existentes (ver {@link #recovered()})
+	 * y crea uno nuevo para los anexos.
+	 */
+	MappedJournal(Path directory, String prefix, int segmentBytes, boolean fsync) throws IOException {
+		this.directory = directory;
+		this.prefix = prefix;
+		this.segmentBytes = segmentBytes;
+		this.fsync = fsync;
+		Files.createDirectories(directory);
+		for (Path path : existingSegments()) {
+			List<Entry> entries = read(path);
+			recovered.addAll(entries);
+			sealed.add(new SealedSegment(path, entries.stream().mapToLong(Entry::sequence).max().orElse(0)));
+			nextSegmentIndex = Math.max(nextSegmentIndex, indexOf(path) + 1);
+		}
+		active = newSegment();
+	}
+
+	/**
+	 * @return Las entradas encontradas al abrir, en orden de escritura.
+	 */
+	List<Entry> recovered() {
+		return List.copyOf(recovered);
+	}
+
+	/**
+	 * Anexa la entrada y, con fsync, vuelve cuando está en disco.
+	 *
+	 * @throws IllegalArgumentException si la entrada no cabe en un segmento.
+	 */
+	void append(Entry entry) throws IOException {
+		byte[] record = encode(entry);
+		if (record.length + Integer.BYTES > segmentBytes) {
+			throw new IllegalArgumentException("La entrada (" + record.length
+					+ " bytes) no cabe en un segmento del registro de " + segmentBytes + " bytes");
+		}
+		long written;
+		synchronized (writeLock) {
+			if (active.position + record.length + Integer.BYTES > segmentBytes) {
+				roll();
+			}
+			active.buffer.put(active.position, record);
+			active.position += record.length;
+			active.buffer.putInt(active.position, 0);
+			active.maxSequence = Math.max(active.maxSequence, entry.sequence());
+			appended += record.length;
+			written = appended;
+		}
+		if (fsync) {
+			awaitDurable(written);
+		}
+	}
+
+	/**
+	 * Libera los segmentos cuyas entradas tienen todas secuencia menor o igual
+	 * que {@code sequence}.
+	 */
+	void discardThrough(long sequence) throws IOException {
+		synchronized (writeLock) {
+			var iterator = sealed.iterator();
+			while (iterator.hasNext()) {
+				SealedSegment segment = iterator.next();
+				if (segment.maxSequence() <= sequence) {
+					Files.deleteIfExists(segment.path());
+					iterator.remove();
+				}
+			}
+			if (active.position > 0 && active.maxSequence <= sequence) {
+				active.buffer.putInt(0, 0);
+				active.position = 0;
+				active.forcedPosition = 0;
+				active.maxSequence = 0;
+				active.generation++;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		synchronized (writeLock) {
+			if (fsync) {
+				active.buffer.force();
+			}
+		}
+	}
+
+	private void awaitDurable(long written) {
+		if (durable >= written) {
+			return;
+		}
+		synchronized (commitLock) {
+			if (durable >= written) {
+				return;
+			}
+			Segment segment;
+			int from;
+			int to;
+			int generation;
+			long covered;
+			synchronized (writeLock) {
+				segment = active;
+				from = segment.forcedPosition;
+				// Incluye la longitud 0 que cierra el segmento
+				to = segment.position + Integer.BYTES;
+				generation = segment.generation;
+				covered = appended;
+			}
+			segment.buffer.force(from, to - from);
+			synchronized (writeLock) {
+				if (segment == active && segment.generation == generation) {
+					segment.forcedPosition = Math.max(segment.forcedPosition, to - Integer.BYTES);
+				}
+			}
+			durable = covered;
+		}
+	}
+
+	// Bajo writeLock. El segmento saliente se fuerza entero: awaitDurable solo
+	// mira el activo
+	private void roll() throws IOException {
+		if (fsync) {
+			active.buffer.force();
+		}
+		sealed.add(new SealedSegment(active.path, active.maxSequence));
+		active = newSegment();
+	}
+
+	private Segment newSegment() throws IOException {
+		Path path = directory.resolve(String.format("%s%012d.log", prefix, nextSegmentIndex++));
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// El archivo se extiende con ceros: la primera longitud ya es 0
+			return new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes));
+		}
+	}
+
+	private List<Path> existingSegments() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> {
+				String name = path.getFileName().toString();
+				return name.startsWith(prefix) && name.endsWith(".log");
+			}).sorted(Comparator.comparingLong(this::indexOf)).toList();
+		}
+	}
+
+	private long indexOf(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(prefix.length(), name.length() - ".log".length()));
+	}
+
+	private static byte[] encode(Entry entry) {
+		ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + entry.payload().length + TRAILER_BYTES);
+		record.putInt(entry.payload().length).putLong(entry.sequence()).put(entry.payload());
+		CRC32C crc = new CRC32C();
+		crc.update(record.array(), Integer.BYTES, Long.BYTES + entry.payload().length);
+		record.putInt((int) crc.getValue());
+		return record.array();
+	}
+
+	private static List<Entry> read(Path path) throws IOException {
+		ByteBuffer buffer;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+		CRC32C crc = new CRC32C();
+		List<Entry> entries = new ArrayList<>();
+		while (buffer.remaining() >= HEADER_BYTES + TRAILER_BYTES) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			if (length == 0) {
+				break;
+			}
+			if (length < 0 || length > buffer.remaining() - Long.BYTES - TRAILER_BYTES) {
+				log.warn("Entrada incompleta en {} (byte {}); se ignora el resto del segmento", path, start);
+				break;
+			}
+			crc.reset();
+			crc.update(buffer.slice(buffer.position(), Long.BYTES + length));
+			long sequence = buffer.getLong();
+			byte[] payload = new byte[length];
+			buffer.get(payload);
+			if (buffer.getInt() != (int) crc.getValue()) {
+				log.warn("Entrada corrupta en {} (byte {}); se ignora el resto del segmento", path, start);
+				break;
+			}
+			entries.add(new Entry(sequence, payload));
+		}
+		return entries;
+	}
+}
@@ -0,0 +1,78 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import jakarta.persistence.EntityManager;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.out.ProductBulkImportPort;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+
+/**
+ * Importación masiva mediante JPA (estrategia por defecto).
+ * * Funciona con cualquier base de datos (incluida H2 en los tests). Procesa
+ * los registros por bloques: descarta los pares EAN-13 + Lote ya existentes
+ * en la tienda de cada lote con una consulta por bloque y tienda, persiste el resto y vacía el contexto de
+ * persistencia para que la memoria no crezca con el tamaño de la carga.
+ * Los INSERT se agrupan según {@code hibernate.jdbc.batch_size}.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry-tracker.persistence.bulk-import.strategy", havingValue = "jpa", matchIfMissing = true)
+public class JpaProductBulkImportAdapter implements ProductBulkImportPort {
+
+	private final EntityManager entityManager;
+	private final JpaProductRepository jpaProductRepository;
+	private final ProductMapper productMapper;
+	private final int chunkSize;
+
+	public JpaProductBulkImportAdapter(
+			EntityManager entityManager,
+			JpaProductRepository jpaProductRepository,
+			ProductMapper productMapper,
+			@Value("${expiry-tracker.persistence.bulk-import.chunk-size:500}") int chunkSize) {
+		this.entityManager = entityManager;
+		this.jpaProductRepository = jpaProductRepository;
+		this.productMapper = productMapper;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public int importAll(List<Product> products) {
+		// Claves ya vistas en esta carga: evita duplicados dentro del propio archivo
+		Set<String> seenKeys = new HashSet<>();
+		int imported = 0;
+
+		for (int from = 0; from < products.size(); from += chunkSize) {
+			List<Product> chunk = products.subList(from, Math.min(from + chunkSize, products.size()));
+
+			Map<String, Set<String>> eansByStore = new HashMap<>();
+			chunk.forEach(product -> eansByStore.computeIfAbsent(product.storeId(), store -> new HashSet<>())
+					.add(product.ean13()));
+			eansByStore.forEach((storeId, eans) -> jpaProductRepository
+					.findBatchKeysByStoreIdAndEan13In(storeId, eans)
+					.forEach(batchKey -> seenKeys.add(storeId + "|" + batchKey)));
+
+			for (Product product : chunk) {
+				if (seenKeys.add(key(product))) {
+					entityManager.persist(productMapper.toEntity(product));
+					imported++;
+				}
+			}
+
+			entityManager.flush();
+			entityManager.clear();
+		}
+		return imported;
+	}
+
+	private static String key(Product product) {
+		return product.storeId() + "|" + product.ean13() + "|" + product.batchNumber();
+	}
+}
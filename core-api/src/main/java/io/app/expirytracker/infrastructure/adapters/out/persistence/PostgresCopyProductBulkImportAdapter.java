@@ -0,0 +1,163 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.out.ProductBulkImportPort;
+import io.app.expirytracker.domain.model.Product;
+
+/**
+ * Importación masiva mediante {@code COPY FROM STDIN} de PostgreSQL.
+ * * Pensada para cargas iniciales y migraciones de millones de lotes, donde
+ * incluso los INSERT por lotes de Hibernate se quedan cortos:
+ * 1. Los registros validados se envían en streaming (CSV) a una tabla temporal
+ * de staging, sin pasar por el contexto de persistencia.
+ * 2. Un único {@code INSERT ... SELECT ... ON CONFLICT} los fusiona en
+ * {@code products}, omitiendo los pares EAN-13 + Lote que ya existen en la
+ * tienda del lote en cualquier estado (también con la tabla particionada, donde
+ * {@code uk_product_batch} incluye el estado) y rellenando las columnas de
+ * auditoría.
+ * * Usa la conexión de la transacción en curso, por lo que la carga completa se
+ * confirma o se revierte de forma atómica. Solo se activa con
+ * {@code expiry-tracker.persistence.bulk-import.strategy=copy}.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry-tracker.persistence.bulk-import.strategy", havingValue = "copy")
+@RequiredArgsConstructor
+public class PostgresCopyProductBulkImportAdapter implements ProductBulkImportPort {
+
+	private static final String STAGING_TABLE = "products_import_staging";
+
+	// ON COMMIT DELETE ROWS: la tabla vive en la sesión (conexión del pool) y se
+	// vacía al confirmar, así no hay que crearla en cada importación.
+	private static final String CREATE_STAGING_SQL = """
+			CREATE TEMP TABLE IF NOT EXISTS %s (
+			    id uuid NOT NULL,
+			    store_id varchar(32) NOT NULL,
+			    ean13 varchar(13) NOT NULL,
+			    name varchar(255) NOT NULL,
+			    batch_number varchar(255) NOT NULL,
+			    expiry_date date NOT NULL,
+			    quantity integer NOT NULL,
+			    category varchar(255) NOT NULL,
+			    status varchar(20) NOT NULL
+			) ON COMMIT DELETE ROWS""".formatted(STAGING_TABLE);
+
+	private static final String COPY_SQL = "COPY " + STAGING_TABLE
+			+ " (id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status) FROM STDIN (FORMAT csv)";
+
+	// DISTINCT ON descarta duplicados dentro de la propia carga (ON CONFLICT no
+	// admite que una misma sentencia afecte dos veces a la misma fila).
+	private static final String MERGE_SQL = """
+			INSERT INTO products (id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status,
+			                      version, created_at, created_by, updated_at, updated_by)
+			SELECT DISTINCT ON (s.store_id, s.ean13, s.batch_number)
+			       s.id, s.store_id, s.ean13, s.name, s.batch_number, s.expiry_date, s.quantity, s.category,
+			       s.status, 0, ?, ?, ?, ?
+			FROM %s s
+			WHERE NOT EXISTS (SELECT 1 FROM products p
+			                  WHERE p.store_id = s.store_id AND p.ean13 = s.ean13
+			                    AND p.batch_number = s.batch_number)
+			ORDER BY s.store_id, s.ean13, s.batch_number
+			ON CONFLICT ON CONSTRAINT uk_product_batch DO NOTHING""".formatted(STAGING_TABLE);
+
+	private final DataSource dataSource;
+	private final AuditorAware<String> auditorProvider;
+	private final Clock clock;
+
+	@Override
+	public int importAll(List<Product> products) {
+		if (products.isEmpty()) {
+			return 0;
+		}
+
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute(CREATE_STAGING_SQL);
+				// Si en la misma transacción hubo una importación previa
+				statement.execute("TRUNCATE " + STAGING_TABLE);
+			}
+
+			copyToStaging(connection, products);
+			return mergeIntoProducts(connection);
+		} catch (SQLException ex) {
+			throw new DataAccessResourceFailureException("Falló la importación masiva vía COPY", ex);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	private void copyToStaging(Connection connection, List<Product> products) throws SQLException {
+		PGConnection pgConnection = connection.unwrap(PGConnection.class);
+		try (Writer writer = new OutputStreamWriter(
+				new PGCopyOutputStream(pgConnection, COPY_SQL, 1 << 16), StandardCharsets.UTF_8)) {
+			for (Product product : products) {
+				writer.write(product.id().toString());
+				writer.write(',');
+				// Validado por Product: solo letras, dígitos, '-' y '_'
+				writer.write(product.storeId());
+				writer.write(',');
+				writer.write(product.ean13());
+				writer.write(',');
+				writeQuoted(writer, product.name());
+				writer.write(',');
+				writeQuoted(writer, product.batchNumber());
+				writer.write(',');
+				writer.write(product.expiryDate().toString());
+				writer.write(',');
+				writer.write(product.quantity().toString());
+				writer.write(',');
+				writeQuoted(writer, product.category());
+				writer.write(',');
+				writer.write(product.status().name());
+				writer.write('\n');
+			}
+		} catch (IOException ex) {
+			throw new UncheckedIOException("No se pudo enviar el stream COPY a PostgreSQL", ex);
+		}
+	}
+
+	private int mergeIntoProducts(Connection connection) throws SQLException {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+		String auditor = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+
+		try (PreparedStatement statement = connection.prepareStatement(MERGE_SQL)) {
+			statement.setTimestamp(1, now);
+			statement.setString(2, auditor);
+			statement.setTimestamp(3, now);
+			statement.setString(4, auditor);
+			return statement.executeUpdate();
+		}
+	}
+
+	/**
+	 * Escribe un campo de texto entre comillas dobles, duplicando las comillas
+	 * internas según el formato CSV de PostgreSQL.
+	 */
+	private static void writeQuoted(Writer writer, String value) throws IOException {
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
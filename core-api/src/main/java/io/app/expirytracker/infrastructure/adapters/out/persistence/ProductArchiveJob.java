@@ -0,0 +1,99 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductArchiveJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Archiva los lotes SOLD/DISCARDED sin cambios desde hace más de
+ * {@code min-age}, para que {@code products} contenga casi solo inventario
+ * ACTIVO.
+ * * Trabaja en lotes de {@code batch-size} filas, cada uno en su propia
+ * transacción, con una pausa entre lotes: los bloqueos duran lo que tarda un
+ * lote y el resto de escrituras se intercalan. Una pasada se detiene al
+ * agotar los candidatos o al llegar a {@code max-batches-per-run}; lo
+ * pendiente queda para la siguiente.
+ */
+@Slf4j
+@Component
+public class ProductArchiveJob {
+
+	private final ProductArchiveJdbcRepository archiveJdbcRepository;
+	private final TransactionOperations transactionOperations;
+	private final Clock clock;
+	private final boolean enabled;
+	private final Period minAge;
+	private final int batchSize;
+	private final int maxBatchesPerRun;
+	private final Duration pause;
+
+	public ProductArchiveJob(
+			ProductArchiveJdbcRepository archiveJdbcRepository,
+			TransactionOperations transactionOperations,
+			Clock clock,
+			@Value("${expiry-tracker.archive.enabled:true}") boolean enabled,
+			@Value("${expiry-tracker.archive.min-age:P90D}") Period minAge,
+			@Value("${expiry-tracker.archive.batch-size:500}") int batchSize,
+			@Value("${expiry-tracker.archive.max-batches-per-run:200}") int maxBatchesPerRun,
+			@Value("${expiry-tracker.archive.pause-between-batches:PT0.2S}") Duration pause) {
+		if (batchSize < 1 || maxBatchesPerRun < 1) {
+			throw new IllegalArgumentException("batch-size y max-batches-per-run deben ser al menos 1");
+		}
+		this.archiveJdbcRepository = archiveJdbcRepository;
+		this.transactionOperations = transactionOperations;
+		this.clock = clock;
+		this.enabled = enabled;
+		this.minAge = minAge;
+		this.batchSize = batchSize;
+		this.maxBatchesPerRun = maxBatchesPerRun;
+		this.pause = pause;
+	}
+
+	@Scheduled(cron = "${expiry-tracker.archive.cron:0 45 3 * * *}")
+	public void run() {
+		if (enabled) {
+			archive(LocalDateTime.now(clock).minus(minAge));
+		}
+	}
+
+	/**
+	 * @return Lotes archivados en esta pasada.
+	 */
+	public int archive(LocalDateTime cutoff) {
+		int total = 0;
+		for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+			Integer moved = transactionOperations.execute(status -> {
+				List<UUID> ids = archiveJdbcRepository.lockArchivable(cutoff, batchSize);
+				return ids.isEmpty() ? 0 : archiveJdbcRepository.moveToArchive(ids, LocalDateTime.now(clock));
+			});
+			total += moved;
+			if (moved < batchSize || !pauseBetweenBatches()) {
+				break;
+			}
+		}
+		if (total > 0) {
+			log.info("Archivados {} lotes retirados antes de {}", total, cutoff);
+		}
+		return total;
+	}
+
+	private boolean pauseBetweenBatches() {
+		try {
+			Thread.sleep(pause);
+			return true;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+}
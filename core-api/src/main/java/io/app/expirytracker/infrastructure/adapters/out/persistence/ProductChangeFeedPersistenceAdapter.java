@@ -0,0 +1,27 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductChangeFeedJdbcRepository;
+
+/**
+ * Adaptador del feed de cambios, acotado a la tienda de {@link StoreContext}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeFeedPersistenceAdapter implements ProductChangeFeedPort {
+
+	private final ProductChangeFeedJdbcRepository changeFeedJdbcRepository;
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<PositionedChange> findChangesAfter(long afterSequence, UUID afterId, int limit) {
+		return changeFeedJdbcRepository.findChangesAfter(StoreContext.current(), afterSequence, afterId, limit);
+	}
+}
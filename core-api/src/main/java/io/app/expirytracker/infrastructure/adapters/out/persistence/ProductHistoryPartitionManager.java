@@ -0,0 +1,105 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.time.YearMonth;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductHistoryJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantiene las particiones mensuales de {@code product_history}.
+ * * La tabla la crea Flyway; las particiones dependen de la fecha y se crean
+ * aquí. Al arrancar (antes que el servidor web, para que ninguna escritura
+ * llegue sin partición) crea la partición del mes en curso y las de los
+ * próximos meses. Cada día repite la creación y elimina las
+ * particiones cuyo mes quedó entero fuera del periodo de retención: un
+ * {@code DROP TABLE} por mes en lugar de borrar filas.
+ * * Sin PostgreSQL (H2 en tests) la tabla no está particionada y la retención
+ * es un DELETE por fecha.
+ */
+@Slf4j
+@Component
+public class ProductHistoryPartitionManager implements SmartLifecycle {
+
+	private final ProductHistoryJdbcRepository historyJdbcRepository;
+	private final int monthsAhead;
+	private final int retentionMonths;
+	private volatile boolean running;
+
+	public ProductHistoryPartitionManager(
+			ProductHistoryJdbcRepository historyJdbcRepository,
+			@Value("${expiry-tracker.history.partitions-ahead:3}") int monthsAhead,
+			@Value("${expiry-tracker.history.retention-months:24}") int retentionMonths) {
+		if (monthsAhead < 1 || retentionMonths < 1) {
+			throw new IllegalArgumentException("partitions-ahead y retention-months deben ser al menos 1");
+		}
+		this.historyJdbcRepository = historyJdbcRepository;
+		this.monthsAhead = monthsAhead;
+		this.retentionMonths = retentionMonths;
+	}
+
+	@Override
+	public void start() {
+		ensurePartitions();
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Antes que el servidor web ({@code DEFAULT_PHASE - 1024}).
+	 */
+	@Override
+	public int getPhase() {
+		return DEFAULT_PHASE - 2048;
+	}
+
+	@Scheduled(cron = "${expiry-tracker.history.maintenance-cron:0 15 3 * * *}")
+	public void maintain() {
+		ensurePartitions();
+		applyRetention();
+	}
+
+	void ensurePartitions() {
+		if (!historyJdbcRepository.isPostgres()) {
+			return;
+		}
+		YearMonth current = YearMonth.now();
+		for (int i = 0; i <= monthsAhead; i++) {
+			historyJdbcRepository.createPartitionIfMissing(current.plusMonths(i));
+		}
+	}
+
+	void applyRetention() {
+		YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+		if (!historyJdbcRepository.isPostgres()) {
+			historyJdbcRepository.deleteBefore(oldestKept.atDay(1).atStartOfDay());
+			return;
+		}
+		for (String partition : historyJdbcRepository.findPartitions()) {
+			YearMonth month;
+			try {
+				month = ProductHistoryJdbcRepository.monthOf(partition);
+			} catch (RuntimeException ex) {
+				// Particiones creadas a mano con otro nombre: no son nuestras
+				continue;
+			}
+			if (month.isBefore(oldestKept)) {
+				historyJdbcRepository.dropPartition(partition);
+				log.info("Eliminada la partición de historial {} (retención de {} meses)", partition,
+						retentionMonths);
+			}
+		}
+	}
+}
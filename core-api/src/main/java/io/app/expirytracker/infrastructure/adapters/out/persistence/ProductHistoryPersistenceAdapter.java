@@ -0,0 +1,74 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.app.expirytracker.application.ports.out.ProductHistoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductChangeType;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductHistoryJdbcRepository;
+
+/**
+ * Adaptador del historial de lotes. Las copias y las consultas se acotan a la
+ * tienda de {@link StoreContext}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductHistoryPersistenceAdapter implements ProductHistoryPort {
+
+	private final ProductHistoryJdbcRepository historyJdbcRepository;
+	private final AuditorAware<String> auditorProvider;
+	private final Clock clock;
+
+	@Override
+	public void record(List<Product> previousStates, ProductChangeType changeType) {
+		if (previousStates.isEmpty()) {
+			return;
+		}
+		historyJdbcRepository.insertAll(previousStates, changeType, LocalDateTime.now(clock), currentAuditor());
+	}
+
+	@Override
+	public void recordCurrentState(Collection<UUID> productIds, ProductChangeType changeType) {
+		if (productIds.isEmpty()) {
+			return;
+		}
+		historyJdbcRepository.copyByIds(StoreContext.current(), productIds, changeType, LocalDateTime.now(clock),
+				currentAuditor());
+	}
+
+	@Override
+	public void recordCurrentStateByKeys(Collection<Product> products, ProductChangeType changeType) {
+		if (products.isEmpty()) {
+			return;
+		}
+		historyJdbcRepository.copyByKeys(StoreContext.current(), products, changeType, LocalDateTime.now(clock),
+				currentAuditor());
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ProductHistoryEntry> findByProductId(UUID productId, int limit) {
+		return historyJdbcRepository.findByProductId(StoreContext.current(), productId, limit);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<ProductHistoryEntry> findChanges(LocalDateTime from, LocalDateTime to, LocalDateTime afterChangedAt,
+			long afterId, int limit) {
+		return historyJdbcRepository.findChanges(StoreContext.current(), from, to, afterChangedAt, afterId, limit);
+	}
+
+	private String currentAuditor() {
+		return auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+	}
+}
@@ -1,17 +1,28 @@
 package io.app.expirytracker.infrastructure.adapters.out.persistence;
 
 import jakarta.persistence.EnumType;
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.services.BusinessDateService;
+import io.app.expirytracker.application.tenancy.StoreContext;
 import io.app.expirytracker.domain.model.PaginatedResult;
 import io.app.expirytracker.domain.model.Product;
 import io.app.expirytracker.domain.model.ProductSearchCriteria;
@@ -19,14 +30,38 @@ import io.app.expirytracker.domain.model.ProductStatus;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.ProductEntity;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaRetiredProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
 
+/**
+ * Adaptador de persistencia de productos.
+ * * Las consultas se declaran de solo lectura: fuera de una transacción de
+ * escritura abren la suya (una conexión para la consulta y su recuento) y,
+ * con réplicas configuradas, se sirven desde ellas. Dentro de una escritura
+ * se unen a ella y leen del primario.
+ * * Cada operación se acota a una tienda: las escrituras a la del producto y
+ * las consultas por ID, EAN o criterio a la de {@link StoreContext}. Un lote
+ * de otra tienda se comporta como inexistente.
+ * * Los filtros relativos a hoy usan la fecha de negocio de la tienda
+ * ({@link BusinessDateService}), leída una vez por búsqueda.
+ */
 @Component
 @RequiredArgsConstructor
 public class ProductPersistenceAdapter implements ProductRepositoryPort {
 
 	private final JpaProductRepository jpaProductRepository;
 	private final ProductMapper productMapper;
+	private final ProductJdbcRepository productJdbcRepository;
+	private final AuditorAware<String> auditorProvider;
+	private final JpaRetiredProductRepository jpaRetiredProductRepository;
+	private final BusinessDateService businessDate;
+	private final Clock clock;
 
+	/**
+	 * Alta de un producto: la entidad se reporta como nueva (ver
+	 * {@link ProductEntity#isNew()}), así que se emite solo el INSERT. Las
+	 * modificaciones pasan por {@link #update(Product)}.
+	 */
 	@Override
 	public Product save(Product product) {
 		var entity = productMapper.toEntity(product);
@@ -34,36 +69,136 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 		return productMapper.toDomain(savedEntity);
 	}
 
+	/**
+	 * UPDATE condicional por versión. No hace falta releer la fila: si la
+	 * sentencia afectó una fila, su contenido es exactamente el enviado con la
+	 * versión incrementada.
+	 */
 	@Override
+	public Optional<Product> update(Product product) {
+		int updated = jpaProductRepository.updateIfVersionMatches(
+				product.id(),
+				product.storeId(),
+				product.version(),
+				product.ean13(),
+				product.name(),
+				product.batchNumber(),
+				product.expiryDate(),
+				product.quantity(),
+				product.category(),
+				LocalDateTime.now(clock),
+				currentAuditor());
+
+		if (updated == 0) {
+			return Optional.empty();
+		}
+		return Optional.of(new Product(
+				product.id(),
+				product.storeId(),
+				product.ean13(),
+				product.name(),
+				product.batchNumber(),
+				product.expiryDate(),
+				product.quantity(),
+				product.category(),
+				product.status(),
+				product.version() + 1));
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public Optional<Product> findById(UUID id) {
-		return jpaProductRepository.findById(id)
-				.filter(entity -> entity.getStatus() == ProductStatus.ACTIVE)
+		return jpaProductRepository.findByIdAndStoreIdAndStatus(id, StoreContext.current(), ProductStatus.ACTIVE)
 				.map(productMapper::toDomain);
 	}
 
 	@Override
-	public Optional<Product> findByEan13(String ean13) {
-		return jpaProductRepository.findByEan13(ean13)
-				.filter(entity -> entity.getStatus() == ProductStatus.ACTIVE)
-				.map(productMapper::toDomain);
+	@Transactional(readOnly = true)
+	public List<Product> findAllById(Collection<UUID> ids) {
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		return productJdbcRepository.findActiveByIds(StoreContext.current(), ids).stream()
+				.map(productMapper::toDomain)
+				.toList();
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public List<Product> findByEan13(String ean13) {
+		return jpaProductRepository.findByStoreIdAndEan13AndStatusOrderByExpiryDateAscBatchNumberAsc(
+				StoreContext.current(), ean13, ProductStatus.ACTIVE)
+				.stream()
+				.map(productMapper::toDomain)
+				.toList();
 	}
 
 	@Override
 	public boolean existsByEan13AndBatchNumber(String ean13, String batchNumber) {
-		return jpaProductRepository.existsByEan13AndBatchNumber(ean13, batchNumber);
+		return jpaProductRepository.existsByStoreIdAndEan13AndBatchNumber(StoreContext.current(), ean13, batchNumber);
+	}
+
+	/**
+	 * Upsert atómico por EAN-13 + Lote. Tras la escritura se relee la fila por su
+	 * clave de negocio, ya que si existía conserva su ID original.
+	 */
+	@Override
+	public Optional<Product> upsert(Product product) {
+		int applied = productJdbcRepository.upsert(productMapper.toEntity(product), LocalDateTime.now(clock),
+				currentAuditor());
+		if (applied == 0) {
+			return Optional.empty();
+		}
+		return productJdbcRepository.findByKey(product.storeId(), product.ean13(), product.batchNumber())
+				.map(productMapper::toDomain);
+	}
+
+	@Override
+	public int upsertAll(List<Product> products) {
+		var entities = products.stream().map(productMapper::toEntity).toList();
+		return productJdbcRepository.upsertAll(StoreContext.current(), entities, LocalDateTime.now(clock),
+				currentAuditor());
 	}
 
+	/**
+	 * Ajuste atómico de stock. La lectura posterior va directa a la base de datos
+	 * para no devolver una copia desactualizada del contexto de persistencia.
+	 */
 	@Override
+	public Optional<Product> adjustQuantity(UUID id, int delta) {
+		String storeId = StoreContext.current();
+		int applied = productJdbcRepository.adjustQuantity(storeId, id, delta, LocalDateTime.now(clock),
+				currentAuditor());
+		if (applied == 0) {
+			return Optional.empty();
+		}
+		return productJdbcRepository.findById(storeId, id).map(productMapper::toDomain);
+	}
+
+	@Override
+	public Set<UUID> adjustQuantities(Map<UUID, Integer> deltas) {
+		return productJdbcRepository.adjustQuantities(StoreContext.current(), deltas, LocalDateTime.now(clock),
+				currentAuditor());
+	}
+
+	private String currentAuditor() {
+		return auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+	}
+
+	@Override
+	@Transactional(readOnly = true)
 	public PaginatedResult<Product> findAll(int page, int size) {
-		Pageable pageable = PageRequest.of(page, size);
-		Page<ProductEntity> productPage = jpaProductRepository.findAll(pageable);
-		return toPaginatedResult(productPage);
+		// Sin más filtro que la tienda: el orden por clave primaria (UUID v7,
+		// creciente en el tiempo) es estable entre páginas.
+		Pageable pageable = PageRequest.of(page, size, Sort.by("id"));
+		Page<ProductEntity> productPage = jpaProductRepository.findAll(storeEqual(StoreContext.current()), pageable);
+		return toPaginatedResult(productPage.map(productMapper::toDomain));
 	}
 
 	@Override
 	public boolean existsById(UUID id) {
 		// Delegamos directamente al JpaRepository
-		return jpaProductRepository.existsById(id);
+		return jpaProductRepository.existsByIdAndStoreId(id, StoreContext.current());
 	}
 
 	/**
@@ -74,7 +209,7 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	 */
 	@Override
 	public void deleteById(UUID id) {
-		jpaProductRepository.findById(id).ifPresent(entity -> {
+		jpaProductRepository.findByIdAndStoreId(id, StoreContext.current()).ifPresent(entity -> {
 			entity.setStatus(ProductStatus.DISCARDED);
 			jpaProductRepository.save(entity);
 		});
@@ -89,46 +224,57 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	 * evitar mostrar productos eliminados en búsquedas generales.
 	 */
 	@Override
+	@Transactional(readOnly = true)
 	public PaginatedResult<Product> findByCriteria(ProductSearchCriteria criteria) {
 		// Paginación: Usar valores del criterio o defaults.
 		int page = (criteria.page() != null && criteria.page() >= 0) ? criteria.page() : 0;
 		int size = (criteria.size() != null && criteria.size() > 0) ? criteria.size() : 10;
-		Pageable pageable = PageRequest.of(page, size);
+		Pageable pageable = PageRequest.of(page, size, ProductSortIndex.toSort(criteria.sort()));
 
 		// Determinamos el estado objetivo (Seguridad por defecto)
 		ProductStatus targetStatus = (criteria.status() != null)
 				? criteria.status()
 				: ProductStatus.ACTIVE;
 
-		// Iniciamos la especificación con el estado
-		Specification<ProductEntity> spec = Specification.where(statusEqual(targetStatus));
+		// Los lotes no ACTIVOS pueden estar ya archivados: se consulta la vista
+		// que une la tabla caliente con el archivo. Las búsquedas de inventario
+		// activo solo recorren products.
+		if (targetStatus != ProductStatus.ACTIVE) {
+			var retiredPage = jpaRetiredProductRepository.findAll(searchSpec(targetStatus, criteria), pageable);
+			return toPaginatedResult(retiredPage.map(productMapper::toDomain));
+		}
 
-		spec = spec.and(nameLike(criteria.name()))
-				.and(eanEqual(criteria.ean()))
-				.and(batchEqual(criteria.batch()))
-				.and(isExpired(criteria.isExpired()))
-				.and(expiredBefore(criteria.expiredBefore()))
-				.and(isAboutToExpire(criteria.daysThreshold()));
+		Page<ProductEntity> productPage = jpaProductRepository.findAll(searchSpec(targetStatus, criteria), pageable);
+		return toPaginatedResult(productPage.map(productMapper::toDomain));
+	}
 
-		// Ejecutamos la consulta paginada y mapeamos a dominio
-		Page<ProductEntity> productPage = jpaProductRepository.findAll(spec, pageable);
-		return toPaginatedResult(productPage);
+	/**
+	 * Combina la tienda y el estado con los filtros opcionales. Las propiedades se
+	 * referencian por nombre, así que sirve para cualquier entidad de lotes.
+	 */
+	private <T> Specification<T> searchSpec(ProductStatus status, ProductSearchCriteria criteria) {
+		String storeId = criteria.storeId() != null ? criteria.storeId() : StoreContext.current();
+		LocalDate today = businessDate.today(storeId);
+		Specification<T> spec = Specification.where(this.<T>storeEqual(storeId)).and(statusEqual(status));
+		return spec.and(this.<T>nameLike(criteria.name()))
+				.and(this.<T>eanEqual(criteria.ean()))
+				.and(this.<T>batchEqual(criteria.batch()))
+				.and(this.<T>isExpired(criteria.isExpired(), today))
+				.and(this.<T>expiredBefore(criteria.expiredBefore()))
+				.and(this.<T>isAboutToExpire(criteria.daysThreshold(), today));
 	}
 
 	/**
 	 * Convierte un objeto {@link Page} de Spring Data a nuestro
 	 * {@link PaginatedResult} del dominio.
 	 * 
-	 * @param page El objeto Page que contiene los resultados de la consulta y la
-	 *             información de paginación.
-	 * @return Un PaginatedResult con los datos mapeados al modelo de dominio.
+	 * @param page El objeto Page, ya mapeado al dominio, con los resultados de
+	 *             la consulta y la información de paginación.
+	 * @return Un PaginatedResult con los datos del modelo de dominio.
 	 */
-	private PaginatedResult<Product> toPaginatedResult(Page<ProductEntity> page) {
-		var products = page.getContent().stream()
-				.map(productMapper::toDomain)
-				.toList();
+	private PaginatedResult<Product> toPaginatedResult(Page<Product> page) {
 		return new PaginatedResult<>(
-				products,
+				page.getContent(),
 				page.getTotalElements(),
 				page.getTotalPages(),
 				page.getNumber(),
@@ -150,21 +296,24 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	 * @return Una {@link Specification} que representa la restricción de igualdad
 	 *         por estado.
 	 */
-	private Specification<ProductEntity> statusEqual(ProductStatus status) {
+	private <T> Specification<T> statusEqual(ProductStatus status) {
 		return (root, query, cb) -> (status == null) ? null
 				: cb.equal(root.get("status"), status);
 	}
 
+	private <T> Specification<T> storeEqual(String storeId) {
+		return (root, query, cb) -> cb.equal(root.get("storeId"), storeId);
+	}
+
 	/**
 	 * Filtra productos que vencerán dentro de un umbral de días.
 	 * Lógica: hoy <= expiryDate < (hoy + days)
 	 */
-	private Specification<ProductEntity> isAboutToExpire(Integer days) {
+	private <T> Specification<T> isAboutToExpire(Integer days, LocalDate today) {
 		return (root, query, cb) -> {
 			if (days == null || days < 0)
 				return null;
 
-			LocalDate today = LocalDate.now();
 			LocalDate limitDate = today.plusDays(days);
 
 			// Genera: WHERE expiry_date >= today AND expiry_date < limitDate
@@ -179,7 +328,7 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	 * Se aplica lower() tanto al campo de la DB como al criterio para ignorar
 	 * mayúsculas.
 	 */
-	private Specification<ProductEntity> nameLike(String name) {
+	private <T> Specification<T> nameLike(String name) {
 		return (root, query, cb) -> (name == null || name.isBlank()) ? null
 				: cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
 	}
@@ -187,7 +336,7 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	/**
 	 * Crea una especificación para búsqueda exacta por EAN-13.
 	 */
-	private Specification<ProductEntity> eanEqual(String ean) {
+	private <T> Specification<T> eanEqual(String ean) {
 		return (root, query, cb) -> (ean == null || ean.isBlank()) ? null
 				: cb.equal(root.get("ean13"), ean);
 	}
@@ -195,20 +344,19 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	/**
 	 * Crea una especificación para búsqueda exacta por número de lote.
 	 */
-	private Specification<ProductEntity> batchEqual(String batch) {
+	private <T> Specification<T> batchEqual(String batch) {
 		return (root, query, cb) -> (batch == null || batch.isBlank()) ? null
 				: cb.equal(root.get("batchNumber"), batch);
 	}
 
 	/**
-	 * Filtra productos comparando la fecha de expiración con la fecha actual del
-	 * sistema.
+	 * Filtra productos comparando la fecha de expiración con la fecha de negocio
+	 * de la tienda.
 	 */
-	private Specification<ProductEntity> isExpired(Boolean isExpired) {
+	private <T> Specification<T> isExpired(Boolean isExpired, LocalDate today) {
 		return (root, query, cb) -> {
 			if (isExpired == null)
 				return null;
-			LocalDate today = LocalDate.now();
 			return isExpired
 					? cb.lessThan(root.get("expiryDate"), today) // Vencido: fecha < hoy
 					: cb.greaterThanOrEqualTo(root.get("expiryDate"), today); // Vigente: fecha >= hoy
@@ -219,7 +367,7 @@ public class ProductPersistenceAdapter implements ProductRepositoryPort {
 	 * Filtra productos que vencen antes o en la fecha especificada.
 	 * Útil para reportes de "productos a vencer en los próximos X días".
 	 */
-	private Specification<ProductEntity> expiredBefore(LocalDate date) {
+	private <T> Specification<T> expiredBefore(LocalDate date) {
 		return (root, query, cb) -> (date == null) ? null
 				: cb.lessThanOrEqualTo(root.get("expiryDate"), date);
 	}
@@ -0,0 +1,62 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import org.springframework.data.domain.Sort;
+
+import io.app.expirytracker.domain.model.ProductSort;
+
+/**
+ * Índice que respalda cada orden permitido en la búsqueda.
+ * * La búsqueda siempre filtra por igualdad de tienda y {@code status}, así que
+ * un índice {@code (store_id, status, columna, id)} entrega las filas ya en orden (hacia
+ * delante o hacia atrás) y la página se lee sin ordenar la tabla. El
+ * desempate por {@code id} hace el orden total: sin él, las filas con el mismo
+ * valor pueden cambiar de página entre consultas.
+ * * El {@code switch} de {@link #of} es exhaustivo: un campo nuevo en
+ * {@link ProductSort.Field} no compila hasta tener aquí su índice, y
+ * {@code ProductSortIndexTest} comprueba que el índice esté declarado en la
+ * entidad.
+ */
+enum ProductSortIndex {
+
+	EXPIRY_DATE("expiryDate", "idx_product_store_status_expiry", "expiry_date"),
+	NAME("name", "idx_product_store_status_name", "name"),
+	QUANTITY("quantity", "idx_product_store_status_quantity", "quantity"),
+	CREATED_AT("createdAt", "idx_product_store_status_created", "created_at");
+
+	private final String property;
+	private final String indexName;
+	private final String column;
+
+	ProductSortIndex(String property, String indexName, String column) {
+		this.property = property;
+		this.indexName = indexName;
+		this.column = column;
+	}
+
+	static ProductSortIndex of(ProductSort.Field field) {
+		return switch (field) {
+			case EXPIRY_DATE -> EXPIRY_DATE;
+			case NAME -> NAME;
+			case QUANTITY -> QUANTITY;
+			case CREATED_AT -> CREATED_AT;
+		};
+	}
+
+	/**
+	 * @return El {@link Sort} de Spring Data con el desempate por ID en la misma
+	 *         dirección, para que el índice se recorra en un solo sentido.
+	 */
+	static Sort toSort(ProductSort sort) {
+		Sort.Direction direction = sort.descending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+		return Sort.by(direction, of(sort.field()).property, "id");
+	}
+
+	String indexName() {
+		return indexName;
+	}
+
+	/** Columnas del índice, en el formato de {@code @Index#columnList}. */
+	String columnList() {
+		return "store_id, status, " + column + ", id";
+	}
+}
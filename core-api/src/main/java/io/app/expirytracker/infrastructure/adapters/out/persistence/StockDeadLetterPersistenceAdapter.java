@@ -0,0 +1,32 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import com.fasterxml.uuid.Generators;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.application.ports.out.StockDeadLetterPort;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockAdjustmentDeadLetterEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaStockAdjustmentDeadLetterRepository;
+
+/**
+ * Guarda en {@code stock_adjustment_dead_letters} una fila por ajuste apartado.
+ */
+@Component
+@RequiredArgsConstructor
+public class StockDeadLetterPersistenceAdapter implements StockDeadLetterPort {
+
+	private static final int REASON_LENGTH = 500;
+
+	private final JpaStockAdjustmentDeadLetterRepository deadLetterRepository;
+
+	@Override
+	public void save(String storeId, List<StockAdjustmentCommand> adjustments, String reason) {
+		String truncated = reason.length() > REASON_LENGTH ? reason.substring(0, REASON_LENGTH) : reason;
+		deadLetterRepository.saveAll(adjustments.stream()
+				.map(adjustment -> new StockAdjustmentDeadLetterEntity(Generators.timeBasedEpochGenerator().generate(),
+						storeId, adjustment.productId(), adjustment.delta(), truncated))
+				.toList());
+	}
+}
@@ -0,0 +1,91 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+
+/**
+ * Tiendas conocidas: la lista de {@code expiry-tracker.tenancy.stores} o, si
+ * está vacía, las que tienen lotes en {@code products} o usuarios asignados
+ * en {@code user_stores} (una tienda recién dada de alta aún no tiene lotes).
+ * * La consulta recorre los índices que encabeza {@code store_id}; su
+ * resultado se recuerda durante {@code store-directory-ttl}, así que una
+ * tienda nueva aparece en las consultas entre tiendas con ese retraso.
+ * {@link #exists(String)} no espera: si la tienda no está en lo recordado la
+ * busca en la base de datos y, si existe, descarta la instantánea. Solo llegan
+ * a esa comprobación tiendas que figuran en el token de quien pregunta (ver
+ * {@code StoreContextInterceptor}), no identificadores arbitrarios. Asignar
+ * tiendas a un usuario también descarta la instantánea de esta instancia.
+ * * Con una lista fija no hay consultas: una tienda que no esté en ella no
+ * existe aunque se asigne a un usuario.
+ */
+@Component
+public class StoreDirectoryAdapter implements StoreDirectoryPort {
+
+	private record Snapshot(List<String> storeIds, Set<String> known, long loadedAt) {
+
+		private Snapshot(List<String> storeIds, long loadedAt) {
+			this(List.copyOf(storeIds), Set.copyOf(storeIds), loadedAt);
+		}
+	}
+
+	private final JpaProductRepository jpaProductRepository;
+	private final Snapshot configuredStores;
+	private final long ttlNanos;
+	private volatile Snapshot snapshot;
+
+	public StoreDirectoryAdapter(
+			JpaProductRepository jpaProductRepository,
+			@Value("${expiry-tracker.tenancy.stores:}") List<String> configuredStores,
+			@Value("${expiry-tracker.tenancy.store-directory-ttl:PT5M}") Duration ttl) {
+		this.jpaProductRepository = jpaProductRepository;
+		List<String> stores = configuredStores.stream()
+				.filter(storeId -> !storeId.isBlank())
+				.map(String::trim)
+				.map(StoreContext::requireValid)
+				.distinct()
+				.toList();
+		this.configuredStores = stores.isEmpty() ? null : new Snapshot(stores, 0);
+		this.ttlNanos = ttl.toNanos();
+	}
+
+	@Override
+	public List<String> findStoreIds() {
+		return current().storeIds();
+	}
+
+	@Override
+	public boolean exists(String storeId) {
+		if (current().known().contains(storeId)) {
+			return true;
+		}
+		if (configuredStores != null || !jpaProductRepository.existsStoreId(storeId)) {
+			return false;
+		}
+		snapshot = null;
+		return true;
+	}
+
+	@Override
+	public void invalidate() {
+		snapshot = null;
+	}
+
+	private Snapshot current() {
+		if (configuredStores != null) {
+			return configuredStores;
+		}
+		Snapshot current = snapshot;
+		if (current == null || System.nanoTime() - current.loadedAt() > ttlNanos) {
+			current = new Snapshot(jpaProductRepository.findDistinctStoreIds(), System.nanoTime());
+			snapshot = current;
+		}
+		return current;
+	}
+}
@@ -2,13 +2,16 @@ package io.app.expirytracker.infrastructure.adapters.out.persistence;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import io.app.expirytracker.application.ports.out.UserRepositoryPort;
+import io.app.expirytracker.domain.model.Role;
 import io.app.expirytracker.domain.model.User;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.UserMapper;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaUserRepository;
 
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Component // Spring lo reconoce como un frijol (bean) para usarlo luego.
@@ -48,4 +51,30 @@ public class UserPersistenceAdapter implements UserRepositoryPort { // ¡EL CONT
         // Aquí no hace falta Mapper porque un boolean es igual en todos lados
         return jpaUserRepository.existsByEmail(email);
     }
+
+    /**
+     * Sobre la entidad cargada: una construida desde el dominio se tomaría por
+     * nueva (ver {@code AuditableEntity#isNew()}) y se intentaría insertar.
+     */
+    @Override
+    @Transactional
+    public Optional<User> updateRole(UUID id, Role role) {
+        return jpaUserRepository.findById(id)
+                .map(entity -> {
+                    entity.setRole(role);
+                    return userMapper.toDomain(entity);
+                });
+    }
+
+    @Override
+    @Transactional
+    public Optional<User> updateStores(UUID id, Set<String> stores) {
+        return jpaUserRepository.findById(id)
+                .map(entity -> {
+                    // Se conserva la colección gestionada: Hibernate solo borra e inserta la diferencia
+                    entity.getStores().retainAll(stores);
+                    entity.getStores().addAll(stores);
+                    return userMapper.toDomain(entity);
+                });
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.ProductStatus;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Lotes SOLD/DISCARDED trasladados fuera de {@code products} por
+ * {@code ProductArchiveJob}. Las filas se escriben con INSERT ... SELECT desde
+ * {@code products} y no se modifican: la entidad existe para que Hibernate
+ * valide su esquema igual que el de la tabla caliente.
+ * * Hereda de {@link AuditableEntity} las columnas de auditoría copiadas de
+ * {@code products}, con el mismo mapeo que la tabla caliente.
+ * * Sin restricción única por EAN-13 + Lote: un par archivado puede volver a
+ * darse de alta en la tabla caliente.
+ */
+@Entity
+@Immutable
+@Table(name = "products_archive", indexes = {
+		@Index(name = "idx_product_archive_store_status_expiry", columnList = "store_id, status, expiry_date, id"),
+		@Index(name = "idx_product_archive_store_ean_batch", columnList = "store_id, ean13, batch_number"),
+		@Index(name = "idx_product_archive_store_updated", columnList = "store_id, updated_at, id")
+})
+@Getter
+@NoArgsConstructor
+public class ArchivedProductEntity extends AuditableEntity<UUID> {
+
+	@Id
+	@Column(name = "id", nullable = false)
+	private UUID id;
+
+	@Column(name = "store_id", nullable = false, length = 32)
+	private String storeId;
+
+	@Column(nullable = false, length = 13)
+	private String ean13;
+
+	@Column(nullable = false)
+	private String name;
+
+	@Column(name = "batch_number", nullable = false)
+	private String batchNumber;
+
+	@Column(name = "expiry_date", nullable = false)
+	private LocalDate expiryDate;
+
+	@Column(nullable = false)
+	private Integer quantity;
+
+	@Column(nullable = false)
+	private String category;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", nullable = false, length = 20)
+	private ProductStatus status;
+
+	@Column(name = "version", nullable = false)
+	private Long version;
+
+	@Column(name = "archived_at", nullable = false)
+	private LocalDateTime archivedAt;
+}
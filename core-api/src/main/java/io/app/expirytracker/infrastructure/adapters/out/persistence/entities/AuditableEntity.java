@@ -3,6 +3,7 @@ package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Transient;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -11,6 +12,7 @@ import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.domain.Persistable;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
@@ -19,7 +21,7 @@ import java.time.LocalDateTime;
 @Setter
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class) // <--- El que rellena los datos automáticamente
-public abstract class AuditableEntity {
+public abstract class AuditableEntity<ID> implements Persistable<ID> {
 
 	@CreatedDate
 	@Column(name = "created_at", nullable = false, updatable = false)
@@ -36,4 +38,20 @@ public abstract class AuditableEntity {
 	@LastModifiedBy
 	@Column(name = "updated_by", length = 50)
 	private String lastModifiedBy;
+
+	/**
+	 * Los IDs (UUID v7 o claves naturales) se asignan en la aplicación antes de
+	 * persistir, por lo que Spring Data no puede deducir por el ID si la entidad
+	 * es nueva y haría un {@code merge} (SELECT + INSERT). La fecha de creación
+	 * solo la rellena la auditoría al persistir: si es null, la fila todavía no
+	 * existe y se usa {@code persist} directamente.
+	 * * Consecuencia: una entidad construida desde el dominio (sin createdAt) se
+	 * considera nueva; las modificaciones deben hacerse sobre entidades cargadas
+	 * o mediante sentencias UPDATE explícitas.
+	 */
+	@Override
+	@Transient
+	public boolean isNew() {
+		return createdAt == null;
+	}
 }
\ No newline at end of file
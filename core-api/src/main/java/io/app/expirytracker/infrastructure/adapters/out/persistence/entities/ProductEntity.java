@@ -7,22 +7,45 @@ import java.util.UUID;
 
 import io.app.expirytracker.domain.model.ProductStatus;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Table(name = "products", uniqueConstraints = {
-		@UniqueConstraint(name = "uk_product_batch", columnNames = { "ean13", "batch_number" })
+		// La clave de negocio es por tienda: el mismo lote puede estar en varias
+		@UniqueConstraint(name = "uk_product_batch", columnNames = { "store_id", "ean13", "batch_number" })
+}, indexes = {
+		// Todas las consultas filtran por tienda: store_id encabeza cada índice
+		// y cada tienda recorre solo su tramo.
+		// Lectura de escáner: igualdad en (store_id, ean13, status) y orden FEFO sin sort
+		@Index(name = "idx_product_store_ean_status_expiry", columnList = "store_id, ean13, status, expiry_date, batch_number"),
+		// Órdenes permitidos en la búsqueda (ver ProductSortIndex)
+		@Index(name = "idx_product_store_status_expiry", columnList = "store_id, status, expiry_date, id"),
+		@Index(name = "idx_product_store_status_name", columnList = "store_id, status, name, id"),
+		@Index(name = "idx_product_store_status_quantity", columnList = "store_id, status, quantity, id"),
+		@Index(name = "idx_product_store_status_created", columnList = "store_id, status, created_at, id"),
+		// Feed de sincronización (ver ProductChangeFeedJdbcRepository): cursor
+		// (updated_at, id) en cualquier estado
+		@Index(name = "idx_product_store_updated", columnList = "store_id, updated_at, id"),
+		// Candidatos a archivar (ver ProductArchiveJob): recorre todas las tiendas
+		@Index(name = "idx_product_status_updated", columnList = "status, updated_at")
 })
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class ProductEntity extends AuditableEntity {
+public class ProductEntity extends AuditableEntity<UUID> {
 
 	@Id
 	@Column(name = "id", updatable = false, nullable = false)
 	private UUID id;
 
+	// Tienda (tenant) dueña del lote; los datos anteriores a la multi-tienda
+	// quedan en la tienda por defecto
+	@ColumnDefault("'default'")
+	@Column(name = "store_id", nullable = false, updatable = false, length = 32)
+	private String storeId;
+
 	@Column(nullable = false, length = 13)
 	private String ean13;
 
@@ -45,6 +68,13 @@ public class ProductEntity extends AuditableEntity {
 	@Column(name = "status", nullable = false, length = 20)
 	private ProductStatus status;
 
+	// Concurrencia optimista: Hibernate la verifica al hacer flush de la entidad
+	// y los UPDATE condicionales del adaptador la comparan e incrementan.
+	@Version
+	@ColumnDefault("0")
+	@Column(name = "version", nullable = false)
+	private Long version;
+
 	/*
 	 * TODO: Future Refactoring for Collections
 	 * Actualmente usamos la implementación default de equals/hashCode (identidad de
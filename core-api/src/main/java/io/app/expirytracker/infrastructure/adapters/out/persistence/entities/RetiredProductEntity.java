@@ -0,0 +1,69 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import io.app.expirytracker.domain.model.ProductStatus;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+/**
+ * Vista de solo lectura de todos los lotes no ACTIVOS: los que siguen en
+ * {@code products} a la espera de archivarse más los de
+ * {@code products_archive}.
+ * * El traslado entre tablas ocurre en una sola transacción, así que cada lote
+ * aparece exactamente una vez. Los nombres de las propiedades coinciden con
+ * los de {@link ProductEntity} para reutilizar filtros y órdenes de la
+ * búsqueda; las de auditoría llegan de {@link AuditableEntity}.
+ */
+@Entity
+@Immutable
+@Subselect("""
+		SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version,
+			created_at, created_by, updated_at, updated_by
+		FROM products WHERE status <> 'ACTIVE'
+		UNION ALL
+		SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version,
+			created_at, created_by, updated_at, updated_by
+		FROM products_archive""")
+@Synchronize({ "products", "products_archive" })
+@Getter
+@NoArgsConstructor
+public class RetiredProductEntity extends AuditableEntity<UUID> {
+
+	@Id
+	@Column(name = "id")
+	private UUID id;
+
+	@Column(name = "store_id")
+	private String storeId;
+
+	@Column(name = "ean13")
+	private String ean13;
+
+	@Column(name = "name")
+	private String name;
+
+	@Column(name = "batch_number")
+	private String batchNumber;
+
+	@Column(name = "expiry_date")
+	private LocalDate expiryDate;
+
+	@Column(name = "quantity")
+	private Integer quantity;
+
+	@Column(name = "category")
+	private String category;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status")
+	private ProductStatus status;
+
+	@Column(name = "version")
+	private Long version;
+}
@@ -0,0 +1,37 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+import lombok.*;
+
+/**
+ * Ajuste de stock diferido que no pudo aplicarse tras agotar los reintentos
+ * del micro-lote. Se conserva tal como llegó para revisarlo o reaplicarlo a
+ * mano.
+ */
+@Entity
+@Table(name = "stock_adjustment_dead_letters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentDeadLetterEntity extends AuditableEntity<UUID> {
+
+	@Id
+	@Column(name = "id", updatable = false, nullable = false)
+	private UUID id;
+
+	@Column(name = "store_id", nullable = false, length = 32)
+	private String storeId;
+
+	@Column(name = "product_id", nullable = false)
+	private UUID productId;
+
+	@Column(name = "delta", nullable = false)
+	private int delta;
+
+	@Column(name = "reason", nullable = false, length = 500)
+	private String reason;
+}
@@ -0,0 +1,32 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
+
+import jakarta.persistence.*;
+
+import lombok.*;
+
+/**
+ * Última secuencia del registro local de ajustes de stock aplicada a la base
+ * de datos, por registro (una instancia de la aplicación). Se actualiza en la
+ * misma transacción que aplica el micro-lote; la auditoría deja cuándo se
+ * creó y cuándo avanzó por última vez.
+ */
+@Entity
+@Table(name = "stock_journal_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalCheckpointEntity extends AuditableEntity<String> {
+
+	@Id
+	@Column(name = "journal_id", length = 64)
+	private String journalId;
+
+	@Column(name = "applied_sequence", nullable = false)
+	private long appliedSequence;
+
+	@Override
+	public String getId() {
+		return journalId;
+	}
+}
@@ -0,0 +1,35 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.entities;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+
+import lombok.*;
+
+/**
+ * Última secuencia del registro local de ajustes de stock aplicada a la base
+ * de datos, por registro y tienda. Cada tienda se aplica en su propia
+ * transacción, que es la que avanza su fila. La marca de
+ * {@link StockJournalCheckpointEntity} queda como suelo común: lo aplicado
+ * para todas las tiendas antes de que existieran estas filas.
+ */
+@Entity
+@Table(name = "stock_journal_store_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalStoreCheckpointEntity extends AuditableEntity<StockJournalStoreCheckpointEntity.Key> {
+
+	@Embeddable
+	public record Key(
+			@Column(name = "journal_id", length = 64) String journalId,
+			@Column(name = "store_id", length = 32) String storeId) implements Serializable {
+	}
+
+	@EmbeddedId
+	private Key id;
+
+	@Column(name = "applied_sequence", nullable = false)
+	private long appliedSequence;
+}
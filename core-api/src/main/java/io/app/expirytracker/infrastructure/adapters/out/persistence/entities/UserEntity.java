@@ -4,7 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Table;
 import jakarta.persistence.Id;
 import jakarta.persistence.Column;
-
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 
 import lombok.Getter;
@@ -13,6 +21,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 
+import io.app.expirytracker.domain.model.Role;
+
 @Entity
 @Table(name = "users")
 @Getter
@@ -20,7 +30,7 @@ import lombok.Builder;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-public class UserEntity {
+public class UserEntity extends AuditableEntity<UUID> {
 
   @Id
   @Column(name = "id", updatable = false, nullable = false)
@@ -34,4 +44,16 @@ public class UserEntity {
 
   @Column(nullable = false)
   private String password;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "role", nullable = false, length = 20)
+  @Builder.Default
+  private Role role = Role.STAFF;
+
+  // Pocas filas por usuario y necesarias para emitir cada token: carga inmediata
+  @ElementCollection(fetch = FetchType.EAGER)
+  @CollectionTable(name = "user_stores", joinColumns = @JoinColumn(name = "user_id"))
+  @Column(name = "store_id", nullable = false, length = 32)
+  @Builder.Default
+  private Set<String> stores = new HashSet<>();
 }
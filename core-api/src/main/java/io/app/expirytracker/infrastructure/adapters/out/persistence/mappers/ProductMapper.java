@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 
 import io.app.expirytracker.domain.model.Product;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.ProductEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.RetiredProductEntity;
 
 @Component // Lo marcamos como componente para que Spring lo pueda inyectar
 public class ProductMapper {
@@ -15,13 +16,33 @@ public class ProductMapper {
 
 		return new Product(
 				entity.getId(),
+				entity.getStoreId(),
 				entity.getEan13(),
 				entity.getName(),
 				entity.getBatchNumber(),
 				entity.getExpiryDate(),
 				entity.getQuantity(),
 				entity.getCategory(),
-				entity.getStatus());
+				entity.getStatus(),
+				entity.getVersion());
+	}
+
+	// Lote no ACTIVO (tabla caliente o archivo) a Dominio
+	public Product toDomain(RetiredProductEntity entity) {
+		if (entity == null)
+			return null;
+
+		return new Product(
+				entity.getId(),
+				entity.getStoreId(),
+				entity.getEan13(),
+				entity.getName(),
+				entity.getBatchNumber(),
+				entity.getExpiryDate(),
+				entity.getQuantity(),
+				entity.getCategory(),
+				entity.getStatus(),
+				entity.getVersion());
 	}
 
 	// De Dominio (Corazón) a Entidad (Base de Datos)
@@ -31,6 +52,7 @@ public class ProductMapper {
 
 		return ProductEntity.builder()
 				.id(domain.id())
+				.storeId(domain.storeId())
 				.ean13(domain.ean13())
 				.name(domain.name())
 				.batchNumber(domain.batchNumber())
@@ -38,6 +60,7 @@ public class ProductMapper {
 				.quantity(domain.quantity())
 				.category(domain.category())
 				.status(domain.status())
+				.version(domain.version())
 				.build();
 	}
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package io.app.expirytracker.infrastructure.adapters.out.persistence.mappers;
 
+import java.util.HashSet;
+
 import org.springframework.stereotype.Component;
 
 import io.app.expirytracker.domain.model.User;
@@ -17,7 +19,9 @@ public class UserMapper {
 				entity.getId(),
 				entity.getUsername(),
 				entity.getEmail(),
-				entity.getPassword());
+				entity.getPassword(),
+				entity.getRole(),
+				entity.getStores());
 	}
 
 	// De Dominio (Corazón) a Entidad (Base de Datos)
@@ -30,6 +34,8 @@ public class UserMapper {
 				.username(domain.username())
 				.email(domain.email())
 				.password(domain.password())
+				.role(domain.role())
+				.stores(new HashSet<>(domain.stores()))
 				.build();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.sql.DatabaseMetaData;
+import javax.sql.DataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+/**
+ * Detección del motor para los repositorios JDBC con SQL específico de
+ * PostgreSQL (en los tests se usa H2).
+ */
+final class JdbcDialects {
+
+	private JdbcDialects() {
+	}
+
+	static boolean isPostgres(DataSource dataSource) {
+		try {
+			String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+			return "PostgreSQL".equalsIgnoreCase(product);
+		} catch (MetaDataAccessException ex) {
+			throw new IllegalStateException("No se pudo determinar el motor de base de datos", ex);
+		}
+	}
+}
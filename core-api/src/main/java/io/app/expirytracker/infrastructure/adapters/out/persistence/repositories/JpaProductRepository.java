@@ -2,9 +2,16 @@ package io.app.expirytracker.infrastructure.adapters.out.persistence.repositorie
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import io.app.expirytracker.domain.model.ProductStatus;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.ProductEntity;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
@@ -12,12 +19,72 @@ import java.util.List;
 public interface JpaProductRepository
 		extends JpaRepository<ProductEntity, UUID>, JpaSpecificationExecutor<ProductEntity> {
 
-	// Buscar por código de barras (EAN-13)
-	Optional<ProductEntity> findByEan13(String ean13);
+	// El filtro de estado va en el WHERE (no se materializan lotes descartados)
+	Optional<ProductEntity> findByIdAndStoreIdAndStatus(UUID id, String storeId, ProductStatus status);
 
-	// Spring genera: SELECT count(*) > 0 FROM products WHERE ean13 = ? AND
-	// batch_number = ?
-	boolean existsByEan13AndBatchNumber(String ean13, String batchNumber);
+	Optional<ProductEntity> findByIdAndStoreId(UUID id, String storeId);
+
+	boolean existsByIdAndStoreId(UUID id, String storeId);
+
+	// Lotes de un EAN en orden FEFO; resuelto por el índice idx_product_store_ean_status_expiry
+	List<ProductEntity> findByStoreIdAndEan13AndStatusOrderByExpiryDateAscBatchNumberAsc(String storeId, String ean13,
+			ProductStatus status);
+
+	// Spring genera: SELECT count(*) > 0 FROM products WHERE store_id = ? AND
+	// ean13 = ? AND batch_number = ?
+	boolean existsByStoreIdAndEan13AndBatchNumber(String storeId, String ean13, String batchNumber);
+
+	// Claves "EAN|Lote" existentes en la tienda para un conjunto de EANs (importación masiva)
+	@Query("SELECT CONCAT(p.ean13, '|', p.batchNumber) FROM ProductEntity p WHERE p.storeId = :storeId AND p.ean13 IN :eans")
+	List<String> findBatchKeysByStoreIdAndEan13In(@Param("storeId") String storeId,
+			@Param("eans") Collection<String> eans);
+
+	// Tiendas con lotes o con usuarios asignados (ver StoreDirectoryPort)
+	@Query(value = "SELECT store_id FROM products UNION SELECT store_id FROM user_stores", nativeQuery = true)
+	List<String> findDistinctStoreIds();
+
+	// Comprobación puntual de una tienda que la instantánea del directorio aún no incluye
+	@Query(value = "SELECT EXISTS (SELECT 1 FROM user_stores WHERE store_id = :storeId)"
+			+ " OR EXISTS (SELECT 1 FROM products WHERE store_id = :storeId)", nativeQuery = true)
+	boolean existsStoreId(@Param("storeId") String storeId);
+
+	/**
+	 * UPDATE condicional por versión (concurrencia optimista) en una sola
+	 * sentencia, sin el SELECT previo que haría {@code merge}.
+	 * Se limpia el contexto de persistencia para que una relectura posterior en
+	 * la misma transacción (reintento) vea el estado real de la base de datos.
+	 *
+	 * @return 1 si se actualizó, 0 si la versión cambió o el producto no está
+	 *         ACTIVO.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			UPDATE ProductEntity p
+			SET p.ean13 = :ean13,
+			    p.name = :name,
+			    p.batchNumber = :batchNumber,
+			    p.expiryDate = :expiryDate,
+			    p.quantity = :quantity,
+			    p.category = :category,
+			    p.version = p.version + 1,
+			    p.updatedAt = :updatedAt,
+			    p.lastModifiedBy = :updatedBy
+			WHERE p.id = :id
+			  AND p.storeId = :storeId
+			  AND p.version = :version
+			  AND p.status = io.app.expirytracker.domain.model.ProductStatus.ACTIVE""")
+	int updateIfVersionMatches(
+			@Param("id") UUID id,
+			@Param("storeId") String storeId,
+			@Param("version") Long version,
+			@Param("ean13") String ean13,
+			@Param("name") String name,
+			@Param("batchNumber") String batchNumber,
+			@Param("expiryDate") LocalDate expiryDate,
+			@Param("quantity") Integer quantity,
+			@Param("category") String category,
+			@Param("updatedAt") LocalDateTime updatedAt,
+			@Param("updatedBy") String updatedBy);
 
 	// Buscar todos los productos de una categoría específica
 	List<ProductEntity> findByCategory(String category);
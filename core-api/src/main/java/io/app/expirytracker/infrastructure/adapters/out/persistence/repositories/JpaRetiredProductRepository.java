@@ -0,0 +1,15 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.repository.Repository;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.RetiredProductEntity;
+
+import java.util.UUID;
+
+/**
+ * Consultas sobre lotes no ACTIVOS (tabla caliente + archivo). Solo lectura.
+ */
+public interface JpaRetiredProductRepository
+		extends Repository<RetiredProductEntity, UUID>, JpaSpecificationExecutor<RetiredProductEntity> {
+}
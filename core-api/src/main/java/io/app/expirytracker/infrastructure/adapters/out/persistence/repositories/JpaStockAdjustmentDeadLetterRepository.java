@@ -0,0 +1,10 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockAdjustmentDeadLetterEntity;
+
+public interface JpaStockAdjustmentDeadLetterRepository extends JpaRepository<StockAdjustmentDeadLetterEntity, UUID> {
+}
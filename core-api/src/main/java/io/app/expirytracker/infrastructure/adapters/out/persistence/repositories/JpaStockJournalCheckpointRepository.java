@@ -0,0 +1,8 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalCheckpointEntity;
+
+public interface JpaStockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpointEntity, String> {
+}
@@ -0,0 +1,13 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalStoreCheckpointEntity;
+
+public interface JpaStockJournalStoreCheckpointRepository
+		extends JpaRepository<StockJournalStoreCheckpointEntity, StockJournalStoreCheckpointEntity.Key> {
+
+	List<StockJournalStoreCheckpointEntity> findByIdJournalId(String journalId);
+}
@@ -0,0 +1,82 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Traslado de lotes retirados de {@code products} a {@code products_archive}.
+ * * Cada lote se mueve con tres sentencias acotadas por ID (selección, copia y
+ * borrado) que el llamador ejecuta en una transacción corta.
+ */
+@Repository
+public class ProductArchiveJdbcRepository {
+
+	// Resuelto por idx_product_status_updated
+	private static final String SELECT_ARCHIVABLE_SQL = """
+			SELECT id FROM products
+			WHERE status IN ('SOLD', 'DISCARDED') AND updated_at < :cutoff
+			ORDER BY status, updated_at
+			LIMIT :limit""";
+
+	// En PostgreSQL las filas bloqueadas por una escritura en curso se dejan
+	// para la siguiente pasada en lugar de esperar por ellas.
+	private static final String POSTGRES_LOCK_SUFFIX = " FOR UPDATE SKIP LOCKED";
+
+	private static final String COPY_SQL = """
+			INSERT INTO products_archive (id, store_id, ean13, name, batch_number, expiry_date, quantity, category,
+			                              status, version, created_at, created_by, updated_at, updated_by,
+			                              archived_at)
+			SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status,
+			       version, created_at, created_by, updated_at, updated_by, :archivedAt
+			FROM products
+			WHERE id = ANY(:ids)""";
+
+	private static final String DELETE_SQL = "DELETE FROM products WHERE id = ANY(:ids)";
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	private volatile Boolean postgres;
+
+	public ProductArchiveJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Selecciona (y en PostgreSQL bloquea) hasta {@code limit} lotes retirados
+	 * cuya última modificación es anterior a {@code cutoff}.
+	 */
+	public List<UUID> lockArchivable(LocalDateTime cutoff, int limit) {
+		String sql = isPostgres() ? SELECT_ARCHIVABLE_SQL + POSTGRES_LOCK_SUFFIX : SELECT_ARCHIVABLE_SQL;
+		var params = new MapSqlParameterSource()
+				.addValue("cutoff", cutoff)
+				.addValue("limit", limit);
+		return jdbcTemplate.queryForList(sql, params, UUID.class);
+	}
+
+	/**
+	 * @return Lotes trasladados.
+	 */
+	public int moveToArchive(List<UUID> ids, LocalDateTime archivedAt) {
+		var params = new MapSqlParameterSource()
+				.addValue("ids", new SqlArrayValue("uuid", ids.toArray()))
+				.addValue("archivedAt", archivedAt);
+		jdbcTemplate.update(COPY_SQL, params);
+		return jdbcTemplate.update(DELETE_SQL, params);
+	}
+
+	private boolean isPostgres() {
+		Boolean value = postgres;
+		if (value == null) {
+			value = JdbcDialects.isPostgres(dataSource);
+			postgres = value;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,94 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort.PositionedChange;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductChange;
+import io.app.expirytracker.domain.model.ProductStatus;
+
+/**
+ * Lectura del feed de cambios sobre {@code products} y
+ * {@code products_archive}, por cursor {@code (change_seq, id)}.
+ * * Cada rama se resuelve con su índice {@code (store_id, change_seq, id)}:
+ * un recorrido de rango que empieza en el cursor y se detiene a las
+ * {@code limit} filas, sin OFFSET ni ordenación. La unión solo mezcla esas dos
+ * listas ya ordenadas. Un lote está en una tabla o en la otra, nunca en las
+ * dos: el archivado copia y borra en la misma transacción.
+ * * En PostgreSQL {@code change_seq} es el ID de la transacción que escribió
+ * la fila, y cada rama se corta en {@code pg_snapshot_xmin} de la instantánea
+ * de la consulta: por debajo, todas las transacciones terminaron. La cota se
+ * evalúa en la misma sentencia (y réplica) que lee las filas.
+ */
+@Repository
+public class ProductChangeFeedJdbcRepository {
+
+	private static final String BRANCH = """
+			(SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version,
+			        updated_at, change_seq
+			 FROM %s
+			 WHERE store_id = :storeId
+			   AND (change_seq, id) > (:afterSequence, :afterId)%s
+			 ORDER BY change_seq, id
+			 LIMIT :limit)""";
+
+	private static final String POSTGRES_SETTLED_BOUND =
+			"\n   AND change_seq < pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+
+	private static final RowMapper<PositionedChange> ROW_MAPPER = (rs, rowNum) -> new PositionedChange(
+			ProductChange.of(
+					new Product(
+							rs.getObject("id", UUID.class),
+							rs.getString("store_id"),
+							rs.getString("ean13"),
+							rs.getString("name"),
+							rs.getString("batch_number"),
+							rs.getObject("expiry_date", LocalDate.class),
+							rs.getInt("quantity"),
+							rs.getString("category"),
+							ProductStatus.valueOf(rs.getString("status")),
+							rs.getLong("version")),
+					rs.getObject("updated_at", LocalDateTime.class)),
+			rs.getLong("change_seq"));
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	private volatile String findChangesSql;
+
+	public ProductChangeFeedJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+	}
+
+	public List<PositionedChange> findChangesAfter(String storeId, long afterSequence, UUID afterId, int limit) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("afterSequence", afterSequence)
+				.addValue("afterId", afterId)
+				.addValue("limit", limit);
+		return jdbcTemplate.query(findChangesSql(), params, ROW_MAPPER);
+	}
+
+	// H2 (tests) no tiene IDs de transacción: sin cota
+	private String findChangesSql() {
+		String sql = findChangesSql;
+		if (sql == null) {
+			String bound = JdbcDialects.isPostgres(dataSource) ? POSTGRES_SETTLED_BOUND : "";
+			sql = "SELECT * FROM (" + BRANCH.formatted("products", bound)
+					+ "\nUNION ALL\n" + BRANCH.formatted("products_archive", bound) + """
+					) changes
+					ORDER BY change_seq, id
+					LIMIT :limit""";
+			findChangesSql = sql;
+		}
+		return sql;
+	}
+}
@@ -0,0 +1,231 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductChangeType;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+import io.app.expirytracker.domain.model.ProductStatus;
+
+/**
+ * Repositorio JDBC del historial de lotes ({@code product_history}).
+ * * La tabla no está mapeada en JPA: en PostgreSQL es una tabla particionada
+ * por rango mensual de {@code changed_at}, que Hibernate no sabe validar. La
+ * crea la migración {@code V2__product_history} (en H2, tests, sin
+ * particionar); las particiones de cada mes las mantiene
+ * {@code ProductHistoryPartitionManager}.
+ * * Las escrituras son solo inserciones; nunca se actualiza una entrada.
+ * * Cada entrada guarda la tienda del lote; las copias y las consultas se
+ * acotan a la tienda indicada.
+ */
+@Repository
+public class ProductHistoryJdbcRepository {
+
+	static final String TABLE = "product_history";
+	private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'y'yyyy'm'MM");
+
+	private static final String INSERT_SQL = """
+			INSERT INTO product_history (product_id, store_id, ean13, name, batch_number, expiry_date, quantity,
+			                             category, status, version, change_type, changed_at, changed_by)
+			VALUES (:productId, :storeId, :ean13, :name, :batchNumber, :expiryDate, :quantity, :category,
+			        :status, :version, :changeType, :changedAt, :changedBy)""";
+
+	private static final String COPY_SELECT = """
+			INSERT INTO product_history (product_id, store_id, ean13, name, batch_number, expiry_date, quantity,
+			                             category, status, version, change_type, changed_at, changed_by)
+			SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category,
+			       status, version, :changeType, :changedAt, :changedBy
+			FROM products
+			WHERE store_id = :storeId
+			""";
+
+	private static final String COPY_BY_IDS_SQL = COPY_SELECT + "AND id = ANY(:ids)";
+
+	private static final String COPY_BY_KEYS_SQL = COPY_SELECT + """
+			AND status = 'ACTIVE'
+			  AND (ean13, batch_number) IN (SELECT * FROM UNNEST(:eans, :batches))""";
+
+	private static final String SELECT_ENTRY = """
+			SELECT id, product_id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version,
+			       change_type, changed_at, changed_by
+			FROM product_history
+			""";
+
+	private static final String FIND_BY_PRODUCT_SQL = SELECT_ENTRY + """
+			WHERE product_id = :productId AND store_id = :storeId
+			ORDER BY changed_at DESC, id DESC
+			LIMIT :limit""";
+
+	// La condición sobre changed_at descarta las particiones fuera de la ventana.
+	// El cursor es (changed_at, id), el orden del índice por tienda: el id sale
+	// de una secuencia y no sigue el orden de commit
+	private static final String FIND_CHANGES_SQL = SELECT_ENTRY + """
+			WHERE store_id = :storeId AND changed_at >= :from AND changed_at < :to
+			  AND (changed_at, id) > (:afterChangedAt, :afterId)
+			ORDER BY changed_at, id
+			LIMIT :limit""";
+
+	private static final RowMapper<ProductHistoryEntry> ROW_MAPPER = (rs, rowNum) -> new ProductHistoryEntry(
+			rs.getLong("id"),
+			rs.getObject("product_id", UUID.class),
+			rs.getString("store_id"),
+			rs.getString("ean13"),
+			rs.getString("name"),
+			rs.getString("batch_number"),
+			rs.getObject("expiry_date", LocalDate.class),
+			rs.getInt("quantity"),
+			rs.getString("category"),
+			ProductStatus.valueOf(rs.getString("status")),
+			rs.getLong("version"),
+			ProductChangeType.valueOf(rs.getString("change_type")),
+			rs.getObject("changed_at", LocalDateTime.class),
+			rs.getString("changed_by"));
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	private volatile Boolean postgres;
+
+	public ProductHistoryJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+	}
+
+	public void insertAll(List<Product> states, ProductChangeType changeType, LocalDateTime changedAt,
+			String changedBy) {
+		SqlParameterSource[] batch = states.stream()
+				.map(state -> new MapSqlParameterSource()
+						.addValue("productId", state.id())
+						.addValue("storeId", state.storeId())
+						.addValue("ean13", state.ean13())
+						.addValue("name", state.name())
+						.addValue("batchNumber", state.batchNumber())
+						.addValue("expiryDate", state.expiryDate())
+						.addValue("quantity", state.quantity())
+						.addValue("category", state.category())
+						.addValue("status", state.status().name())
+						.addValue("version", state.version())
+						.addValue("changeType", changeType.name())
+						.addValue("changedAt", changedAt)
+						.addValue("changedBy", changedBy))
+				.toArray(SqlParameterSource[]::new);
+		jdbcTemplate.batchUpdate(INSERT_SQL, batch);
+	}
+
+	/**
+	 * Copia las filas en la base de datos con un único INSERT ... SELECT.
+	 */
+	public int copyByIds(String storeId, Collection<UUID> ids, ProductChangeType changeType,
+			LocalDateTime changedAt, String changedBy) {
+		var params = changeParameters(storeId, changeType, changedAt, changedBy)
+				.addValue("ids", new SqlArrayValue("uuid", ids.toArray()));
+		return jdbcTemplate.update(COPY_BY_IDS_SQL, params);
+	}
+
+	public int copyByKeys(String storeId, Collection<Product> products, ProductChangeType changeType,
+			LocalDateTime changedAt, String changedBy) {
+		var params = changeParameters(storeId, changeType, changedAt, changedBy)
+				.addValue("eans", new SqlArrayValue("varchar", products.stream().map(Product::ean13).toArray()))
+				.addValue("batches",
+						new SqlArrayValue("varchar", products.stream().map(Product::batchNumber).toArray()));
+		return jdbcTemplate.update(COPY_BY_KEYS_SQL, params);
+	}
+
+	public List<ProductHistoryEntry> findByProductId(String storeId, UUID productId, int limit) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("productId", productId)
+				.addValue("limit", limit);
+		return jdbcTemplate.query(FIND_BY_PRODUCT_SQL, params, ROW_MAPPER);
+	}
+
+	public List<ProductHistoryEntry> findChanges(String storeId, LocalDateTime from, LocalDateTime to,
+			LocalDateTime afterChangedAt, long afterId, int limit) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("from", from)
+				.addValue("to", to)
+				.addValue("afterChangedAt", afterChangedAt)
+				.addValue("afterId", afterId)
+				.addValue("limit", limit);
+		return jdbcTemplate.query(FIND_CHANGES_SQL, params, ROW_MAPPER);
+	}
+
+	public void createPartitionIfMissing(YearMonth month) {
+		jdbcTemplate.getJdbcTemplate().execute(String.format(
+				"CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+				partitionName(month), TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+	}
+
+	/**
+	 * @return Los nombres de las particiones mensuales existentes.
+	 */
+	public List<String> findPartitions() {
+		return jdbcTemplate.getJdbcTemplate().queryForList("""
+				SELECT c.relname
+				FROM pg_inherits i
+				JOIN pg_class c ON c.oid = i.inhrelid
+				JOIN pg_class p ON p.oid = i.inhparent
+				WHERE p.relname = ?""", String.class, TABLE);
+	}
+
+	/**
+	 * Eliminar una partición entera no genera filas muertas ni WAL por fila,
+	 * a diferencia de un DELETE.
+	 */
+	public void dropPartition(String partitionName) {
+		if (!partitionName.matches(TABLE + "_y\\d{4}m\\d{2}")) {
+			throw new IllegalArgumentException("No es una partición mensual del historial: " + partitionName);
+		}
+		jdbcTemplate.getJdbcTemplate().execute("DROP TABLE IF EXISTS " + partitionName);
+	}
+
+	/**
+	 * Retención sin particiones (H2): borra las entradas anteriores al corte.
+	 */
+	public int deleteBefore(LocalDateTime cutoff) {
+		return jdbcTemplate.update("DELETE FROM product_history WHERE changed_at < :cutoff",
+				new MapSqlParameterSource("cutoff", cutoff));
+	}
+
+	public boolean isPostgres() {
+		Boolean value = postgres;
+		if (value == null) {
+			value = JdbcDialects.isPostgres(dataSource);
+			postgres = value;
+		}
+		return value;
+	}
+
+	public static String partitionName(YearMonth month) {
+		return TABLE + "_" + month.format(PARTITION_SUFFIX);
+	}
+
+	/**
+	 * @return El mes de una partición a partir de su nombre.
+	 */
+	public static YearMonth monthOf(String partitionName) {
+		return YearMonth.parse(partitionName.substring(TABLE.length() + 1), PARTITION_SUFFIX);
+	}
+
+	private static MapSqlParameterSource changeParameters(String storeId, ProductChangeType changeType,
+			LocalDateTime changedAt, String changedBy) {
+		return new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("changeType", changeType.name())
+				.addValue("changedAt", changedAt)
+				.addValue("changedBy", changedBy);
+	}
+}
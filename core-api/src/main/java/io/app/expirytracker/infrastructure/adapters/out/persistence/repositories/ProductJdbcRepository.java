@@ -0,0 +1,283 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence.repositories;
+
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import javax.sql.DataSource;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.SqlArrayValue;
+import org.springframework.stereotype.Repository;
+
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.ProductEntity;
+
+/**
+ * Repositorio JDBC para las sentencias que JPA no puede expresar en una sola
+ * ida y vuelta a la base de datos (upserts y ajustes de stock atómicos).
+ * * El SQL depende del motor: en PostgreSQL se usa
+ * {@code INSERT ... ON CONFLICT DO UPDATE}, que es atómico frente a inserciones
+ * concurrentes; en H2 (tests) se usa el {@code MERGE} estándar equivalente.
+ * * Con {@code products} particionada por estado (perfil {@code partitioned})
+ * {@code uk_product_batch} incluye el estado y solo detecta el choque con el
+ * lote ACTIVO; el {@code NOT EXISTS} del upsert conserva la regla de no
+ * reactivar un lote SOLD/DISCARDED con el mismo EAN-13 + Lote, y
+ * {@code product_lot_keys} rechaza el alta que se cuele en una carrera.
+ * * Todas las sentencias van acotadas por {@code store_id}: un ID o una clave
+ * de otra tienda se comportan como inexistentes.
+ */
+@Repository
+public class ProductJdbcRepository {
+
+	private static final String POSTGRES_UPSERT_SQL = """
+			INSERT INTO products (id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status,
+			                      version, created_at, created_by, updated_at, updated_by)
+			SELECT CAST(:id AS UUID), :storeId, :ean13, :name, :batchNumber, CAST(:expiryDate AS DATE),
+			       CAST(:quantity AS INTEGER), :category, 'ACTIVE', 0,
+			       CAST(:changedAt AS TIMESTAMP), :changedBy, CAST(:changedAt AS TIMESTAMP), :changedBy
+			WHERE NOT EXISTS (SELECT 1 FROM products r
+			                  WHERE r.store_id = :storeId AND r.ean13 = :ean13 AND r.batch_number = :batchNumber
+			                    AND r.status <> 'ACTIVE')
+			ON CONFLICT ON CONSTRAINT uk_product_batch DO UPDATE SET
+			    name = EXCLUDED.name,
+			    expiry_date = EXCLUDED.expiry_date,
+			    quantity = EXCLUDED.quantity,
+			    category = EXCLUDED.category,
+			    version = products.version + 1,
+			    updated_at = EXCLUDED.updated_at,
+			    updated_by = EXCLUDED.updated_by
+			WHERE products.status = 'ACTIVE'""";
+
+	private static final String STANDARD_UPSERT_SQL = """
+			MERGE INTO products p
+			USING (VALUES (CAST(:id AS UUID), :storeId, :ean13, :name, :batchNumber, CAST(:expiryDate AS DATE),
+			               CAST(:quantity AS INTEGER), :category, CAST(:changedAt AS TIMESTAMP), :changedBy))
+			      AS v (id, store_id, ean13, name, batch_number, expiry_date, quantity, category, changed_at,
+			            changed_by)
+			ON p.store_id = v.store_id AND p.ean13 = v.ean13 AND p.batch_number = v.batch_number
+			WHEN MATCHED AND p.status = 'ACTIVE' THEN UPDATE SET
+			    name = v.name,
+			    expiry_date = v.expiry_date,
+			    quantity = v.quantity,
+			    category = v.category,
+			    version = p.version + 1,
+			    updated_at = v.changed_at,
+			    updated_by = v.changed_by
+			WHEN NOT MATCHED THEN INSERT (id, store_id, ean13, name, batch_number, expiry_date, quantity, category,
+			                              status, version, created_at, created_by, updated_at, updated_by)
+			    VALUES (v.id, v.store_id, v.ean13, v.name, v.batch_number, v.expiry_date, v.quantity, v.category, 'ACTIVE',
+			            0, v.changed_at, v.changed_by, v.changed_at, v.changed_by)""";
+
+	// Recuento exacto de un lote cuando el driver no lo da por sentencia: un
+	// elemento se aplicó si su lote está ACTIVO con la marca de esta llamada.
+	// Los elementos repetidos cuentan cada uno, como en el recuento por sentencia.
+	private static final String COUNT_APPLIED_SQL = """
+			SELECT COUNT(*)
+			FROM UNNEST(:eans, :batches) AS k (ean13, batch_number)
+			JOIN products p ON p.store_id = :storeId AND p.ean13 = k.ean13 AND p.batch_number = k.batch_number
+			WHERE p.status = 'ACTIVE' AND p.updated_at = :changedAt AND p.updated_by = :changedBy""";
+
+	private static final String FIND_BY_KEY_SQL = """
+			SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version
+			FROM products
+			WHERE store_id = :storeId AND ean13 = :ean13 AND batch_number = :batchNumber""";
+
+	private static final String FIND_BY_ID_SQL = """
+			SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version
+			FROM products
+			WHERE id = :id AND store_id = :storeId""";
+
+	// Un único parámetro de tipo array: el texto de la sentencia no cambia con el
+	// número de IDs, así que el plan se reutiliza (con IN habría una variante
+	// por cada tamaño de lista).
+	private static final String FIND_ACTIVE_BY_IDS_SQL = """
+			SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status, version
+			FROM products
+			WHERE id = ANY(:ids) AND store_id = :storeId AND status = 'ACTIVE'""";
+
+	// La guarda "quantity + delta >= 0" mantiene el invariante del dominio aun
+	// con escritores concurrentes: la fila se bloquea y la condición se reevalúa.
+	private static final String ADJUST_QUANTITY_SQL = """
+			UPDATE products
+			SET quantity = quantity + :delta,
+			    version = version + 1,
+			    updated_at = :changedAt,
+			    updated_by = :changedBy
+			WHERE id = :id AND store_id = :storeId AND status = 'ACTIVE' AND quantity + :delta >= 0""";
+
+	private static final RowMapper<ProductEntity> ROW_MAPPER = (rs, rowNum) -> ProductEntity.builder()
+			.id(rs.getObject("id", UUID.class))
+			.storeId(rs.getString("store_id"))
+			.ean13(rs.getString("ean13"))
+			.name(rs.getString("name"))
+			.batchNumber(rs.getString("batch_number"))
+			.expiryDate(rs.getObject("expiry_date", LocalDate.class))
+			.quantity(rs.getInt("quantity"))
+			.category(rs.getString("category"))
+			.status(ProductStatus.valueOf(rs.getString("status")))
+			.version(rs.getLong("version"))
+			.build();
+
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	private final DataSource dataSource;
+	// Se resuelve en el primer uso: consultar el motor al construir el bean
+	// obligaría a abrir una conexión durante el arranque (y en el entrenamiento
+	// del archivo CDS, que se ejecuta sin base de datos).
+	private volatile String upsertSql;
+
+	public ProductJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate, DataSource dataSource) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * @return 1 si el lote se insertó o actualizó, 0 si existe y no está ACTIVO.
+	 */
+	public int upsert(ProductEntity entity, LocalDateTime changedAt, String changedBy) {
+		return jdbcTemplate.update(upsertSql(), upsertParameters(entity, changedAt, changedBy));
+	}
+
+	/**
+	 * Ejecuta los upserts de una tienda como un único lote JDBC.
+	 * * Si el driver informa {@code SUCCESS_NO_INFO} (-2) en lugar del recuento
+	 * (p. ej. PostgreSQL con {@code reWriteBatchedInserts}), no se sabe qué
+	 * sentencias saltó la guarda de estado; el recuento se obtiene entonces con
+	 * una consulta en la misma transacción. Con {@code changedAt} distinto en
+	 * cada llamada (el de la aplicación tiene microsegundos) es exacto.
+	 *
+	 * @return El número de elementos insertados o actualizados.
+	 */
+	public int upsertAll(String storeId, List<ProductEntity> entities, LocalDateTime changedAt, String changedBy) {
+		// La columna guarda microsegundos: la marca debe compararse igual después
+		LocalDateTime stamp = changedAt.truncatedTo(ChronoUnit.MICROS);
+		SqlParameterSource[] batch = entities.stream()
+				.map(entity -> upsertParameters(entity, stamp, changedBy))
+				.toArray(SqlParameterSource[]::new);
+
+		int applied = 0;
+		for (int count : jdbcTemplate.batchUpdate(upsertSql(), batch)) {
+			if (count == Statement.SUCCESS_NO_INFO) {
+				return countApplied(storeId, entities, stamp, changedBy);
+			}
+			if (count > 0) {
+				applied++;
+			}
+		}
+		return applied;
+	}
+
+	private int countApplied(String storeId, List<ProductEntity> entities, LocalDateTime changedAt,
+			String changedBy) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("eans", new SqlArrayValue("varchar", entities.stream().map(ProductEntity::getEan13).toArray()))
+				.addValue("batches",
+						new SqlArrayValue("varchar", entities.stream().map(ProductEntity::getBatchNumber).toArray()))
+				.addValue("changedAt", changedAt)
+				.addValue("changedBy", changedBy);
+		Integer applied = jdbcTemplate.queryForObject(COUNT_APPLIED_SQL, params, Integer.class);
+		return applied != null ? applied : 0;
+	}
+
+	/**
+	 * Lee la fila por su clave de negocio directamente de la base de datos, sin
+	 * pasar por el contexto de persistencia (que podría conservar una copia
+	 * anterior al upsert).
+	 */
+	public Optional<ProductEntity> findByKey(String storeId, String ean13, String batchNumber) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("ean13", ean13)
+				.addValue("batchNumber", batchNumber);
+		return jdbcTemplate.query(FIND_BY_KEY_SQL, params, ROW_MAPPER).stream().findFirst();
+	}
+
+	public Optional<ProductEntity> findById(String storeId, UUID id) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("id", id);
+		return jdbcTemplate.query(FIND_BY_ID_SQL, params, ROW_MAPPER).stream().findFirst();
+	}
+
+	public List<ProductEntity> findActiveByIds(String storeId, Collection<UUID> ids) {
+		var params = new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("ids", new SqlArrayValue("uuid", ids.toArray()));
+		return jdbcTemplate.query(FIND_ACTIVE_BY_IDS_SQL, params, ROW_MAPPER);
+	}
+
+	/**
+	 * @return 1 si el ajuste se aplicó, 0 si el producto no existe, no está
+	 *         ACTIVO o el stock quedaría negativo.
+	 */
+	public int adjustQuantity(String storeId, UUID id, int delta, LocalDateTime changedAt, String changedBy) {
+		return jdbcTemplate.update(ADJUST_QUANTITY_SQL, adjustParameters(storeId, id, delta, changedAt, changedBy));
+	}
+
+	/**
+	 * Aplica varios ajustes como un único lote JDBC.
+	 *
+	 * @return Los IDs cuyo ajuste no se aplicó.
+	 */
+	public Set<UUID> adjustQuantities(String storeId, Map<UUID, Integer> deltas, LocalDateTime changedAt,
+			String changedBy) {
+		List<UUID> ids = new ArrayList<>(deltas.keySet());
+		SqlParameterSource[] batch = ids.stream()
+				.map(id -> adjustParameters(storeId, id, deltas.get(id), changedAt, changedBy))
+				.toArray(SqlParameterSource[]::new);
+
+		int[] counts = jdbcTemplate.batchUpdate(ADJUST_QUANTITY_SQL, batch);
+		Set<UUID> rejected = new HashSet<>();
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0) {
+				rejected.add(ids.get(i));
+			}
+		}
+		return rejected;
+	}
+
+	private static SqlParameterSource adjustParameters(String storeId, UUID id, int delta, LocalDateTime changedAt,
+			String changedBy) {
+		return new MapSqlParameterSource()
+				.addValue("storeId", storeId)
+				.addValue("id", id)
+				.addValue("delta", delta)
+				.addValue("changedAt", changedAt)
+				.addValue("changedBy", changedBy);
+	}
+
+	private static SqlParameterSource upsertParameters(ProductEntity entity, LocalDateTime changedAt,
+			String changedBy) {
+		return new MapSqlParameterSource()
+				.addValue("id", entity.getId())
+				.addValue("storeId", entity.getStoreId())
+				.addValue("ean13", entity.getEan13())
+				.addValue("name", entity.getName())
+				.addValue("batchNumber", entity.getBatchNumber())
+				.addValue("expiryDate", entity.getExpiryDate())
+				.addValue("quantity", entity.getQuantity())
+				.addValue("category", entity.getCategory())
+				.addValue("changedAt", changedAt)
+				.addValue("changedBy", changedBy);
+	}
+
+	private String upsertSql() {
+		String sql = upsertSql;
+		if (sql == null) {
+			sql = JdbcDialects.isPostgres(dataSource) ? POSTGRES_UPSERT_SQL : STANDARD_UPSERT_SQL;
+			upsertSql = sql;
+		}
+		return sql;
+	}
+}
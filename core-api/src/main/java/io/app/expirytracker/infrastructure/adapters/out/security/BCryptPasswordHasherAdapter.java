@@ -0,0 +1,177 @@
+package io.app.expirytracker.infrastructure.adapters.out.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.out.PasswordHasherPort;
+
+/**
+ * Hash de contraseñas con BCrypt en un pool de hilos propio y acotado.
+ * * BCrypt consume decenas a cientos de milisegundos de CPU por llamada. Si se
+ * ejecutara en los hilos de Tomcat, una ráfaga de registros/logins ocuparía la
+ * CPU que necesitan las peticiones de productos. Aquí el número de hashes
+ * simultáneos está limitado por el pool y la cola; lo que no cabe se rechaza
+ * con {@link RejectedExecutionException} (503) en lugar de acumular latencia.
+ * * Coste adaptativo: al arrancar se mide el hash con el coste mínimo y se elige
+ * el mayor coste cuya latencia estimada no supere el objetivo (cada punto de
+ * coste duplica el trabajo). Los hashes existentes siguen verificándose porque
+ * BCrypt guarda el coste en el propio hash.
+ * * Métricas: {@code expiry.password.hashing} (latencia, etiqueta
+ * {@code operation}), {@code expiry.password.hashing.rejected},
+ * {@code expiry.password.hashing.cost} y las del ejecutor
+ * ({@code executor.queued}, {@code executor.active}...) con
+ * {@code name=password-hashing}.
+ */
+@Slf4j
+@Component
+public class BCryptPasswordHasherAdapter implements PasswordHasherPort {
+
+	private static final String CALIBRATION_SAMPLE = "calibracion-de-coste";
+	private static final int CALIBRATION_ROUNDS = 3;
+
+	private final ThreadPoolExecutor executor;
+	private final BCryptPasswordEncoder encoder;
+	private final int cost;
+	private final long maxWaitMs;
+	private final Timer hashTimer;
+	private final Timer verifyTimer;
+	private final Counter rejected;
+
+	public BCryptPasswordHasherAdapter(
+			MeterRegistry meterRegistry,
+			@Value("${expiry-tracker.security.password-hashing.target-latency-ms:100}") long targetLatencyMs,
+			@Value("${expiry-tracker.security.password-hashing.min-cost:10}") int minCost,
+			@Value("${expiry-tracker.security.password-hashing.max-cost:14}") int maxCost,
+			@Value("${expiry-tracker.security.password-hashing.threads:0}") int threads,
+			@Value("${expiry-tracker.security.password-hashing.queue-capacity:64}") int queueCapacity,
+			@Value("${expiry-tracker.security.password-hashing.max-wait-ms:5000}") long maxWaitMs) {
+		if (minCost < 4 || maxCost > 31 || minCost > maxCost) {
+			throw new IllegalArgumentException("El rango de coste de BCrypt debe cumplir 4 <= min-cost <= max-cost <= 31");
+		}
+
+		// Por defecto, la mitad de los núcleos: el resto queda para el tráfico normal
+		int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		this.executor = new ThreadPoolExecutor(
+				poolSize, poolSize,
+				0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				daemonThreadFactory(),
+				new ThreadPoolExecutor.AbortPolicy());
+		this.maxWaitMs = maxWaitMs;
+
+		this.cost = calibrate(targetLatencyMs, minCost, maxCost);
+		this.encoder = new BCryptPasswordEncoder(cost);
+
+		this.hashTimer = Timer.builder("expiry.password.hashing").tag("operation", "hash").register(meterRegistry);
+		this.verifyTimer = Timer.builder("expiry.password.hashing").tag("operation", "verify").register(meterRegistry);
+		this.rejected = meterRegistry.counter("expiry.password.hashing.rejected");
+		meterRegistry.gauge("expiry.password.hashing.cost", Tags.empty(), this, BCryptPasswordHasherAdapter::cost);
+		new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+	}
+
+	@Override
+	public String hash(String rawPassword) {
+		return submit(() -> hashTimer.record(() -> encoder.encode(rawPassword)));
+	}
+
+	@Override
+	public boolean matches(String rawPassword, String hashedPassword) {
+		return submit(() -> verifyTimer.record(() -> encoder.matches(rawPassword, hashedPassword)));
+	}
+
+	@Override
+	public boolean needsRehash(String hashedPassword) {
+		return encoder.upgradeEncoding(hashedPassword);
+	}
+
+	int cost() {
+		return cost;
+	}
+
+	private <T> T submit(Callable<T> task) {
+		Future<T> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException ex) {
+			rejected.increment();
+			throw new RejectedExecutionException(
+					"El servicio de autenticación está saturado. Intente nuevamente en unos segundos.", ex);
+		}
+
+		try {
+			return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException ex) {
+			future.cancel(true);
+			rejected.increment();
+			throw new RejectedExecutionException(
+					"El servicio de autenticación está saturado. Intente nuevamente en unos segundos.", ex);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Hash de contraseña interrumpido", ex);
+		} catch (ExecutionException ex) {
+			throw new IllegalStateException("No se pudo calcular el hash de la contraseña", ex.getCause());
+		}
+	}
+
+	/**
+	 * Mide el coste mínimo en el propio pool (mismas condiciones que en
+	 * producción) y extrapola: t(c) = t(min) * 2^(c - min).
+	 */
+	private int calibrate(long targetLatencyMs, int minCost, int maxCost) {
+		var probe = new BCryptPasswordEncoder(minCost);
+		long bestNanos = Long.MAX_VALUE;
+		for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+			long nanos = submit(() -> {
+				long start = System.nanoTime();
+				probe.encode(CALIBRATION_SAMPLE);
+				return System.nanoTime() - start;
+			});
+			bestNanos = Math.min(bestNanos, nanos);
+		}
+
+		long targetNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMs);
+		int selected = minCost;
+		long estimated = bestNanos;
+		while (selected < maxCost && estimated * 2 <= targetNanos) {
+			selected++;
+			estimated *= 2;
+		}
+
+		log.info("Coste de BCrypt calibrado en {} (~{} ms por hash, objetivo {} ms, {} hilos)",
+				selected, TimeUnit.NANOSECONDS.toMillis(estimated), targetLatencyMs, executor.getCorePoolSize());
+		return selected;
+	}
+
+	private static ThreadFactory daemonThreadFactory() {
+		AtomicInteger sequence = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	@PreDestroy
+	void shutdown() {
+		executor.shutdown();
+	}
+}
@@ -2,23 +2,44 @@ package io.app.expirytracker.infrastructure.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Clock;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Configuration
-@EnableJpaAuditing(auditorAwareRef = "auditorProvider") // Listener
+@EnableJpaAuditing(auditorAwareRef = "auditorProvider", dateTimeProviderRef = "auditDateTimeProvider") // Listener
 public class AuditConfig {
 
+	// Procesos sin usuario (tareas programadas, importaciones internas)
+	static final String SYSTEM_AUDITOR = "SYSTEM";
+
 	/**
 	 * Este Bean le dice a JPA quién es el usuario actual.
-	 * FASE 1 (Sin Seguridad): Devolvemos un usuario fijo.
-	 * FASE 2 (Futuro): Aquí conectaremos con Spring Security para sacar el usuario
-	 * real del Token.
+	 * El usuario sale del token ya validado por el filtro JWT (está en el
+	 * SecurityContext), sin ninguna consulta a la base de datos.
 	 */
 	@Bean
 	public AuditorAware<String> auditorProvider() {
-		return () -> Optional.of("DEV_USER");
+		return () -> Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+				.filter(Authentication::isAuthenticated)
+				.filter(authentication -> !(authentication instanceof AnonymousAuthenticationToken))
+				.map(Authentication::getName)
+				.or(() -> Optional.of(SYSTEM_AUDITOR));
+	}
+
+	/**
+	 * Las fechas de auditoría salen del reloj de la aplicación, el mismo con el
+	 * que los adaptadores JDBC sellan sus filas.
+	 */
+	@Bean
+	public DateTimeProvider auditDateTimeProvider(Clock clock) {
+		return () -> Optional.of(LocalDateTime.now(clock));
 	}
-}
\ No newline at end of file
+}
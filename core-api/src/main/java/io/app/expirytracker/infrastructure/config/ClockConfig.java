@@ -0,0 +1,24 @@
+package io.app.expirytracker.infrastructure.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Reloj único de la aplicación. Los servicios que dependen de la hora lo
+ * reciben inyectado en lugar de leer el del sistema, para que los tests
+ * puedan fijarlo.
+ * * Usa la zona del sistema. La auditoría de JPA y los adaptadores JDBC sellan
+ * las filas con este reloj: las horas locales que se derivan de él se
+ * comparan con esas columnas. Quien necesita la fecha de una tienda usa
+ * {@code BusinessDateService}, que aplica la zona de la tienda al instante.
+ */
+@Configuration
+public class ClockConfig {
+
+	@Bean
+	public Clock clock() {
+		return Clock.systemDefaultZone();
+	}
+}
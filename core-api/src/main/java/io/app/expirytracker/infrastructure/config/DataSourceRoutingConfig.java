@@ -0,0 +1,124 @@
+package io.app.expirytracker.infrastructure.config;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.app.expirytracker.infrastructure.datasource.ReadYourWritesInterceptor;
+import io.app.expirytracker.infrastructure.datasource.ReadYourWritesTracker;
+import io.app.expirytracker.infrastructure.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Lecturas en réplicas: las transacciones {@code readOnly = true} toman su
+ * conexión de {@link ReplicaRoutingDataSource}; el resto, del primario.
+ * * El {@link LazyConnectionDataSourceProxy} retrasa la obtención de la
+ * conexión física hasta la primera sentencia, cuando la transacción ya marcó
+ * la conexión como de solo lectura. Con esta configuración desactivada
+ * (por defecto) Spring Boot crea su único pool habitual.
+ * * Métricas: {@code hikaricp.*} por pool ({@code pool=primary|replica-N}),
+ * {@code expiry.datasource.reads} por destino y
+ * {@code expiry.datasource.replica.lag}/{@code .healthy} por réplica y
+ * {@code expiry.datasource.reads.sticky} por petición enviada al primario tras
+ * una escritura del mismo cliente.
+ */
+@Configuration
+@ConditionalOnProperty(name = "expiry-tracker.datasource.replicas.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+	/**
+	 * Pool del primario, con las propiedades {@code spring.datasource.*} y
+	 * {@code spring.datasource.hikari.*} de siempre.
+	 */
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource primaryPool(DataSourceProperties properties) {
+		HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		pool.setPoolName("primary");
+		return pool;
+	}
+
+	@Bean
+	public ReadYourWritesTracker readYourWritesTracker(
+			@Value("${expiry-tracker.datasource.replicas.read-your-writes-window:PT5S}") Duration window,
+			@Value("${expiry-tracker.datasource.replicas.read-your-writes-max-clients:100000}") long maxClients) {
+		return new ReadYourWritesTracker(window, maxClients);
+	}
+
+	/**
+	 * Después de {@code StoreContextInterceptor} y del cupo por tienda (órdenes
+	 * 0 y 1), con el usuario ya autenticado por el filtro JWT.
+	 */
+	@Bean
+	public WebMvcConfigurer readYourWritesRouting(ReadYourWritesTracker readYourWritesTracker,
+			MeterRegistry meterRegistry) {
+		var interceptor = new ReadYourWritesInterceptor(readYourWritesTracker,
+				meterRegistry.counter("expiry.datasource.reads.sticky"));
+		return new WebMvcConfigurer() {
+			@Override
+			public void addInterceptors(InterceptorRegistry registry) {
+				registry.addInterceptor(interceptor).addPathPatterns("/api/v1/products/**").order(2);
+			}
+		};
+	}
+
+	@Bean
+	public ReplicaRoutingDataSource replicaRoutingDataSource(
+			HikariDataSource primaryPool,
+			DataSourceProperties properties,
+			MeterRegistry meterRegistry,
+			@Value("${expiry-tracker.datasource.replicas.urls}") List<String> urls,
+			@Value("${expiry-tracker.datasource.replicas.username:}") String username,
+			@Value("${expiry-tracker.datasource.replicas.password:}") String password,
+			@Value("${expiry-tracker.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+			@Value("${expiry-tracker.datasource.replicas.connection-timeout:PT0.25S}") Duration connectionTimeout,
+			@Value("${expiry-tracker.datasource.replicas.max-lag:PT2S}") Duration maxLag,
+			@Value("${expiry-tracker.datasource.replicas.lag-query:}") String lagQuery) {
+		List<HikariDataSource> pools = new ArrayList<>();
+		for (int i = 0; i < urls.size(); i++) {
+			// Sin arrancar: Hikari abre las conexiones en el primer uso
+			var pool = new HikariDataSource();
+			pool.setPoolName("replica-" + (i + 1));
+			pool.setJdbcUrl(urls.get(i).trim());
+			pool.setUsername(username.isBlank() ? properties.determineUsername() : username);
+			pool.setPassword(username.isBlank() ? properties.determinePassword() : password);
+			pool.setDriverClassName(properties.determineDriverClassName());
+			pool.setMaximumPoolSize(maximumPoolSize);
+			// Corto: sin conexión a tiempo la lectura cae al primario (Hikari admite 250 ms como mínimo)
+			pool.setConnectionTimeout(connectionTimeout.toMillis());
+			pool.setReadOnly(true);
+			pool.setMetricRegistry(meterRegistry);
+			pools.add(pool);
+		}
+		String query = !lagQuery.isBlank() ? lagQuery
+				: urls.get(0).startsWith("jdbc:postgresql:") ? ReplicaRoutingDataSource.POSTGRES_LAG_QUERY
+						: "SELECT 0";
+		return new ReplicaRoutingDataSource(primaryPool, pools, query, maxLag, meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public DataSource dataSource(HikariDataSource primaryPool, ReplicaRoutingDataSource replicaRoutingDataSource) {
+		var proxy = new LazyConnectionDataSourceProxy(primaryPool);
+		proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+		// Valores por defecto de Hikari: así el proxy no abre una conexión al arrancar
+		proxy.setDefaultAutoCommit(true);
+		proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+		return proxy;
+	}
+}
@@ -0,0 +1,12 @@
+package io.app.expirytracker.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas periódicas (vaciado de micro-lotes, mantenimiento).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
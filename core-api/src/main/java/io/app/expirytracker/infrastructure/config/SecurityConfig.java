@@ -2,9 +2,18 @@ package io.app.expirytracker.infrastructure.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.infrastructure.security.JwtAuthenticationFilter;
+import io.app.expirytracker.infrastructure.security.JwtService;
 
 @Configuration
 @EnableWebSecurity
@@ -14,11 +23,38 @@ public class SecurityConfig {
     System.out.println("DEBUG: Cargando configuración de seguridad personalizada de Arnold...");
   }
 
+  /**
+   * Autenticación sin estado (JWT): sin sesión HTTP, sin formulario ni Basic.
+   * Solo el login, el registro y el health check son públicos.
+   * * El resto exige un rol (RBAC): las operaciones masivas o destructivas
+   * (importar, dar de baja, reemplazar por clave) y la asignación de roles y
+   * tiendas son solo de MANAGER; lo demás, de cualquier rol. Un token válido
+   * sin rol recibe 403. El registro público crea STAFF en la tienda por
+   * defecto; el primer MANAGER sale de
+   * {@code expiry-tracker.security.bootstrap-manager} y los encargados
+   * asignan roles y tiendas con {@code PUT /api/v1/users/{id}/role} y
+   * {@code PUT /api/v1/users/{id}/stores}.
+   */
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, JwtService jwtService) throws Exception {
     http
         .csrf(csrf -> csrf.disable())
-        .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+        .httpBasic(basic -> basic.disable())
+        .formLogin(form -> form.disable())
+        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+        .authorizeHttpRequests(auth -> auth
+            .requestMatchers(HttpMethod.POST, "/api/v1/auth/login", "/api/v1/users").permitAll()
+            .requestMatchers("/actuator/health/**", "/error").permitAll()
+            .requestMatchers(HttpMethod.POST, "/api/v1/products/import").hasRole(Role.MANAGER.name())
+            .requestMatchers(HttpMethod.DELETE, "/api/v1/products/**").hasRole(Role.MANAGER.name())
+            .requestMatchers(HttpMethod.PUT, "/api/v1/products/by-key", "/api/v1/products/by-key/**")
+            .hasRole(Role.MANAGER.name())
+            .requestMatchers(HttpMethod.PUT, "/api/v1/users/*/role", "/api/v1/users/*/stores")
+            .hasRole(Role.MANAGER.name())
+            .anyRequest().hasAnyRole(Role.STAFF.name(), Role.MANAGER.name()))
+        .exceptionHandling(exceptions -> exceptions
+            .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+        .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class);
     return http.build();
   }
 }
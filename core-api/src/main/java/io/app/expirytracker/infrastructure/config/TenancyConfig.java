@@ -0,0 +1,41 @@
+package io.app.expirytracker.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.infrastructure.tenancy.StoreBulkheadInterceptor;
+import io.app.expirytracker.infrastructure.tenancy.StoreContextInterceptor;
+
+/**
+ * Multi-tienda en la API de productos: resolución de la tienda de cada
+ * petición (permitida por el token) y, después, su cupo de concurrencia. Van como interceptores (no
+ * filtros) para que sus rechazos pasen por {@code GlobalExceptionHandler}.
+ */
+@Configuration
+public class TenancyConfig implements WebMvcConfigurer {
+
+	private static final String PRODUCTS_PATTERN = "/api/v1/products/**";
+
+	private final StoreBulkheadInterceptor bulkheadInterceptor;
+
+	public TenancyConfig(
+			@Value("${expiry-tracker.tenancy.bulkhead.max-concurrent-per-store:8}") int maxConcurrentPerStore,
+			@Value("${expiry-tracker.tenancy.bulkhead.acquire-timeout:PT0.05S}") Duration acquireTimeout,
+			MeterRegistry meterRegistry,
+			StoreDirectoryPort storeDirectory) {
+		this.bulkheadInterceptor = new StoreBulkheadInterceptor(maxConcurrentPerStore, acquireTimeout,
+				meterRegistry.counter("expiry.tenancy.bulkhead.rejected"), storeDirectory);
+	}
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(new StoreContextInterceptor()).addPathPatterns(PRODUCTS_PATTERN).order(0);
+		registry.addInterceptor(bulkheadInterceptor).addPathPatterns(PRODUCTS_PATTERN).order(1);
+	}
+}
@@ -0,0 +1,67 @@
+package io.app.expirytracker.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import io.app.expirytracker.infrastructure.throttling.AdaptiveConcurrencyLimiter;
+import io.app.expirytracker.infrastructure.throttling.ConcurrencyLimitFilter;
+import io.app.expirytracker.infrastructure.throttling.RateLimitBackend;
+import io.app.expirytracker.infrastructure.throttling.RateLimitFilter;
+
+/**
+ * Protección de la API de productos frente a clientes que la saturan.
+ * Los filtros se ejecutan después de Spring Security (orden -100) para conocer
+ * al usuario autenticado: primero la cuota por cliente (429) y luego el límite
+ * de concurrencia global (503).
+ */
+@Configuration
+public class ThrottlingConfig {
+
+	private static final String PRODUCTS_PATTERN = "/api/v1/products/*";
+	private static final int AFTER_SECURITY = -90;
+
+	@Bean
+	@ConditionalOnProperty(name = "expiry-tracker.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+	public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitBackend backend, JsonMapper jsonMapper,
+			MeterRegistry meterRegistry) {
+		var filter = new RateLimitFilter(backend, jsonMapper, meterRegistry.counter("expiry.ratelimit.rejected"));
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns(PRODUCTS_PATTERN);
+		registration.setOrder(AFTER_SECURITY);
+		return registration;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "expiry-tracker.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+	public AdaptiveConcurrencyLimiter productConcurrencyLimiter(
+			@Value("${expiry-tracker.concurrency-limit.initial-limit:20}") int initialLimit,
+			@Value("${expiry-tracker.concurrency-limit.min-limit:4}") int minLimit,
+			@Value("${expiry-tracker.concurrency-limit.max-limit:200}") int maxLimit,
+			@Value("${expiry-tracker.concurrency-limit.smoothing:0.2}") double smoothing,
+			@Value("${expiry-tracker.concurrency-limit.rtt-tolerance:1.5}") double tolerance,
+			MeterRegistry meterRegistry) {
+		var limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, smoothing, tolerance);
+		meterRegistry.gauge("expiry.concurrency.limit", Tags.empty(), limiter, AdaptiveConcurrencyLimiter::limit);
+		meterRegistry.gauge("expiry.concurrency.inflight", Tags.empty(), limiter, AdaptiveConcurrencyLimiter::inflight);
+		return limiter;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "expiry-tracker.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+	public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+			JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+		var filter = new ConcurrencyLimitFilter(limiter, jsonMapper,
+				meterRegistry.counter("expiry.concurrency.rejected"));
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.addUrlPatterns(PRODUCTS_PATTERN);
+		registration.setOrder(AFTER_SECURITY + 1);
+		return registration;
+	}
+}
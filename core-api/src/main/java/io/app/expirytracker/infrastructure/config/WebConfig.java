@@ -0,0 +1,27 @@
+package io.app.expirytracker.infrastructure.config;
+
+import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Formatos binarios para los clientes que los piden en {@code Accept}
+ * ({@code application/cbor}, {@code application/x-jackson-smile}). JSON sigue
+ * siendo el formato por defecto: su conversor va antes en la lista.
+ * * CBOR usa el {@link CBORMapper} de Spring Boot (propiedades
+ * {@code spring.jackson.cbor.*}); Smile no tiene autoconfiguración.
+ */
+@Configuration
+public class WebConfig {
+
+	@Bean
+	public ServerHttpMessageConvertersCustomizer binaryFormatsCustomizer(CBORMapper cborMapper) {
+		return builder -> builder
+				.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper))
+				.withSmileConverter(new JacksonSmileHttpMessageConverter(SmileMapper.builder().build()));
+	}
+}
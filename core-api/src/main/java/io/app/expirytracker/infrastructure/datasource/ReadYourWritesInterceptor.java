@@ -0,0 +1,42 @@
+package io.app.expirytracker.infrastructure.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Lleva al primario todas las lecturas de la petición de un cliente que acaba
+ * de escribir (ver {@link ReadYourWritesTracker}).
+ * * La decisión se toma una vez por petición, en el hilo que la atiende, y
+ * viaja como {@link ReadRouting}: así la respetan también las lecturas que
+ * resuelve otro hilo en su nombre (el líder del agrupador de búsquedas por ID),
+ * que no comparte el usuario autenticado de esta petición.
+ */
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+	private final ReadYourWritesTracker readYourWrites;
+	private final Counter stickyRequests;
+
+	public ReadYourWritesInterceptor(ReadYourWritesTracker readYourWrites, Counter stickyRequests) {
+		this.readYourWrites = readYourWrites;
+		this.stickyRequests = stickyRequests;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		if (readYourWrites.currentClientWroteRecently()) {
+			stickyRequests.increment();
+			ReadRouting.requirePrimary();
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		ReadRouting.clear();
+	}
+}
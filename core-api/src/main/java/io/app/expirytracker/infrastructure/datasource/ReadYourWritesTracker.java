@@ -0,0 +1,59 @@
+package io.app.expirytracker.infrastructure.datasource;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+
+/**
+ * Recuerda qué clientes confirmaron una escritura hace menos de
+ * {@code window}, para que sus lecturas vayan al primario y vean lo que
+ * acaban de escribir aunque la réplica vaya retrasada.
+ * * El cliente es el usuario autenticado. Las escrituras sin usuario (tareas
+ * programadas) no fijan a nadie: nadie espera leerlas de inmediato.
+ * * Se marca con {@link ProductsChangedEvent} tras el commit: las únicas
+ * lecturas que van a réplica son las de productos y su historial, que se
+ * escribe junto a ellos.
+ */
+public class ReadYourWritesTracker {
+
+	private final Cache<String, Boolean> recentWriters;
+
+	public ReadYourWritesTracker(Duration window, long maxClients) {
+		this.recentWriters = Caffeine.newBuilder()
+				.expireAfterWrite(window)
+				.maximumSize(maxClients)
+				.build();
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onProductsChanged(ProductsChangedEvent event) {
+		currentClient().ifPresent(this::recordWrite);
+	}
+
+	public void recordWrite(String client) {
+		recentWriters.put(client, Boolean.TRUE);
+	}
+
+	/**
+	 * @return true si el cliente actual escribió dentro de la ventana.
+	 */
+	public boolean currentClientWroteRecently() {
+		return currentClient().map(client -> recentWriters.getIfPresent(client) != null).orElse(false);
+	}
+
+	private static Optional<String> currentClient() {
+		return Optional.ofNullable(SecurityContextHolder.getContext().getAuthentication())
+				.filter(Authentication::isAuthenticated)
+				.filter(authentication -> !(authentication instanceof AnonymousAuthenticationToken))
+				.map(Authentication::getName);
+	}
+}
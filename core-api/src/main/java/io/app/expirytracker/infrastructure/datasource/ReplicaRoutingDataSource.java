@@ -0,0 +1,182 @@
+package io.app.expirytracker.infrastructure.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Origen de las conexiones de solo lectura: reparte entre las réplicas sanas
+ * (round-robin) y cae al primario cuando no queda ninguna, cuando la réplica
+ * elegida no entrega conexión a tiempo o cuando el hilo pidió leer del
+ * primario ({@link ReadRouting}): la marca la fijan la caché de búsquedas y,
+ * para un cliente que acaba de escribir, {@link ReadYourWritesInterceptor}.
+ * * Una réplica está sana si su último retraso medido ({@link #checkReplicas()})
+ * no supera {@code maxLag}. Hasta la primera medición ninguna lo está: las
+ * lecturas empiezan en el primario.
+ * * Se usa como {@code readOnlyDataSource} de un
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * que solo la consulta para conexiones marcadas de solo lectura antes de su
+ * primer uso ({@code @Transactional(readOnly = true)}).
+ * * Las réplicas deben tener un {@code connectionTimeout} corto: una réplica
+ * caída retiene el hilo ese tiempo antes de caer al primario.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+	/**
+	 * Retraso de una réplica de PostgreSQL en segundos; 0 si no está en
+	 * recuperación o ya aplicó todo lo recibido (evita medir como retraso la
+	 * inactividad del primario).
+	 */
+	public static final String POSTGRES_LAG_QUERY = """
+			SELECT CASE
+			         WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+			         ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp())
+			       END""";
+
+	private static final class Replica {
+		private final HikariDataSource pool;
+		private final Counter routed;
+		private volatile boolean healthy;
+		private volatile double lagSeconds = Double.NaN;
+
+		private Replica(HikariDataSource pool, Counter routed) {
+			this.pool = pool;
+			this.routed = routed;
+		}
+	}
+
+	private final DataSource primary;
+	private final List<Replica> replicas;
+	private final String lagQuery;
+	private final double maxLagSeconds;
+	private final Counter routedToPrimary;
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * @param replicaPools Pools sin arrancar (Hikari crea las conexiones al
+	 *                     primer uso); se cierran con esta fuente.
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools,
+			String lagQuery, Duration maxLag, MeterRegistry meterRegistry) {
+		if (replicaPools.isEmpty()) {
+			throw new IllegalArgumentException("Se requiere al menos una réplica");
+		}
+		this.primary = primary;
+		this.lagQuery = lagQuery;
+		this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+		this.routedToPrimary = meterRegistry.counter("expiry.datasource.reads", "target", "primary");
+		this.replicas = replicaPools.stream()
+				.map(pool -> {
+					var replica = new Replica(pool,
+							meterRegistry.counter("expiry.datasource.reads", "target", pool.getPoolName()));
+					Tags tags = Tags.of("pool", pool.getPoolName());
+					meterRegistry.gauge("expiry.datasource.replica.lag", tags, replica, r -> r.lagSeconds);
+					meterRegistry.gauge("expiry.datasource.replica.healthy", tags, replica, r -> r.healthy ? 1 : 0);
+					return replica;
+				})
+				.toList();
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return route(DataSource::getConnection);
+	}
+
+	/**
+	 * Mismo reparto, con credenciales explícitas; el pool elegido decide si las
+	 * admite (Hikari no: lanza {@link SQLFeatureNotSupportedException}).
+	 */
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return route(target -> target.getConnection(username, password));
+	}
+
+	@FunctionalInterface
+	private interface ConnectionRequest {
+		Connection open(DataSource target) throws SQLException;
+	}
+
+	private Connection route(ConnectionRequest request) throws SQLException {
+		if (ReadRouting.primaryRequired()) {
+			return primaryConnection(request);
+		}
+		int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+		for (int i = 0; i < replicas.size(); i++) {
+			Replica replica = replicas.get((start + i) % replicas.size());
+			if (!replica.healthy) {
+				continue;
+			}
+			try {
+				Connection connection = request.open(replica.pool);
+				replica.routed.increment();
+				return connection;
+			} catch (SQLFeatureNotSupportedException ex) {
+				// Petición no admitida por el pool: no es un fallo de la réplica
+				throw ex;
+			} catch (SQLException ex) {
+				// Sin conexión disponible: fuera de la rotación hasta la próxima medición
+				replica.healthy = false;
+				log.warn("Réplica {} no disponible, se lee del primario: {}", replica.pool.getPoolName(),
+						ex.getMessage());
+			}
+		}
+		return primaryConnection(request);
+	}
+
+	/**
+	 * Mide el retraso de cada réplica y actualiza su estado. Una réplica que no
+	 * responde queda fuera de la rotación.
+	 */
+	@Scheduled(fixedDelayString = "${expiry-tracker.datasource.replicas.lag-check-interval:PT1S}")
+	public void checkReplicas() {
+		for (Replica replica : replicas) {
+			try (Connection connection = replica.pool.getConnection();
+					var statement = connection.createStatement()) {
+				statement.setQueryTimeout(Math.max(1, (int) Math.ceil(maxLagSeconds)));
+				try (var resultSet = statement.executeQuery(lagQuery)) {
+					double lag = resultSet.next() ? resultSet.getDouble(1) : 0;
+					replica.lagSeconds = lag;
+					setHealthy(replica, lag <= maxLagSeconds);
+				}
+			} catch (SQLException | RuntimeException ex) {
+				replica.lagSeconds = Double.NaN;
+				setHealthy(replica, false);
+				log.debug("Fallo al medir el retraso de la réplica {}", replica.pool.getPoolName(), ex);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		replicas.forEach(replica -> replica.pool.close());
+	}
+
+	private Connection primaryConnection(ConnectionRequest request) throws SQLException {
+		routedToPrimary.increment();
+		return request.open(primary);
+	}
+
+	private void setHealthy(Replica replica, boolean healthy) {
+		if (replica.healthy != healthy) {
+			log.info("Réplica {} {} (retraso {} s, máximo {} s)", replica.pool.getPoolName(),
+					healthy ? "en rotación" : "fuera de rotación", replica.lagSeconds, maxLagSeconds);
+		}
+		replica.healthy = healthy;
+	}
+}
@@ -0,0 +1,37 @@
+package io.app.expirytracker.infrastructure.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Autentica la petición a partir del encabezado {@code Authorization: Bearer}.
+ * * Un token ausente o inválido deja la petición sin autenticar; la decisión
+ * de rechazarla (401) es de las reglas de {@code SecurityConfig}.
+ * No se registra como {@code @Component} para que solo se ejecute dentro de la
+ * cadena de seguridad y no también como filtro de servlet.
+ */
+@RequiredArgsConstructor
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+	private static final String BEARER_PREFIX = "Bearer ";
+
+	private final JwtService jwtService;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+		if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+			jwtService.authenticate(header.substring(BEARER_PREFIX.length()).trim())
+					.ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
+		}
+		filterChain.doFilter(request, response);
+	}
+}
@@ -0,0 +1,208 @@
+package io.app.expirytracker.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import io.app.expirytracker.application.ports.out.TokenIssuerPort;
+import io.app.expirytracker.domain.model.User;
+import io.app.expirytracker.infrastructure.tenancy.StoreAccess;
+
+/**
+ * Emisión y validación de JWT (HS256) sin estado y sin acceso a la base de
+ * datos.
+ * * La verificación es solo CPU y evita trabajo repetido:
+ * - La clave se decodifica una vez y cada hilo reutiliza su {@link Mac} ya
+ * inicializado (crear e inicializar un Mac por petición es lo más costoso
+ * después del propio HMAC).
+ * - La cabecera se compara contra la única admitida, sin parsearla: no hay
+ * negociación de algoritmo ("alg": "none" o confusión de claves).
+ * - Los tokens ya verificados se guardan en una caché acotada cuyas entradas
+ * vencen con el propio token; un acierto devuelve la misma
+ * {@link Authentication} sin decodificar ni firmar nada.
+ * Los tokens inválidos no se cachean, para que no puedan desalojar a los
+ * válidos.
+ */
+@Component
+public class JwtService implements TokenIssuerPort {
+
+	static final String ISSUER = "expiry-tracker";
+	private static final String ALGORITHM = "HmacSHA256";
+	private static final String ROLE_PREFIX = "ROLE_";
+	private static final int MIN_SECRET_BYTES = 32;
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+	private static final String ENCODED_HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}"
+			.getBytes(StandardCharsets.UTF_8));
+
+	/**
+	 * Contenido del token: emisor, ID, nombre de usuario, roles, tiendas
+	 * permitidas y tiempos (epoch s).
+	 */
+	record Claims(String iss, String sub, String name, List<String> roles, List<String> stores, long iat,
+			long exp) {
+	}
+
+	private record VerifiedToken(Authentication authentication, long expiresAt) {
+	}
+
+	private final JsonMapper jsonMapper;
+	private final Clock clock;
+	private final Duration expiration;
+	private final ThreadLocal<Mac> mac;
+	private final Cache<String, VerifiedToken> verifiedTokens;
+
+	@Autowired
+	public JwtService(
+			JsonMapper jsonMapper,
+			@Value("${security.jwt.secret}") String secret,
+			@Value("${security.jwt.expiration-time:7}") long expirationDays,
+			@Value("${expiry-tracker.security.jwt.cache-size:10000}") long cacheSize) {
+		this(jsonMapper, secret, Duration.ofDays(expirationDays), cacheSize, Clock.systemUTC());
+	}
+
+	JwtService(JsonMapper jsonMapper, String secret, Duration expiration, long cacheSize, Clock clock) {
+		if (secret == null || secret.isBlank()) {
+			throw new IllegalStateException("security.jwt.secret (SECURITY_JWT_SECRET) es obligatorio");
+		}
+		byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+		if (keyBytes.length < MIN_SECRET_BYTES) {
+			throw new IllegalStateException(
+					"security.jwt.secret debe tener al menos " + MIN_SECRET_BYTES + " bytes para HS256");
+		}
+		var key = new SecretKeySpec(keyBytes, ALGORITHM);
+
+		this.jsonMapper = jsonMapper;
+		this.clock = clock;
+		this.expiration = expiration;
+		this.mac = ThreadLocal.withInitial(() -> newMac(key));
+		// Mantenimiento de la caché en el hilo que llama (es mínimo y evita usar el
+		// common pool); con cache-size 0 la caché queda desactivada.
+		this.verifiedTokens = Caffeine.newBuilder()
+				.executor(Runnable::run)
+				.maximumSize(cacheSize)
+				.expireAfter(Expiry.<String, VerifiedToken>creating(
+						(token, verified) -> Duration.ofSeconds(Math.max(0, verified.expiresAt() - now()))))
+				.build();
+	}
+
+	@Override
+	public IssuedToken issue(User user) {
+		long issuedAt = now();
+		long expiresAt = issuedAt + expiration.toSeconds();
+		var claims = new Claims(ISSUER, user.id().toString(), user.username(), List.of(user.role().name()),
+				user.stores().stream().sorted().toList(), issuedAt, expiresAt);
+
+		String unsigned = ENCODED_HEADER + "." + base64Url(jsonMapper.writeValueAsBytes(claims));
+		String token = unsigned + "." + base64Url(sign(unsigned.getBytes(StandardCharsets.US_ASCII), unsigned.length()));
+		return new IssuedToken(token, Instant.ofEpochSecond(expiresAt));
+	}
+
+	/**
+	 * Devuelve la autenticación del token si la firma es válida y no venció.
+	 */
+	public Optional<Authentication> authenticate(String token) {
+		VerifiedToken cached = verifiedTokens.getIfPresent(token);
+		if (cached != null) {
+			return cached.expiresAt() > now() ? Optional.of(cached.authentication()) : Optional.empty();
+		}
+
+		return verify(token).map(claims -> {
+			Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+					claims.name(), null, authorities(claims));
+			verifiedTokens.put(token, new VerifiedToken(authentication, claims.exp()));
+			return authentication;
+		});
+	}
+
+	/**
+	 * Verificación completa, sin caché.
+	 */
+	Optional<Claims> verify(String token) {
+		int headerEnd = token.indexOf('.');
+		int payloadEnd = token.indexOf('.', headerEnd + 1);
+		if (headerEnd != ENCODED_HEADER.length() || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0
+				|| !token.startsWith(ENCODED_HEADER)) {
+			return Optional.empty();
+		}
+
+		try {
+			byte[] bytes = token.getBytes(StandardCharsets.US_ASCII);
+			byte[] signature = DECODER.decode(Arrays.copyOfRange(bytes, payloadEnd + 1, bytes.length));
+			if (!MessageDigest.isEqual(sign(bytes, payloadEnd), signature)) {
+				return Optional.empty();
+			}
+
+			byte[] payload = DECODER.decode(Arrays.copyOfRange(bytes, headerEnd + 1, payloadEnd));
+			Claims claims = jsonMapper.readValue(payload, Claims.class);
+			if (!ISSUER.equals(claims.iss()) || claims.name() == null || claims.exp() <= now()) {
+				return Optional.empty();
+			}
+			return Optional.of(claims);
+		} catch (IllegalArgumentException | JacksonException ex) {
+			// Base64 o JSON mal formado: se trata igual que una firma inválida
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Un rol del token se convierte en {@code ROLE_<rol>}, el formato que
+	 * esperan {@code hasRole}/{@code hasAnyRole}, y cada tienda en la autoridad
+	 * de {@link StoreAccess}. Un token sin roles ni tiendas no concede ninguna
+	 * autoridad.
+	 */
+	private static List<GrantedAuthority> authorities(Claims claims) {
+		Stream<GrantedAuthority> roles = claims.roles() == null ? Stream.empty()
+				: claims.roles().stream().map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role));
+		Stream<GrantedAuthority> stores = claims.stores() == null ? Stream.empty()
+				: claims.stores().stream().map(StoreAccess::authority);
+		return Stream.concat(roles, stores).toList();
+	}
+
+	private byte[] sign(byte[] data, int length) {
+		Mac hmac = mac.get();
+		hmac.update(data, 0, length);
+		return hmac.doFinal();
+	}
+
+	private long now() {
+		return clock.instant().getEpochSecond();
+	}
+
+	private static Mac newMac(SecretKeySpec key) {
+		try {
+			Mac hmac = Mac.getInstance(ALGORITHM);
+			hmac.init(key);
+			return hmac;
+		} catch (GeneralSecurityException ex) {
+			throw new IllegalStateException("HmacSHA256 no está disponible en esta JVM", ex);
+		}
+	}
+
+	private static String base64Url(byte[] bytes) {
+		return ENCODER.encodeToString(bytes);
+	}
+}
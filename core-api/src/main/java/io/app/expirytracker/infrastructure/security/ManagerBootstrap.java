@@ -0,0 +1,49 @@
+package io.app.expirytracker.infrastructure.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import io.app.expirytracker.application.ports.in.AssignUserRoleUseCase;
+import io.app.expirytracker.application.ports.in.CreateUserUseCase.CreateUserCommand;
+import io.app.expirytracker.domain.model.User;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Primer encargado (MANAGER) de un despliegue. El registro público solo crea
+ * STAFF y los roles los asigna otro encargado, así que sin este punto de
+ * partida ninguna cuenta podría importar, dar de baja ni reemplazar por clave.
+ * * Con {@code expiry-tracker.security.bootstrap-manager.username} definido,
+ * al arrancar ese usuario pasa a MANAGER; si no existe se crea con el email y
+ * la contraseña configurados. Es idempotente: se puede dejar configurado.
+ */
+@Slf4j
+@Component
+public class ManagerBootstrap implements ApplicationRunner {
+
+	private final AssignUserRoleUseCase assignUserRoleUseCase;
+	private final String username;
+	private final String email;
+	private final String password;
+
+	public ManagerBootstrap(
+			AssignUserRoleUseCase assignUserRoleUseCase,
+			@Value("${expiry-tracker.security.bootstrap-manager.username:}") String username,
+			@Value("${expiry-tracker.security.bootstrap-manager.email:}") String email,
+			@Value("${expiry-tracker.security.bootstrap-manager.password:}") String password) {
+		this.assignUserRoleUseCase = assignUserRoleUseCase;
+		this.username = username.trim();
+		this.email = email.trim();
+		this.password = password;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		if (username.isEmpty()) {
+			return;
+		}
+		User manager = assignUserRoleUseCase.ensureManager(new CreateUserCommand(username, email, password));
+		log.info("Encargado inicial [{}] disponible con rol {}", manager.username(), manager.role());
+	}
+}
@@ -0,0 +1,40 @@
+package io.app.expirytracker.infrastructure.tenancy;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Tiendas a las que tiene acceso el usuario autenticado. Viajan en el token
+ * (claim {@code stores}) y se exponen como autoridades {@code STORE_<id>}
+ * junto a los roles, así que no hace falta consultar la base de datos en cada
+ * petición.
+ */
+public final class StoreAccess {
+
+	private static final String AUTHORITY_PREFIX = "STORE_";
+
+	private StoreAccess() {
+	}
+
+	public static GrantedAuthority authority(String storeId) {
+		return new SimpleGrantedAuthority(AUTHORITY_PREFIX + storeId);
+	}
+
+	/**
+	 * @return Vacío si no hay usuario autenticado o su token no lista tiendas.
+	 */
+	public static Set<String> allowedStores(Authentication authentication) {
+		if (authentication == null || !authentication.isAuthenticated()) {
+			return Set.of();
+		}
+		return authentication.getAuthorities().stream()
+				.map(GrantedAuthority::getAuthority)
+				.filter(authority -> authority != null && authority.startsWith(AUTHORITY_PREFIX))
+				.map(authority -> authority.substring(AUTHORITY_PREFIX.length()))
+				.collect(Collectors.toUnmodifiableSet());
+	}
+}
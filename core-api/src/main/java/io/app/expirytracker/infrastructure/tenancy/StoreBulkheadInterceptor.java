@@ -0,0 +1,78 @@
+package io.app.expirytracker.infrastructure.tenancy;
+
+import io.micrometer.core.instrument.Counter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+
+/**
+ * Aislamiento entre tiendas: cada tienda tiene un cupo propio de peticiones
+ * simultáneas, menor que el pool de conexiones, de modo que una tienda
+ * ruidosa (una importación, un dashboard agresivo) agota su cupo y recibe 503
+ * en lugar de ocupar todas las conexiones y hacer esperar a las demás.
+ * * Se ejecuta después de {@link StoreContextInterceptor}. Solo hay cupo para
+ * las tiendas del {@link StoreDirectoryPort}: un identificador desconocido se
+ * rechaza (404) antes de crear su semáforo. Así el mapa queda acotado por las
+ * tiendas reales y sus entradas nunca se expulsan; con una caché acotada por
+ * tamaño, una ráfaga de identificadores inventados expulsaría el semáforo de
+ * una tienda con peticiones en curso y la siguiente recibiría un cupo nuevo
+ * y completo.
+ */
+public class StoreBulkheadInterceptor implements HandlerInterceptor {
+
+	private static final String PERMIT_ATTRIBUTE = StoreBulkheadInterceptor.class.getName() + ".permit";
+
+	private final int maxConcurrentPerStore;
+	private final long acquireTimeoutNanos;
+	private final Counter rejected;
+	private final StoreDirectoryPort storeDirectory;
+	private final ConcurrentMap<String, Semaphore> permitsByStore = new ConcurrentHashMap<>();
+
+	public StoreBulkheadInterceptor(int maxConcurrentPerStore, Duration acquireTimeout, Counter rejected,
+			StoreDirectoryPort storeDirectory) {
+		this.maxConcurrentPerStore = maxConcurrentPerStore;
+		this.acquireTimeoutNanos = acquireTimeout.toNanos();
+		this.rejected = rejected;
+		this.storeDirectory = storeDirectory;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws InterruptedException {
+		String storeId = StoreContext.current();
+		Semaphore permits = permitsByStore.get(storeId);
+		if (permits == null) {
+			if (!storeDirectory.exists(storeId)) {
+				throw new NoSuchElementException("La tienda [" + storeId + "] no existe");
+			}
+			permits = permitsByStore.computeIfAbsent(storeId, store -> new Semaphore(maxConcurrentPerStore));
+		}
+		if (!permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS)) {
+			rejected.increment();
+			throw new RejectedExecutionException("La tienda [" + storeId
+					+ "] tiene demasiadas solicitudes en curso. Reintente en unos segundos.");
+		}
+		request.setAttribute(PERMIT_ATTRIBUTE, permits);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Semaphore permits) {
+			request.removeAttribute(PERMIT_ATTRIBUTE);
+			permits.release();
+		}
+	}
+}
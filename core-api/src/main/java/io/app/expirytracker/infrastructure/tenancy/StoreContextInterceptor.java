@@ -0,0 +1,43 @@
+package io.app.expirytracker.infrastructure.tenancy;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.app.expirytracker.application.tenancy.StoreContext;
+
+/**
+ * Fija la tienda de la petición a partir de la cabecera {@code X-Store-Id}
+ * (sin cabecera, la tienda por defecto) y la retira al terminar, para que el
+ * hilo no la arrastre a la siguiente petición.
+ * * La tienda debe estar entre las del token del usuario ({@link StoreAccess}):
+ * la cabecera la elige el cliente y, sin esta comprobación, cualquier usuario
+ * operaría sobre cualquier tienda.
+ * * Un identificador inválido termina en 400 ({@link IllegalArgumentException})
+ * y una tienda no permitida en 403 ({@link AccessDeniedException}), ambos vía
+ * {@code GlobalExceptionHandler}.
+ */
+public class StoreContextInterceptor implements HandlerInterceptor {
+
+	public static final String STORE_HEADER = "X-Store-Id";
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String header = request.getHeader(STORE_HEADER);
+		String storeId = StoreContext.requireValid(
+				header == null || header.isBlank() ? StoreContext.DEFAULT_STORE : header.trim());
+		if (!StoreAccess.allowedStores(SecurityContextHolder.getContext().getAuthentication()).contains(storeId)) {
+			throw new AccessDeniedException("No tiene acceso a la tienda [" + storeId + "]");
+		}
+		StoreContext.set(storeId);
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		StoreContext.clear();
+	}
+}
@@ -0,0 +1,96 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de concurrencia adaptativo (algoritmo de gradiente).
+ * * Por la ley de Little, con la base de datos sana la latencia se mantiene
+ * cerca de la mínima y el límite puede crecer; cuando las peticiones empiezan
+ * a hacer cola (pool de conexiones agotado) la latencia corta supera a la de
+ * referencia y el límite baja en proporción:
+ * <pre>
+ * gradiente   = clamp(tolerancia * rttLargo / rttCorto, 0.5, 1)
+ * nuevoLímite = límite * gradiente + sqrt(límite)
+ * </pre>
+ * La admisión es un contador atómico; el recálculo se hace con
+ * {@code tryLock}: si otro hilo ya está actualizando, la muestra se descarta
+ * en lugar de esperar.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final double smoothing;
+	private final double tolerance;
+	private final AtomicInteger inflight = new AtomicInteger();
+	private final ReentrantLock updateLock = new ReentrantLock();
+
+	private volatile double limit;
+	// Latencia de referencia (media exponencial lenta, ~100 muestras) en
+	// nanosegundos. Una latencia alta sostenida termina siendo la nueva normal.
+	private double longRttNanos;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double smoothing,
+			double tolerance) {
+		if (minLimit < 1 || minLimit > maxLimit) {
+			throw new IllegalArgumentException("Se requiere 1 <= min-limit <= max-limit");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.smoothing = smoothing;
+		this.tolerance = tolerance;
+		this.limit = Math.clamp(initialLimit, minLimit, maxLimit);
+	}
+
+	/**
+	 * @return true si la petición puede ejecutarse; en ese caso debe llamarse a
+	 *         {@link #release(long)} al terminar.
+	 */
+	public boolean tryAcquire() {
+		if (inflight.incrementAndGet() > limit) {
+			inflight.decrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	public void release(long rttNanos) {
+		int inflightAtRelease = inflight.getAndDecrement();
+		if (rttNanos > 0 && updateLock.tryLock()) {
+			try {
+				update(rttNanos, inflightAtRelease);
+			} finally {
+				updateLock.unlock();
+			}
+		}
+	}
+
+	private void update(long rttNanos, int inflightAtRelease) {
+		longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos * 0.99 + rttNanos * 0.01;
+		// Tras un pico la referencia queda inflada; si la latencia actual es mucho
+		// menor, se acelera su recuperación para no admitir de más
+		if (longRttNanos > 2.0 * rttNanos) {
+			longRttNanos *= 0.9;
+		}
+
+		double current = limit;
+		// Con poca carga la latencia no informa sobre la capacidad: no crecer
+		if (inflightAtRelease < current / 2) {
+			return;
+		}
+
+		double gradient = Math.clamp(tolerance * longRttNanos / rttNanos, 0.5, 1.0);
+		double target = current * gradient + Math.sqrt(current);
+		double next = current * (1 - smoothing) + target * smoothing;
+		limit = Math.clamp(next, minLimit, maxLimit);
+	}
+
+	public int limit() {
+		return (int) limit;
+	}
+
+	public int inflight() {
+		return inflight.get();
+	}
+}
@@ -0,0 +1,43 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import io.micrometer.core.instrument.Counter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Descarta carga (503) cuando las peticiones en curso superan el límite
+ * adaptativo, en lugar de dejar que hagan cola por una conexión del pool.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private final AdaptiveConcurrencyLimiter limiter;
+	private final JsonMapper jsonMapper;
+	private final Counter rejected;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!limiter.tryAcquire()) {
+			rejected.increment();
+			ThrottlingResponses.reject(response, jsonMapper, HttpStatus.SERVICE_UNAVAILABLE, "Servicio Saturado",
+					"El servicio está procesando demasiadas solicitudes. Reintente en unos segundos.", 1);
+			return;
+		}
+
+		long start = System.nanoTime();
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			limiter.release(System.nanoTime() - start);
+		}
+	}
+}
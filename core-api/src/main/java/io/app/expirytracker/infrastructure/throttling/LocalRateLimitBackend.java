@@ -0,0 +1,47 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cubos de tokens en memoria de la réplica.
+ * * Sustituto de un almacén compartido en despliegues con varias réplicas: la
+ * cuota de cada cliente se reparte entre {@code replicas} (el balanceador
+ * distribuye las peticiones), de modo que el total se aproxima a la cuota
+ * global sin coordinación entre nodos.
+ * * El mapa de clientes está acotado y expira por inactividad para que una
+ * rotación de IPs o claves no haga crecer la memoria sin límite.
+ */
+@Component
+@ConditionalOnProperty(name = "expiry-tracker.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitBackend implements RateLimitBackend {
+
+	private final Cache<String, TokenBucket> buckets;
+	private final double ratePerSecond;
+	private final int burst;
+
+	public LocalRateLimitBackend(
+			@Value("${expiry-tracker.rate-limit.requests-per-second:20}") double requestsPerSecond,
+			@Value("${expiry-tracker.rate-limit.burst:40}") int burst,
+			@Value("${expiry-tracker.rate-limit.replicas:1}") int replicas,
+			@Value("${expiry-tracker.rate-limit.max-clients:100000}") long maxClients) {
+		int share = Math.max(1, replicas);
+		this.ratePerSecond = requestsPerSecond / share;
+		this.burst = Math.max(1, burst / share);
+		this.buckets = Caffeine.newBuilder()
+				.maximumSize(maxClients)
+				.expireAfterAccess(Duration.ofMinutes(10))
+				.build();
+	}
+
+	@Override
+	public long tryAcquire(String clientKey) {
+		long now = System.nanoTime();
+		return buckets.get(clientKey, key -> new TokenBucket(ratePerSecond, burst, now)).tryAcquire(now);
+	}
+}
@@ -0,0 +1,16 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+/**
+ * Almacén de los cubos de tokens por cliente.
+ * * La implementación local mantiene los cubos en memoria de cada réplica. Un
+ * almacén compartido (Redis, etc.) debe implementar esta misma interfaz para
+ * aplicar una cuota global entre réplicas.
+ */
+public interface RateLimitBackend {
+
+	/**
+	 * @return 0 si la petición se admite; si no, los nanosegundos hasta el
+	 *         siguiente token del cliente.
+	 */
+	long tryAcquire(String clientKey);
+}
@@ -0,0 +1,60 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import io.micrometer.core.instrument.Counter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Limita la tasa de peticiones por cliente y responde 429 (con Retry-After)
+ * sin encolar la petición.
+ * * Identidad del cliente, en orden: usuario autenticado (se ejecuta después
+ * de la cadena de seguridad), encabezado {@code X-API-Key} o IP de origen.
+ */
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+	static final String API_KEY_HEADER = "X-API-Key";
+
+	private final RateLimitBackend backend;
+	private final JsonMapper jsonMapper;
+	private final Counter rejected;
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		long waitNanos = backend.tryAcquire(clientKey(request));
+		if (waitNanos > 0) {
+			rejected.increment();
+			ThrottlingResponses.reject(response, jsonMapper, HttpStatus.TOO_MANY_REQUESTS, "Demasiadas Solicitudes",
+					"Se superó el límite de solicitudes del cliente. Reintente más tarde.",
+					TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+			return;
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	static String clientKey(HttpServletRequest request) {
+		Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+		if (authentication != null && authentication.isAuthenticated()
+				&& !(authentication instanceof AnonymousAuthenticationToken)) {
+			return "user:" + authentication.getName();
+		}
+		String apiKey = request.getHeader(API_KEY_HEADER);
+		if (apiKey != null && !apiKey.isBlank()) {
+			return "key:" + apiKey;
+		}
+		return "ip:" + request.getRemoteAddr();
+	}
+}
@@ -0,0 +1,35 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Respuesta inmediata de rechazo con el mismo formato que
+ * {@code GlobalExceptionHandler} (los filtros se ejecutan fuera de Spring MVC).
+ */
+final class ThrottlingResponses {
+
+	private ThrottlingResponses() {
+	}
+
+	static void reject(HttpServletResponse response, JsonMapper jsonMapper, HttpStatus status, String error,
+			String message, long retryAfterSeconds) throws IOException {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("timestamp", LocalDateTime.now());
+		body.put("status", status.value());
+		body.put("error", error);
+		body.put("message", message);
+
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		jsonMapper.writeValue(response.getOutputStream(), body);
+	}
+}
@@ -0,0 +1,49 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos, implementado como GCRA (Generic Cell Rate
+ * Algorithm).
+ * * En lugar de guardar "tokens restantes" y "última recarga" (dos valores que
+ * exigirían un lock), se guarda un único instante: el momento teórico en que el
+ * cubo volvería a estar lleno (TAT). Cada petición lo adelanta un intervalo de
+ * emisión; si quedaría más lejos que la ráfaga permitida, se rechaza. Es
+ * equivalente a un token bucket de capacidad {@code burst} y recarga
+ * {@code ratePerSecond}, con una sola operación CAS por petición.
+ */
+final class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final long emissionIntervalNanos;
+	private final long burstToleranceNanos;
+	private final AtomicLong theoreticalArrival;
+
+	TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+		if (ratePerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("La tasa debe ser positiva y la ráfaga al menos 1");
+		}
+		this.emissionIntervalNanos = (long) (NANOS_PER_SECOND / ratePerSecond);
+		this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+		this.theoreticalArrival = new AtomicLong(nowNanos);
+	}
+
+	/**
+	 * @return 0 si la petición se admite; si no, los nanosegundos hasta que
+	 *         habrá un token disponible.
+	 */
+	long tryAcquire(long nowNanos) {
+		while (true) {
+			long tat = theoreticalArrival.get();
+			long base = Math.max(tat, nowNanos);
+			long allowAt = base - burstToleranceNanos;
+			if (nowNanos < allowAt) {
+				return allowAt - nowNanos;
+			}
+			if (theoreticalArrival.compareAndSet(tat, base + emissionIntervalNanos)) {
+				return 0;
+			}
+		}
+	}
+}
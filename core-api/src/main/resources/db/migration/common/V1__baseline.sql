@@ -0,0 +1,81 @@
+-- Esquema inicial: el que Hibernate generaba a partir de las entidades.
+-- IF NOT EXISTS permite adoptar una base creada antes de Flyway
+-- (baseline-on-migrate con baseline-version 0): lo que ya existe se conserva.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          UUID         NOT NULL,
+    username    VARCHAR(255) NOT NULL UNIQUE,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(20)  NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    created_by  VARCHAR(50)  NOT NULL,
+    updated_at  TIMESTAMP(6),
+    updated_by  VARCHAR(50),
+    PRIMARY KEY (id)
+);
+
+-- Bases anteriores al rol (RBAC): los usuarios existentes quedan como STAFF
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role VARCHAR(20) DEFAULT 'STAFF' NOT NULL;
+
+CREATE TABLE IF NOT EXISTS products (
+    id           UUID         NOT NULL,
+    store_id     VARCHAR(32)  DEFAULT 'default' NOT NULL,
+    ean13        VARCHAR(13)  NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    batch_number VARCHAR(255) NOT NULL,
+    expiry_date  DATE         NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    category     VARCHAR(255) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    version      BIGINT       DEFAULT 0 NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    created_by   VARCHAR(50)  NOT NULL,
+    updated_at   TIMESTAMP(6),
+    updated_by   VARCHAR(50),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_product_batch UNIQUE (store_id, ean13, batch_number)
+);
+
+-- store_id encabeza cada índice: todas las consultas filtran por tienda
+CREATE INDEX IF NOT EXISTS idx_product_store_ean_status_expiry
+    ON products (store_id, ean13, status, expiry_date, batch_number);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_expiry ON products (store_id, status, expiry_date, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_name ON products (store_id, status, name, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_quantity ON products (store_id, status, quantity, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_created ON products (store_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_updated ON products (store_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_status_updated ON products (status, updated_at);
+
+CREATE TABLE IF NOT EXISTS products_archive (
+    id           UUID         NOT NULL,
+    store_id     VARCHAR(32)  NOT NULL,
+    ean13        VARCHAR(13)  NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    batch_number VARCHAR(255) NOT NULL,
+    expiry_date  DATE         NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    category     VARCHAR(255) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    version      BIGINT       NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    created_by   VARCHAR(50)  NOT NULL,
+    updated_at   TIMESTAMP(6),
+    updated_by   VARCHAR(50),
+    archived_at  TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- Bases anteriores al rol (RBAC): los usuarios existentes quedan como STAFF
+ALTER TABLE users ADD COLUMN IF NOT EXISTS role VARCHAR(20) DEFAULT 'STAFF' NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_product_archive_store_status_expiry
+    ON products_archive (store_id, status, expiry_date, id);
+CREATE INDEX IF NOT EXISTS idx_product_archive_store_ean_batch ON products_archive (store_id, ean13, batch_number);
+CREATE INDEX IF NOT EXISTS idx_product_archive_store_updated ON products_archive (store_id, updated_at, id);
+
+CREATE TABLE IF NOT EXISTS stock_journal_checkpoints (
+    journal_id       VARCHAR(64) NOT NULL,
+    applied_sequence BIGINT      NOT NULL,
+    PRIMARY KEY (journal_id)
+);
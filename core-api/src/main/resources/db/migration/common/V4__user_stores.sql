@@ -0,0 +1,13 @@
+-- Tiendas en las que puede operar cada usuario (viajan en su token). Los
+-- usuarios existentes quedan en la tienda por defecto, la única que había
+-- antes de la multi-tienda.
+
+CREATE TABLE IF NOT EXISTS user_stores (
+    user_id  UUID        NOT NULL,
+    store_id VARCHAR(32) NOT NULL,
+    PRIMARY KEY (user_id, store_id),
+    CONSTRAINT fk_user_stores_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+INSERT INTO user_stores (user_id, store_id)
+SELECT id, 'default' FROM users;
@@ -0,0 +1,22 @@
+-- Auditoría de la marca del registro de ajustes de stock diferidos: las filas
+-- existentes quedan creadas por SYSTEM en el momento de la migración
+ALTER TABLE stock_journal_checkpoints ADD COLUMN IF NOT EXISTS created_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL;
+ALTER TABLE stock_journal_checkpoints ADD COLUMN IF NOT EXISTS created_by VARCHAR(50) DEFAULT 'SYSTEM' NOT NULL;
+ALTER TABLE stock_journal_checkpoints ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+ALTER TABLE stock_journal_checkpoints ADD COLUMN IF NOT EXISTS updated_by VARCHAR(50);
+
+-- Ajustes diferidos apartados tras agotar los reintentos del micro-lote
+CREATE TABLE IF NOT EXISTS stock_adjustment_dead_letters (
+    id          UUID         NOT NULL,
+    store_id    VARCHAR(32)  NOT NULL,
+    product_id  UUID         NOT NULL,
+    delta       INTEGER      NOT NULL,
+    reason      VARCHAR(500) NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    created_by  VARCHAR(50)  NOT NULL,
+    updated_at  TIMESTAMP(6),
+    updated_by  VARCHAR(50),
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_stock_dead_letter_store_created ON stock_adjustment_dead_letters (store_id, created_at);
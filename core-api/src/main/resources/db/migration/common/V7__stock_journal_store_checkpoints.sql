@@ -0,0 +1,13 @@
+-- Marca del registro de ajustes de stock diferidos por tienda: cada tienda se
+-- aplica en su propia transacción y avanza solo su fila. La marca de
+-- stock_journal_checkpoints queda como suelo común de todas las tiendas.
+CREATE TABLE IF NOT EXISTS stock_journal_store_checkpoints (
+    journal_id       VARCHAR(64)  NOT NULL,
+    store_id         VARCHAR(32)  NOT NULL,
+    applied_sequence BIGINT       NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    created_by       VARCHAR(50)  NOT NULL,
+    updated_at       TIMESTAMP(6),
+    updated_by       VARCHAR(50),
+    PRIMARY KEY (journal_id, store_id)
+);
@@ -0,0 +1,25 @@
+-- Historial de lotes sin particionar (H2 no admite PARTITION BY); mismas
+-- columnas e índices que en PostgreSQL.
+
+CREATE SEQUENCE IF NOT EXISTS product_history_id_seq;
+
+CREATE TABLE IF NOT EXISTS product_history (
+    id           BIGINT       NOT NULL DEFAULT nextval('product_history_id_seq'),
+    product_id   UUID         NOT NULL,
+    store_id     VARCHAR(32)  NOT NULL DEFAULT 'default',
+    ean13        VARCHAR(13)  NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    batch_number VARCHAR(255) NOT NULL,
+    expiry_date  DATE         NOT NULL,
+    quantity     INTEGER      NOT NULL,
+    category     VARCHAR(255) NOT NULL,
+    status       VARCHAR(20)  NOT NULL,
+    version      BIGINT       NOT NULL,
+    change_type  VARCHAR(20)  NOT NULL,
+    changed_at   TIMESTAMP    NOT NULL,
+    changed_by   VARCHAR(50)  NOT NULL,
+    PRIMARY KEY (id, changed_at)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_history_product ON product_history (product_id, changed_at);
+CREATE INDEX IF NOT EXISTS idx_product_history_store_changed ON product_history (store_id, changed_at, id);
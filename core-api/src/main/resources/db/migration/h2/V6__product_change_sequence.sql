@@ -0,0 +1,15 @@
+-- Posición de cada lote en el feed de sincronización. H2 (tests) no expone el
+-- ID de transacción: una secuencia la asigna en cada INSERT y en cada UPDATE
+-- que no fija la columna, sin la cota de transacciones en curso de PostgreSQL.
+
+CREATE SEQUENCE IF NOT EXISTS product_change_seq;
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT
+    DEFAULT NEXT VALUE FOR product_change_seq ON UPDATE NEXT VALUE FOR product_change_seq NOT NULL;
+ALTER TABLE products_archive ADD COLUMN IF NOT EXISTS change_seq BIGINT
+    DEFAULT NEXT VALUE FOR product_change_seq ON UPDATE NEXT VALUE FOR product_change_seq NOT NULL;
+
+DROP INDEX IF EXISTS idx_product_store_updated;
+DROP INDEX IF EXISTS idx_product_archive_store_updated;
+CREATE INDEX IF NOT EXISTS idx_product_store_change ON products (store_id, change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_product_archive_store_change ON products_archive (store_id, change_seq, id);
@@ -0,0 +1,163 @@
+-- Particionado de products por estado (LIST) en PostgreSQL. Perfil: partitioned.
+-- Migración repetible: Flyway la aplica después de las versionadas (que crean
+-- products sin particionar) y la repite si cambia su contenido, así que debe
+-- ser idempotente:
+--   * Con una products sin particionar: la convierte copiando sus filas.
+--   * Ya particionada: solo asegura índices, claves de lote y triggers.
+-- Flyway la ejecuta en una transacción: se confirma o se revierte entera.
+--
+-- La posición del feed de sincronización (change_seq, ver
+-- V6__product_change_sequence) se copia tal cual al convertir; su trigger se
+-- crea después de la copia para no reasignarla.
+--
+-- Restricciones: en una tabla particionada toda clave única debe incluir la
+-- clave de partición, por eso la PK es (id, status) y uk_product_batch es
+-- (store_id, ean13, batch_number, status). La unicidad de EAN-13 + Lote por
+-- tienda en cualquier estado la garantiza product_lot_keys: una fila por lote
+-- de products, mantenida por triggers en toda escritura (alta, upsert, COPY,
+-- cambio de estado y archivado), con su PK como clave global.
+--
+-- El soft delete (UPDATE de status) mueve la fila a la partición de destino;
+-- PostgreSQL lo ejecuta como DELETE + INSERT y los triggers retiran y vuelven
+-- a registrar la misma clave.
+--
+-- Poda de particiones, comprobada con EXPLAIN en PostgreSQL 16 (una sola
+-- partición en el plan salvo donde se indica):
+--   EXPLAIN SELECT * FROM products WHERE store_id = 'default' AND status = 'ACTIVE'
+--     ORDER BY expiry_date, id LIMIT 10;                       -- products_active
+--   EXPLAIN SELECT * FROM products WHERE status <> 'ACTIVE';   -- products_sold y products_discarded
+--   PREPARE q(varchar) AS SELECT * FROM products WHERE status = $1;
+--   SET plan_cache_mode = force_generic_plan;
+--   EXPLAIN (ANALYZE) EXECUTE q('ACTIVE');                     -- "Subplans Removed: 2"
+
+DO $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+	           WHERE c.relname = 'products' AND n.nspname = current_schema() AND c.relkind = 'r') THEN
+		ALTER TABLE products RENAME TO products_unpartitioned;
+		-- Los nombres de índices y restricciones son únicos por esquema
+		ALTER TABLE products_unpartitioned RENAME CONSTRAINT products_pkey TO products_unpartitioned_pkey;
+		ALTER TABLE products_unpartitioned DROP CONSTRAINT IF EXISTS uk_product_batch;
+		ALTER TABLE products_unpartitioned DROP CONSTRAINT IF EXISTS products_status_check;
+		DROP INDEX IF EXISTS idx_product_store_ean_status_expiry, idx_product_store_status_expiry,
+			idx_product_store_status_name, idx_product_store_status_quantity, idx_product_store_status_created,
+			idx_product_store_updated, idx_product_status_updated, idx_product_store_change;
+	END IF;
+END $$;
+
+CREATE TABLE IF NOT EXISTS products (
+	id UUID NOT NULL,
+	store_id VARCHAR(32) NOT NULL DEFAULT 'default',
+	ean13 VARCHAR(13) NOT NULL,
+	name VARCHAR(255) NOT NULL,
+	batch_number VARCHAR(255) NOT NULL,
+	expiry_date DATE NOT NULL,
+	quantity INTEGER NOT NULL,
+	category VARCHAR(255) NOT NULL,
+	status VARCHAR(20) NOT NULL,
+	version BIGINT NOT NULL DEFAULT 0,
+	created_at TIMESTAMP(6) NOT NULL,
+	created_by VARCHAR(50) NOT NULL,
+	updated_at TIMESTAMP(6),
+	updated_by VARCHAR(50),
+	change_seq BIGINT NOT NULL DEFAULT 0,
+	CONSTRAINT products_pkey PRIMARY KEY (id, status),
+	CONSTRAINT uk_product_batch UNIQUE (store_id, ean13, batch_number, status)
+) PARTITION BY LIST (status);
+
+CREATE TABLE IF NOT EXISTS products_active PARTITION OF products FOR VALUES IN ('ACTIVE');
+CREATE TABLE IF NOT EXISTS products_sold PARTITION OF products FOR VALUES IN ('SOLD');
+CREATE TABLE IF NOT EXISTS products_discarded PARTITION OF products FOR VALUES IN ('DISCARDED');
+
+-- Tabla particionada antes de la multi-tienda: la clave de negocio y los
+-- índices pasan a ser por tienda
+ALTER TABLE products ADD COLUMN IF NOT EXISTS store_id VARCHAR(32) NOT NULL DEFAULT 'default';
+
+DO $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM pg_constraint
+	           WHERE conname = 'uk_product_batch' AND conrelid = 'products'::regclass
+	             AND pg_get_constraintdef(oid) NOT LIKE '%store_id%') THEN
+		ALTER TABLE products DROP CONSTRAINT uk_product_batch;
+		ALTER TABLE products ADD CONSTRAINT uk_product_batch UNIQUE (store_id, ean13, batch_number, status);
+	END IF;
+END $$;
+
+DROP INDEX IF EXISTS idx_product_ean_status_expiry, idx_product_status_expiry, idx_product_status_name,
+	idx_product_status_quantity, idx_product_status_created, idx_product_store_updated;
+
+-- Mismos índices que las migraciones versionadas; se replican en cada partición
+CREATE INDEX IF NOT EXISTS idx_product_store_ean_status_expiry
+	ON products (store_id, ean13, status, expiry_date, batch_number);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_expiry ON products (store_id, status, expiry_date, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_name ON products (store_id, status, name, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_quantity ON products (store_id, status, quantity, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_status_created ON products (store_id, status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_product_store_change ON products (store_id, change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_product_status_updated ON products (status, updated_at);
+
+-- Clave global de lote: una fila por cada lote presente en products
+CREATE TABLE IF NOT EXISTS product_lot_keys (
+	store_id VARCHAR(32) NOT NULL,
+	ean13 VARCHAR(13) NOT NULL,
+	batch_number VARCHAR(255) NOT NULL,
+	CONSTRAINT product_lot_keys_pkey PRIMARY KEY (store_id, ean13, batch_number)
+);
+
+-- Una segunda fila con la misma clave (en otro estado o por una carrera entre
+-- escritores) choca con la PK y aborta la sentencia con unique_violation
+CREATE OR REPLACE FUNCTION product_lot_keys_sync() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+	IF TG_OP IN ('DELETE', 'UPDATE') THEN
+		DELETE FROM product_lot_keys
+		WHERE store_id = OLD.store_id AND ean13 = OLD.ean13 AND batch_number = OLD.batch_number;
+	END IF;
+	IF TG_OP IN ('INSERT', 'UPDATE') THEN
+		INSERT INTO product_lot_keys (store_id, ean13, batch_number)
+		VALUES (NEW.store_id, NEW.ean13, NEW.batch_number);
+	END IF;
+	RETURN NULL;
+END $$;
+
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_trigger
+	               WHERE tgname = 'products_lot_keys_sync' AND tgrelid = 'products'::regclass) THEN
+		CREATE TRIGGER products_lot_keys_sync
+			AFTER INSERT OR DELETE OR UPDATE OF store_id, ean13, batch_number ON products
+			FOR EACH ROW EXECUTE FUNCTION product_lot_keys_sync();
+	END IF;
+END $$;
+
+DO $$
+BEGIN
+	IF EXISTS (SELECT 1 FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+	           WHERE c.relname = 'products_unpartitioned' AND n.nspname = current_schema()) THEN
+		-- El trigger registra la clave de cada fila copiada
+		INSERT INTO products (id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status,
+		                      version, created_at, created_by, updated_at, updated_by, change_seq)
+		SELECT id, store_id, ean13, name, batch_number, expiry_date, quantity, category, status,
+		       version, created_at, created_by, updated_at, updated_by, change_seq
+		FROM products_unpartitioned;
+		DROP TABLE products_unpartitioned;
+		ANALYZE products;
+	END IF;
+END $$;
+
+-- Tablas ya particionadas antes de product_lot_keys. Falla si products ya
+-- tiene un mismo lote en dos estados: hay que resolverlo antes de migrar.
+INSERT INTO product_lot_keys (store_id, ean13, batch_number)
+SELECT store_id, ean13, batch_number FROM products
+WHERE NOT EXISTS (SELECT 1 FROM product_lot_keys k
+                  WHERE k.store_id = products.store_id AND k.ean13 = products.ean13
+                    AND k.batch_number = products.batch_number);
+
+-- Después de la copia: las filas convertidas conservan su posición
+DO $$
+BEGIN
+	IF NOT EXISTS (SELECT 1 FROM pg_trigger
+	               WHERE tgname = 'products_change_seq' AND tgrelid = 'products'::regclass) THEN
+		CREATE TRIGGER products_change_seq BEFORE INSERT OR UPDATE ON products
+			FOR EACH ROW EXECUTE FUNCTION product_change_seq_stamp();
+	END IF;
+END $$;
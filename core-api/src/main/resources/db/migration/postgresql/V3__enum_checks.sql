@@ -0,0 +1,13 @@
+-- Restricciones de los enums persistidos como texto, con el mismo nombre que
+-- les daba el DDL de Hibernate (<tabla>_<columna>_check) para no duplicarlas.
+-- Solo PostgreSQL: H2 no evalúa estos CHECK contra los enums que enlaza Hibernate.
+
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_role_check;
+ALTER TABLE users ADD CONSTRAINT users_role_check CHECK (role IN ('STAFF', 'MANAGER'));
+
+ALTER TABLE products DROP CONSTRAINT IF EXISTS products_status_check;
+ALTER TABLE products ADD CONSTRAINT products_status_check CHECK (status IN ('ACTIVE', 'SOLD', 'DISCARDED'));
+
+ALTER TABLE products_archive DROP CONSTRAINT IF EXISTS products_archive_status_check;
+ALTER TABLE products_archive ADD CONSTRAINT products_archive_status_check
+    CHECK (status IN ('ACTIVE', 'SOLD', 'DISCARDED'));
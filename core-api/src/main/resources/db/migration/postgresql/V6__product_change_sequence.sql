@@ -0,0 +1,31 @@
+-- Posición de cada lote en el feed de sincronización: el ID de la transacción
+-- que lo escribió por última vez, asignado por un trigger en toda escritura
+-- (JPA, JDBC, COPY y archivado) sin depender del reloj de ninguna instancia.
+-- El feed solo entrega posiciones menores que pg_snapshot_xmin: todas las
+-- transacciones anteriores ya terminaron y ninguna puede confirmar después
+-- una fila por detrás de un token entregado.
+-- Las filas existentes quedan en 0: los clientes las reciben en su primera
+-- sincronización completa.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE products_archive ADD COLUMN IF NOT EXISTS change_seq BIGINT DEFAULT 0 NOT NULL;
+
+CREATE OR REPLACE FUNCTION product_change_seq_stamp() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+	NEW.change_seq := pg_current_xact_id()::text::bigint;
+	RETURN NEW;
+END $$;
+
+DROP TRIGGER IF EXISTS products_change_seq ON products;
+CREATE TRIGGER products_change_seq BEFORE INSERT OR UPDATE ON products
+	FOR EACH ROW EXECUTE FUNCTION product_change_seq_stamp();
+
+DROP TRIGGER IF EXISTS products_archive_change_seq ON products_archive;
+CREATE TRIGGER products_archive_change_seq BEFORE INSERT OR UPDATE ON products_archive
+	FOR EACH ROW EXECUTE FUNCTION product_change_seq_stamp();
+
+-- El cursor del feed pasa de (updated_at, id) a (change_seq, id)
+DROP INDEX IF EXISTS idx_product_store_updated;
+DROP INDEX IF EXISTS idx_product_archive_store_updated;
+CREATE INDEX IF NOT EXISTS idx_product_store_change ON products (store_id, change_seq, id);
+CREATE INDEX IF NOT EXISTS idx_product_archive_store_change ON products_archive (store_id, change_seq, id);
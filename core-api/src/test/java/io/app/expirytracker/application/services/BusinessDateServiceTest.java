@@ -0,0 +1,66 @@
+package io.app.expirytracker.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.app.expirytracker.application.events.BusinessDateRolledOverEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BusinessDateServiceTest {
+
+    private static final ZoneId BUENOS_AIRES = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final ZoneId MADRID = ZoneId.of("Europe/Madrid");
+
+    private final List<Object> events = new ArrayList<>();
+    // 02:30 UTC: en Madrid ya es el 15; en Buenos Aires todavía el 14
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-03-15T02:30:00Z"));
+    private final BusinessDateService businessDate = new BusinessDateService(events::add, new SettableClock(now),
+            BUENOS_AIRES.getId(), List.of("madrid=Europe/Madrid", " "));
+
+    @Test
+    @DisplayName("Cada tienda debería ver el día de su zona; las que no tienen zona propia, el de la zona por defecto")
+    void today_shouldFollowStoreZone() {
+        // Act & Assert
+        assertThat(businessDate.today("madrid")).isEqualTo(LocalDate.of(2026, 3, 15));
+        assertThat(businessDate.today("central")).isEqualTo(LocalDate.of(2026, 3, 14));
+        assertThat(businessDate.zoneOf("central")).isEqualTo(BUENOS_AIRES);
+        assertThat(businessDate.clock("madrid").getZone()).isEqualTo(MADRID);
+    }
+
+    @Test
+    @DisplayName("Al cruzar la medianoche de una zona debería avisar una sola vez con el día anterior y el nuevo")
+    void today_shouldPublishRolloverOncePerZone() {
+        // Arrange
+        businessDate.checkRollover();
+
+        // Act
+        now.set(Instant.parse("2026-03-15T03:00:00Z"));
+        var today = businessDate.today("central");
+        businessDate.today("central");
+        businessDate.checkRollover();
+
+        // Assert
+        assertThat(today).isEqualTo(LocalDate.of(2026, 3, 15));
+        assertThat(events).containsExactly(new BusinessDateRolledOverEvent(BUENOS_AIRES,
+                LocalDate.of(2026, 3, 14), LocalDate.of(2026, 3, 15)));
+    }
+
+    @Test
+    @DisplayName("Una zona de tienda mal escrita debería rechazarse al arrancar")
+    void constructor_shouldRejectInvalidZone() {
+        // Act & Assert
+        assertThatThrownBy(() -> new BusinessDateService(events::add, new SettableClock(now), "",
+                List.of("central=America/Atlantida")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("America/Atlantida");
+    }
+}
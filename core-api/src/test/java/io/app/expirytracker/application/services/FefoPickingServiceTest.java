@@ -0,0 +1,148 @@
+package io.app.expirytracker.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.events.BusinessDateRolledOverEvent;
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.ports.in.PickStockUseCase.PickLine;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+class FefoPickingServiceTest {
+
+    private static final String EAN = "7791234000017";
+
+    private static final ZoneId ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(TODAY.atTime(12, 0).atZone(ZONE).toInstant());
+    private final BusinessDateService businessDate = new BusinessDateService(event -> {
+        if (event instanceof BusinessDateRolledOverEvent rollover) {
+            this.lotIndex.onBusinessDateRolledOver(rollover);
+        }
+    }, new SettableClock(now), ZONE.getId(), List.of());
+    private final ProductRepositoryPort productRepository = mock(ProductRepositoryPort.class);
+    private final FefoLotIndex lotIndex = new FefoLotIndex(productRepository, TransactionOperations.withoutTransaction(), businessDate, 1_000, Duration.ofMinutes(10));
+    private final FefoPickingService pickingService = new FefoPickingService(lotIndex, businessDate);
+
+    @Test
+    @DisplayName("Debería repartir la cantidad desde el lote que vence antes, omitiendo vencidos y sin stock")
+    void plan_shouldAllocateFefoSkippingExpiredAndEmptyLots() {
+        // Arrange
+        var today = TODAY;
+        var expired = lot("L-VENCIDO", today.minusDays(1), 50);
+        var empty = lot("L-VACIO", today.plusDays(1), 0);
+        var first = lot("L-1", today.plusDays(2), 4);
+        var second = lot("L-2", today.plusDays(9), 10);
+        when(productRepository.findByEan13(EAN)).thenReturn(List.of(expired, empty, first, second));
+
+        // Act
+        var plan = pickingService.plan(EAN, 6);
+
+        // Assert
+        assertThat(plan.allocated()).isEqualTo(6);
+        assertThat(plan.shortfall()).isZero();
+        assertThat(plan.lines()).containsExactly(
+                new PickLine(first.id(), "L-1", first.expiryDate(), 4),
+                new PickLine(second.id(), "L-2", second.expiryDate(), 2));
+    }
+
+    @Test
+    @DisplayName("Debería informar el faltante cuando el stock vigente no alcanza")
+    void plan_shouldReportShortfall() {
+        // Arrange
+        when(productRepository.findByEan13(EAN)).thenReturn(List.of(lot("L-1", TODAY.plusDays(3), 5)));
+
+        // Act
+        var plan = pickingService.plan(EAN, 8);
+
+        // Assert
+        assertThat(plan.allocated()).isEqualTo(5);
+        assertThat(plan.shortfall()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("El índice debería servir desde memoria y recargar el EAN tras un cambio de uno de sus lotes")
+    void index_shouldReloadEanAfterChangeEventById() {
+        // Arrange
+        var before = lot("L-1", TODAY.plusDays(3), 5);
+        var after = ProductBuilder.aProduct().withId(before.id()).withEan13(EAN).withBatchNumber("L-1")
+                .withExpiryDate(before.expiryDate()).withQuantity(1).build();
+        when(productRepository.findByEan13(EAN)).thenReturn(List.of(before)).thenReturn(List.of(after));
+
+        // Act
+        pickingService.plan(EAN, 1);
+        pickingService.plan(EAN, 1);
+        lotIndex.onProductsChanged(ProductsChangedEvent.ofIds("default", Set.of(before.id())));
+        var plan = pickingService.plan(EAN, 3);
+
+        // Assert
+        verify(productRepository, times(2)).findByEan13(EAN);
+        assertThat(plan.allocated()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Una carga que se solapa con la invalidación de su EAN no debería quedar en el índice")
+    void index_shouldNotKeepLoadOverlappingInvalidation() {
+        // Arrange
+        var before = lot("L-1", TODAY.plusDays(3), 5);
+        var after = ProductBuilder.aProduct().withId(before.id()).withEan13(EAN).withBatchNumber("L-1")
+                .withExpiryDate(before.expiryDate()).withQuantity(1).build();
+        when(productRepository.findByEan13(EAN)).thenAnswer(invocation -> {
+            // El commit de otra escritura llega mientras se lee la base de datos
+            lotIndex.onProductsChanged(ProductsChangedEvent.ofEans("default", Set.of(EAN)));
+            return List.of(before);
+        }).thenReturn(List.of(after));
+
+        // Act
+        var first = lotIndex.lots("default", EAN);
+        var second = lotIndex.lots("default", EAN);
+
+        // Assert
+        assertThat(first).containsExactly(before);
+        assertThat(second).containsExactly(after);
+        verify(productRepository, times(2)).findByEan13(EAN);
+    }
+
+    @Test
+    @DisplayName("Al cambiar el día de negocio el índice debería retirar los lotes recién vencidos sin releer el EAN")
+    void index_shouldDropLotsExpiredAtRolloverWithoutReloading() {
+        // Arrange
+        var lastDay = lot("L-HOY", TODAY, 5);
+        var next = lot("L-2", TODAY.plusDays(4), 5);
+        when(productRepository.findByEan13(EAN)).thenReturn(List.of(lastDay, next));
+        var before = pickingService.plan(EAN, 1);
+
+        // Act
+        now.set(TODAY.plusDays(1).atStartOfDay(ZONE).toInstant());
+        var after = pickingService.plan(EAN, 1);
+
+        // Assert
+        assertThat(before.lines()).extracting(PickLine::batchNumber).containsExactly("L-HOY");
+        assertThat(after.lines()).extracting(PickLine::batchNumber).containsExactly("L-2");
+        assertThat(lotIndex.lots("default", EAN)).containsExactly(next);
+        verify(productRepository, times(1)).findByEan13(EAN);
+    }
+
+    private static Product lot(String batch, LocalDate expiry, int quantity) {
+        return ProductBuilder.aProduct().withEan13(EAN).withBatchNumber(batch).withExpiryDate(expiry)
+                .withQuantity(quantity).build();
+    }
+}
@@ -0,0 +1,162 @@
+package io.app.expirytracker.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductLookupCoalescerTest {
+
+    @Test
+    @DisplayName("Una búsqueda sin concurrencia debería consultar solo su ID")
+    void find_withoutContention_shouldQuerySingleId() {
+        // Arrange
+        var repository = mock(ProductRepositoryPort.class);
+        var product = ProductBuilder.aProduct().build();
+        when(repository.findById(product.id())).thenReturn(Optional.of(product));
+        var coalescer = new ProductLookupCoalescer(repository, 500, 4, Duration.ofSeconds(5));
+
+        // Act
+        Optional<Product> result = coalescer.find(product.id());
+
+        // Assert
+        assertThat(result).contains(product);
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Las búsquedas que llegan durante una consulta deberían resolverse juntas en la siguiente")
+    void find_duringInFlightQuery_shouldCoalesceIntoOneBatch() throws Exception {
+        // Arrange
+        var repository = mock(ProductRepositoryPort.class);
+        var first = ProductBuilder.aProduct().withBatchNumber("L-0").build();
+        List<Product> waiting = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            waiting.add(ProductBuilder.aProduct().withBatchNumber("L-" + i).build());
+        }
+        var firstQueryStarted = new CountDownLatch(1);
+        var releaseFirstQuery = new CountDownLatch(1);
+        when(repository.findById(first.id())).thenAnswer(invocation -> {
+            firstQueryStarted.countDown();
+            releaseFirstQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(first);
+        });
+        when(repository.findAllById(any())).thenReturn(waiting);
+        var coalescer = new ProductLookupCoalescer(repository, 500, 4, Duration.ofSeconds(5));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Optional<Product>> leader = executor.submit(() -> coalescer.find(first.id()));
+            firstQueryStarted.await(5, TimeUnit.SECONDS);
+            List<Future<Optional<Product>>> followers = waiting.stream()
+                    .map(product -> executor.submit(() -> coalescer.find(product.id())))
+                    .toList();
+            Thread.sleep(100);
+            releaseFirstQuery.countDown();
+
+            // Assert
+            assertThat(leader.get(5, TimeUnit.SECONDS)).contains(first);
+            for (int i = 0; i < waiting.size(); i++) {
+                assertThat(followers.get(i).get(5, TimeUnit.SECONDS)).contains(waiting.get(i));
+            }
+        }
+        verify(repository, times(1)).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Si la consulta del líder no termina a tiempo, quien espera debería consultar su ID directamente")
+    void find_whenLeaderQueryStalls_shouldFallBackToDirectLookup() throws Exception {
+        // Arrange
+        var repository = mock(ProductRepositoryPort.class);
+        var stalled = ProductBuilder.aProduct().withBatchNumber("L-0").build();
+        var follower = ProductBuilder.aProduct().withBatchNumber("L-1").build();
+        var firstQueryStarted = new CountDownLatch(1);
+        var releaseFirstQuery = new CountDownLatch(1);
+        when(repository.findById(stalled.id())).thenAnswer(invocation -> {
+            firstQueryStarted.countDown();
+            releaseFirstQuery.await(5, TimeUnit.SECONDS);
+            return Optional.of(stalled);
+        });
+        when(repository.findById(follower.id())).thenReturn(Optional.of(follower));
+        var coalescer = new ProductLookupCoalescer(repository, 500, 4, Duration.ofMillis(50));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Optional<Product>> leader = executor.submit(() -> coalescer.find(stalled.id()));
+            firstQueryStarted.await(5, TimeUnit.SECONDS);
+            Optional<Product> result = coalescer.find(follower.id());
+            releaseFirstQuery.countDown();
+
+            // Assert
+            assertThat(result).contains(follower);
+            assertThat(leader.get(5, TimeUnit.SECONDS)).contains(stalled);
+        }
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("La búsqueda de quien debe leer del primario debería resolverse en el primario aunque la lance otro líder")
+    void find_whenCallerRequiresPrimary_shouldResolveItOnPrimary() throws Exception {
+        // Arrange
+        var repository = mock(ProductRepositoryPort.class);
+        var first = ProductBuilder.aProduct().withBatchNumber("L-0").build();
+        var sticky = ProductBuilder.aProduct().withBatchNumber("L-1").build();
+        var other = ProductBuilder.aProduct().withBatchNumber("L-2").build();
+        Map<UUID, Boolean> routedToPrimary = new ConcurrentHashMap<>();
+        var firstQueryStarted = new CountDownLatch(1);
+        var releaseFirstQuery = new CountDownLatch(1);
+        when(repository.findById(any())).thenAnswer(invocation -> {
+            UUID id = invocation.getArgument(0);
+            routedToPrimary.put(id, ReadRouting.primaryRequired());
+            if (id.equals(first.id())) {
+                firstQueryStarted.countDown();
+                releaseFirstQuery.await(5, TimeUnit.SECONDS);
+                return Optional.of(first);
+            }
+            return Optional.of(id.equals(sticky.id()) ? sticky : other);
+        });
+        var coalescer = new ProductLookupCoalescer(repository, 500, 4, Duration.ofSeconds(5));
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            Future<Optional<Product>> leader = executor.submit(() -> coalescer.find(first.id()));
+            firstQueryStarted.await(5, TimeUnit.SECONDS);
+            Future<Optional<Product>> stickyFollower = executor
+                    .submit(() -> ReadRouting.callOnPrimary(() -> coalescer.find(sticky.id())));
+            Future<Optional<Product>> otherFollower = executor.submit(() -> coalescer.find(other.id()));
+            Thread.sleep(100);
+            releaseFirstQuery.countDown();
+
+            // Assert
+            assertThat(leader.get(5, TimeUnit.SECONDS)).contains(first);
+            assertThat(stickyFollower.get(5, TimeUnit.SECONDS)).contains(sticky);
+            assertThat(otherFollower.get(5, TimeUnit.SECONDS)).contains(other);
+        }
+        assertThat(routedToPrimary).containsEntry(first.id(), false)
+                .containsEntry(sticky.id(), true)
+                .containsEntry(other.id(), false);
+    }
+}
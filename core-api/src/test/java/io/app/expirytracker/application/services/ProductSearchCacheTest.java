@@ -0,0 +1,138 @@
+package io.app.expirytracker.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.app.expirytracker.application.events.ProductsChangedEvent;
+import io.app.expirytracker.application.routing.ReadRouting;
+import io.app.expirytracker.domain.model.PaginatedResult;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductSearchCriteria;
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductSearchCacheTest {
+
+    private static final PaginatedResult<Product> EMPTY_PAGE = new PaginatedResult<>(List.of(), 0, 0, 0, false, false);
+
+    private final ProductSearchCache cache = new ProductSearchCache(new SimpleMeterRegistry(),
+            new BusinessDateService(event -> {
+            }, Clock.systemUTC(), "", List.of()), true, Duration.ofMinutes(1), 100);
+    private final List<ProductSearchCriteria> executed = new ArrayList<>();
+    private final Function<ProductSearchCriteria, PaginatedResult<Product>> query = criteria -> {
+        executed.add(criteria);
+        return EMPTY_PAGE;
+    };
+
+    @Test
+    @DisplayName("Criterios equivalentes tras normalizar deberían compartir la misma consulta")
+    void get_shouldShareEntryForEquivalentCriteria() {
+        // Act
+        cache.get(criteria("  Fideo ", "", null), query);
+        cache.get(criteria("fideo", null, ProductStatus.ACTIVE), query);
+
+        // Assert
+        assertThat(executed).hasSize(1);
+        assertThat(executed.get(0).name()).isEqualTo("fideo");
+        assertThat(executed.get(0).ean()).isNull();
+        assertThat(executed.get(0).status()).isEqualTo(ProductStatus.ACTIVE);
+    }
+
+    @Test
+    @DisplayName("Una escritura de productos debería dejar obsoletas las entradas anteriores")
+    void get_shouldMissAfterProductsChanged() {
+        // Act
+        cache.get(criteria("fideo", null, null), query);
+        cache.onProductsChanged(ProductsChangedEvent.ofEans("default", Set.of("7791234000017")));
+        cache.get(criteria("fideo", null, null), query);
+
+        // Assert
+        assertThat(executed).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Una escritura en otra tienda no debería invalidar las entradas de esta")
+    void get_shouldHitAfterOtherStoreChanged() {
+        // Act
+        cache.get(criteria("fideo", null, null), query);
+        cache.onProductsChanged(ProductsChangedEvent.ofEans("sucursal-2", Set.of("7791234000017")));
+        cache.get(criteria("fideo", null, null), query);
+
+        // Assert
+        assertThat(executed).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Fallos concurrentes de la misma búsqueda deberían ejecutar una sola consulta")
+    void get_shouldCollapseConcurrentMisses() throws Exception {
+        // Arrange
+        var queries = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        Function<ProductSearchCriteria, PaginatedResult<Product>> slowQuery = criteria -> {
+            queries.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return EMPTY_PAGE;
+        };
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // Act
+            List<Future<PaginatedResult<Product>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(criteria("yogur", null, null), slowQuery)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Assert
+            for (Future<PaginatedResult<Product>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(EMPTY_PAGE);
+            }
+        }
+        assertThat(queries).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("La consulta debería leer del primario y un fallo no debería quedar en caché")
+    void get_shouldQueryOnPrimaryAndNotCacheFailures() {
+        // Arrange
+        var onPrimary = new ArrayList<Boolean>();
+        var attempts = new AtomicInteger();
+        Function<ProductSearchCriteria, PaginatedResult<Product>> flakyQuery = criteria -> {
+            onPrimary.add(ReadRouting.primaryRequired());
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("conexión perdida");
+            }
+            return EMPTY_PAGE;
+        };
+
+        // Act & Assert
+        assertThatThrownBy(() -> cache.get(criteria("yogur", null, null), flakyQuery))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(criteria("yogur", null, null), flakyQuery)).isSameAs(EMPTY_PAGE);
+        assertThat(onPrimary).containsExactly(true, true);
+        assertThat(ReadRouting.primaryRequired()).isFalse();
+    }
+
+    private static ProductSearchCriteria criteria(String name, String ean, ProductStatus status) {
+        return new ProductSearchCriteria("default", name, ean, null, null, null, 7, status, null, null, null);
+    }
+}
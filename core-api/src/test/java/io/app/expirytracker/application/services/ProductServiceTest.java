@@ -7,10 +7,21 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import io.app.expirytracker.application.ports.in.UpdateProductUseCase.UpdateProductCommand;
+import io.app.expirytracker.application.ports.out.ProductHistoryPort;
 import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
 import io.app.expirytracker.domain.model.Product;
 import io.app.expirytracker.domain.model.ProductStatus;
 import io.app.expirytracker.domain.model.builders.CreateProductCommandBuilder;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -20,6 +31,8 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionOperations;
 
 /**
  * Test unitario para el servicio de aplicación ProductService.
@@ -33,6 +46,12 @@ class ProductServiceTest {
     @Mock
     private ProductRepositoryPort productRepository;
 
+    @Mock
+    private ProductHistoryPort historyPort;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -50,6 +69,7 @@ class ProductServiceTest {
             final var product = (Product) invocation.getArgument(0);
             return new Product(
                     java.util.UUID.randomUUID(),
+                    product.storeId(),
                     product.ean13(),
                     product.name(),
                     product.batchNumber(),
@@ -70,9 +90,10 @@ class ProductServiceTest {
         assertThat(createdProduct.id()).isNotNull();
 
         assertThat(capturedProduct.status()).isEqualTo(ProductStatus.ACTIVE);
+        assertThat(capturedProduct.storeId()).isEqualTo(StoreContext.DEFAULT_STORE);
         assertThat(capturedProduct)
                 .usingRecursiveComparison()
-                .ignoringFields("id", "status")
+                .ignoringFields("id", "storeId", "status", "version")
                 .isEqualTo(command);
     }
 
@@ -92,4 +113,71 @@ class ProductServiceTest {
         // Verifica que el método 'save' del repositorio NUNCA fue llamado.
         verify(productRepository, never()).save(any(Product.class));
     }
+
+    @Test
+    @DisplayName("findAllById debería devolver los productos en el orden pedido, sin repetidos ni ausentes")
+    void findAllById_shouldKeepRequestOrder() {
+        // Arrange
+        final var first = ProductBuilder.aProduct().withBatchNumber("L-1").build();
+        final var second = ProductBuilder.aProduct().withBatchNumber("L-2").build();
+        final var missing = UUID.randomUUID();
+        when(productRepository.findAllById(any())).thenReturn(List.of(first, second));
+
+        // Act
+        final var result = productService.findAllById(List.of(second.id(), missing, first.id(), second.id()));
+
+        // Assert
+        assertThat(result).containsExactly(second, first);
+    }
+
+    @Test
+    @DisplayName("Sin versión del cliente, el reintento debería conservar el stock que cambió otro proceso")
+    void update_withoutExpectedVersion_shouldKeepConcurrentChangesOfUntouchedFields() {
+        // Arrange: entre la lectura y el UPDATE se vendieron 3 unidades
+        final var read = versioned(ProductBuilder.aProduct().withQuantity(10).withName("Viejo").build(), 1L);
+        final var afterSale = versioned(ProductBuilder.aProduct().withId(read.id()).withQuantity(7).withName("Viejo")
+                .build(), 2L);
+        when(productRepository.findById(read.id())).thenReturn(Optional.of(read)).thenReturn(Optional.of(afterSale));
+        when(productRepository.update(any(Product.class))).thenAnswer(invocation -> {
+            Product attempt = invocation.getArgument(0);
+            return attempt.version() == 1L ? Optional.empty() : Optional.of(attempt);
+        });
+        final var command = new UpdateProductCommand(read.ean13(), "Nuevo", read.batchNumber(), read.expiryDate(),
+                read.quantity(), read.category(), null);
+
+        // Act
+        final var updated = updateService().update(read.id(), command);
+
+        // Assert
+        assertThat(updated.name()).isEqualTo("Nuevo");
+        assertThat(updated.quantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Sin versión del cliente, debería informar el conflicto si otro proceso cambió el mismo campo")
+    void update_withoutExpectedVersion_shouldRejectConflictingFieldChange() {
+        // Arrange
+        final var read = versioned(ProductBuilder.aProduct().withQuantity(10).build(), 1L);
+        final var concurrent = versioned(ProductBuilder.aProduct().withId(read.id()).withQuantity(7).build(), 2L);
+        when(productRepository.findById(read.id())).thenReturn(Optional.of(read)).thenReturn(Optional.of(concurrent));
+        when(productRepository.update(any(Product.class))).thenReturn(Optional.empty());
+        final var command = new UpdateProductCommand(read.ean13(), read.name(), read.batchNumber(),
+                read.expiryDate(), 20, read.category(), null);
+
+        // Act & Assert
+        assertThatThrownBy(() -> updateService().update(read.id(), command))
+                .isInstanceOf(ConcurrentModificationException.class)
+                .hasMessageContaining("quantity");
+        verify(productRepository).update(any(Product.class));
+    }
+
+    private ProductService updateService() {
+        return new ProductService(productRepository, new OptimisticRetryPolicy(new SimpleMeterRegistry(), 3, 0, 0),
+                null, null, historyPort, eventPublisher, TransactionOperations.withoutTransaction());
+    }
+
+    private static Product versioned(Product product, long version) {
+        return new Product(product.id(), product.storeId(), product.ean13(), product.name(), product.batchNumber(),
+                product.expiryDate(), product.quantity(), product.category(), product.status(), version);
+    }
 }
@@ -0,0 +1,146 @@
+package io.app.expirytracker.application.services;
+
+import io.app.expirytracker.application.ports.in.ProductSyncUseCase.ChangeFeedPage;
+import io.app.expirytracker.domain.model.ProductChange;
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.ProductChangeFeedPersistenceAdapter;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.ProductPersistenceAdapter;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductArchiveJdbcRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductChangeFeedJdbcRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Feed de cambios de {@link ProductSyncService} sobre la base de datos de
+ * tests. En H2 la posición de cada cambio la asigna una secuencia; la cota de
+ * transacciones en curso es solo de PostgreSQL.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ ProductSyncService.class, ProductChangeFeedPersistenceAdapter.class,
+        ProductChangeFeedJdbcRepository.class, ProductArchiveJdbcRepository.class, ProductPersistenceAdapter.class,
+        ProductMapper.class, ProductJdbcRepository.class, AuditConfig.class, BusinessDateService.class, ClockConfig.class })
+class ProductSyncServiceTest {
+
+    @Autowired
+    private ProductSyncService productSyncService;
+
+    @Autowired
+    private ProductPersistenceAdapter productPersistenceAdapter;
+
+    @Autowired
+    private ProductArchiveJdbcRepository archiveJdbcRepository;
+
+    @Autowired
+    private JpaProductRepository jpaProductRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Debería recorrer altas, cambios de estado, archivados y lápidas por token, sin repetir ni saltar")
+    void changesSince_shouldPageThroughAllChangesInOrder() {
+        // Arrange
+        var active = productPersistenceAdapter.save(aProduct().withBatchNumber("L-SYN1").build());
+        var sold = productPersistenceAdapter.save(
+                aProduct().withBatchNumber("L-SYN2").withStatus(ProductStatus.SOLD).build());
+        var discarded = productPersistenceAdapter.save(aProduct().withBatchNumber("L-SYN3").build());
+        var archived = productPersistenceAdapter.save(
+                aProduct().withBatchNumber("L-SYN4").withStatus(ProductStatus.DISCARDED).build());
+        productPersistenceAdapter.deleteById(discarded.id());
+        jpaProductRepository.flush();
+        archiveJdbcRepository.moveToArchive(List.of(archived.id()), LocalDateTime.now());
+        touch(active.id());
+        // Misma posición (una transacción): el ID desempata y el cursor no pierde ninguno
+        long sameTransaction = jdbcTemplate.queryForObject("VALUES NEXT VALUE FOR product_change_seq", Long.class);
+        jdbcTemplate.update("UPDATE products SET change_seq = ? WHERE id IN (?, ?)", sameTransaction, sold.id(),
+                discarded.id());
+
+        // Act
+        ChangeFeedPage first = productSyncService.changesSince(null, 2);
+        ChangeFeedPage second = productSyncService.changesSince(first.nextToken(), 2);
+        ChangeFeedPage last = productSyncService.changesSince(second.nextToken(), 2);
+
+        // Assert
+        assertThat(first.hasMore()).isTrue();
+        assertThat(second.hasMore()).isFalse();
+        assertThat(first.changes()).extracting(ProductChange::productId)
+                .containsExactly(archived.id(), active.id());
+        // El orden del empate es el de los UUID en la base de datos
+        assertThat(second.changes()).extracting(ProductChange::productId)
+                .containsExactlyInAnyOrder(sold.id(), discarded.id());
+        assertThat(first.changes().get(0).deleted()).isTrue();
+        assertThat(first.changes().get(1).product().status()).isEqualTo(ProductStatus.ACTIVE);
+        assertThat(second.changes()).filteredOn(ProductChange::deleted).extracting(ProductChange::productId)
+                .containsExactly(discarded.id());
+        assertThat(second.changes()).filteredOn(change -> !change.deleted())
+                .extracting(change -> change.product().status()).containsExactly(ProductStatus.SOLD);
+        assertThat(last.changes()).isEmpty();
+        assertThat(last.nextToken()).isEqualTo(second.nextToken());
+    }
+
+    @Test
+    @DisplayName("Un lote modificado después del token debería volver a aparecer en la siguiente sincronización")
+    void changesSince_shouldDeliverLotChangedAfterToken() {
+        // Arrange
+        var lot = productPersistenceAdapter.save(aProduct().withBatchNumber("L-SYN6").withQuantity(10).build());
+        jpaProductRepository.flush();
+        String synced = productSyncService.changesSince(null, 10).nextToken();
+
+        // Act
+        productPersistenceAdapter.adjustQuantity(lot.id(), -3);
+        ChangeFeedPage page = productSyncService.changesSince(synced, 10);
+
+        // Assert
+        assertThat(page.changes()).singleElement()
+                .satisfies(change -> assertThat(change.product().quantity()).isEqualTo(7));
+    }
+
+    @Test
+    @DisplayName("Un token del cursor anterior (updated_at) debería reiniciar la sincronización desde el principio")
+    void changesSince_withTimestampToken_shouldRestartFromOrigin() {
+        // Arrange
+        var lot = productPersistenceAdapter.save(aProduct().withBatchNumber("L-SYN7").build());
+        jpaProductRepository.flush();
+        String legacyToken = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                ("2026-01-01T10:00|" + UUID.randomUUID()).getBytes(StandardCharsets.US_ASCII));
+
+        // Act
+        ChangeFeedPage page = productSyncService.changesSince(legacyToken, 10);
+
+        // Assert
+        assertThat(page.changes()).extracting(ProductChange::productId).containsExactly(lot.id());
+    }
+
+    @Test
+    @DisplayName("Debería rechazar un token manipulado como error del cliente")
+    void changesSince_withMalformedToken_shouldThrowIllegalArgument() {
+        assertThatThrownBy(() -> productSyncService.changesSince("no-es-un-token", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Una escritura en su propia transacción: posición nueva
+    private void touch(UUID id) {
+        jdbcTemplate.update("UPDATE products SET change_seq = NEXT VALUE FOR product_change_seq WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,376 @@
+package io.app.expirytracker.application.services;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.ports.out.StockDeadLetterPort;
+import io.app.expirytracker.application.ports.out.StockJournalPort;
+import io.app.expirytracker.application.ports.out.StockJournalPort.JournaledAdjustment;
+import io.app.expirytracker.application.ports.out.StockJournalPort.Recovery;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Test unitario para los ajustes de stock por diferencia.
+ */
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private ProductRepositoryPort productRepository;
+
+    @Mock
+    private StockJournalPort journal;
+
+    @Mock
+    private StockDeadLetterPort deadLetters;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Captor
+    private ArgumentCaptor<Map<UUID, Integer>> deltasCaptor;
+
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        when(journal.recover()).thenReturn(new Recovery(0, List.of()));
+        stockService = newStockService(1024);
+    }
+
+    @Test
+    @DisplayName("Debería acumular los ajustes de un mismo lote y aplicarlos como un único delta neto")
+    void shouldCoalesceAdjustmentsPerLotOnFlush() {
+        // Arrange
+        UUID hotLot = UUID.randomUUID();
+        UUID otherLot = UUID.randomUUID();
+        UUID balancedLot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenReturn(Set.of());
+
+        stockService.enqueue(List.of(
+                new StockAdjustmentCommand(hotLot, -1),
+                new StockAdjustmentCommand(hotLot, -1),
+                new StockAdjustmentCommand(otherLot, 10),
+                new StockAdjustmentCommand(hotLot, -3),
+                new StockAdjustmentCommand(balancedLot, 2),
+                new StockAdjustmentCommand(balancedLot, -2)));
+
+        // Act
+        stockService.flush();
+        stockService.flush();
+
+        // Assert: un solo lote JDBC; el segundo vaciado no tiene nada pendiente
+        verify(productRepository).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsExactlyInAnyOrderEntriesOf(Map.of(hotLot, -5, otherLot, 10));
+    }
+
+    @Test
+    @DisplayName("Si el neto deja el stock en negativo, debería aplicar uno a uno y descartar solo los que no caben")
+    void shouldFallBackToSingleAdjustmentsWhenNetIsRejected() {
+        // Arrange: diez ventas de una unidad sobre un lote con 8
+        UUID lot = UUID.randomUUID();
+        UUID otherLot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenAnswer(new Answer<Set<UUID>>() {
+            private int stock = 8;
+
+            @Override
+            public Set<UUID> answer(InvocationOnMock invocation) {
+                Map<UUID, Integer> deltas = invocation.getArgument(0);
+                Integer delta = deltas.get(lot);
+                if (delta == null || stock + delta < 0) {
+                    return delta == null ? Set.of() : Set.of(lot);
+                }
+                stock += delta;
+                return Set.of();
+            }
+        });
+        var sales = new ArrayList<StockAdjustmentCommand>();
+        for (int i = 0; i < 10; i++) {
+            sales.add(new StockAdjustmentCommand(lot, -1));
+        }
+        sales.add(new StockAdjustmentCommand(otherLot, 4));
+        stockService.enqueue(sales);
+
+        // Act
+        stockService.flush();
+
+        // Assert: el neto (-10) y después una ronda por venta; otherLot va en el neto
+        verify(productRepository, times(11)).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getAllValues().get(0)).containsExactlyInAnyOrderEntriesOf(Map.of(lot, -10, otherLot, 4));
+        assertThat(deltasCaptor.getAllValues().subList(1, 11)).allSatisfy(
+                deltas -> assertThat(deltas).containsExactlyEntriesOf(Map.of(lot, -1)));
+        verify(journal).markApplied("default", 11);
+    }
+
+    @Test
+    @DisplayName("Debería rechazar una venta que dejaría el stock en negativo")
+    void shouldRejectDecreaseWhenStockIsInsufficient() {
+        // Arrange
+        var product = aProduct().withQuantity(2).build();
+        when(productRepository.adjustQuantity(product.id(), -5)).thenReturn(Optional.empty());
+        when(productRepository.findById(product.id())).thenReturn(Optional.of(product));
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockService.decrease(product.id(), 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Stock insuficiente");
+    }
+
+    @Test
+    @DisplayName("No debería encolar nada si algún ajuste es inválido")
+    void shouldNotEnqueueWhenAnyAdjustmentIsInvalid() {
+        // Act & Assert
+        assertThatThrownBy(() -> stockService.enqueue(List.of(
+                new StockAdjustmentCommand(UUID.randomUUID(), 3),
+                new StockAdjustmentCommand(UUID.randomUUID(), 0))))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        stockService.flush();
+        verify(productRepository, never()).adjustQuantities(anyMap());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena debería rechazar el lote entero hasta el siguiente vaciado")
+    void shouldRejectWholeBatchWhenQueueIsFull() {
+        // Arrange
+        stockService = newStockService(4);
+        UUID lot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenReturn(Set.of());
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 1), new StockAdjustmentCommand(lot, 1),
+                new StockAdjustmentCommand(lot, 1)));
+
+        // Act & Assert
+        assertThatThrownBy(() -> stockService.enqueue(List.of(
+                new StockAdjustmentCommand(lot, 10), new StockAdjustmentCommand(lot, 10))))
+                .isInstanceOf(RejectedExecutionException.class);
+        stockService.flush();
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 10), new StockAdjustmentCommand(lot, 10)));
+        stockService.flush();
+
+        verify(productRepository, times(2)).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getAllValues()).containsExactly(Map.of(lot, 3), Map.of(lot, 20));
+        verify(journal).markApplied("default", 3);
+        verify(journal).markApplied("default", 5);
+    }
+
+    @Test
+    @DisplayName("Debería aplicar al primer vaciado lo registrado y no aplicado antes de la caída, y seguir la secuencia")
+    void shouldReplayJournaledAdjustmentsOnStartup() {
+        // Arrange
+        UUID lot = UUID.randomUUID();
+        when(journal.recover()).thenReturn(new Recovery(9, List.of(
+                new JournaledAdjustment(8, "default", lot, -2),
+                new JournaledAdjustment(9, "default", lot, -1))));
+        when(productRepository.adjustQuantities(anyMap())).thenReturn(Set.of());
+        stockService = newStockService(1024);
+
+        // Act
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 5)));
+        stockService.flush();
+
+        // Assert
+        verify(journal).append(10, "default", List.of(new StockAdjustmentCommand(lot, 5)));
+        verify(productRepository).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getValue()).containsExactlyEntriesOf(Map.of(lot, 2));
+        verify(journal).markApplied("default", 10);
+        verify(journal).discardThrough(10);
+    }
+
+    @Test
+    @DisplayName("No debería leer el registro al construirse, sino al arrancar, ni aceptar ajustes antes")
+    void shouldRecoverJournalOnStartInsteadOfConstruction() {
+        // Arrange: olvidamos la recuperación del servicio de setUp
+        clearInvocations(journal);
+        var notStarted = new StockService(productRepository, TransactionOperations.withoutTransaction(), event -> {
+        }, journal, deadLetters, meterRegistry, 1024, 3, 0, 0);
+        UUID lot = UUID.randomUUID();
+
+        // Act & Assert
+        verify(journal, never()).recover();
+        assertThatThrownBy(() -> notStarted.enqueue(List.of(new StockAdjustmentCommand(lot, 1))))
+                .isInstanceOf(RejectedExecutionException.class);
+        notStarted.start();
+        notStarted.enqueue(List.of(new StockAdjustmentCommand(lot, 1)));
+        verify(journal).append(1, "default", List.of(new StockAdjustmentCommand(lot, 1)));
+    }
+
+    @Test
+    @DisplayName("Tras agotar los intentos debería apartar solo los ajustes del lote que falla y aplicar el resto")
+    void shouldDeadLetterOnlyFailingLotAfterMaxAttempts() {
+        // Arrange
+        UUID poisonLot = UUID.randomUUID();
+        UUID goodLot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenAnswer(invocation -> {
+            Map<UUID, Integer> deltas = invocation.getArgument(0);
+            if (deltas.containsKey(poisonLot)) {
+                throw new IllegalStateException("fallo persistente");
+            }
+            return Set.of();
+        });
+        stockService.enqueue(List.of(new StockAdjustmentCommand(poisonLot, -1), new StockAdjustmentCommand(goodLot, 2),
+                new StockAdjustmentCommand(poisonLot, 4)));
+
+        // Act
+        stockService.flush();
+        stockService.flush();
+        verify(deadLetters, never()).save(any(), anyList(), any());
+        stockService.flush();
+        stockService.flush();
+
+        // Assert: tres intentos, una prueba por lote y la transacción que aplica goodLot
+        verify(productRepository, times(6)).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getAllValues().get(5)).containsExactlyEntriesOf(Map.of(goodLot, 2));
+        verify(deadLetters).save(eq("default"), eq(List.of(
+                new StockAdjustmentCommand(poisonLot, -1), new StockAdjustmentCommand(poisonLot, 4))),
+                contains("fallo persistente"));
+        verify(journal).markApplied("default", 3);
+        verify(journal).discardThrough(3);
+        assertThat(meterRegistry.counter("expiry.stock.write-behind.dead-lettered").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Una tienda que falla no debería retener ni apartar los ajustes de otra")
+    void shouldApplyOtherStoresWhileOneFails() {
+        // Arrange
+        UUID lot = UUID.randomUUID();
+        UUID poisonLot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenAnswer(invocation -> {
+            Map<UUID, Integer> deltas = invocation.getArgument(0);
+            if (deltas.containsKey(poisonLot)) {
+                throw new IllegalStateException("fallo persistente");
+            }
+            return Set.of();
+        });
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 3)));
+        StoreContext.callAs("norte", () -> {
+            stockService.enqueue(List.of(new StockAdjustmentCommand(poisonLot, -1)));
+            return null;
+        });
+
+        // Act
+        stockService.flush();
+
+        // Assert: "default" queda aplicada; el registro se libera solo hasta lo pendiente de "norte"
+        verify(journal).markApplied("default", 2);
+        verify(journal, never()).markApplied(eq("norte"), anyLong());
+        verify(journal).discardThrough(1);
+        verify(deadLetters, never()).save(any(), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Tras un fallo debería esperar antes de reintentar la tienda, salvo en el apagado")
+    void shouldBackOffBeforeRetryingFailedStore() {
+        // Arrange
+        stockService = newStockService(1024, 3, 3_600_000);
+        UUID lot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap()))
+                .thenThrow(new IllegalStateException("bloqueo"))
+                .thenReturn(Set.of());
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 3)));
+
+        // Act
+        stockService.flush();
+        stockService.flush();
+        verify(productRepository, times(1)).adjustQuantities(anyMap());
+        stockService.flushOnShutdown();
+
+        // Assert
+        verify(productRepository, times(2)).adjustQuantities(anyMap());
+        verify(journal).markApplied("default", 1);
+    }
+
+    @Test
+    @DisplayName("Un neto que desborda int debería aplicarse ajuste a ajuste en lugar de desbordar")
+    void shouldFallBackToSingleAdjustmentsWhenNetOverflowsInt() {
+        // Arrange
+        UUID lot = UUID.randomUUID();
+        UUID otherLot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap())).thenReturn(Set.of());
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, Integer.MAX_VALUE),
+                new StockAdjustmentCommand(otherLot, 1), new StockAdjustmentCommand(lot, Integer.MAX_VALUE)));
+
+        // Act
+        stockService.flush();
+
+        // Assert: otherLot en el neto y una ronda por cada ajuste de lot
+        verify(productRepository, times(3)).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getAllValues()).containsExactly(Map.of(otherLot, 1), Map.of(lot, Integer.MAX_VALUE),
+                Map.of(lot, Integer.MAX_VALUE));
+        verify(journal).markApplied("default", 3);
+    }
+
+    @Test
+    @DisplayName("Si un error de conexión impide aislar el lote fallido, debería conservar los ajustes y reintentar")
+    void shouldKeepAdjustmentsWhenIsolationHitsConnectionError() {
+        // Arrange
+        stockService = newStockService(1024, 1, 0);
+        UUID lot = UUID.randomUUID();
+        when(productRepository.adjustQuantities(anyMap()))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenReturn(Set.of());
+        stockService.enqueue(List.of(new StockAdjustmentCommand(lot, 3)));
+
+        // Act
+        stockService.flush();
+        stockService.flush();
+
+        // Assert: intento, prueba abortada y el segundo vaciado aplica el ajuste conservado
+        verify(productRepository, times(3)).adjustQuantities(deltasCaptor.capture());
+        assertThat(deltasCaptor.getAllValues().get(2)).containsExactlyEntriesOf(Map.of(lot, 3));
+        verify(journal, times(1)).markApplied(any(), anyLong());
+        verify(journal).discardThrough(1);
+        verify(deadLetters, never()).save(any(), anyList(), any());
+        assertThat(meterRegistry.counter("expiry.stock.write-behind.dead-lettered").count()).isZero();
+    }
+
+    private StockService newStockService(int capacity) {
+        return newStockService(capacity, 3);
+    }
+
+    private StockService newStockService(int capacity, int maxAttempts) {
+        return newStockService(capacity, maxAttempts, 0);
+    }
+
+    private StockService newStockService(int capacity, int maxAttempts, long backoffMillis) {
+        var service = new StockService(productRepository, TransactionOperations.withoutTransaction(), event -> {
+        }, journal, deadLetters, meterRegistry, capacity, maxAttempts, backoffMillis, backoffMillis);
+        service.start();
+        return service;
+    }
+}
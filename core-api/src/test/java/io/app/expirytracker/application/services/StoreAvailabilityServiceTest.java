@@ -0,0 +1,109 @@
+package io.app.expirytracker.application.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.ports.in.StoreAvailabilityUseCase.StoreLots;
+import io.app.expirytracker.application.ports.out.ProductRepositoryPort;
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class StoreAvailabilityServiceTest {
+
+    private static final String EAN = "7791234000017";
+
+    private final ProductRepositoryPort productRepository = mock(ProductRepositoryPort.class);
+    private final StoreDirectoryPort storeDirectory = mock(StoreDirectoryPort.class);
+
+    @Test
+    @DisplayName("Debería consultar cada tienda con su propia tienda fijada y reunir solo las que tienen el lote")
+    void whereStocked_shouldQueryEachStoreInItsOwnContext() {
+        // Arrange
+        var central = lot("central", "L-1", 4);
+        var branch = lot("sucursal-2", "L-1", 7);
+        var otherBatch = lot("sucursal-2", "L-2", 3);
+        Map<String, List<Product>> lotsByStore = Map.of(
+                "central", List.of(central),
+                "sucursal-2", List.of(branch, otherBatch),
+                "sucursal-3", List.of());
+        when(storeDirectory.findStoreIds()).thenReturn(List.of("central", "sucursal-2", "sucursal-3"));
+        when(productRepository.findByEan13(EAN))
+                .thenAnswer(invocation -> lotsByStore.get(StoreContext.current()));
+        var service = new StoreAvailabilityService(productRepository, storeDirectory, 2, Duration.ofSeconds(2));
+
+        // Act
+        var availability = service.whereStocked(EAN, "L-1", Set.of("central", "sucursal-2", "sucursal-3"));
+
+        // Assert
+        assertThat(availability.stores()).containsExactly(
+                new StoreLots("central", 4, List.of(central)),
+                new StoreLots("sucursal-2", 7, List.of(branch)));
+        assertThat(availability.unavailableStores()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Una tienda que no responde dentro del plazo debería informarse como no disponible")
+    void whereStocked_shouldReportSlowStoreAsUnavailable() {
+        // Arrange
+        var central = lot("central", "L-1", 4);
+        var release = new CountDownLatch(1);
+        when(storeDirectory.findStoreIds()).thenReturn(List.of("central", "lenta"));
+        when(productRepository.findByEan13(EAN)).thenAnswer(invocation -> {
+            if (StoreContext.current().equals("lenta")) {
+                release.await(5, TimeUnit.SECONDS);
+                return List.of();
+            }
+            return List.of(central);
+        });
+        var service = new StoreAvailabilityService(productRepository, storeDirectory, 2, Duration.ofMillis(200));
+
+        // Act
+        var availability = service.whereStocked(EAN, null, Set.of("central", "lenta"));
+        release.countDown();
+
+        // Assert
+        assertThat(availability.stores()).extracting(StoreLots::storeId).containsExactly("central");
+        assertThat(availability.unavailableStores()).containsExactly("lenta");
+    }
+
+    @Test
+    @DisplayName("Debería consultar solo las tiendas a las que tiene acceso quien pregunta")
+    void whereStocked_shouldSkipStoresOutsideCallerAccess() {
+        // Arrange
+        var central = lot("central", "L-1", 4);
+        when(storeDirectory.findStoreIds()).thenReturn(List.of("central", "sucursal-2"));
+        when(productRepository.findByEan13(EAN)).thenAnswer(invocation -> {
+            assertThat(StoreContext.current()).isEqualTo("central");
+            return List.of(central);
+        });
+        var service = new StoreAvailabilityService(productRepository, storeDirectory, 2, Duration.ofSeconds(2));
+
+        // Act
+        var availability = service.whereStocked(EAN, null, Set.of("central"));
+
+        // Assert
+        assertThat(availability.stores()).extracting(StoreLots::storeId).containsExactly("central");
+        assertThat(availability.unavailableStores()).isEmpty();
+        verify(productRepository, times(1)).findByEan13(EAN);
+    }
+
+    private static Product lot(String storeId, String batch, int quantity) {
+        return ProductBuilder.aProduct().withStoreId(storeId).withEan13(EAN).withBatchNumber(batch)
+                .withQuantity(quantity).build();
+    }
+}
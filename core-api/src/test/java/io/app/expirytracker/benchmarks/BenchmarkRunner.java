@@ -0,0 +1,27 @@
+package io.app.expirytracker.benchmarks;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de los microbenchmarks JMH (no forman parte de los tests).
+ * <pre>
+ * ./mvnw test-compile
+ * ./mvnw exec:java -Dexec.mainClass=io.app.expirytracker.benchmarks.BenchmarkRunner \
+ *     -Dexec.classpathScope=test -Dexec.args="JwtVerification"
+ * </pre>
+ * El argumento opcional es una expresión regular sobre el nombre del benchmark.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        var options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "io.app.expirytracker.benchmarks")
+                .build();
+        new Runner(options).run();
+    }
+}
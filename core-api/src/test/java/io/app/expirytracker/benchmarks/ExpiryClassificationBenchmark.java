@@ -0,0 +1,97 @@
+package io.app.expirytracker.benchmarks;
+
+import io.app.expirytracker.domain.model.ExpiryClassifier;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Clasificación de vencimientos de un inventario completo: producto a
+ * producto con {@code LocalDate.now()} en cada llamada, producto a producto
+ * con la fecha fijada, y en bloque con {@link ExpiryClassifier} (desde la
+ * lista y desde columnas ya extraídas).
+ * Ejecución: ver {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExpiryClassificationBenchmark {
+
+    private static final int DAYS_THRESHOLD = 7;
+
+    @Param({ "100000", "1000000" })
+    private int size;
+
+    private LocalDate today;
+    private List<Product> products;
+    private int[] expiryEpochDays;
+    private boolean[] active;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.now();
+        ProductStatus[] statuses = ProductStatus.values();
+        products = IntStream.range(0, size)
+                .mapToObj(i -> ProductBuilder.aProduct()
+                        .withExpiryDate(today.plusDays(i % 60 - 20))
+                        .withStatus(statuses[i % statuses.length])
+                        .build())
+                .toList();
+        expiryEpochDays = products.stream().mapToInt(p -> (int) p.expiryDate().toEpochDay()).toArray();
+        active = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            active[i] = products.get(i).status() == ProductStatus.ACTIVE;
+        }
+    }
+
+    @Benchmark
+    public int perProductNow() {
+        int flagged = 0;
+        for (Product product : products) {
+            if (product.isExpired(LocalDate.now()) || product.isAboutToExpire(DAYS_THRESHOLD, LocalDate.now())) {
+                flagged++;
+            }
+        }
+        return flagged;
+    }
+
+    @Benchmark
+    public int perProductFixedDate() {
+        int flagged = 0;
+        for (Product product : products) {
+            if (product.isExpired(today) || product.isAboutToExpire(DAYS_THRESHOLD, today)) {
+                flagged++;
+            }
+        }
+        return flagged;
+    }
+
+    @Benchmark
+    public ExpiryClassifier.Classification bulkFromProducts() {
+        return ExpiryClassifier.classify(products, DAYS_THRESHOLD, today);
+    }
+
+    @Benchmark
+    public ExpiryClassifier.Classification bulkFromColumns() {
+        return ExpiryClassifier.classify(expiryEpochDays, active, DAYS_THRESHOLD, today);
+    }
+}
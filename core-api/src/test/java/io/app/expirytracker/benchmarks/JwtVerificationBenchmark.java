@@ -0,0 +1,59 @@
+package io.app.expirytracker.benchmarks;
+
+import io.app.expirytracker.domain.model.User;
+import io.app.expirytracker.infrastructure.security.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de autenticar una petición con JWT.
+ * * {@code cachedToken}: token ya visto (caso habitual, mismo cliente).
+ * {@code uncachedToken}: verificación completa (HMAC + Base64 + JSON), con la
+ * caché de tamaño 0.
+ * Ejecución: ver {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "una-clave-de-benchmark-de-al-menos-32-bytes";
+
+    private JwtService cachingService;
+    private JwtService nonCachingService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        var jsonMapper = JsonMapper.builder().build();
+        cachingService = new JwtService(jsonMapper, SECRET, 1, 10_000);
+        nonCachingService = new JwtService(jsonMapper, SECRET, 1, 0);
+        token = cachingService.issue(new User(UUID.randomUUID(), "maria", "maria@example.com", "hash")).value();
+        cachingService.authenticate(token);
+    }
+
+    @Benchmark
+    public Object cachedToken() {
+        return cachingService.authenticate(token);
+    }
+
+    @Benchmark
+    public Object uncachedToken() {
+        return nonCachingService.authenticate(token);
+    }
+}
@@ -0,0 +1,85 @@
+package io.app.expirytracker.benchmarks;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.infrastructure.adapters.out.journal.FileStockJournalAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Latencia de registrar un lote de ajustes de stock en el registro local
+ * (una petición a {@code POST /products/stock/adjustments}), con 4 hilos
+ * anexando a la vez. Con {@code fsync=false} mide el anexo al segmento
+ * proyectado en memoria; con {@code fsync=true} incluye la espera al disco,
+ * repartida entre los hilos que comparten cada fsync (confirmación en grupo).
+ * La inversa del tiempo medio por hilo da el caudal de anexos.
+ * Ejecución: ver {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class StockJournalBenchmark {
+
+    @Param({ "false", "true" })
+    private boolean fsync;
+
+    @Param({ "1", "64" })
+    private int batchSize;
+
+    private Path directory;
+    private FileStockJournalAdapter journal;
+    private List<StockAdjustmentCommand> batch;
+    private final AtomicLong sequences = new AtomicLong();
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("stock-journal-bench");
+        // Sin marca de lo aplicado: el benchmark no llama a recover()
+        journal = new FileStockJournalAdapter(null, null, directory, "bench", fsync, DataSize.ofMegabytes(64));
+        batch = IntStream.range(0, batchSize)
+                .mapToObj(i -> new StockAdjustmentCommand(UUID.randomUUID(), -1))
+                .toList();
+    }
+
+    @Benchmark
+    public void append() {
+        long first = sequences.getAndAdd(batch.size()) + 1;
+        journal.append(first, "central", batch);
+    }
+
+    @TearDown(Level.Iteration)
+    public void discardApplied() {
+        journal.discardThrough(sequences.get());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+}
@@ -0,0 +1,101 @@
+package io.app.expirytracker.benchmarks;
+
+import com.fasterxml.uuid.Generators;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.UserEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaUserRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.persistence.autoconfigure.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caudal de altas de usuario por {@code JpaUserRepository.save} (una
+ * transacción por alta) contra H2 en memoria.
+ * * {@code persist}: la entidad se informa nueva ({@code createdAt} nulo) y
+ * Spring Data llama a {@code persist}: solo el INSERT. {@code merge}: se
+ * reproduce el comportamiento anterior a {@code Persistable} (el ID viene
+ * asignado y la entidad no parece nueva), con el SELECT previo al INSERT.
+ * * Con H2 en el mismo proceso la ida y vuelta ahorrada cuesta poco; contra
+ * PostgreSQL en red la diferencia crece con la latencia.
+ * Ejecución: ver {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserCreateBenchmark {
+
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = UserEntity.class)
+    @EnableJpaRepositories(basePackageClasses = JpaUserRepository.class)
+    @Import({ AuditConfig.class, ClockConfig.class })
+    static class Persistence {
+    }
+
+    @Param({ "persist", "merge" })
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private JpaUserRepository users;
+    private long sequence;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Persistence.class)
+                .web(WebApplicationType.NONE)
+                // argumentos, no properties(): deben ganar a application.yaml
+                .run(
+                        "--spring.datasource.url=jdbc:h2:mem:user_create_bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn");
+        users = context.getBean(JpaUserRepository.class);
+    }
+
+    @Benchmark
+    public UserEntity create() {
+        long n = sequence++;
+        UserEntity user = UserEntity.builder()
+                .id(Generators.timeBasedEpochGenerator().generate())
+                .username("user" + n)
+                .email("user" + n + "@example.com")
+                .password("hash")
+                .build();
+        if (path.equals("merge")) {
+            // createdAt no nulo: isNew() = false, como antes de Persistable
+            user.setCreatedAt(LocalDateTime.now());
+        }
+        return users.save(user);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+}
@@ -0,0 +1,115 @@
+package io.app.expirytracker.benchmarks;
+
+import io.app.expirytracker.domain.model.PaginatedResult;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Coste de CPU de serializar y deserializar una página de 50 productos en cada
+ * formato que negocia {@code ProductController}. Los bytes en la red (en
+ * crudo y con gzip) salen en el informe de JMH como contadores auxiliares
+ * ({@code wireBytes} y {@code gzipBytes}) de cada formato.
+ * Ejecución: ver {@link BenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<PaginatedResult<Product>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Tamaño de la página codificada: un valor fijo por formato, no un
+     * recuento, así que cada operación lo asigna en lugar de acumularlo.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+
+        public long wireBytes;
+        public long gzipBytes;
+    }
+
+    @Param({ "json", "cbor", "smile" })
+    private String format;
+
+    private ObjectMapper mapper;
+    private PaginatedResult<Product> page;
+    private byte[] encoded;
+    private int gzipLength;
+
+    @Setup
+    public void setUp() {
+        mapper = switch (format) {
+            case "json" -> JsonMapper.builder().build();
+            case "cbor" -> CBORMapper.builder().build();
+            case "smile" -> SmileMapper.builder().build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        List<Product> products = IntStream.range(0, 50)
+                .mapToObj(i -> ProductBuilder.aProduct()
+                        .withEan13("84%011d".formatted(i))
+                        .withName("Yogur natural pack " + i)
+                        .withBatchNumber("L-2026-%04d".formatted(i))
+                        .withExpiryDate(LocalDate.of(2026, 11, 1).plusDays(i))
+                        .withQuantity(i * 3)
+                        .withCategory("Lácteos")
+                        .build())
+                .toList();
+        page = new PaginatedResult<>(products, 1_250, 25, 0, true, false);
+        encoded = mapper.writeValueAsBytes(page);
+        gzipLength = gzip(encoded).length;
+    }
+
+    @Benchmark
+    public byte[] serialize(WireSize size) {
+        size.wireBytes = encoded.length;
+        size.gzipBytes = gzipLength;
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return mapper.readValue(encoded, PAGE_TYPE);
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+}
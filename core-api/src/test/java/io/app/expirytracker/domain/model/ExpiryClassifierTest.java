@@ -0,0 +1,76 @@
+package io.app.expirytracker.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.app.expirytracker.domain.model.builders.ProductBuilder;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ExpiryClassifierTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+    private static final Clock CLOCK = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+
+    @Test
+    @DisplayName("Debería clasificar los bordes igual que isExpired e isAboutToExpire del producto")
+    void classify_shouldMatchProductPredicatesOnBoundaries() {
+        // Arrange
+        var yesterday = product(TODAY.minusDays(1), ProductStatus.ACTIVE);
+        var today = product(TODAY, ProductStatus.ACTIVE);
+        var lastWarningDay = product(TODAY.plusDays(6), ProductStatus.ACTIVE);
+        var firstSafeDay = product(TODAY.plusDays(7), ProductStatus.ACTIVE);
+        var soldSoon = product(TODAY.plusDays(1), ProductStatus.SOLD);
+        var products = List.of(yesterday, today, lastWarningDay, firstSafeDay, soldSoon);
+
+        // Act
+        var result = new ExpiryClassifier(CLOCK).classify(products, 7);
+
+        // Assert
+        assertThat(result.states()).containsExactly(ExpiryClassifier.EXPIRED, ExpiryClassifier.ABOUT_TO_EXPIRE,
+                ExpiryClassifier.ABOUT_TO_EXPIRE, ExpiryClassifier.VALID, ExpiryClassifier.VALID);
+        assertThat(result.expiredCount()).isEqualTo(1);
+        assertThat(result.aboutToExpireCount()).isEqualTo(2);
+        for (int i = 0; i < products.size(); i++) {
+            assertThat(result.isExpired(i)).isEqualTo(products.get(i).isExpired(TODAY));
+            assertThat(result.isAboutToExpire(i)).isEqualTo(products.get(i).isAboutToExpire(7, TODAY));
+        }
+    }
+
+    @Test
+    @DisplayName("En listas grandes (camino paralelo) debería coincidir con la evaluación producto a producto")
+    void classify_largeList_shouldMatchPerProductEvaluation() {
+        // Arrange
+        ProductStatus[] statuses = ProductStatus.values();
+        List<Product> products = IntStream.range(0, 50_000)
+                .mapToObj(i -> product(TODAY.plusDays(i % 40 - 10), statuses[i % statuses.length]))
+                .toList();
+
+        // Act
+        var result = ExpiryClassifier.classify(products, 14, TODAY);
+
+        // Assert
+        int expired = 0;
+        int aboutToExpire = 0;
+        for (int i = 0; i < products.size(); i++) {
+            boolean isExpired = products.get(i).isExpired(TODAY);
+            boolean isAboutToExpire = products.get(i).isAboutToExpire(14, TODAY);
+            assertThat(result.isExpired(i)).isEqualTo(isExpired);
+            assertThat(result.isAboutToExpire(i)).isEqualTo(isAboutToExpire);
+            expired += isExpired ? 1 : 0;
+            aboutToExpire += isAboutToExpire ? 1 : 0;
+        }
+        assertThat(result.expiredCount()).isEqualTo(expired);
+        assertThat(result.aboutToExpireCount()).isEqualTo(aboutToExpire);
+    }
+
+    private static Product product(LocalDate expiry, ProductStatus status) {
+        return ProductBuilder.aProduct().withExpiryDate(expiry).withStatus(status).build();
+    }
+}
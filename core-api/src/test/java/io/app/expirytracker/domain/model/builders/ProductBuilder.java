@@ -17,6 +17,7 @@ import java.util.UUID;
 public class ProductBuilder {
 
     private UUID id = UUID.randomUUID();
+    private String storeId = "default";
     private String ean13 = "1234567890123";
     private String name = "Default Product Name";
     private String batchNumber = "DEFAULT-BATCH-001";
@@ -45,6 +46,11 @@ public class ProductBuilder {
         return this;
     }
 
+    public ProductBuilder withStoreId(String storeId) {
+        this.storeId = storeId;
+        return this;
+    }
+
     public ProductBuilder withEan13(String ean13) {
         this.ean13 = ean13;
         return this;
@@ -88,6 +94,7 @@ public class ProductBuilder {
     public Product build() {
         return new Product(
                 id,
+                storeId,
                 ean13,
                 name,
                 batchNumber,
@@ -0,0 +1,119 @@
+package io.app.expirytracker.infrastructure.adapters.in.web;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort;
+import io.app.expirytracker.application.ports.out.ProductChangeFeedPort.PositionedChange;
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.services.ProductSyncService;
+import io.app.expirytracker.domain.model.ProductChange;
+import io.app.expirytracker.infrastructure.config.SecurityConfig;
+import io.app.expirytracker.infrastructure.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * El feed de cambios por HTTP, con la cadena de seguridad y los interceptores
+ * de tienda reales; solo la lectura de la base de datos es un doble.
+ */
+@WebMvcTest(ProductSyncController.class)
+@Import({ ProductSyncService.class, SecurityConfig.class, ProductSyncControllerTest.Metrics.class })
+@WithMockUser(authorities = { "ROLE_STAFF", "STORE_default" })
+class ProductSyncControllerTest {
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductChangeFeedPort changeFeedPort;
+
+    @MockitoBean
+    private StoreDirectoryPort storeDirectory;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        when(storeDirectory.exists("default")).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Un límite fuera de 1..1000 debería responder 400 sin leer el feed")
+    void changes_withLimitOutOfRange_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/changes").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products/changes").param("limit", "1001"))
+                .andExpect(status().isBadRequest());
+
+        verify(changeFeedPort, never()).findChangesAfter(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("El nextToken de una respuesta, enviado como since, debería continuar justo detrás del último cambio")
+    void changes_shouldRoundTripSinceToken() throws Exception {
+        // Arrange
+        var product = aProduct().build();
+        when(changeFeedPort.findChangesAfter(Long.MIN_VALUE, new UUID(0, 0), 3)).thenReturn(List.of(
+                new PositionedChange(ProductChange.of(product, LocalDateTime.of(2026, 10, 1, 9, 30)), 42L)));
+
+        // Act
+        String body = mockMvc.perform(get("/api/v1/products/changes").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].productId").value(product.id().toString()))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn().getResponse().getContentAsString();
+        String nextToken = JsonPath.read(body, "$.nextToken");
+
+        mockMvc.perform(get("/api/v1/products/changes").param("since", nextToken).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes").isEmpty())
+                .andExpect(jsonPath("$.nextToken").value(nextToken));
+
+        // Assert
+        verify(changeFeedPort).findChangesAfter(42L, product.id(), 3);
+    }
+
+    @Test
+    @DisplayName("Un since manipulado debería responder 400")
+    void changes_withMalformedSince_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/changes").param("since", "no-es-un-token"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,168 @@
+package io.app.expirytracker.infrastructure.adapters.out.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase.StockAdjustmentCommand;
+import io.app.expirytracker.application.ports.out.StockJournalPort.JournaledAdjustment;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalCheckpointEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.StockJournalStoreCheckpointEntity;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaStockJournalCheckpointRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaStockJournalStoreCheckpointRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class FileStockJournalAdapterTest {
+
+    private static final UUID LOT = UUID.fromString("0f8b7e0c-7d7a-4c59-9f3e-4c1c2b0d9a11");
+
+    @TempDir
+    private Path directory;
+
+    private final JpaStockJournalCheckpointRepository checkpoints = mock(JpaStockJournalCheckpointRepository.class);
+    private final JpaStockJournalStoreCheckpointRepository storeCheckpoints =
+            mock(JpaStockJournalStoreCheckpointRepository.class);
+
+    @Test
+    @DisplayName("Tras reabrir debería devolver solo lo registrado después de la marca, ignorando una entrada corrupta")
+    void recover_shouldReturnRecordsAfterCheckpointAndSkipCorruptEntry() throws IOException {
+        // Arrange: cada lote ocupa su propio segmento
+        var journal = open(false);
+        journal.append(1, "central", List.of(new StockAdjustmentCommand(LOT, -1), new StockAdjustmentCommand(LOT, -2)));
+        journal.append(3, "sucursal-2", List.of(new StockAdjustmentCommand(LOT, 5)));
+        journal.close();
+        try (FileChannel segment = FileChannel.open(segments().get(1), StandardOpenOption.WRITE)) {
+            segment.write(ByteBuffer.wrap(new byte[] { 0x7f }), 20);
+        }
+        when(checkpoints.findById("nodo-1")).thenReturn(Optional.of(new StockJournalCheckpointEntity("nodo-1", 1)));
+
+        // Act
+        var recovery = open(false).recover();
+
+        // Assert
+        assertThat(recovery.lastSequence()).isEqualTo(2);
+        assertThat(recovery.pending()).containsExactly(new JournaledAdjustment(2, "central", LOT, -2));
+    }
+
+    @Test
+    @DisplayName("Debería devolver lo posterior a la marca de cada tienda y seguir a la mayor secuencia usada")
+    void recover_shouldApplyEachStoreOwnCheckpoint() {
+        // Arrange: "norte" ya se aplicó más allá de lo que queda en el registro
+        var journal = open(false);
+        journal.append(1, "central", List.of(new StockAdjustmentCommand(LOT, -1)));
+        journal.append(2, "norte", List.of(new StockAdjustmentCommand(LOT, 4)));
+        journal.append(3, "central", List.of(new StockAdjustmentCommand(LOT, -3)));
+        journal.close();
+        when(checkpoints.findById("nodo-1")).thenReturn(Optional.empty());
+        when(storeCheckpoints.findByIdJournalId("nodo-1")).thenReturn(List.of(
+                new StockJournalStoreCheckpointEntity(new StockJournalStoreCheckpointEntity.Key("nodo-1", "central"), 1),
+                new StockJournalStoreCheckpointEntity(new StockJournalStoreCheckpointEntity.Key("nodo-1", "norte"), 9)));
+
+        // Act
+        var recovery = open(false).recover();
+
+        // Assert
+        assertThat(recovery.lastSequence()).isEqualTo(9);
+        assertThat(recovery.pending()).containsExactly(new JournaledAdjustment(3, "central", LOT, -3));
+    }
+
+    @Test
+    @DisplayName("Debería borrar los segmentos ya aplicados y reescribir el activo desde el principio")
+    void discardThrough_shouldDeleteAppliedSegmentsAndReuseActive() throws IOException {
+        // Arrange
+        var journal = open(false);
+        for (long sequence = 1; sequence <= 6; sequence++) {
+            journal.append(sequence, "central", List.of(new StockAdjustmentCommand(LOT, 1)));
+        }
+
+        // Act
+        journal.discardThrough(4);
+        int afterPartialDiscard = segments().size();
+        journal.discardThrough(6);
+        journal.append(7, "central", List.of(new StockAdjustmentCommand(LOT, 1)));
+        journal.close();
+
+        // Assert
+        assertThat(afterPartialDiscard).isEqualTo(2);
+        assertThat(segments()).hasSize(1);
+        when(checkpoints.findById("nodo-1")).thenReturn(Optional.empty());
+        assertThat(open(false).recover().pending()).extracting(JournaledAdjustment::sequence).containsExactly(7L);
+    }
+
+    @Test
+    @DisplayName("Con fsync, los anexos concurrentes deberían quedar todos registrados")
+    void append_withFsync_shouldPersistConcurrentAppends() throws Exception {
+        // Arrange
+        var journal = new FileStockJournalAdapter(checkpoints, storeCheckpoints, directory, "nodo-1", true,
+                DataSize.ofKilobytes(4));
+        var sequences = new AtomicLong();
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act
+        try (var executor = Executors.newFixedThreadPool(8)) {
+            for (int thread = 0; thread < 8; thread++) {
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        journal.append(sequences.incrementAndGet(), "central", List.of(new StockAdjustmentCommand(LOT, 1)));
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+        }
+        journal.close();
+
+        // Assert
+        when(checkpoints.findById("nodo-1")).thenReturn(Optional.empty());
+        assertThat(open(false).recover().pending()).hasSize(400)
+                .extracting(JournaledAdjustment::sequence).doesNotHaveDuplicates();
+    }
+
+    @Test
+    @DisplayName("Sin id, o con otro id sobre un directorio ya usado, no debería arrancar")
+    void shouldRefuseToOpenWithoutTheDirectoryOwnId() {
+        // Act & Assert
+        assertThatThrownBy(() -> new FileStockJournalAdapter(checkpoints, storeCheckpoints, directory, " ", false,
+                DataSize.ofBytes(100)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("journal.id");
+        open(false).close();
+        assertThatThrownBy(() -> new FileStockJournalAdapter(checkpoints, storeCheckpoints, directory, "nodo-2", false,
+                DataSize.ofBytes(100)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("nodo-1");
+        open(false).close();
+    }
+
+    private FileStockJournalAdapter open(boolean fsync) {
+        return new FileStockJournalAdapter(checkpoints, storeCheckpoints, directory, "nodo-1", fsync,
+                DataSize.ofBytes(100));
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> !file.endsWith(FileStockJournalAdapter.ID_FILE)).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import io.app.expirytracker.application.services.BusinessDateService;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ JpaProductBulkImportAdapter.class, ProductPersistenceAdapter.class, ProductMapper.class,
+        ProductJdbcRepository.class, AuditConfig.class, BusinessDateService.class, ClockConfig.class })
+class JpaProductBulkImportAdapterTest {
+
+    @Autowired
+    private JpaProductBulkImportAdapter bulkImportAdapter;
+
+    @Autowired
+    private ProductPersistenceAdapter productPersistenceAdapter;
+
+    @Autowired
+    private JpaProductRepository jpaProductRepository;
+
+    @Test
+    @DisplayName("Debería importar los lotes nuevos y omitir los ya existentes o repetidos en la carga")
+    void shouldImportNewBatchesAndSkipDuplicates() {
+        // Arrange
+        var existing = aProduct().withEan13("7790001000011").withBatchNumber("L-001").build();
+        productPersistenceAdapter.save(existing);
+
+        var sameKeyAsExisting = aProduct().withEan13("7790001000011").withBatchNumber("L-001").build();
+        var newBatch = aProduct().withEan13("7790001000011").withBatchNumber("L-002").build();
+        var repeatedInLoad = aProduct().withEan13("7790001000011").withBatchNumber("L-002").build();
+        var otherEan = aProduct().withEan13("7790001000028").withBatchNumber("L-001").build();
+
+        // Act
+        int imported = bulkImportAdapter.importAll(List.of(sameKeyAsExisting, newBatch, repeatedInLoad, otherEan));
+
+        // Assert
+        assertThat(imported).isEqualTo(2);
+        assertThat(jpaProductRepository.count()).isEqualTo(3);
+        assertThat(jpaProductRepository.findById(newBatch.id())).isPresent();
+        assertThat(jpaProductRepository.findById(repeatedInLoad.id())).isNotPresent();
+    }
+}
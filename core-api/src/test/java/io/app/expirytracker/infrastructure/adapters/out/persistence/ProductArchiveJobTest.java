@@ -0,0 +1,71 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import io.app.expirytracker.application.services.BusinessDateService;
+import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductSearchCriteria;
+import io.app.expirytracker.domain.model.ProductStatus;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductArchiveJdbcRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ ProductArchiveJob.class, ProductArchiveJdbcRepository.class, ProductPersistenceAdapter.class,
+        ProductMapper.class, ProductJdbcRepository.class, AuditConfig.class, BusinessDateService.class, ClockConfig.class })
+class ProductArchiveJobTest {
+
+    @Autowired
+    private ProductArchiveJob archiveJob;
+
+    @Autowired
+    private ProductPersistenceAdapter productPersistenceAdapter;
+
+    @Autowired
+    private JpaProductRepository jpaProductRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Debería archivar solo los lotes retirados antiguos y seguir encontrándolos por estado")
+    void archive_shouldMoveOldRetiredBatchesAndKeepThemSearchable() {
+        // Arrange
+        var oldDiscarded = productPersistenceAdapter.save(
+                aProduct().withBatchNumber("L-ARC1").withStatus(ProductStatus.DISCARDED).build());
+        var recentDiscarded = productPersistenceAdapter.save(
+                aProduct().withBatchNumber("L-ARC2").withStatus(ProductStatus.DISCARDED).build());
+        var oldActive = productPersistenceAdapter.save(aProduct().withBatchNumber("L-ARC3").build());
+        jpaProductRepository.flush();
+        var longAgo = LocalDateTime.now().minusYears(1);
+        jdbcTemplate.update("UPDATE products SET updated_at = ? WHERE batch_number IN ('L-ARC1', 'L-ARC3')", longAgo);
+
+        // Act
+        int archived = archiveJob.archive(LocalDateTime.now().minusDays(90));
+        var discarded = productPersistenceAdapter.findByCriteria(new ProductSearchCriteria(
+                null, null, null, null, null, null, null, ProductStatus.DISCARDED, 0, 10, null));
+
+        // Assert
+        assertThat(archived).isEqualTo(1);
+        assertThat(jpaProductRepository.existsById(oldDiscarded.id())).isFalse();
+        assertThat(jpaProductRepository.existsById(oldActive.id())).isTrue();
+        assertThat(discarded.data()).extracting(Product::id)
+                .containsExactlyInAnyOrder(oldDiscarded.id(), recentDiscarded.id());
+        assertThat(discarded.totalElements()).isEqualTo(2);
+    }
+}
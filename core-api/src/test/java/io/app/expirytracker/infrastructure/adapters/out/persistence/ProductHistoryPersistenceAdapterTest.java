@@ -0,0 +1,110 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import io.app.expirytracker.application.services.BusinessDateService;
+import io.app.expirytracker.domain.model.ProductChangeType;
+import io.app.expirytracker.domain.model.ProductHistoryEntry;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductHistoryJdbcRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ ProductHistoryPersistenceAdapter.class, ProductHistoryJdbcRepository.class,
+        ProductHistoryPartitionManager.class, ProductPersistenceAdapter.class, ProductMapper.class,
+        ProductJdbcRepository.class, AuditConfig.class, BusinessDateService.class, ClockConfig.class })
+class ProductHistoryPersistenceAdapterTest {
+
+    @Autowired
+    private ProductHistoryPersistenceAdapter historyAdapter;
+
+    @Autowired
+    private ProductPersistenceAdapter productPersistenceAdapter;
+
+    @Autowired
+    private JpaProductRepository jpaProductRepository;
+
+    @Autowired
+    private ProductHistoryJdbcRepository historyJdbcRepository;
+
+    @Test
+    @DisplayName("Debería copiar el estado vigente de un lote y devolver su historial del más reciente al más antiguo")
+    void recordCurrentState_shouldCopyRowAndListNewestFirst() {
+        // Arrange
+        var product = productPersistenceAdapter.save(aProduct().withQuantity(5).build());
+        jpaProductRepository.flush();
+
+        // Act
+        historyAdapter.recordCurrentState(Set.of(product.id()), ProductChangeType.UPSERT);
+        historyAdapter.record(List.of(product), ProductChangeType.UPDATE);
+        List<ProductHistoryEntry> history = historyAdapter.findByProductId(product.id(), 10);
+
+        // Assert
+        assertThat(history).hasSize(2);
+        assertThat(history).extracting(ProductHistoryEntry::changeType)
+                .containsExactly(ProductChangeType.UPDATE, ProductChangeType.UPSERT);
+        assertThat(history).allSatisfy(entry -> {
+            assertThat(entry.quantity()).isEqualTo(5);
+            assertThat(entry.ean13()).isEqualTo(product.ean13());
+            assertThat(entry.changedBy()).isEqualTo("SYSTEM");
+        });
+    }
+
+    @Test
+    @DisplayName("Por clave de negocio solo debería copiar los lotes ACTIVOS existentes")
+    void recordCurrentStateByKeys_shouldCopyOnlyExistingActiveBatches() {
+        // Arrange
+        var existing = productPersistenceAdapter.save(aProduct().withEan13("7791234000031").withBatchNumber("L-H1").build());
+        jpaProductRepository.flush();
+        var unknown = aProduct().withEan13("7791234000031").withBatchNumber("L-H2").build();
+
+        // Act
+        historyAdapter.recordCurrentStateByKeys(List.of(existing, unknown), ProductChangeType.UPSERT);
+
+        // Assert
+        assertThat(historyAdapter.findByProductId(existing.id(), 10)).hasSize(1);
+        assertThat(historyAdapter.findByProductId(unknown.id(), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Los cambios de una ventana deberían recorrerse por (changedAt, id) sin repetir ni saltar entradas")
+    void findChanges_shouldPageThroughWindowWithCursor() {
+        // Arrange
+        var products = List.of("L-W1", "L-W2", "L-W3").stream()
+                .map(batch -> productPersistenceAdapter.save(aProduct().withBatchNumber(batch).build()))
+                .toList();
+        jpaProductRepository.flush();
+        var changedAt = LocalDateTime.of(2026, 3, 1, 10, 0);
+        // La transacción que selló más tarde toma su ID antes: el ID no sigue el orden de la ventana
+        historyJdbcRepository.insertAll(List.of(products.get(0)), ProductChangeType.UPDATE, changedAt.plusSeconds(2), "ana");
+        historyJdbcRepository.insertAll(products.subList(1, 3), ProductChangeType.UPDATE, changedAt, "luis");
+        var from = changedAt.minusMinutes(1);
+        var to = changedAt.plusMinutes(1);
+
+        // Act
+        List<ProductHistoryEntry> first = historyAdapter.findChanges(from, to, from, 0, 2);
+        var last = first.get(1);
+        List<ProductHistoryEntry> second = historyAdapter.findChanges(from, to, last.changedAt(), last.id(), 2);
+        List<ProductHistoryEntry> outside = historyAdapter.findChanges(to, to.plusHours(1), to, 0, 10);
+
+        // Assert
+        assertThat(first).extracting(ProductHistoryEntry::batchNumber).containsExactlyInAnyOrder("L-W2", "L-W3");
+        assertThat(second).extracting(ProductHistoryEntry::batchNumber).containsExactly("L-W1");
+        assertThat(outside).isEmpty();
+    }
+}
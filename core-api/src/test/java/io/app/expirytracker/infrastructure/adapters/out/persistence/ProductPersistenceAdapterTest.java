@@ -1,9 +1,16 @@
 package io.app.expirytracker.infrastructure.adapters.out.persistence;
 
+import io.app.expirytracker.application.services.BusinessDateService;
+import io.app.expirytracker.application.tenancy.StoreContext;
 import io.app.expirytracker.domain.model.Product;
+import io.app.expirytracker.domain.model.ProductSearchCriteria;
+import io.app.expirytracker.domain.model.ProductSort;
 import io.app.expirytracker.domain.model.ProductStatus;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.ProductMapper;
 import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.JpaProductRepository;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.repositories.ProductJdbcRepository;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,15 +18,19 @@ import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @ActiveProfiles("test")
-@Import({ ProductPersistenceAdapter.class, ProductMapper.class })
+@Import({ ProductPersistenceAdapter.class, ProductMapper.class, ProductJdbcRepository.class, AuditConfig.class,
+        BusinessDateService.class, ClockConfig.class })
 class ProductPersistenceAdapterTest {
 
     @Autowired
@@ -45,7 +56,7 @@ class ProductPersistenceAdapterTest {
         assertThat(foundProductOpt).isPresent();
         var foundProduct = foundProductOpt.get();
 
-        assertThat(foundProduct).usingRecursiveComparison().isEqualTo(productToSave);
+        assertThat(foundProduct).usingRecursiveComparison().ignoringFields("version").isEqualTo(productToSave);
     }
 
     @Test
@@ -85,4 +96,157 @@ class ProductPersistenceAdapterTest {
         // Assert
         assertThat(foundProductOpt).isNotPresent();
     }
+
+    @Test
+    @DisplayName("findAllById debería devolver en una consulta solo los productos activos solicitados")
+    void findAllById_shouldReturnOnlyRequestedActiveProducts() {
+        // Arrange
+        var active = aProduct().withBatchNumber("L-ANY-1").build();
+        var other = aProduct().withBatchNumber("L-ANY-2").build();
+        var discarded = aProduct().withBatchNumber("L-ANY-3").withStatus(ProductStatus.DISCARDED).build();
+        productPersistenceAdapter.save(active);
+        productPersistenceAdapter.save(other);
+        productPersistenceAdapter.save(discarded);
+        jpaProductRepository.flush();
+
+        // Act
+        List<Product> found = productPersistenceAdapter.findAllById(
+                List.of(active.id(), discarded.id(), UUID.randomUUID()));
+
+        // Assert
+        assertThat(found).extracting(Product::id).containsExactly(active.id());
+    }
+
+    @Test
+    @DisplayName("findByEan13 debería devolver los lotes activos del EAN en orden FEFO")
+    void findByEan13_shouldReturnActiveBatchesInFefoOrder() {
+        // Arrange
+        var ean = "7790001000019";
+        var later = aProduct().withEan13(ean).withBatchNumber("L-B").withExpiryDate(LocalDate.of(2030, 3, 1)).build();
+        var sooner = aProduct().withEan13(ean).withBatchNumber("L-C").withExpiryDate(LocalDate.of(2030, 1, 1)).build();
+        var sameDay = aProduct().withEan13(ean).withBatchNumber("L-A").withExpiryDate(LocalDate.of(2030, 3, 1)).build();
+        var discarded = aProduct().withEan13(ean).withBatchNumber("L-0").withExpiryDate(LocalDate.of(2029, 1, 1))
+                .withStatus(ProductStatus.DISCARDED).build();
+        List.of(later, sooner, sameDay, discarded).forEach(productPersistenceAdapter::save);
+        jpaProductRepository.flush();
+
+        // Act
+        List<Product> batches = productPersistenceAdapter.findByEan13(ean);
+
+        // Assert
+        assertThat(batches).extracting(Product::batchNumber).containsExactly("L-C", "L-A", "L-B");
+    }
+
+    @Test
+    @DisplayName("findByCriteria debería ordenar por el campo pedido y desempatar por ID entre páginas")
+    void findByCriteria_shouldSortWithIdTieBreaker() {
+        // Arrange
+        var a = aProduct().withBatchNumber("L-S1").withQuantity(5).build();
+        var b = aProduct().withBatchNumber("L-S2").withQuantity(9).build();
+        var c = aProduct().withBatchNumber("L-S3").withQuantity(5).build();
+        List.of(a, b, c).forEach(productPersistenceAdapter::save);
+        jpaProductRepository.flush();
+        var sort = new ProductSort(ProductSort.Field.QUANTITY, true);
+
+        // Act
+        var firstPage = productPersistenceAdapter.findByCriteria(
+                new ProductSearchCriteria(null, null, null, null, null, null, null, null, 0, 2, sort));
+        var secondPage = productPersistenceAdapter.findByCriteria(
+                new ProductSearchCriteria(null, null, null, null, null, null, null, null, 1, 2, sort));
+
+        // Assert
+        // Los empatados (a y c) se reparten entre páginas sin repetirse ni perderse
+        assertThat(firstPage.data()).hasSize(2);
+        assertThat(firstPage.data().get(0).id()).isEqualTo(b.id());
+        assertThat(List.of(firstPage.data().get(1).id(), secondPage.data().get(0).id()))
+                .containsExactlyInAnyOrder(a.id(), c.id());
+    }
+
+    @Test
+    @DisplayName("upsert debería insertar un lote nuevo y actualizarlo conservando su ID en la segunda llamada")
+    void upsert_shouldInsertThenUpdateByBusinessKey() {
+        // Arrange
+        var first = aProduct().withEan13("7791234000017").withBatchNumber("L-UPS").withQuantity(5).build();
+        var second = aProduct().withEan13("7791234000017").withBatchNumber("L-UPS").withQuantity(42)
+                .withName("Nombre Actualizado").build();
+
+        // Act
+        Optional<Product> inserted = productPersistenceAdapter.upsert(first);
+        Optional<Product> updated = productPersistenceAdapter.upsert(second);
+
+        // Assert
+        assertThat(inserted).isPresent();
+        assertThat(updated).isPresent();
+        assertThat(updated.get().id()).isEqualTo(first.id());
+        assertThat(updated.get().quantity()).isEqualTo(42);
+        assertThat(updated.get().name()).isEqualTo("Nombre Actualizado");
+    }
+
+    @Test
+    @DisplayName("upsert no debería modificar un lote que no está activo")
+    void upsert_shouldNotModifyInactiveBatch() {
+        // Arrange
+        var discarded = aProduct().withEan13("7791234000024").withBatchNumber("L-DIS").withQuantity(3)
+                .withStatus(ProductStatus.DISCARDED).build();
+        jpaProductRepository.saveAndFlush(new ProductMapper().toEntity(discarded));
+        var incoming = aProduct().withEan13("7791234000024").withBatchNumber("L-DIS").withQuantity(99).build();
+
+        // Act
+        Optional<Product> result = productPersistenceAdapter.upsert(incoming);
+        int applied = productPersistenceAdapter.upsertAll(List.of(incoming));
+
+        // Assert
+        assertThat(result).isNotPresent();
+        assertThat(applied).isZero();
+    }
+
+    @Test
+    @DisplayName("update debería aplicarse con la versión vigente y rechazar una versión obsoleta")
+    void update_shouldApplyCurrentVersionAndRejectStaleVersion() {
+        // Arrange
+        var saved = productPersistenceAdapter.save(aProduct().withQuantity(5).build());
+        jpaProductRepository.flush();
+        var stale = productPersistenceAdapter.findById(saved.id()).orElseThrow();
+
+        // Act
+        Optional<Product> first = productPersistenceAdapter.update(withQuantity(stale, 7));
+        Optional<Product> second = productPersistenceAdapter.update(withQuantity(stale, 9));
+
+        // Assert
+        assertThat(first).isPresent();
+        assertThat(first.get().version()).isEqualTo(stale.version() + 1);
+        assertThat(second).isNotPresent();
+        assertThat(productPersistenceAdapter.findById(saved.id()).orElseThrow().quantity()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("El mismo EAN-13 + Lote debería poder existir en dos tiendas, cada una viendo solo el suyo")
+    void upsert_shouldScopeBusinessKeyAndQueriesByStore() {
+        // Arrange
+        var central = aProduct().withStoreId("central").withEan13("7791234000031").withBatchNumber("L-MT")
+                .withQuantity(4).build();
+        var branch = aProduct().withStoreId("sucursal-2").withEan13("7791234000031").withBatchNumber("L-MT")
+                .withQuantity(9).build();
+
+        // Act
+        Optional<Product> centralSaved = productPersistenceAdapter.upsert(central);
+        Optional<Product> branchSaved = productPersistenceAdapter.upsert(branch);
+        List<Product> seenByBranch = StoreContext.callAs("sucursal-2",
+                () -> productPersistenceAdapter.findByEan13("7791234000031"));
+        Optional<Product> centralFromBranch = StoreContext.callAs("sucursal-2",
+                () -> productPersistenceAdapter.findById(central.id()));
+
+        // Assert
+        assertThat(centralSaved).isPresent();
+        assertThat(branchSaved).isPresent();
+        assertThat(branchSaved.get().id()).isEqualTo(branch.id());
+        assertThat(seenByBranch).extracting(Product::id, Product::quantity).containsExactly(
+                tuple(branch.id(), 9));
+        assertThat(centralFromBranch).isNotPresent();
+    }
+
+    private static Product withQuantity(Product product, int quantity) {
+        return new Product(product.id(), product.storeId(), product.ean13(), product.name(), product.batchNumber(),
+                product.expiryDate(), quantity, product.category(), product.status(), product.version());
+    }
 }
@@ -0,0 +1,40 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.app.expirytracker.domain.model.ProductSort;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.entities.ProductEntity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ProductSortIndexTest {
+
+    @Test
+    @DisplayName("Cada orden permitido debería estar respaldado por un índice declarado en la entidad")
+    void everySortField_shouldHaveDeclaredIndex() {
+        Map<String, String> declared = Arrays.stream(ProductEntity.class.getAnnotation(Table.class).indexes())
+                .collect(Collectors.toMap(Index::name, Index::columnList));
+
+        for (ProductSort.Field field : ProductSort.Field.values()) {
+            ProductSortIndex index = ProductSortIndex.of(field);
+            assertThat(declared).containsEntry(index.indexName(), index.columnList());
+        }
+    }
+
+    @Test
+    @DisplayName("Debería rechazar órdenes fuera de la lista permitida")
+    void parse_shouldRejectUnlistedSort() {
+        assertThat(ProductSort.parse("quantity,desc")).isEqualTo(new ProductSort(ProductSort.Field.QUANTITY, true));
+        assertThat(ProductSort.parse(null)).isEqualTo(ProductSort.DEFAULT);
+        assertThatThrownBy(() -> ProductSort.parse("category")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProductSort.parse("name,sideways")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
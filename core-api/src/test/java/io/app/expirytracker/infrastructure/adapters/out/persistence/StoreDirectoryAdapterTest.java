@@ -0,0 +1,59 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.domain.model.User;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.UserMapper;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ StoreDirectoryAdapter.class, UserPersistenceAdapter.class, UserMapper.class, AuditConfig.class,
+        ClockConfig.class })
+@TestPropertySource(properties = "expiry-tracker.tenancy.store-directory-ttl=PT1H")
+class StoreDirectoryAdapterTest {
+
+    @Autowired
+    private StoreDirectoryAdapter storeDirectory;
+
+    @Autowired
+    private UserPersistenceAdapter userPersistenceAdapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Una tienda asignada después de cargar el directorio debería reconocerse sin esperar al TTL")
+    void exists_shouldRecheckStoresMissingFromSnapshot() {
+        // Arrange: el directorio ya recuerda "central"
+        saveUser("ana", Set.of("central"));
+        assertThat(storeDirectory.findStoreIds()).containsExactly("central");
+
+        // Act: se asigna una tienda nueva sin invalidar el directorio
+        saveUser("luis", Set.of("norte"));
+
+        // Assert
+        assertThat(storeDirectory.exists("norte")).isTrue();
+        assertThat(storeDirectory.exists("fantasma")).isFalse();
+        assertThat(storeDirectory.findStoreIds()).containsExactlyInAnyOrder("central", "norte");
+    }
+
+    private void saveUser(String username, Set<String> stores) {
+        userPersistenceAdapter.save(new User(UUID.randomUUID(), username, username + "@example.com", "hash",
+                Role.STAFF, stores));
+        entityManager.flush();
+    }
+}
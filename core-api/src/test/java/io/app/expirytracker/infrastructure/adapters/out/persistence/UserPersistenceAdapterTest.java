@@ -0,0 +1,75 @@
+package io.app.expirytracker.infrastructure.adapters.out.persistence;
+
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.domain.model.User;
+import io.app.expirytracker.infrastructure.adapters.out.persistence.mappers.UserMapper;
+import io.app.expirytracker.infrastructure.config.AuditConfig;
+import io.app.expirytracker.infrastructure.config.ClockConfig;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ UserPersistenceAdapter.class, UserMapper.class, AuditConfig.class, ClockConfig.class })
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class UserPersistenceAdapterTest {
+
+    @Autowired
+    private UserPersistenceAdapter userPersistenceAdapter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Crear un usuario con ID asignado por la aplicación debería emitir solo los INSERT")
+    void save_shouldInsertWithoutPreviousSelect() {
+        // Arrange
+        var user = new User(UUID.randomUUID(), "maria", "maria@example.com", "hash");
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        var saved = userPersistenceAdapter.save(user);
+        entityManager.flush();
+
+        // Assert
+        assertThat(saved.id()).isEqualTo(user.id());
+        // INSERT del usuario + INSERT de su tienda en user_stores, sin SELECT previo
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionRecreateCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Reemplazar las tiendas de un usuario debería conservar las comunes y persistir el cambio")
+    void updateStores_shouldReplaceStoresOfLoadedUser() {
+        // Arrange
+        var user = userPersistenceAdapter.save(new User(UUID.randomUUID(), "maria", "maria@example.com", "hash",
+                Role.STAFF, Set.of("default", "centro")));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var updated = userPersistenceAdapter.updateStores(user.id(), Set.of("default", "norte"));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertThat(updated).map(User::stores).contains(Set.of("default", "norte"));
+        assertThat(userPersistenceAdapter.findById(user.id())).map(User::stores).contains(Set.of("default", "norte"));
+        assertThat(userPersistenceAdapter.updateStores(UUID.randomUUID(), Set.of("norte"))).isEmpty();
+    }
+}
\ No newline at end of file
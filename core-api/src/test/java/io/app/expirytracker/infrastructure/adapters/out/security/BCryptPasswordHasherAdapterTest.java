@@ -0,0 +1,42 @@
+package io.app.expirytracker.infrastructure.adapters.out.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BCryptPasswordHasherAdapterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Debería generar un hash verificable y distinto de la contraseña")
+    void shouldHashAndVerifyPassword() {
+        // Arrange
+        var hasher = new BCryptPasswordHasherAdapter(meterRegistry, 1, 4, 6, 1, 4, 5000);
+
+        // Act
+        String hash = hasher.hash("secreto-123");
+
+        // Assert
+        assertThat(hash).isNotEqualTo("secreto-123").startsWith("$2");
+        assertThat(hasher.matches("secreto-123", hash)).isTrue();
+        assertThat(hasher.matches("otra-clave", hash)).isFalse();
+        assertThat(meterRegistry.get("expiry.password.hashing").tag("operation", "hash").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La calibración debería respetar el rango de coste y pedir rehash de hashes más débiles")
+    void calibration_shouldStayWithinBounds() {
+        // Arrange: un objetivo inalcanzable fuerza el coste mínimo; uno holgado, el máximo
+        var fast = new BCryptPasswordHasherAdapter(meterRegistry, 0, 4, 6, 1, 4, 5000);
+        var slow = new BCryptPasswordHasherAdapter(meterRegistry, 60_000, 4, 6, 1, 4, 5000);
+
+        // Assert
+        assertThat(fast.cost()).isEqualTo(4);
+        assertThat(slow.cost()).isEqualTo(6);
+        assertThat(slow.needsRehash(fast.hash("secreto-123"))).isTrue();
+    }
+}
@@ -0,0 +1,188 @@
+package io.app.expirytracker.infrastructure.config;
+
+import static io.app.expirytracker.domain.model.builders.ProductBuilder.aProduct;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.app.expirytracker.application.ports.in.AdjustStockUseCase;
+import io.app.expirytracker.application.ports.in.AssignUserRoleUseCase;
+import io.app.expirytracker.application.ports.in.AssignUserStoresUseCase;
+import io.app.expirytracker.application.ports.in.CreateProductUseCase;
+import io.app.expirytracker.application.ports.in.CreateUserUseCase;
+import io.app.expirytracker.application.ports.in.DeleteProductUseCase;
+import io.app.expirytracker.application.ports.in.FindProductUseCase;
+import io.app.expirytracker.application.ports.in.ImportProductsUseCase;
+import io.app.expirytracker.application.ports.in.PickStockUseCase;
+import io.app.expirytracker.application.ports.in.StoreAvailabilityUseCase;
+import io.app.expirytracker.application.ports.in.UpdateProductUseCase;
+import io.app.expirytracker.application.ports.in.UpsertProductUseCase;
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.domain.model.User;
+import io.app.expirytracker.infrastructure.adapters.in.web.ProductController;
+import io.app.expirytracker.infrastructure.adapters.in.web.UserController;
+import io.app.expirytracker.infrastructure.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+/**
+ * Reglas de rol de la cadena de seguridad sobre los controladores reales: las
+ * rutas de encargado deben ser alcanzables por un MANAGER y cerradas a STAFF.
+ */
+@WebMvcTest({ ProductController.class, UserController.class })
+@Import({ SecurityConfig.class, SecurityConfigTest.Metrics.class })
+class SecurityConfigTest {
+
+    private static final String IMPORT_BODY = """
+            {"products":[{"ean13":"7790000000001","name":"Leche","batchNumber":"L1",
+            "expiryDate":"2026-12-01","quantity":5,"category":"Lácteos"}]}""";
+    private static final String UPSERT_BODY = """
+            {"name":"Leche","expiryDate":"2099-12-01","quantity":5,"category":"Lácteos"}""";
+    private static final String UPSERT_BATCH_BODY = """
+            {"products":[{"ean13":"7790000000001","name":"Leche","batchNumber":"L1",
+            "expiryDate":"2099-12-01","quantity":5,"category":"Lácteos"}]}""";
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private CreateProductUseCase createProductUseCase;
+    @MockitoBean
+    private FindProductUseCase findProductUseCase;
+    @MockitoBean
+    private UpdateProductUseCase updateProductUseCase;
+    @MockitoBean
+    private DeleteProductUseCase deleteProductUseCase;
+    @MockitoBean
+    private ImportProductsUseCase importProductsUseCase;
+    @MockitoBean
+    private UpsertProductUseCase upsertProductUseCase;
+    @MockitoBean
+    private AdjustStockUseCase adjustStockUseCase;
+    @MockitoBean
+    private PickStockUseCase pickStockUseCase;
+    @MockitoBean
+    private StoreAvailabilityUseCase storeAvailabilityUseCase;
+    @MockitoBean
+    private CreateUserUseCase createUserUseCase;
+    @MockitoBean
+    private AssignUserRoleUseCase assignUserRoleUseCase;
+    @MockitoBean
+    private AssignUserStoresUseCase assignUserStoresUseCase;
+    @MockitoBean
+    private StoreDirectoryPort storeDirectory;
+    @MockitoBean
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        when(storeDirectory.exists("default")).thenReturn(true);
+        when(upsertProductUseCase.upsert(any())).thenReturn(aProduct().build());
+    }
+
+    @Test
+    @WithMockUser(authorities = { "ROLE_MANAGER", "STORE_default" })
+    @DisplayName("Un MANAGER debería poder importar, dar de baja y reemplazar por clave")
+    void managerRoutes_withManager_shouldReachControllers() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(post("/api/v1/products/import").contentType(MediaType.APPLICATION_JSON).content(IMPORT_BODY))
+                .andExpect(status().isCreated());
+        mockMvc.perform(delete("/api/v1/products/{id}", id))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(put("/api/v1/products/by-key/{ean}/{batch}", "7790000000001", "L1")
+                .contentType(MediaType.APPLICATION_JSON).content(UPSERT_BODY))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/v1/products/by-key").contentType(MediaType.APPLICATION_JSON).content(UPSERT_BATCH_BODY))
+                .andExpect(status().isOk());
+
+        verify(importProductsUseCase).importAll(any());
+        verify(deleteProductUseCase).delete(id);
+        verify(upsertProductUseCase).upsert(any());
+        verify(upsertProductUseCase).upsertAll(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = { "ROLE_STAFF", "STORE_default" })
+    @DisplayName("STAFF debería recibir 403 en las rutas de encargado")
+    void managerRoutes_withStaff_shouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/products/import").contentType(MediaType.APPLICATION_JSON).content(IMPORT_BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/v1/products/{id}", UUID.randomUUID()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/v1/users/{id}/role", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"MANAGER\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/v1/users/{id}/stores", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON).content("{\"stores\":[\"norte\"]}"))
+                .andExpect(status().isForbidden());
+
+        verify(importProductsUseCase, never()).importAll(any());
+        verify(assignUserRoleUseCase, never()).assignRole(any(), any());
+        verify(assignUserStoresUseCase, never()).assignStores(any(), any());
+    }
+
+    @Test
+    @WithMockUser(authorities = { "ROLE_MANAGER", "STORE_default" })
+    @DisplayName("Un MANAGER debería poder nombrar a otro encargado")
+    void assignRole_withManager_shouldPromoteUser() throws Exception {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(assignUserRoleUseCase.assignRole(id, Role.MANAGER)).thenReturn(
+                new User(id, "lucia", "lucia@example.com", "hash", Role.MANAGER, Set.of("default")));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/users/{id}/role", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"role\":\"MANAGER\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("MANAGER"));
+    }
+
+    @Test
+    @WithMockUser(authorities = { "ROLE_MANAGER", "STORE_default" })
+    @DisplayName("Un MANAGER debería poder asignar tiendas a un usuario")
+    void assignStores_withManager_shouldReplaceStores() throws Exception {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(assignUserStoresUseCase.assignStores(id, Set.of("default", "norte"))).thenReturn(
+                new User(id, "lucia", "lucia@example.com", "hash", Role.STAFF, Set.of("default", "norte")));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/v1/users/{id}/stores", id)
+                .contentType(MediaType.APPLICATION_JSON).content("{\"stores\":[\"default\",\"norte\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stores.length()").value(2));
+    }
+}
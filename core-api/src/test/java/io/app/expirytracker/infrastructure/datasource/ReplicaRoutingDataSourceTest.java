@@ -0,0 +1,145 @@
+package io.app.expirytracker.infrastructure.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Dos bases H2 en memoria hacen de primario y réplica; cada una responde con
+ * su nombre para saber a cuál fue la consulta.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private ReadYourWritesTracker tracker;
+    private ReadYourWritesInterceptor interceptor;
+    private Counter stickyRequests;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary", "jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1");
+        replica = pool("replica-1", "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(primary).execute("CREATE TABLE node (name VARCHAR(20)); INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE node (name VARCHAR(20)); INSERT INTO node VALUES ('replica');"
+                + "CREATE TABLE replica_lag (seconds DOUBLE); INSERT INTO replica_lag VALUES (0)");
+
+        tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), 1_000);
+        var meterRegistry = new SimpleMeterRegistry();
+        stickyRequests = meterRegistry.counter("expiry.datasource.reads.sticky");
+        interceptor = new ReadYourWritesInterceptor(tracker, stickyRequests);
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), "SELECT seconds FROM replica_lag",
+                Duration.ofSeconds(2), meterRegistry);
+        var proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+
+        var transactionManager = new DataSourceTransactionManager(proxy);
+        jdbc = new JdbcTemplate(proxy);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        routing.close();
+        primary.close();
+    }
+
+    @Test
+    @DisplayName("Las lecturas deberían ir a la réplica sana y las escrituras al primario")
+    void shouldRouteReadOnlyTransactionsToHealthyReplica() {
+        // Hasta la primera medición la réplica no está en rotación
+        assertThat(nodeIn(readOnlyTransaction)).isEqualTo("primary");
+
+        routing.checkReplicas();
+
+        assertThat(nodeIn(readOnlyTransaction)).isEqualTo("replica");
+        assertThat(nodeIn(readWriteTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Una réplica con más retraso del permitido debería quedar fuera de la rotación")
+    void shouldFallBackToPrimary_whenReplicaLagsTooMuch() {
+        // Arrange
+        new JdbcTemplate(replica).update("UPDATE replica_lag SET seconds = 30");
+
+        // Act
+        routing.checkReplicas();
+
+        // Assert
+        assertThat(nodeIn(readOnlyTransaction)).isEqualTo("primary");
+    }
+
+    @Test
+    @DisplayName("Un cliente que acaba de escribir debería leer del primario")
+    void shouldReadFromPrimary_whenClientWroteRecently() {
+        // Arrange
+        routing.checkReplicas();
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("ana", null, List.of()));
+        assertThat(nodeInRequest(readOnlyTransaction)).isEqualTo("replica");
+
+        // Act
+        tracker.recordWrite("ana");
+
+        // Assert
+        assertThat(nodeInRequest(readOnlyTransaction)).isEqualTo("primary");
+        assertThat(stickyRequests.count()).isEqualTo(1);
+        // La marca no sobrevive a la petición
+        assertThat(nodeIn(readOnlyTransaction)).isEqualTo("replica");
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("luis", null, List.of()));
+        assertThat(nodeInRequest(readOnlyTransaction)).isEqualTo("replica");
+    }
+
+    private String nodeInRequest(TransactionTemplate transaction) {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, null);
+        try {
+            return nodeIn(transaction);
+        } finally {
+            interceptor.afterCompletion(request, response, null, null);
+        }
+    }
+
+    private String nodeIn(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbc.queryForObject("SELECT name FROM node", String.class));
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        var pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+}
@@ -0,0 +1,88 @@
+package io.app.expirytracker.infrastructure.security;
+
+import io.app.expirytracker.domain.model.Role;
+import io.app.expirytracker.domain.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "una-clave-de-pruebas-de-al-menos-32-bytes";
+    private static final Instant NOW = Instant.parse("2026-03-01T10:00:00Z");
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final User user = new User(UUID.randomUUID(), "maria", "maria@example.com", "hash");
+
+    private JwtService serviceAt(Instant instant) {
+        return new JwtService(jsonMapper, SECRET, Duration.ofHours(1), 100, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    @DisplayName("Debería autenticar un token emitido y devolver el usuario como principal")
+    void shouldAuthenticateIssuedToken() {
+        // Arrange
+        var jwtService = serviceAt(NOW);
+        var token = jwtService.issue(user);
+
+        // Act
+        var authentication = jwtService.authenticate(token.value());
+
+        // Assert
+        assertThat(token.expiresAt()).isEqualTo(NOW.plus(Duration.ofHours(1)));
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("maria");
+        assertThat(authentication.get().isAuthenticated()).isTrue();
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_STAFF", "STORE_default");
+        // El segundo acceso sale de la caché con la misma instancia
+        assertThat(jwtService.authenticate(token.value()).get()).isSameAs(authentication.get());
+    }
+
+    @Test
+    @DisplayName("Debería traducir el rol y las tiendas del token a ROLE_<rol> y STORE_<tienda>")
+    void shouldMapRoleAndStoreClaimsToAuthorities() {
+        // Arrange
+        var jwtService = serviceAt(NOW);
+        var manager = new User(UUID.randomUUID(), "jefe", "jefe@example.com", "hash", Role.MANAGER,
+                Set.of("sucursal-2", "central"));
+
+        // Act
+        var authentication = jwtService.authenticate(jwtService.issue(manager).value());
+
+        // Assert
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_MANAGER", "STORE_central", "STORE_sucursal-2");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar tokens alterados, firmados con otra clave o vencidos")
+    void shouldRejectTamperedForeignOrExpiredTokens() {
+        // Arrange
+        var jwtService = serviceAt(NOW);
+        String token = jwtService.issue(user).value();
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1].substring(0, parts[1].length() - 2) + "xx." + parts[2];
+        String unsigned = parts[0] + "." + parts[1] + ".";
+        String foreign = new JwtService(jsonMapper, SECRET + "-otra", Duration.ofHours(1), 100,
+                Clock.fixed(NOW, ZoneOffset.UTC)).issue(user).value();
+
+        // Act & Assert
+        assertThat(jwtService.authenticate(tampered)).isNotPresent();
+        assertThat(jwtService.authenticate(unsigned)).isNotPresent();
+        assertThat(jwtService.authenticate(foreign)).isNotPresent();
+        assertThat(jwtService.authenticate("no-es-un-jwt")).isNotPresent();
+        assertThat(serviceAt(NOW.plus(Duration.ofHours(2))).authenticate(token)).isNotPresent();
+    }
+}
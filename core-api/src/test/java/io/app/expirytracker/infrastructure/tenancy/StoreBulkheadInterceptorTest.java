@@ -0,0 +1,58 @@
+package io.app.expirytracker.infrastructure.tenancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.app.expirytracker.application.ports.out.StoreDirectoryPort;
+import io.app.expirytracker.application.tenancy.StoreContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class StoreBulkheadInterceptorTest {
+
+    private final StoreDirectoryPort storeDirectory = mock(StoreDirectoryPort.class);
+    private final StoreBulkheadInterceptor interceptor = new StoreBulkheadInterceptor(1, Duration.ZERO,
+            new SimpleMeterRegistry().counter("rejected"), storeDirectory);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        StoreContext.clear();
+    }
+
+    @Test
+    @DisplayName("Un identificador desconocido debería rechazarse sin tocar el cupo de las tiendas reales")
+    void preHandle_shouldRejectUnknownStores_andKeepPermitsOfKnownOnes() throws Exception {
+        // Arrange
+        when(storeDirectory.exists("central")).thenReturn(true);
+        var inFlight = new MockHttpServletRequest();
+        StoreContext.set("central");
+        interceptor.preHandle(inFlight, response, null);
+
+        // Act: una ráfaga de identificadores inventados mientras "central" tiene su cupo ocupado
+        for (int i = 0; i < 1_000; i++) {
+            StoreContext.set("inventada-" + i);
+            assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, null))
+                    .isInstanceOf(NoSuchElementException.class);
+        }
+
+        // Assert: el semáforo de "central" sigue siendo el mismo, con su cupo agotado
+        StoreContext.set("central");
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, null))
+                .isInstanceOf(RejectedExecutionException.class);
+        interceptor.afterCompletion(inFlight, response, null, null);
+        assertThat(interceptor.preHandle(new MockHttpServletRequest(), response, null)).isTrue();
+    }
+}
@@ -0,0 +1,68 @@
+package io.app.expirytracker.infrastructure.tenancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.app.expirytracker.application.tenancy.StoreContext;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class StoreContextInterceptorTest {
+
+    private final StoreContextInterceptor interceptor = new StoreContextInterceptor();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        StoreContext.clear();
+    }
+
+    @Test
+    @DisplayName("Debería fijar la tienda de la cabecera si figura en el token del usuario")
+    void preHandle_shouldSetStore_whenTokenAllowsIt() {
+        // Arrange
+        authenticateWithStores("central", "sucursal-2");
+        var request = new MockHttpServletRequest();
+        request.addHeader(StoreContextInterceptor.STORE_HEADER, "sucursal-2");
+
+        // Act
+        boolean proceed = interceptor.preHandle(request, response, null);
+
+        // Assert
+        assertThat(proceed).isTrue();
+        assertThat(StoreContext.current()).isEqualTo("sucursal-2");
+    }
+
+    @Test
+    @DisplayName("Debería rechazar con 403 una tienda que no figura en el token, también la por defecto")
+    void preHandle_shouldDenyStore_whenTokenDoesNotListIt() {
+        // Arrange
+        authenticateWithStores("central");
+        var otherStore = new MockHttpServletRequest();
+        otherStore.addHeader(StoreContextInterceptor.STORE_HEADER, "sucursal-2");
+
+        // Act & Assert
+        assertThatThrownBy(() -> interceptor.preHandle(otherStore, response, null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThatThrownBy(() -> interceptor.preHandle(new MockHttpServletRequest(), response, null))
+                .isInstanceOf(AccessDeniedException.class);
+        assertThat(StoreContext.current()).isEqualTo(StoreContext.DEFAULT_STORE);
+    }
+
+    private static void authenticateWithStores(String... stores) {
+        var authorities = Arrays.stream(stores).map(StoreAccess::authority).toList();
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated("ana", null, List.copyOf(authorities)));
+    }
+}
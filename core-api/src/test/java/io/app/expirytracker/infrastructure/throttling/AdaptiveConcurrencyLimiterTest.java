@@ -0,0 +1,56 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    @DisplayName("Debería rechazar las peticiones que superan el límite vigente")
+    void shouldRejectBeyondLimit() {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 0.2, 1.5);
+
+        // Act & Assert
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release(5 * MILLIS);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Debería crecer con latencia estable y reducirse cuando la latencia se dispara")
+    void shouldGrowWithStableLatencyAndShrinkUnderQueueing() {
+        // Arrange
+        var limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 0.5, 1.5);
+
+        // Act: carga saturando el límite con latencia estable
+        saturate(limiter, 50, 5 * MILLIS);
+        int grown = limiter.limit();
+
+        // Las peticiones empiezan a hacer cola (latencia x10)
+        saturate(limiter, 1, 50 * MILLIS);
+        int shrunk = limiter.limit();
+
+        // Assert
+        assertThat(grown).isGreaterThan(10);
+        assertThat(shrunk).isLessThan(grown);
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            int acquired = 0;
+            while (limiter.tryAcquire()) {
+                acquired++;
+            }
+            for (int i = 0; i < acquired; i++) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+}
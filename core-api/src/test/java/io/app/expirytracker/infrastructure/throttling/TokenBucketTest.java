@@ -0,0 +1,45 @@
+package io.app.expirytracker.infrastructure.throttling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Debería admitir la ráfaga completa, rechazar la siguiente e indicar la espera")
+    void shouldAllowBurstThenRejectWithWaitTime() {
+        // Arrange: 10 peticiones/s con ráfaga de 5
+        long now = 0;
+        var bucket = new TokenBucket(10, 5, now);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertThat(bucket.tryAcquire(now)).isZero();
+        }
+        long wait = bucket.tryAcquire(now);
+        assertThat(wait).isEqualTo(SECOND / 10);
+    }
+
+    @Test
+    @DisplayName("Debería recargar tokens a la tasa configurada sin superar la ráfaga")
+    void shouldRefillAtConfiguredRate() {
+        // Arrange
+        var bucket = new TokenBucket(10, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        // Act & Assert: a los 100 ms hay exactamente un token nuevo
+        assertThat(bucket.tryAcquire(SECOND / 10)).isZero();
+        assertThat(bucket.tryAcquire(SECOND / 10)).isPositive();
+
+        // Tras una pausa larga solo se recupera la ráfaga, no más
+        long later = 10 * SECOND;
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isZero();
+        assertThat(bucket.tryAcquire(later)).isPositive();
+    }
+}